@@ -0,0 +1,52 @@
+package io.github.codenilson.gsapi_core.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+/**
+ * Generates the sheet contents used by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a block of rows alternating string and numeric columns, the first
+     * row being the header.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @return The generated values.
+     */
+    static List<List<Object>> values(int rows, int columns) {
+        List<List<Object>> values = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            List<Object> cells = new ArrayList<>(columns);
+            for (int column = 0; column < columns; column++) {
+                cells.add(column % 2 == 0 ? "cell-" + row + "-" + column : (Object) (row * columns + column));
+            }
+            values.add(cells);
+        }
+        return values;
+    }
+
+    /**
+     * Wraps generated rows as {@link DataValue}s, as callers of
+     * {@code GsAPI.addData} do.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @return The generated rows.
+     */
+    static List<DataValue> dataValues(int rows, int columns) {
+        List<List<Object>> values = values(rows, columns);
+        List<DataValue> result = new ArrayList<>(rows);
+        for (int index = 0; index < values.size(); index++) {
+            result.add(new DataValue(values.get(index), index));
+        }
+        return result;
+    }
+}
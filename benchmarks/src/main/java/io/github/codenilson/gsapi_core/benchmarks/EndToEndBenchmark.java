@@ -0,0 +1,86 @@
+package io.github.codenilson.gsapi_core.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.codenilson.gsapi_core.GsAPI;
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+/**
+ * Measures complete calls, including HTTP and JSON, against a
+ * {@link FakeSheetsServer} with configurable latency and payload size. Run
+ * with {@code -prof gc} to see the allocation rate per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    @Param({ "0", "20" })
+    public long latencyMillis;
+
+    @Param({ "100", "5000" })
+    public int rows;
+
+    @Param({ "10" })
+    public int columns;
+
+    private FakeSheetsServer server;
+    private GsAPI api;
+    private List<DataValue> payload;
+    private final SheetRequest request = new SheetRequest("bench", "Sheet1!A1:J");
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new FakeSheetsServer(latencyMillis, rows, columns);
+        api = new GsAPI(new GoogleSheetsClient(server.newSheetsService()));
+        payload = BenchmarkData.dataValues(rows, columns);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Optional<List<DataValue>> retrieveData() {
+        return api.retrieveData(request);
+    }
+
+    @Benchmark
+    public int forEachRow(Blackhole blackhole) {
+        return api.forEachRow(request, blackhole::consume);
+    }
+
+    @Benchmark
+    public Optional<ColumnarSheet> retrieveColumnar() {
+        return api.retrieveColumnar(request);
+    }
+
+    @Benchmark
+    public void addData() {
+        api.addData(request, payload);
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.codenilson.gsapi_core.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the Google Sheets REST endpoint.
+ * <p>
+ * Every {@code values.get} answers with the same generated block of
+ * {@code rows} x {@code columns} cells, {@code values.batchGet} answers with
+ * that block once per requested range, and writes are acknowledged with an
+ * empty object. Each response is delayed by a fixed latency to model the
+ * network round trip.
+ */
+public class FakeSheetsServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final byte[] valuesResponse;
+    private final String valuesJson;
+
+    /**
+     * Starts a server on an ephemeral local port.
+     *
+     * @param latencyMillis The delay added to every response.
+     * @param rows          The number of rows returned by reads.
+     * @param columns       The number of columns returned by reads.
+     * @throws IOException If the server cannot be started.
+     */
+    public FakeSheetsServer(long latencyMillis, int rows, int columns) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.valuesJson = valuesJson(rows, columns);
+        this.valuesResponse = valuesJson.getBytes(StandardCharsets.UTF_8);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-sheets-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * Gets the root URL to configure on a {@link Sheets.Builder}.
+     *
+     * @return The root URL, ending with a slash.
+     */
+    public String getRootUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Creates an unauthenticated Sheets service pointed at this server.
+     *
+     * @return The Sheets service.
+     */
+    public Sheets newSheetsService() {
+        return new Sheets.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), null)
+                .setRootUrl(getRootUrl())
+                .setApplicationName("gsapi-benchmarks")
+                .build();
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        byte[] response;
+        if ("GET".equals(exchange.getRequestMethod()) && path.endsWith("values:batchGet")) {
+            response = batchGetResponse(exchange.getRequestURI().getRawQuery());
+        } else if ("GET".equals(exchange.getRequestMethod())) {
+            response = valuesResponse;
+        } else {
+            response = "{}".getBytes(StandardCharsets.UTF_8);
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private byte[] batchGetResponse(String query) {
+        int ranges = 0;
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("ranges=")) {
+                    ranges++;
+                }
+            }
+        }
+        StringBuilder json = new StringBuilder("{\"spreadsheetId\":\"bench\",\"valueRanges\":[");
+        for (int i = 0; i < ranges; i++) {
+            json.append(i == 0 ? "" : ",").append(valuesJson);
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String valuesJson(int rows, int columns) {
+        StringBuilder json = new StringBuilder("{\"range\":\"Sheet1!A1:")
+                .append((char) ('A' + Math.min(columns, 26) - 1)).append(rows)
+                .append("\",\"majorDimension\":\"ROWS\",\"values\":[");
+        for (int row = 0; row < rows; row++) {
+            json.append(row == 0 ? "[" : ",[");
+            for (int column = 0; column < columns; column++) {
+                json.append(column == 0 ? "" : ",");
+                if (column % 2 == 0) {
+                    json.append("\"cell-").append(row).append('-').append(column).append('"');
+                } else {
+                    json.append(row * columns + column);
+                }
+            }
+            json.append(']');
+        }
+        return json.append("]}").toString();
+    }
+}
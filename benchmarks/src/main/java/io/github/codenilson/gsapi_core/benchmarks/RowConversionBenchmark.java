@@ -0,0 +1,74 @@
+package io.github.codenilson.gsapi_core.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.codenilson.gsapi_core.GsAPI;
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+/**
+ * Measures the library-side cost of {@code GsAPI.retrieveData} and
+ * {@code GsAPI.addData}, with a client that returns pre-built values and
+ * discards writes, so no I/O is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowConversionBenchmark {
+
+    @Param({ "100", "10000" })
+    public int rows;
+
+    @Param({ "10" })
+    public int columns;
+
+    private GsAPI api;
+    private List<DataValue> payload;
+    private final SheetRequest request = new SheetRequest("bench", "Sheet1!A1:J");
+
+    @Setup
+    public void setUp() {
+        List<List<Object>> values = BenchmarkData.values(rows, columns);
+        api = new GsAPI(new GoogleSheetsClient(null) {
+            @Override
+            public List<List<Object>> fetchValues(SheetRequest request) {
+                return values;
+            }
+
+            @Override
+            public void appendValues(SheetRequest request, List<List<Object>> values) {
+            }
+        });
+        payload = BenchmarkData.dataValues(rows, columns);
+    }
+
+    @Benchmark
+    public Optional<List<DataValue>> retrieveData() {
+        return api.retrieveData(request);
+    }
+
+    @Benchmark
+    public void addData(Blackhole blackhole) {
+        api.addData(request, payload);
+        blackhole.consume(payload);
+    }
+}
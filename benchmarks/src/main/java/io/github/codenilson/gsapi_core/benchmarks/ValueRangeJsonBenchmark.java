@@ -0,0 +1,59 @@
+package io.github.codenilson.gsapi_core.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+/**
+ * Measures JSON serialization and parsing of {@link ValueRange}, the payload
+ * of every read and write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueRangeJsonBenchmark {
+
+    @Param({ "100", "10000" })
+    public int rows;
+
+    @Param({ "10" })
+    public int columns;
+
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+    private ValueRange valueRange;
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        valueRange = new ValueRange().setRange("Sheet1!A1:J").setValues(BenchmarkData.values(rows, columns));
+        json = jsonFactory.toString(valueRange);
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return jsonFactory.toString(valueRange);
+    }
+
+    @Benchmark
+    public ValueRange parse() throws IOException {
+        return jsonFactory.fromString(json, ValueRange.class);
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.codenilson.gsapi_core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+/**
+ * Non-blocking variant of {@link GsAPI} whose operations return
+ * {@link CompletableFuture}s.
+ * <p>
+ * Calls are executed on a configurable executor. When none is supplied, a
+ * virtual-thread-per-task executor is used on Java 21 and later, and a cached
+ * pool of daemon threads otherwise. The number of calls in flight is bounded;
+ * calls above the limit are queued without holding a thread until a slot is
+ * released.
+ */
+public class AsyncGsAPI implements AutoCloseable {
+
+    /**
+     * Default maximum number of calls executing at the same time.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    private final GsAPI api;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<PendingCall<?>> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs a new AsyncGsAPI with the default executor and in-flight limit.
+     *
+     * @param api The blocking API used to perform the calls.
+     */
+    public AsyncGsAPI(GsAPI api) {
+        this(api, defaultExecutor(), true, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Constructs a new AsyncGsAPI running on the given executor. The executor is
+     * not shut down by {@link #close()}.
+     *
+     * @param api         The blocking API used to perform the calls.
+     * @param executor    The executor the calls are run on.
+     * @param maxInFlight The maximum number of calls executing at the same time.
+     * @throws IllegalArgumentException If {@code maxInFlight} is not positive.
+     */
+    public AsyncGsAPI(GsAPI api, Executor executor, int maxInFlight) {
+        this(api, executor, false, maxInFlight);
+    }
+
+    private AsyncGsAPI(GsAPI api, Executor executor, boolean ownsExecutor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.api = api;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Asynchronously retrieves data from the specified range.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @return A future completed with the result of
+     *         {@link GsAPI#retrieveData(SheetRequest)}, or completed
+     *         exceptionally with a {@link GSAPIError}.
+     */
+    public CompletableFuture<Optional<List<DataValue>>> retrieveData(SheetRequest request) {
+        return submit(() -> api.retrieveData(request));
+    }
+
+    /**
+     * Asynchronously adds data to the specified range.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @param values  The list of {@link DataValue} objects to be added.
+     * @return A future completed when the data has been appended, or completed
+     *         exceptionally with a {@link GSAPIError}.
+     */
+    public CompletableFuture<Void> addData(SheetRequest request, List<DataValue> values) {
+        return submit(() -> {
+            api.addData(request, values);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronously modifies data in the specified range.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @param value   The {@link DataValue} object containing the new data.
+     * @return A future completed when the data has been updated, or completed
+     *         exceptionally with a {@link GSAPIError}.
+     */
+    public CompletableFuture<Void> modifyData(SheetRequest request, DataValue value) {
+        return submit(() -> {
+            api.modifyData(request, value);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronously clears the specified range.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @return A future completed when the range has been cleared, or completed
+     *         exceptionally with a {@link GSAPIError}.
+     */
+    public CompletableFuture<Void> resetRange(SheetRequest request) {
+        return submit(() -> {
+            api.resetRange(request);
+            return null;
+        });
+    }
+
+    /**
+     * Gets the number of calls currently executing.
+     *
+     * @return The number of calls in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Shuts down the executor if it was created by this instance. Calls already
+     * submitted are allowed to complete.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor && executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        PendingCall<T> pending = new PendingCall<>(call);
+        waiting.add(pending);
+        dispatch();
+        return pending.future;
+    }
+
+    private void dispatch() {
+        while (!waiting.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            PendingCall<?> pending = waiting.poll();
+            if (pending == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            try {
+                executor.execute(pending);
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                pending.future.completeExceptionally(
+                        new GSAPIError("The executor rejected an asynchronous Google Sheets call.", e));
+            }
+        }
+    }
+
+    /**
+     * Creates the default executor: virtual threads when the running JVM
+     * supports them, otherwise a cached pool of daemon threads.
+     *
+     * @return The default executor.
+     */
+    static ExecutorService defaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "gsapi-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private class PendingCall<T> implements Runnable {
+        private final Supplier<T> call;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private PendingCall(Supplier<T> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            T result = null;
+            Throwable error = null;
+            try {
+                result = call.get();
+            } catch (Throwable e) {
+                error = e;
+            }
+            // Release the slot before completing, so that callers observing the
+            // future never see it counted as in flight.
+            inFlight.decrementAndGet();
+            dispatch();
+            if (error == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+}
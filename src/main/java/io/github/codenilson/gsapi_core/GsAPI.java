@@ -4,10 +4,25 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
 
 import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
 import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.mapping.RowMapper;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
 import io.github.codenilson.gsapi_core.models.DataValue;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+import io.github.codenilson.gsapi_core.query.SheetQuery;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+import io.github.codenilson.gsapi_core.stream.WindowedRowIterator;
+import io.github.codenilson.gsapi_core.sync.RangeDiff;
+import io.github.codenilson.gsapi_core.table.KeyedTable;
 
 /**
  * Main class for interacting with the Google Sheets API.
@@ -44,17 +59,220 @@ public class GsAPI {
                 return Optional.empty();
             }
 
-            List<DataValue> result = new ArrayList<>();
-            for (int index = 1; index < values.size(); index++) {
-                result.add(new DataValue(values.get(index), index));
+            return Optional.of(toDataValues(values));
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while retrieving the sheet data for range: " + request.getRange(),
+                    e);
+        }
+    }
+
+    /**
+     * Retrieves data from the specified range as a typed, column-oriented
+     * {@link ColumnarSheet}. It holds the same rows as
+     * {@link #retrieveData(SheetRequest)} in a fraction of the memory, and its
+     * numeric columns can be scanned without boxing. The response is decoded
+     * straight into the columns, without building the intermediate rows.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @return An Optional containing the sheet, or an empty Optional if no data
+     *         is found.
+     * @throws GSAPIError If an error occurs while retrieving the data.
+     * @see ColumnarSheet
+     */
+    public Optional<ColumnarSheet> retrieveColumnar(SheetRequest request) {
+        try {
+            ColumnarSheet.Builder builder = new ColumnarSheet.Builder();
+            int rows = client.streamValues(request, (index, row) -> {
+                if (index == 0) {
+                    builder.setHeaders(row);
+                } else {
+                    builder.addRow(row);
+                }
+            });
+            if (rows == 0) {
+                return Optional.empty();
             }
-            return Optional.of(result);
+
+            return Optional.of(builder.build());
         } catch (IOException e) {
             throw new GSAPIError("An error occurred while retrieving the sheet data for range: " + request.getRange(),
                     e);
         }
     }
 
+    /**
+     * Reads the specified range and hands each row to {@code action} as soon as
+     * it is decoded from the response, without holding the whole range in
+     * memory. The rows are the ones {@link #retrieveData(SheetRequest)} would
+     * return, header excluded.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @param action  Receives each row, in order.
+     * @return The number of rows read, header excluded.
+     * @throws GSAPIError If an error occurs while retrieving the data.
+     * @see GoogleSheetsClient#streamValues(SheetRequest, RowConsumer)
+     */
+    public int forEachRow(SheetRequest request, Consumer<DataValue> action) {
+        try {
+            int rows = client.streamValues(request, (index, row) -> {
+                if (index > 0) {
+                    action.accept(new DataValue(row, index));
+                }
+            });
+            return Math.max(rows - 1, 0);
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while retrieving the sheet data for range: " + request.getRange(),
+                    e);
+        }
+    }
+
+    /**
+     * Retrieves the rows of the specified range as objects of the given type.
+     * The first row is the header; it binds the columns of the type by name.
+     * The response is decoded as it is read, without building the rows.
+     *
+     * @param <T>     The type rows are mapped to.
+     * @param request The request containing the spreadsheet ID and range.
+     * @param type    The record or class rows are mapped to.
+     * @return An Optional containing one object per row below the header, or an
+     *         empty Optional if there is no such row.
+     * @throws GSAPIError               If an error occurs while retrieving the
+     *                                  data.
+     * @throws IllegalArgumentException If the type cannot be mapped or a cell
+     *                                  cannot be converted.
+     * @see RowMapper
+     */
+    public <T> Optional<List<T>> retrieveObjects(SheetRequest request, Class<T> type) {
+        List<T> objects = new ArrayList<>();
+        forEachObject(request, type, objects::add);
+        return objects.isEmpty() ? Optional.empty() : Optional.of(objects);
+    }
+
+    /**
+     * Streams the rows of the specified range, mapping each row below the
+     * header to an object of the given type and passing it to {@code action}.
+     *
+     * @param <T>     The type rows are mapped to.
+     * @param request The request containing the spreadsheet ID and range.
+     * @param type    The record or class rows are mapped to.
+     * @param action  Receives each object, in row order.
+     * @return The number of objects passed to {@code action}.
+     * @throws GSAPIError               If an error occurs while retrieving the
+     *                                  data.
+     * @throws IllegalArgumentException If the type cannot be mapped or a cell
+     *                                  cannot be converted.
+     * @see RowMapper#decoding(Consumer)
+     */
+    public <T> int forEachObject(SheetRequest request, Class<T> type, Consumer<? super T> action) {
+        RowConsumer decoding = RowMapper.of(type).decoding(action);
+        try {
+            return Math.max(client.streamValues(request, decoding) - 1, 0);
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while retrieving the sheet data for range: " + request.getRange(),
+                    e);
+        }
+    }
+
+    /**
+     * Runs a query over the specified range, whose first row is the header.
+     * Only the columns and rows the query reads are fetched.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @param query   The query.
+     * @return The result of the query.
+     * @throws GSAPIError               If an error occurs while retrieving the
+     *                                  data.
+     * @throws IllegalArgumentException If a column is missing or has the wrong
+     *                                  type.
+     * @see SheetQuery#execute(GoogleSheetsClient, SheetRequest)
+     */
+    public ColumnarSheet query(SheetRequest request, SheetQuery query) {
+        try {
+            return query.execute(client, request);
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while querying the sheet data for range: " + request.getRange(),
+                    e);
+        }
+    }
+
+    /**
+     * Opens the specified range as a table keyed by one of its columns, to read
+     * and write single records without scanning the range.
+     *
+     * @param request   The request containing the spreadsheet ID and range. The
+     *                  first row of the range is the header.
+     * @param keyColumn The header of the key column.
+     * @return The keyed table; its index is loaded on first use.
+     * @throws IllegalArgumentException If the range is not in A1 notation.
+     * @see KeyedTable
+     */
+    public KeyedTable keyedTable(SheetRequest request, String keyColumn) {
+        return new KeyedTable(client, request, keyColumn);
+    }
+
+    /**
+     * Retrieves data from several ranges of the same spreadsheet using as few
+     * requests as possible.
+     *
+     * @param requests The requests containing the spreadsheet ID and ranges.
+     *                 Every request must target the same spreadsheet.
+     * @return One result per request, in the same order, each as
+     *         {@link #retrieveData(SheetRequest)} would have returned it.
+     * @throws IllegalArgumentException If the requests target different
+     *                                  spreadsheets.
+     * @throws GSAPIError               If an error occurs while retrieving the
+     *                                  data.
+     * @see GoogleSheetsClient#fetchValuesBatch(String, List)
+     */
+    public List<Optional<List<DataValue>>> retrieveData(List<SheetRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String spreadsheetId = requests.get(0).getSpreadsheetId();
+        List<String> ranges = new ArrayList<>(requests.size());
+        for (SheetRequest request : requests) {
+            if (!spreadsheetId.equals(request.getSpreadsheetId())) {
+                throw new IllegalArgumentException("All requests must target the same spreadsheet: "
+                        + spreadsheetId + " and " + request.getSpreadsheetId());
+            }
+            ranges.add(request.getRange());
+        }
+
+        try {
+            List<List<List<Object>>> batch = client.fetchValuesBatch(spreadsheetId, ranges);
+            List<Optional<List<DataValue>>> result = new ArrayList<>(batch.size());
+            for (List<List<Object>> values : batch) {
+                result.add(values == null || values.isEmpty() ? Optional.empty() : Optional.of(toDataValues(values)));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while retrieving the sheet data for ranges: " + ranges, e);
+        }
+    }
+
+    /**
+     * Lazily retrieves data from the specified range, reading it in windows of
+     * {@code windowRows} rows. The next window is fetched while the current one
+     * is consumed, so memory use is bounded by the window size rather than the
+     * size of the sheet. The stream yields the same rows as
+     * {@link #retrieveData(SheetRequest)} and should be closed if it is not
+     * fully consumed.
+     *
+     * @param request    The request containing the spreadsheet ID and range.
+     *                   The range must be in A1 notation, e.g.
+     *                   {@code Sheet1!A1:Z}.
+     * @param windowRows The number of rows fetched per request.
+     * @return A lazy stream of {@link DataValue} objects.
+     * @throws GSAPIError If an error occurs while retrieving a window.
+     * @see WindowedRowIterator
+     */
+    public Stream<DataValue> streamData(SheetRequest request, int windowRows) {
+        WindowedRowIterator iterator = new WindowedRowIterator(client, request, windowRows);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
     /**
      * Adds data to the specified range in the Google Sheets.
      *
@@ -77,6 +295,29 @@ public class GsAPI {
         }
     }
 
+    /**
+     * Adds objects to the specified range in the Google Sheets, one row per
+     * object, with the columns laid out as in {@link RowMapper#headerRow()}.
+     *
+     * @param <T>     The type of the objects.
+     * @param request The request containing the spreadsheet ID and range.
+     * @param type    The record or class of the objects.
+     * @param values  The objects to be added.
+     * @throws GSAPIError               If an error occurs while appending the
+     *                                  data.
+     * @throws IllegalArgumentException If the type cannot be mapped.
+     * @see RowMapper#encode(Object)
+     */
+    public <T> void addObjects(SheetRequest request, Class<T> type, List<? extends T> values) {
+        List<List<Object>> data = RowMapper.of(type).encodeAll(values, false);
+        try {
+            client.appendValues(request, data);
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while appending the sheet data for range: " + request.getRange(),
+                    e);
+        }
+    }
+
     /**
      * Modifies data in the specified range in the Google Sheets.
      *
@@ -96,6 +337,49 @@ public class GsAPI {
         }
     }
 
+    /**
+     * Makes the specified range hold the given rows, writing only the cells that
+     * differ from its current contents. The current contents are read first
+     * with {@link GoogleSheetsClient#fetchFormulas(SheetRequest)}, so a formula
+     * is replaced by a literal even when it displays the same value. The
+     * changed cells are grouped into
+     * rectangles and sent in a single {@code values.batchUpdate} call; cells
+     * and trailing rows that must become empty are cleared in the same call.
+     * <p>
+     * The rows are written from the first row of the range, like
+     * {@link #modifyData(SheetRequest, DataValue)} does, so use a range that
+     * starts below the header to keep it.
+     *
+     * @param request The request containing the spreadsheet ID and range. The
+     *                range must be in A1 notation.
+     * @param values  The desired rows, in order.
+     * @return The number of cells written.
+     * @throws IllegalArgumentException If the range is not in A1 notation or
+     *                                  the rows do not fit in it.
+     * @throws GSAPIError               If an error occurs while reading or
+     *                                  writing the data.
+     * @see RangeDiff
+     */
+    public int syncData(SheetRequest request, List<DataValue> values) {
+        SheetRange target = SheetRange.parse(request.getRange());
+        List<List<Object>> desired = new ArrayList<>(values.size());
+        for (DataValue value : values) {
+            desired.add(value.getValues());
+        }
+        try {
+            List<List<Object>> current = client.fetchFormulas(request);
+            List<ValueRange> changes = RangeDiff.diff(target, current == null ? new ArrayList<>() : current,
+                    desired);
+            if (!changes.isEmpty()) {
+                client.batchOverwriteValues(request.getSpreadsheetId(), changes);
+            }
+            return RangeDiff.cellCount(changes);
+        } catch (IOException e) {
+            throw new GSAPIError(
+                    "An error occurred while synchronizing the sheet data for range: " + request.getRange(), e);
+        }
+    }
+
     /**
      * Clears the specified range in the Google Sheets.
      *
@@ -111,4 +395,11 @@ public class GsAPI {
         }
     }
 
+    private static List<DataValue> toDataValues(List<List<Object>> values) {
+        List<DataValue> result = new ArrayList<>(Math.max(values.size() - 1, 0));
+        for (int index = 1; index < values.size(); index++) {
+            result.add(new DataValue(values.get(index), index));
+        }
+        return result;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package io.github.codenilson.gsapi_core;
 
+import java.time.Duration;
+
 /**
  * Represents a request to interact with a specific range in a Google Sheets
  * spreadsheet.
@@ -7,6 +9,7 @@ package io.github.codenilson.gsapi_core;
 public class SheetRequest {
     private String spreadsheetId;
     private String range;
+    private Duration deadline;
 
     /**
      * Constructs a new SheetRequest with the specified spreadsheet ID and range.
@@ -55,16 +58,44 @@ public class SheetRequest {
         this.range = range;
     }
 
+    /**
+     * Gets the time allowed for each HTTP call made for this request.
+     *
+     * @return The deadline, or {@code null} to use the transport's timeouts.
+     */
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the time allowed for each HTTP call made for this request. It bounds
+     * the connect timeout and replaces the read timeout of the call, so a
+     * stalled call fails with a {@link java.net.SocketTimeoutException} instead
+     * of hanging.
+     *
+     * @param deadline The deadline, or {@code null} to use the transport's
+     *                 timeouts.
+     * @throws IllegalArgumentException If the deadline is zero or negative.
+     */
+    public void setDeadline(Duration deadline) {
+        if (deadline != null && (deadline.isZero() || deadline.isNegative())) {
+            throw new IllegalArgumentException("The deadline must be positive: " + deadline);
+        }
+        this.deadline = deadline;
+    }
+
     /**
      * Returns a string representation of the SheetRequest.
      *
-     * @return A string containing the spreadsheet ID and range.
+     * @return A string containing the spreadsheet ID, range and deadline, if
+     *         any.
      */
     @Override
     public String toString() {
         return "SheetRequest{" +
                 "spreadsheetId='" + spreadsheetId + '\'' +
                 ", range='" + range + '\'' +
+                (deadline != null ? ", deadline=" + deadline : "") +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,310 @@
+package io.github.codenilson.gsapi_core.batch;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.DataValue;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * Write-behind buffer that coalesces updates and appends and sends them to the
+ * Google Sheets API in as few requests as possible.
+ * <p>
+ * Updates are grouped per spreadsheet and sent with a single
+ * {@code values.batchUpdate}; a later update of the same range replaces the
+ * earlier one before it is sent, even when spelled differently (e.g.
+ * {@code $A$2:C2}). Appends to the same range are concatenated
+ * into a single {@code values.append}. Pending writes are flushed when the
+ * number of buffered rows reaches the configured limit, when the flush interval
+ * elapses, or when {@link #flush()} or {@link #close()} is called. Within a
+ * flush, updates are sent before appends.
+ * <p>
+ * A failed request does not stop the flush: every row it carried is reported
+ * as a {@link WriteFailure} to the failure listener and in the result of
+ * {@link #flush()}. An exception thrown by a time-triggered flush, such as
+ * one from the failure listener, is logged and does not stop the next ones.
+ */
+public class BatchWriter implements AutoCloseable {
+
+    /**
+     * Default number of buffered rows that triggers a flush.
+     */
+    public static final int DEFAULT_MAX_PENDING_ROWS = 500;
+
+    /**
+     * Default interval between time-triggered flushes.
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Logger LOGGER = Logger.getLogger(BatchWriter.class.getName());
+
+    private final GoogleSheetsClient client;
+    private final int maxPendingRows;
+    private final Consumer<WriteFailure> failureListener;
+    private final ScheduledExecutorService scheduler;
+    private final Object sendLock = new Object();
+
+    private Map<String, Map<String, PendingUpdate>> pendingUpdates = new LinkedHashMap<>();
+    private Map<String, Map<String, PendingAppend>> pendingAppends = new LinkedHashMap<>();
+    private int pendingRows;
+    private boolean closed;
+
+    /**
+     * Constructs a new BatchWriter with the default limits and no failure
+     * listener.
+     *
+     * @param client The Google Sheets client used to send the batched writes.
+     */
+    public BatchWriter(GoogleSheetsClient client) {
+        this(client, DEFAULT_MAX_PENDING_ROWS, DEFAULT_FLUSH_INTERVAL, failure -> {
+        });
+    }
+
+    /**
+     * Constructs a new BatchWriter.
+     *
+     * @param client          The Google Sheets client used to send the batched
+     *                        writes.
+     * @param maxPendingRows  The number of buffered rows that triggers a flush.
+     * @param flushInterval   The interval between time-triggered flushes, or
+     *                        {@code null} to flush only on size, {@link #flush()}
+     *                        and {@link #close()}.
+     * @param failureListener Receives every row that could not be written.
+     * @throws IllegalArgumentException If {@code maxPendingRows} is not positive.
+     */
+    public BatchWriter(GoogleSheetsClient client, int maxPendingRows, Duration flushInterval,
+            Consumer<WriteFailure> failureListener) {
+        if (maxPendingRows <= 0) {
+            throw new IllegalArgumentException("maxPendingRows must be positive: " + maxPendingRows);
+        }
+        this.client = client;
+        this.maxPendingRows = maxPendingRows;
+        this.failureListener = failureListener;
+
+        if (flushInterval != null && !flushInterval.isZero() && !flushInterval.isNegative()) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gsapi-batch-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = flushInterval.toMillis();
+            this.scheduler.scheduleWithFixedDelay(this::scheduledFlush, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Buffers an overwrite of the given range, as {@code GsAPI.modifyData} would
+     * do immediately.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @param value   The {@link DataValue} object containing the new data.
+     * @throws IllegalStateException If the writer has been closed.
+     */
+    public void update(SheetRequest request, DataValue value) {
+        boolean full;
+        synchronized (this) {
+            ensureOpen();
+            Map<String, PendingUpdate> updates = pendingUpdates.computeIfAbsent(request.getSpreadsheetId(),
+                    id -> new LinkedHashMap<>());
+            String key = normalize(request.getRange());
+            // Re-insert so that the latest write to a range keeps its position last.
+            if (updates.remove(key) == null) {
+                pendingRows++;
+            }
+            updates.put(key, new PendingUpdate(request, value));
+            full = pendingRows >= maxPendingRows;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Buffers an append of rows to the given range, as {@code GsAPI.addData}
+     * would do immediately.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @param values  The list of {@link DataValue} objects to be added.
+     * @throws IllegalStateException If the writer has been closed.
+     */
+    public void append(SheetRequest request, List<DataValue> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        boolean full;
+        synchronized (this) {
+            ensureOpen();
+            pendingAppends.computeIfAbsent(request.getSpreadsheetId(), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(normalize(request.getRange()), range -> new PendingAppend(request))
+                    .rows.addAll(values);
+            pendingRows += values.size();
+            full = pendingRows >= maxPendingRows;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Gets the number of rows currently waiting to be written.
+     *
+     * @return The number of pending rows.
+     */
+    public synchronized int getPendingRows() {
+        return pendingRows;
+    }
+
+    /**
+     * Sends every pending write and waits for the requests to complete.
+     *
+     * @return The rows that could not be written, or an empty list if every
+     *         request succeeded.
+     */
+    public List<WriteFailure> flush() {
+        synchronized (sendLock) {
+            Map<String, Map<String, PendingUpdate>> updates;
+            Map<String, Map<String, PendingAppend>> appends;
+            synchronized (this) {
+                if (pendingRows == 0) {
+                    return Collections.emptyList();
+                }
+                updates = pendingUpdates;
+                appends = pendingAppends;
+                pendingUpdates = new LinkedHashMap<>();
+                pendingAppends = new LinkedHashMap<>();
+                pendingRows = 0;
+            }
+
+            List<WriteFailure> failures = new ArrayList<>();
+            for (Map.Entry<String, Map<String, PendingUpdate>> entry : updates.entrySet()) {
+                sendUpdates(entry.getKey(), new ArrayList<>(entry.getValue().values()), failures);
+            }
+            for (Map<String, PendingAppend> byRange : appends.values()) {
+                for (PendingAppend append : byRange.values()) {
+                    sendAppend(append, failures);
+                }
+            }
+            for (WriteFailure failure : failures) {
+                failureListener.accept(failure);
+            }
+            return failures;
+        }
+    }
+
+    /**
+     * Flushes every pending write and stops the background flush. Further calls
+     * to {@link #update} or {@link #append} fail.
+     *
+     * @throws GSAPIError If some rows could not be written.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        List<WriteFailure> failures = flush();
+        if (!failures.isEmpty()) {
+            throw new GSAPIError(failures.size() + " buffered row(s) could not be written while closing the writer.",
+                    failures.get(0).getCause());
+        }
+    }
+
+    /**
+     * Flushes on the schedule, reporting any error instead of throwing it, as
+     * a task that throws is never run again.
+     */
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "The scheduled flush of the batch writer failed", e);
+        }
+    }
+
+    private void sendUpdates(String spreadsheetId, List<PendingUpdate> updates, List<WriteFailure> failures) {
+        for (int from = 0; from < updates.size(); from += maxPendingRows) {
+            List<PendingUpdate> chunk = updates.subList(from, Math.min(updates.size(), from + maxPendingRows));
+            List<ValueRange> data = new ArrayList<>(chunk.size());
+            for (PendingUpdate update : chunk) {
+                List<List<Object>> rows = new ArrayList<>(1);
+                rows.add(update.value.getValues());
+                data.add(new ValueRange().setRange(update.request.getRange()).setValues(rows));
+            }
+            try {
+                client.batchOverwriteValues(spreadsheetId, data);
+            } catch (IOException | RuntimeException e) {
+                for (PendingUpdate update : chunk) {
+                    failures.add(new WriteFailure(WriteFailure.Operation.UPDATE, update.request, update.value, e));
+                }
+            }
+        }
+    }
+
+    private void sendAppend(PendingAppend append, List<WriteFailure> failures) {
+        List<List<Object>> data = new ArrayList<>(append.rows.size());
+        for (DataValue value : append.rows) {
+            data.add(value.getValues());
+        }
+        try {
+            client.appendValues(append.request, data);
+        } catch (IOException | RuntimeException e) {
+            for (DataValue value : append.rows) {
+                failures.add(new WriteFailure(WriteFailure.Operation.APPEND, append.request, value, e));
+            }
+        }
+    }
+
+    private static String normalize(String range) {
+        SheetRange parsed = SheetRange.tryParse(range);
+        return parsed == null ? range : parsed.toA1();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The BatchWriter has been closed.");
+        }
+    }
+
+    private static class PendingUpdate {
+        private final SheetRequest request;
+        private final DataValue value;
+
+        private PendingUpdate(SheetRequest request, DataValue value) {
+            this.request = request;
+            this.value = value;
+        }
+    }
+
+    private static class PendingAppend {
+        private final SheetRequest request;
+        private final List<DataValue> rows = new ArrayList<>();
+
+        private PendingAppend(SheetRequest request) {
+            this.request = request;
+        }
+    }
+}
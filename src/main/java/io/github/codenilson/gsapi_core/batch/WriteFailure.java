@@ -0,0 +1,96 @@
+package io.github.codenilson.gsapi_core.batch;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+/**
+ * Describes a single buffered row that could not be written by a
+ * {@link BatchWriter}.
+ */
+public class WriteFailure {
+
+    /**
+     * The kind of write that failed.
+     */
+    public enum Operation {
+        /**
+         * The row was buffered through {@link BatchWriter#update}.
+         */
+        UPDATE,
+        /**
+         * The row was buffered through {@link BatchWriter#append}.
+         */
+        APPEND
+    }
+
+    private final Operation operation;
+    private final SheetRequest request;
+    private final DataValue value;
+    private final Throwable cause;
+
+    /**
+     * Constructs a new WriteFailure.
+     *
+     * @param operation The kind of write that failed.
+     * @param request   The request the row was buffered for.
+     * @param value     The row that was not written.
+     * @param cause     The error raised while flushing the row.
+     */
+    public WriteFailure(Operation operation, SheetRequest request, DataValue value, Throwable cause) {
+        this.operation = operation;
+        this.request = request;
+        this.value = value;
+        this.cause = cause;
+    }
+
+    /**
+     * Gets the kind of write that failed.
+     *
+     * @return The operation.
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the request the row was buffered for.
+     *
+     * @return The sheet request.
+     */
+    public SheetRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Gets the row that was not written.
+     *
+     * @return The data value.
+     */
+    public DataValue getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the error raised while flushing the row.
+     *
+     * @return The cause of the failure.
+     */
+    public Throwable getCause() {
+        return cause;
+    }
+
+    /**
+     * Returns a string representation of the WriteFailure.
+     *
+     * @return A string containing the operation, request and cause.
+     */
+    @Override
+    public String toString() {
+        return "WriteFailure{" +
+                "operation=" + operation +
+                ", request=" + request +
+                ", value=" + value +
+                ", cause=" + cause +
+                '}';
+    }
+}
@@ -0,0 +1,294 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * Exports every sheet (tab) of a spreadsheet to local files, one per sheet.
+ * <p>
+ * The sheets and their grid sizes are discovered with a single metadata call.
+ * Each grid is then read in windows of {@code windowRows} rows, with up to
+ * {@code parallelism} windows fetched concurrently, and the windows are written
+ * in order as soon as they arrive. Only the windows in flight are held in
+ * memory, whatever the size of the spreadsheet. Files are written through a
+ * buffered {@link java.nio.channels.FileChannel}.
+ * <p>
+ * Rows keep their position: empty rows between data rows are written as empty
+ * records, while trailing empty rows are dropped. In {@link Format#COLUMNAR}
+ * files the first non-empty row of each sheet is the header and every window
+ * is stored as a typed row group, see {@link ColumnarFile}.
+ */
+public class BulkExporter {
+
+    /**
+     * Format of the exported files.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values, see RFC 4180.
+         */
+        CSV(".csv"),
+        /**
+         * Binary columnar file, see {@link ColumnarFile}.
+         */
+        COLUMNAR(ColumnarFile.EXTENSION);
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Gets the file extension of the format.
+         *
+         * @return The extension, starting with a dot.
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Default number of rows per window.
+     */
+    public static final int DEFAULT_WINDOW_ROWS = 5000;
+
+    /**
+     * Default number of windows fetched concurrently.
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final GoogleSheetsClient client;
+    private final int windowRows;
+    private final int parallelism;
+
+    /**
+     * Constructs a new BulkExporter with the default window size and
+     * parallelism.
+     *
+     * @param client The client used to read the sheets.
+     */
+    public BulkExporter(GoogleSheetsClient client) {
+        this(client, DEFAULT_WINDOW_ROWS, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Constructs a new BulkExporter.
+     *
+     * @param client      The client used to read the sheets.
+     * @param windowRows  The number of rows per read request.
+     * @param parallelism The number of windows fetched concurrently.
+     * @throws IllegalArgumentException If a value is not positive.
+     */
+    public BulkExporter(GoogleSheetsClient client, int windowRows, int parallelism) {
+        if (windowRows < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("windowRows and parallelism must be positive.");
+        }
+        this.client = client;
+        this.windowRows = windowRows;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Exports every grid sheet of a spreadsheet into a directory. Each file is
+     * named after its sheet, with characters unsafe in file names replaced.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param directory     The directory the files are written to; it is
+     *                      created if needed.
+     * @param format        The format of the files.
+     * @return A report of the export.
+     * @throws GSAPIError If an error occurs while reading a sheet or writing a
+     *                    file.
+     */
+    public ExportReport exportSpreadsheet(String spreadsheetId, Path directory, Format format) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "gsapi-bulk-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Files.createDirectories(directory);
+            List<Window> windows = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            for (SheetProperties sheet : client.fetchSheets(spreadsheetId)) {
+                GridProperties grid = sheet.getGridProperties();
+                if (grid == null || grid.getRowCount() == null || grid.getColumnCount() == null
+                        || grid.getRowCount() == 0 || grid.getColumnCount() == 0) {
+                    continue;
+                }
+                String name = fileName(sheet.getTitle());
+                if (!names.add(name)) {
+                    name = name + "-" + sheet.getSheetId();
+                    names.add(name);
+                }
+                Path file = directory.resolve(name + format.getExtension());
+                files.add(file);
+                SheetRange whole = new SheetRange(sheet.getTitle(), 1, 1, grid.getRowCount(), grid.getColumnCount());
+                List<SheetRange> parts = whole.splitRows(windowRows);
+                for (int index = 0; index < parts.size(); index++) {
+                    windows.add(new Window(file, parts.get(index), index == parts.size() - 1));
+                }
+            }
+
+            long[] totals = new long[2];
+            ArrayDeque<CompletableFuture<List<List<Object>>>> inFlight = new ArrayDeque<>();
+            int next = 0;
+            SheetWriter writer = null;
+            try {
+                for (Window window : windows) {
+                    while (next < windows.size() && inFlight.size() < parallelism) {
+                        SheetRequest request = new SheetRequest(spreadsheetId, windows.get(next++).range.toA1());
+                        inFlight.add(CompletableFuture.supplyAsync(() -> fetch(request), executor));
+                    }
+                    List<List<Object>> values = inFlight.poll().join();
+                    if (writer == null) {
+                        writer = new SheetWriter(window.file, format);
+                    }
+                    writer.write(values, window.range.getRowCount());
+                    if (window.last) {
+                        totals[0] += writer.rows;
+                        totals[1] += writer.close();
+                        writer = null;
+                    }
+                }
+            } finally {
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+            return new ExportReport(Collections.unmodifiableList(files), totals[0], totals[1], windows.size() + 1,
+                    Duration.ofNanos(System.nanoTime() - start));
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof GSAPIError ? e.getCause().getCause() : e.getCause();
+            throw new GSAPIError("An error occurred while exporting spreadsheet: " + spreadsheetId, cause);
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while exporting spreadsheet: " + spreadsheetId, e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<List<Object>> fetch(SheetRequest request) {
+        try {
+            List<List<Object>> values = client.fetchValues(request);
+            return values == null ? Collections.emptyList() : values;
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while retrieving the sheet data for range: "
+                    + request.getRange(), e);
+        }
+    }
+
+    private static String fileName(String title) {
+        StringBuilder name = new StringBuilder(title.length());
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            name.append(Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.' || c == ' ' ? c : '_');
+        }
+        return name.length() == 0 || name.charAt(0) == '.' ? "_" + name : name.toString();
+    }
+
+    private static final class Window {
+        private final Path file;
+        private final SheetRange range;
+        private final boolean last;
+
+        private Window(Path file, SheetRange range, boolean last) {
+            this.file = file;
+            this.range = range;
+            this.last = last;
+        }
+    }
+
+    /**
+     * Writes the windows of one sheet, in order, deferring empty rows until a
+     * non-empty row follows them.
+     */
+    private static final class SheetWriter {
+        private final ChannelWriter out;
+        private final Format format;
+        private final StringBuilder text = new StringBuilder();
+        private long rows;
+        private long pendingEmptyRows;
+        private boolean headerWritten;
+
+        private SheetWriter(Path file, Format format) throws IOException {
+            this.out = ChannelWriter.create(file);
+            this.format = format;
+        }
+
+        private void write(List<List<Object>> values, int windowRows) throws IOException {
+            ColumnarSheet.Builder group = format == Format.COLUMNAR ? new ColumnarSheet.Builder() : null;
+            for (List<Object> row : values) {
+                if (row.isEmpty()) {
+                    pendingEmptyRows++;
+                    continue;
+                }
+                if (group != null && !headerWritten) {
+                    ColumnarFile.writeHeader(out, row);
+                    headerWritten = true;
+                    pendingEmptyRows = 0;
+                    rows++;
+                    continue;
+                }
+                for (; pendingEmptyRows > 0; pendingEmptyRows--) {
+                    if (group != null) {
+                        group.addRow(Collections.emptyList());
+                    } else {
+                        text.append('\n');
+                    }
+                    rows++;
+                }
+                if (group != null) {
+                    group.addRow(row);
+                } else {
+                    CsvCodec.format(text, row);
+                }
+                rows++;
+            }
+            pendingEmptyRows += windowRows - values.size();
+            if (group != null) {
+                ColumnarFile.writeGroup(out, group.build());
+            } else {
+                out.write(text);
+                text.setLength(0);
+            }
+        }
+
+        private long close() throws IOException {
+            if (format == Format.COLUMNAR) {
+                if (!headerWritten) {
+                    ColumnarFile.writeHeader(out, Collections.emptyList());
+                }
+                ColumnarFile.writeEnd(out);
+            }
+            long bytes = out.getBytesWritten();
+            out.close();
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+import com.google.api.client.json.gson.GsonFactory;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * Imports a local CSV or JSONL file into a sheet without loading it into
+ * memory.
+ * <p>
+ * The file is memory-mapped and scanned once to split it into chunks of at
+ * most {@code maxChunkRows} rows and about {@code maxChunkBytes} bytes, ending
+ * on record boundaries. Since the row count of every chunk is then known, each
+ * chunk gets its own disjoint range below the target cell, and the chunks are
+ * written in parallel with {@code values.update}, at most
+ * {@code parallelism} at a time. Only the chunks being written are decoded, so
+ * memory use depends on the chunk size and parallelism, not on the file.
+ * <p>
+ * When a checkpoint file is given, every written chunk is recorded in it. If
+ * the import fails, running it again with the same file, target and checkpoint
+ * skips the chunks already written. The checkpoint is deleted once the import
+ * completes.
+ * <p>
+ * A JSONL line is either an array of cells or an object whose values are the
+ * cells, in the order of its keys. Empty lines are skipped in both formats.
+ * CSV fields are written as text and interpreted by Sheets as if typed by a
+ * user.
+ */
+public class BulkImporter {
+
+    /**
+     * Format of an imported file.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values, see RFC 4180.
+         */
+        CSV,
+        /**
+         * One JSON array or object per line.
+         */
+        JSONL
+    }
+
+    /**
+     * Default maximum number of rows per chunk.
+     */
+    public static final int DEFAULT_MAX_CHUNK_ROWS = 5000;
+
+    /**
+     * Default approximate maximum size of a chunk in the source file. It keeps
+     * each request under the 2 MB payload recommended for the Sheets API.
+     */
+    public static final long DEFAULT_MAX_CHUNK_BYTES = 1024 * 1024;
+
+    /**
+     * Default number of chunks written concurrently.
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private static final long SCAN_WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private final GoogleSheetsClient client;
+    private final int maxChunkRows;
+    private final long maxChunkBytes;
+    private final int parallelism;
+
+    /**
+     * Constructs a new BulkImporter with the default chunking and parallelism.
+     *
+     * @param client The client used to write the chunks.
+     */
+    public BulkImporter(GoogleSheetsClient client) {
+        this(client, DEFAULT_MAX_CHUNK_ROWS, DEFAULT_MAX_CHUNK_BYTES, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Constructs a new BulkImporter.
+     *
+     * @param client        The client used to write the chunks.
+     * @param maxChunkRows  The maximum number of rows per chunk.
+     * @param maxChunkBytes The approximate maximum size of a chunk in the source
+     *                      file; a single larger record still forms a chunk.
+     * @param parallelism   The number of chunks written concurrently.
+     * @throws IllegalArgumentException If a limit is not positive.
+     */
+    public BulkImporter(GoogleSheetsClient client, int maxChunkRows, long maxChunkBytes, int parallelism) {
+        if (maxChunkRows < 1 || maxChunkBytes < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Chunk limits and parallelism must be positive.");
+        }
+        this.client = client;
+        this.maxChunkRows = maxChunkRows;
+        this.maxChunkBytes = maxChunkBytes;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Imports a file, writing its first record at the top-left cell of the
+     * target range and the following ones below it. The sheet grid is grown
+     * first if it is too small.
+     *
+     * @param file       The file to import.
+     * @param format     The format of the file.
+     * @param target     The spreadsheet and the range to write to, in A1
+     *                   notation. A single cell, e.g. {@code Sheet1!A2}, only
+     *                   sets where the first record goes.
+     * @param checkpoint The checkpoint file used to resume a failed import, or
+     *                   {@code null} to not keep one.
+     * @return A report of the import.
+     * @throws IllegalArgumentException If the target is not in A1 notation or
+     *                                  the file does not fit in it.
+     * @throws IllegalStateException    If the checkpoint belongs to a different
+     *                                  import.
+     * @throws GSAPIError               If reading the file or writing a chunk
+     *                                  fails; the chunks written so far are
+     *                                  kept in the checkpoint.
+     */
+    public ImportReport importFile(Path file, Format format, SheetRequest target, Path checkpoint) {
+        long start = System.nanoTime();
+        SheetRange origin = SheetRange.parse(target.getRange());
+        if (origin.getRowCount() == 1 && origin.getColumnCount() == 1) {
+            origin = new SheetRange(origin.getSheetName(), origin.getStartRow(), origin.getStartColumn(),
+                    SheetRange.UNBOUNDED, SheetRange.UNBOUNDED);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Scan scan = scan(channel, size, format);
+            long rows = scan.rows;
+            if (rows > origin.getRowCount() || scan.columns > origin.getColumnCount()) {
+                throw new IllegalArgumentException("The file (" + rows + " rows, " + scan.columns
+                        + " columns) does not fit in range " + target.getRange());
+            }
+            if (origin.getEndColumn() == SheetRange.UNBOUNDED) {
+                // The API rejects writes outside the grid, which is only grown
+                // to the columns of the file.
+                origin = origin.withColumns(origin.getStartColumn(),
+                        origin.getStartColumn() + Math.max(scan.columns, 1) - 1);
+            }
+
+            String signature = "gsapi-import v1 " + file.toAbsolutePath() + " " + size + " "
+                    + Files.getLastModifiedTime(file).toMillis() + " " + format + " " + maxChunkRows + " "
+                    + maxChunkBytes + " " + target.getSpreadsheetId() + " " + target.getRange();
+            int written;
+            try (ImportCheckpoint progress = ImportCheckpoint.open(checkpoint, signature)) {
+                if (rows > 0) {
+                    client.ensureGridSize(target.getSpreadsheetId(), origin.getSheetName(),
+                            (int) Math.min(origin.getStartRow() + rows - 1, Integer.MAX_VALUE),
+                            origin.getStartColumn() + scan.columns - 1);
+                }
+                written = writeChunks(channel, format, target, origin, scan.chunks, progress);
+                progress.delete();
+            }
+            return new ImportReport(scan.chunks.size(), written, rows, size,
+                    Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while importing " + file + " into range: " + target.getRange(),
+                    e);
+        }
+    }
+
+    private int writeChunks(FileChannel channel, Format format, SheetRequest target, SheetRange origin,
+            List<Chunk> chunks, ImportCheckpoint progress) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "gsapi-bulk-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicInteger written = new AtomicInteger();
+        try {
+            for (Chunk chunk : chunks) {
+                if (progress.isCommitted(chunk.id)) {
+                    continue;
+                }
+                permits.acquire();
+                if (failure.get() != null) {
+                    permits.release();
+                    break;
+                }
+                executor.execute(() -> {
+                    try {
+                        writeChunk(channel, format, target, origin, chunk);
+                        progress.commit(chunk.id);
+                        written.incrementAndGet();
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            permits.acquire(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing.");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Exception error = failure.get();
+        if (error != null) {
+            String message = "Failed after writing " + written.get() + " of " + chunks.size()
+                    + " chunks; run the import again with the same checkpoint to resume.";
+            if (error instanceof IOException) {
+                throw new IOException(message, error);
+            }
+            throw new GSAPIError(message, error);
+        }
+        return written.get();
+    }
+
+    private void writeChunk(FileChannel channel, Format format, SheetRequest target, SheetRange origin, Chunk chunk)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+        CharSequence text = StandardCharsets.UTF_8.decode(buffer);
+        List<List<Object>> values = format == Format.CSV ? CsvCodec.parse(text) : parseJsonLines(text);
+        if (values.size() != chunk.rows) {
+            throw new IOException("Chunk " + chunk.id + " has " + values.size() + " rows, expected " + chunk.rows);
+        }
+        int firstRow = (int) (origin.getStartRow() + chunk.firstRow);
+        SheetRange range = new SheetRange(origin.getSheetName(), firstRow, origin.getStartColumn(),
+                firstRow + chunk.rows - 1, origin.getEndColumn());
+        client.overwriteValues(new SheetRequest(target.getSpreadsheetId(), range.toA1()), values);
+    }
+
+    /**
+     * Splits the file into chunks, reading it through a sliding memory-mapped
+     * window. Every delimiter looked at is ASCII, so scanning bytes is safe for
+     * UTF-8 content.
+     */
+    private Scan scan(FileChannel channel, long size, Format format) throws IOException {
+        Scan scan = new Scan();
+        boolean csv = format == Format.CSV;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean blank = true;
+        int depth = 0;
+        int separators = 0;
+
+        for (long offset = 0; offset < size; offset += SCAN_WINDOW_BYTES) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                    Math.min(SCAN_WINDOW_BYTES, size - offset));
+            int limit = window.limit();
+            for (int i = 0; i < limit; i++) {
+                byte b = window.get(i);
+                if (inString) {
+                    if (csv) {
+                        inString = b != '"';
+                    } else if (escaped) {
+                        escaped = false;
+                    } else if (b == '\\') {
+                        escaped = true;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                    continue;
+                }
+                if (b == '\n') {
+                    scan.endRecord(offset + i + 1, blank ? 0 : separators + 1);
+                    blank = true;
+                    separators = 0;
+                    continue;
+                }
+                if (b == '"') {
+                    inString = true;
+                } else if (csv) {
+                    if (b == ',') {
+                        separators++;
+                    }
+                } else if (b == '[' || b == '{') {
+                    depth++;
+                } else if (b == ']' || b == '}') {
+                    depth--;
+                } else if (b == ',' && depth == 1) {
+                    separators++;
+                }
+                if (b != '\r' && (csv || (b != ' ' && b != '\t'))) {
+                    blank = false;
+                }
+            }
+        }
+        scan.endRecord(size, blank ? 0 : separators + 1);
+        scan.finish(size);
+        return scan;
+    }
+
+    private static List<List<Object>> parseJsonLines(CharSequence text) throws IOException {
+        List<List<Object>> rows = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == '\n') {
+                String line = text.subSequence(lineStart, i).toString().trim();
+                if (!line.isEmpty()) {
+                    rows.add(parseJsonLine(line));
+                }
+                lineStart = i + 1;
+            }
+        }
+        return rows;
+    }
+
+    private static List<Object> parseJsonLine(String line) throws IOException {
+        JsonParser parser = GsonFactory.getDefaultInstance().createJsonParser(line);
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_ARRAY && token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON array or object but found: " + line);
+        }
+        JsonToken end = token == JsonToken.START_ARRAY ? JsonToken.END_ARRAY : JsonToken.END_OBJECT;
+        List<Object> row = new ArrayList<>();
+        while ((token = parser.nextToken()) != end) {
+            if (token == JsonToken.FIELD_NAME) {
+                token = parser.nextToken();
+            }
+            switch (token) {
+                case VALUE_STRING:
+                    row.add(parser.getText());
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    row.add(parser.getDecimalValue());
+                    break;
+                case VALUE_TRUE:
+                    row.add(Boolean.TRUE);
+                    break;
+                case VALUE_FALSE:
+                    row.add(Boolean.FALSE);
+                    break;
+                case VALUE_NULL:
+                    row.add("");
+                    break;
+                default:
+                    throw new IOException("Nested values are not supported: " + line);
+            }
+        }
+        return row;
+    }
+
+    private static final class Chunk {
+        private final int id;
+        private final long start;
+        private final long end;
+        private final long firstRow;
+        private final int rows;
+
+        private Chunk(int id, long start, long end, long firstRow, int rows) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.firstRow = firstRow;
+            this.rows = rows;
+        }
+    }
+
+    private final class Scan {
+        private final List<Chunk> chunks = new ArrayList<>();
+        private long rows;
+        private int columns;
+        private long chunkStart;
+        private long lastRecordEnd;
+        private int chunkRows;
+
+        private void endRecord(long end, int fields) {
+            if (fields == 0) {
+                return;
+            }
+            if (chunkRows > 0 && end - chunkStart > maxChunkBytes) {
+                emit(lastRecordEnd);
+            }
+            columns = Math.max(columns, fields);
+            chunkRows++;
+            lastRecordEnd = end;
+            if (chunkRows == maxChunkRows) {
+                emit(end);
+            }
+        }
+
+        private void finish(long size) {
+            if (chunkRows > 0) {
+                emit(size);
+            }
+        }
+
+        private void emit(long end) {
+            chunks.add(new Chunk(chunks.size(), chunkStart, end, rows, chunkRows));
+            rows += chunkRows;
+            chunkRows = 0;
+            chunkStart = end;
+        }
+    }
+}
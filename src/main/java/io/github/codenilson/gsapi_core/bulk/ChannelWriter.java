@@ -0,0 +1,164 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes text and big-endian binary values to a file through a direct buffer,
+ * so that the file channel is only called once the buffer is full.
+ */
+final class ChannelWriter implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private long bytesWritten;
+
+    private ChannelWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Creates or truncates a file and opens a writer on it.
+     *
+     * @param path The file.
+     * @return The writer.
+     * @throws IOException If the file cannot be opened.
+     */
+    static ChannelWriter create(Path path) throws IOException {
+        return new ChannelWriter(FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Writes text encoded as UTF-8.
+     *
+     * @param text The text.
+     * @throws IOException If the file cannot be written.
+     */
+    void write(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes the low byte of a value.
+     *
+     * @param value The value.
+     * @throws IOException If the file cannot be written.
+     */
+    void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes a 32-bit integer.
+     *
+     * @param value The value.
+     * @throws IOException If the file cannot be written.
+     */
+    void writeInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes a 64-bit integer.
+     *
+     * @param value The value.
+     * @throws IOException If the file cannot be written.
+     */
+    void writeLong(long value) throws IOException {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a double.
+     *
+     * @param value The value.
+     * @throws IOException If the file cannot be written.
+     */
+    void writeDouble(double value) throws IOException {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its bytes.
+     *
+     * @param text The string.
+     * @throws IOException If the file cannot be written.
+     */
+    void writeString(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Gets the number of bytes written so far, including buffered ones.
+     *
+     * @return The number of bytes.
+     */
+    long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    /**
+     * Flushes the buffer and closes the file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
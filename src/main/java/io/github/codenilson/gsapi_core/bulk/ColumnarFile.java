@@ -0,0 +1,239 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import io.github.codenilson.gsapi_core.models.ColumnType;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
+
+/**
+ * Compact binary columnar file written by {@link BulkExporter}.
+ * <p>
+ * The rows are stored in groups, one per fetched window, so the file can be
+ * written with constant memory. Within a group every column is stored with the
+ * type inferred by {@link ColumnarSheet}. All numbers are big-endian:
+ *
+ * <pre>
+ * file    := "GSCF" version:int headerCount:int string* group* 0:int
+ * group   := rowCount:int columnCount:int column*
+ * column  := type:byte nulls:bits values
+ * bits    := longCount:int long*
+ * values  := nothing       (EMPTY)
+ *          | bits          (BOOLEAN)
+ *          | long*rowCount (LONG)
+ *          | double*rowCount (DOUBLE)
+ *          | dictionarySize:int string* int*rowCount (STRING)
+ * string  := byteCount:int utf8Bytes
+ * </pre>
+ */
+public final class ColumnarFile {
+
+    /**
+     * Extension of the exported files.
+     */
+    public static final String EXTENSION = ".gscf";
+
+    private static final byte[] MAGIC = { 'G', 'S', 'C', 'F' };
+    private static final int VERSION = 1;
+
+    private ColumnarFile() {
+    }
+
+    /**
+     * Reads a whole file back into memory.
+     *
+     * @param path The file.
+     * @return The rows of every group, with the header of the file.
+     * @throws IOException If the file cannot be read or is not a columnar file.
+     */
+    public static ColumnarSheet read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(file, 64 * 1024))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readInt() != VERSION) {
+                throw new IOException("Not a columnar sheet file: " + path);
+            }
+            ColumnarSheet.Builder builder = new ColumnarSheet.Builder();
+            int headerCount = in.readInt();
+            List<String> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(readString(in));
+            }
+            builder.setHeaders(headers);
+
+            int rows;
+            while ((rows = in.readInt()) > 0) {
+                int columns = in.readInt();
+                Object[][] cells = new Object[rows][columns];
+                for (int column = 0; column < columns; column++) {
+                    readColumn(in, rows, column, cells);
+                }
+                for (Object[] row : cells) {
+                    builder.addRow(Arrays.asList(row));
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Writes the file header.
+     *
+     * @param out     The writer.
+     * @param headers The column names.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeHeader(ChannelWriter out, List<?> headers) throws IOException {
+        for (byte b : MAGIC) {
+            out.writeByte(b);
+        }
+        out.writeInt(VERSION);
+        out.writeInt(headers.size());
+        for (Object header : headers) {
+            out.writeString(header == null ? "" : header.toString());
+        }
+    }
+
+    /**
+     * Writes a group of rows.
+     *
+     * @param out   The writer.
+     * @param group The rows, without header.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeGroup(ChannelWriter out, ColumnarSheet group) throws IOException {
+        int rows = group.getRowCount();
+        if (rows == 0) {
+            return;
+        }
+        out.writeInt(rows);
+        out.writeInt(group.getColumnCount());
+        for (int column = 0; column < group.getColumnCount(); column++) {
+            ColumnType type = group.getColumnType(column);
+            out.writeByte(type.ordinal());
+            BitSet nulls = new BitSet(rows);
+            for (int row = 0; row < rows; row++) {
+                if (group.isNull(row, column)) {
+                    nulls.set(row);
+                }
+            }
+            writeBits(out, nulls);
+            switch (type) {
+                case BOOLEAN: {
+                    BitSet values = new BitSet(rows);
+                    for (int row = 0; row < rows; row++) {
+                        if (!nulls.get(row) && group.getBoolean(row, column)) {
+                            values.set(row);
+                        }
+                    }
+                    writeBits(out, values);
+                    break;
+                }
+                case LONG:
+                    for (int row = 0; row < rows; row++) {
+                        out.writeLong(group.getLong(row, column));
+                    }
+                    break;
+                case DOUBLE:
+                    for (int row = 0; row < rows; row++) {
+                        out.writeDouble(nulls.get(row) ? 0 : group.getDouble(row, column));
+                    }
+                    break;
+                case STRING: {
+                    List<String> dictionary = group.getDictionary(column);
+                    out.writeInt(dictionary.size());
+                    for (String value : dictionary) {
+                        out.writeString(value);
+                    }
+                    for (int row = 0; row < rows; row++) {
+                        out.writeInt(group.getStringCode(row, column));
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Writes the end marker.
+     *
+     * @param out The writer.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeEnd(ChannelWriter out) throws IOException {
+        out.writeInt(0);
+    }
+
+    private static void writeBits(ChannelWriter out, BitSet bits) throws IOException {
+        long[] words = bits.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    private static void readColumn(DataInputStream in, int rows, int column, Object[][] cells) throws IOException {
+        ColumnType type = ColumnType.values()[in.readByte()];
+        BitSet nulls = readBits(in);
+        switch (type) {
+            case BOOLEAN: {
+                BitSet values = readBits(in);
+                for (int row = 0; row < rows; row++) {
+                    cells[row][column] = nulls.get(row) ? null : values.get(row);
+                }
+                break;
+            }
+            case LONG:
+                for (int row = 0; row < rows; row++) {
+                    long value = in.readLong();
+                    cells[row][column] = nulls.get(row) ? null : value;
+                }
+                break;
+            case DOUBLE:
+                for (int row = 0; row < rows; row++) {
+                    double value = in.readDouble();
+                    cells[row][column] = nulls.get(row) ? null : value;
+                }
+                break;
+            case STRING: {
+                String[] dictionary = new String[in.readInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = readString(in);
+                }
+                for (int row = 0; row < rows; row++) {
+                    int code = in.readInt();
+                    cells[row][column] = code < 0 ? null : dictionary[code];
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static BitSet readBits(DataInputStream in) throws IOException {
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
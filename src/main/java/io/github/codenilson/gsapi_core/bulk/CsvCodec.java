@@ -0,0 +1,98 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes RFC 4180 CSV: comma-separated fields, optionally quoted
+ * with {@code "}, a doubled quote standing for a quote inside a quoted field.
+ * Records end with {@code \n} or {@code \r\n}, and quoted fields may span
+ * several lines.
+ */
+final class CsvCodec {
+
+    private CsvCodec() {
+    }
+
+    /**
+     * Parses CSV records. Empty lines are skipped.
+     *
+     * @param text The CSV text, made of complete records.
+     * @return One list of string fields per record.
+     */
+    static List<List<Object>> parse(CharSequence text) {
+        List<List<Object>> records = new ArrayList<>();
+        List<Object> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean blank = true;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < length && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                blank = false;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                blank = false;
+            } else if (c == '\n') {
+                if (!blank) {
+                    record.add(field.toString());
+                    records.add(record);
+                    record = new ArrayList<>();
+                }
+                field.setLength(0);
+                blank = true;
+            } else if (c != '\r') {
+                field.append(c);
+                blank = false;
+            }
+        }
+        if (!blank) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Appends a record, quoting the fields that contain a comma, a quote or a
+     * line break, followed by {@code \n}.
+     *
+     * @param out The buffer the record is appended to.
+     * @param row The fields of the record; {@code null} is written as an empty
+     *            field.
+     */
+    static void format(StringBuilder out, List<?> row) {
+        for (int column = 0; column < row.size(); column++) {
+            if (column > 0) {
+                out.append(',');
+            }
+            Object value = row.get(column);
+            String text = value == null ? "" : value.toString();
+            boolean quote = false;
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char c = text.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (quote) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(text);
+            }
+        }
+        out.append('\n');
+    }
+}
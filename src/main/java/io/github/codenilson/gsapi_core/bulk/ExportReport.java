@@ -0,0 +1,116 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Summary of a completed {@link BulkExporter} run.
+ */
+public class ExportReport {
+
+    private final List<Path> files;
+    private final long rows;
+    private final long bytes;
+    private final int requests;
+    private final Duration elapsed;
+
+    /**
+     * Constructs a new ExportReport.
+     *
+     * @param files    The files written, one per sheet.
+     * @param rows     The number of rows written, headers included.
+     * @param bytes    The number of bytes written.
+     * @param requests The number of read requests sent.
+     * @param elapsed  The duration of the export.
+     */
+    public ExportReport(List<Path> files, long rows, long bytes, int requests, Duration elapsed) {
+        this.files = files;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.requests = requests;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Gets the files written, one per sheet, in tab order.
+     *
+     * @return The file paths.
+     */
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * Gets the number of rows written, headers included.
+     *
+     * @return The number of rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of bytes written.
+     *
+     * @return The number of bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of read requests sent.
+     *
+     * @return The number of requests.
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    /**
+     * Gets the duration of the export.
+     *
+     * @return The elapsed time.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Gets the throughput of the export.
+     *
+     * @return The number of rows written per second.
+     */
+    public double getRowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : rows / seconds;
+    }
+
+    /**
+     * Gets the throughput of the export.
+     *
+     * @return The number of bytes written per second.
+     */
+    public double getBytesPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : bytes / seconds;
+    }
+
+    /**
+     * Returns a string representation of the ExportReport.
+     *
+     * @return A string containing every figure of the report.
+     */
+    @Override
+    public String toString() {
+        return "ExportReport{" +
+                "files=" + files.size() +
+                ", rows=" + rows +
+                ", bytes=" + bytes +
+                ", requests=" + requests +
+                ", elapsed=" + elapsed +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Records the chunks of an import that were written, so that a failed import
+ * can resume where it stopped.
+ * <p>
+ * The file starts with a signature line identifying the import: the source
+ * file, its size and modification time, the target and the chunking. Each
+ * committed chunk then adds a line with its ID, forced to disk before the
+ * chunk is reported as committed.
+ */
+final class ImportCheckpoint implements AutoCloseable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final BitSet committed = new BitSet();
+
+    private ImportCheckpoint(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a checkpoint, loading the chunks committed by a previous run of the
+     * same import.
+     *
+     * @param path      The checkpoint file, or {@code null} to not keep one.
+     * @param signature Identifies the import.
+     * @return The checkpoint.
+     * @throws IllegalStateException If the file belongs to another import.
+     * @throws IOException           If the file cannot be read or created.
+     */
+    static ImportCheckpoint open(Path path, String signature) throws IOException {
+        if (path == null) {
+            return new ImportCheckpoint(null, null);
+        }
+        ImportCheckpoint checkpoint;
+        if (Files.exists(path)) {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(signature)) {
+                throw new IllegalStateException("The checkpoint " + path + " belongs to a different import.");
+            }
+            checkpoint = new ImportCheckpoint(path, FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND));
+            for (String line : lines.subList(1, lines.size())) {
+                if (!line.isEmpty()) {
+                    checkpoint.committed.set(Integer.parseInt(line.trim()));
+                }
+            }
+        } else {
+            checkpoint = new ImportCheckpoint(path, FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE_NEW));
+            checkpoint.write(signature);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Checks whether a chunk was committed.
+     *
+     * @param chunk The chunk ID.
+     * @return {@code true} if the chunk was written.
+     */
+    synchronized boolean isCommitted(int chunk) {
+        return committed.get(chunk);
+    }
+
+    /**
+     * Records a chunk as written and forces the record to disk.
+     *
+     * @param chunk The chunk ID.
+     * @throws IOException If the record cannot be written.
+     */
+    synchronized void commit(int chunk) throws IOException {
+        committed.set(chunk);
+        write(Integer.toString(chunk));
+    }
+
+    /**
+     * Closes and deletes the checkpoint once the import is complete.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    void delete() throws IOException {
+        close();
+        if (path != null) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Closes the checkpoint file, keeping it for a later run.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    private void write(String line) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+}
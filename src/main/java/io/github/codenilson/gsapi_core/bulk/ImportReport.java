@@ -0,0 +1,104 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import java.time.Duration;
+
+/**
+ * Summary of a completed {@link BulkImporter} run.
+ */
+public class ImportReport {
+
+    private final int chunks;
+    private final int chunksWritten;
+    private final long rows;
+    private final long bytes;
+    private final Duration elapsed;
+
+    /**
+     * Constructs a new ImportReport.
+     *
+     * @param chunks        The number of chunks the file was split into.
+     * @param chunksWritten The number of chunks written by this run; the others
+     *                      were committed by a previous run.
+     * @param rows          The number of rows in the file.
+     * @param bytes         The size of the file in bytes.
+     * @param elapsed       The duration of the run.
+     */
+    public ImportReport(int chunks, int chunksWritten, long rows, long bytes, Duration elapsed) {
+        this.chunks = chunks;
+        this.chunksWritten = chunksWritten;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Gets the number of chunks the file was split into.
+     *
+     * @return The number of chunks.
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Gets the number of chunks written by this run.
+     *
+     * @return The number of chunks written.
+     */
+    public int getChunksWritten() {
+        return chunksWritten;
+    }
+
+    /**
+     * Gets the number of chunks skipped because a previous run had already
+     * committed them.
+     *
+     * @return The number of chunks resumed from the checkpoint.
+     */
+    public int getChunksSkipped() {
+        return chunks - chunksWritten;
+    }
+
+    /**
+     * Gets the number of rows in the file.
+     *
+     * @return The number of rows.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the size of the file.
+     *
+     * @return The number of bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the duration of the run.
+     *
+     * @return The elapsed time.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns a string representation of the ImportReport.
+     *
+     * @return A string containing every figure of the report.
+     */
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "chunks=" + chunks +
+                ", chunksWritten=" + chunksWritten +
+                ", rows=" + rows +
+                ", bytes=" + bytes +
+                ", elapsed=" + elapsed +
+                '}';
+    }
+}
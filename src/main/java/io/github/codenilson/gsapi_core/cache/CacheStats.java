@@ -0,0 +1,116 @@
+package io.github.codenilson.gsapi_core.cache;
+
+/**
+ * Immutable snapshot of the counters of a {@link RangeCache}.
+ */
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final long entries;
+    private final long weightBytes;
+
+    /**
+     * Constructs a new CacheStats snapshot.
+     *
+     * @param hits          The number of lookups served from the cache.
+     * @param misses        The number of lookups that had to be fetched.
+     * @param evictions     The number of entries removed because they expired or
+     *                      the cache exceeded its size bound.
+     * @param invalidations The number of entries removed by writes.
+     * @param entries       The number of entries currently cached.
+     * @param weightBytes   The estimated size of the cached entries, in bytes.
+     */
+    public CacheStats(long hits, long misses, long evictions, long invalidations, long entries, long weightBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.entries = entries;
+        this.weightBytes = weightBytes;
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that had to be fetched.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries removed because they expired or the cache
+     * exceeded its size bound.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of entries removed by writes.
+     *
+     * @return The invalidation count.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Gets the number of entries currently cached.
+     *
+     * @return The entry count.
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the estimated size of the cached entries.
+     *
+     * @return The weight in bytes.
+     */
+    public long getWeightBytes() {
+        return weightBytes;
+    }
+
+    /**
+     * Gets the fraction of lookups served from the cache.
+     *
+     * @return The hit rate, or {@code 0} if no lookup was made.
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns a string representation of the CacheStats.
+     *
+     * @return A string containing every counter.
+     */
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", invalidations=" + invalidations +
+                ", entries=" + entries +
+                ", weightBytes=" + weightBytes +
+                '}';
+    }
+}
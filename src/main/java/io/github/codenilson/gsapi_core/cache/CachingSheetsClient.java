@@ -0,0 +1,178 @@
+package io.github.codenilson.gsapi_core.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+/**
+ * A {@link GoogleSheetsClient} that serves reads from a {@link RangeCache} and
+ * invalidates the cache on every write.
+ * <p>
+ * Wrap the client given to {@code GsAPI} to cache {@code retrieveData}; its
+ * {@code addData}, {@code modifyData} and {@code resetRange} calls then
+ * invalidate the overlapping entries automatically. Appends insert rows, so
+ * they invalidate every range of the sheet at or below the target range.
+ * Overwrites invalidate every cell their values cover, which may extend past
+ * the request range, e.g. a whole row written from its first cell.
+ * Writes invalidate even when they fail, since the state of the range is then
+ * unknown. A read that overlaps a write in another thread is returned but not
+ * cached, as it may hold the values from before the write.
+ */
+public class CachingSheetsClient extends ForwardingGoogleSheetsClient {
+
+    private final RangeCache cache;
+
+    /**
+     * Constructs a new CachingSheetsClient.
+     *
+     * @param delegate The client used on cache misses and for writes.
+     * @param cache    The cache the fetched values are stored in.
+     */
+    public CachingSheetsClient(GoogleSheetsClient delegate, RangeCache cache) {
+        super(delegate);
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the cache used by this client.
+     *
+     * @return The range cache.
+     */
+    public RangeCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+        List<List<Object>> cached = cache.get(request.getSpreadsheetId(), request.getRange());
+        if (cached != null) {
+            return cached.isEmpty() ? null : cached;
+        }
+        long generation = cache.generation(request.getSpreadsheetId());
+        List<List<Object>> values = super.fetchValues(request);
+        cache.put(request.getSpreadsheetId(), request.getRange(), values, generation);
+        return values;
+    }
+
+    /**
+     * Streams the values of a range, replaying them from the cache on a hit. On
+     * a miss the rows are collected while they are streamed, so they can be
+     * cached once the read completes.
+     */
+    @Override
+    public int streamValues(SheetRequest request, RowConsumer consumer) throws IOException {
+        List<List<Object>> cached = cache.get(request.getSpreadsheetId(), request.getRange());
+        if (cached != null) {
+            for (int index = 0; index < cached.size(); index++) {
+                consumer.accept(index, cached.get(index));
+            }
+            return cached.size();
+        }
+        long generation = cache.generation(request.getSpreadsheetId());
+        List<List<Object>> values = new ArrayList<>();
+        int rows = super.streamValues(request, (index, row) -> {
+            values.add(row);
+            consumer.accept(index, row);
+        });
+        cache.put(request.getSpreadsheetId(), request.getRange(), values.isEmpty() ? null : values, generation);
+        return rows;
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges) throws IOException {
+        List<List<List<Object>>> result = new ArrayList<>(ranges.size());
+        List<String> missing = new ArrayList<>();
+        List<Integer> missingPositions = new ArrayList<>();
+        for (String range : ranges) {
+            List<List<Object>> cached = cache.get(spreadsheetId, range);
+            if (cached == null) {
+                missing.add(range);
+                missingPositions.add(result.size());
+            }
+            result.add(cached == null || cached.isEmpty() ? null : cached);
+        }
+        if (!missing.isEmpty()) {
+            long generation = cache.generation(spreadsheetId);
+            List<List<List<Object>>> fetched = super.fetchValuesBatch(spreadsheetId, missing);
+            for (int index = 0; index < missing.size(); index++) {
+                cache.put(spreadsheetId, missing.get(index), fetched.get(index), generation);
+                result.set(missingPositions.get(index), fetched.get(index));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        try {
+            super.appendValues(request, values);
+        } finally {
+            SheetRange target = SheetRange.tryParse(request.getRange());
+            cache.invalidate(request.getSpreadsheetId(), target == null ? null
+                    : new SheetRange(target.getSheetName(), target.getStartRow(), 1, SheetRange.UNBOUNDED,
+                            SheetRange.UNBOUNDED));
+        }
+    }
+
+    @Override
+    public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        try {
+            super.overwriteValues(request, values);
+        } finally {
+            cache.invalidate(request.getSpreadsheetId(), written(request.getRange(), values));
+        }
+    }
+
+    @Override
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        try {
+            super.batchOverwriteValues(spreadsheetId, data);
+        } finally {
+            for (ValueRange valueRange : data) {
+                cache.invalidate(spreadsheetId, written(valueRange.getRange(), valueRange.getValues()));
+            }
+        }
+    }
+
+    @Override
+    public void clearRange(SheetRequest request) throws IOException {
+        try {
+            super.clearRange(request);
+        } finally {
+            cache.invalidate(request.getSpreadsheetId(), request.getRange());
+        }
+    }
+
+    /**
+     * Gets the cells written by an overwrite: the request range, extended by as
+     * many rows and columns as the values have, since the API writes every
+     * value from the top-left cell.
+     *
+     * @return The written cells, or {@code null} if the range is not in A1
+     *         notation.
+     */
+    static SheetRange written(String range, List<List<Object>> values) {
+        SheetRange target = SheetRange.tryParse(range);
+        if (target == null || values == null) {
+            return target;
+        }
+        int columns = 0;
+        for (List<Object> row : values) {
+            columns = Math.max(columns, row == null ? 0 : row.size());
+        }
+        int endRow = target.getEndRow() == SheetRange.UNBOUNDED ? SheetRange.UNBOUNDED
+                : Math.max(target.getEndRow(), target.getStartRow() + values.size() - 1);
+        int endColumn = target.getEndColumn() == SheetRange.UNBOUNDED ? SheetRange.UNBOUNDED
+                : Math.max(target.getEndColumn(), target.getStartColumn() + columns - 1);
+        return new SheetRange(target.getSheetName(), target.getStartRow(), target.getStartColumn(), endRow,
+                endColumn);
+    }
+}
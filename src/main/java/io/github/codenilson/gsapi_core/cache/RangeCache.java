@@ -0,0 +1,318 @@
+package io.github.codenilson.gsapi_core.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.github.codenilson.gsapi_core.models.RangeIndex;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * Size-bounded, time-limited cache of range values keyed by spreadsheet ID and
+ * normalized range.
+ * <p>
+ * Entries expire after a fixed time to live. When the estimated size of the
+ * cached values exceeds the configured bound, the least recently used entries
+ * are evicted first. Writes invalidate the cached ranges that overlap them,
+ * found through a {@link RangeIndex}; ranges that are not valid A1 notation,
+ * such as named ranges, are invalidated by every write to their spreadsheet.
+ * Cached value lists are shared between callers and must not be modified.
+ * <p>
+ * Every invalidation of a spreadsheet advances its {@link #generation(String)
+ * generation}. A caller that reads a range captures the generation before the
+ * read and passes it to {@link #put(String, String, List, long)}, so values
+ * read before a concurrent write are not stored after the write invalidated
+ * the range.
+ */
+public class RangeCache {
+
+    private static final SheetRange WHOLE_UNNAMED_SHEET = new SheetRange(null, 1, 1, SheetRange.UNBOUNDED,
+            SheetRange.UNBOUNDED);
+
+    private final long ttlNanos;
+    private final long maxWeightBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, RangeIndex<Key>> indexes = new HashMap<>();
+    private final Map<String, Long> generations = new HashMap<>();
+
+    private long weightBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private long epoch;
+
+    /**
+     * Constructs a new RangeCache.
+     *
+     * @param ttl            How long an entry is served after it was stored.
+     * @param maxWeightBytes The maximum estimated size of the cached values, in
+     *                       bytes.
+     * @throws IllegalArgumentException If the TTL or the size bound is not
+     *                                  positive.
+     */
+    public RangeCache(Duration ttl, long maxWeightBytes) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        if (maxWeightBytes <= 0) {
+            throw new IllegalArgumentException("maxWeightBytes must be positive: " + maxWeightBytes);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    /**
+     * Gets the cached values of a range.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param range         The range in A1 notation.
+     * @return The cached values, an empty list if the range was cached as
+     *         empty, or {@code null} if the range is not cached or its entry has
+     *         expired.
+     */
+    public synchronized List<List<Object>> get(String spreadsheetId, String range) {
+        Key key = new Key(spreadsheetId, range);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - entry.storedAt > ttlNanos) {
+            remove(key, entry);
+            evictions++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.values;
+    }
+
+    /**
+     * Stores the values of a range, evicting the least recently used entries if
+     * the size bound is exceeded. Values larger than the bound are not cached.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param range         The range in A1 notation.
+     * @param values        The values of the range, or {@code null} if it is
+     *                      empty.
+     */
+    public synchronized void put(String spreadsheetId, String range, List<List<Object>> values) {
+        put(spreadsheetId, range, values, generation(spreadsheetId));
+    }
+
+    /**
+     * Stores the values of a range read at the given generation, unless the
+     * spreadsheet was invalidated since.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param range         The range in A1 notation.
+     * @param values        The values of the range, or {@code null} if it is
+     *                      empty.
+     * @param generation    The generation of the spreadsheet captured before
+     *                      the values were read.
+     * @return {@code true} if the values were stored, {@code false} if a write
+     *         invalidated the spreadsheet during the read or the values are
+     *         larger than the size bound.
+     */
+    public synchronized boolean put(String spreadsheetId, String range, List<List<Object>> values,
+            long generation) {
+        if (generation != generation(spreadsheetId)) {
+            return false;
+        }
+        long weight = estimateWeight(values);
+        Key key = new Key(spreadsheetId, range);
+        Entry previous = entries.get(key);
+        if (previous != null) {
+            remove(key, previous);
+        }
+        if (weight > maxWeightBytes) {
+            return false;
+        }
+        // An empty range is cached as an empty list, so a hit always serves it.
+        entries.put(key, new Entry(values == null ? Collections.emptyList() : values, weight, System.nanoTime()));
+        indexes.computeIfAbsent(spreadsheetId, id -> new RangeIndex<>()).add(key.indexRange, key);
+        weightBytes += weight;
+
+        while (weightBytes > maxWeightBytes) {
+            Map.Entry<Key, Entry> eldest = entries.entrySet().iterator().next();
+            remove(eldest.getKey(), eldest.getValue());
+            evictions++;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the invalidation generation of a spreadsheet, which changes every
+     * time any of its ranges is invalidated.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @return The current generation.
+     */
+    public synchronized long generation(String spreadsheetId) {
+        return epoch + generations.getOrDefault(spreadsheetId, 0L);
+    }
+
+    /**
+     * Removes every cached entry that overlaps a write to the given range. If
+     * the range is not valid A1 notation or has no sheet name, every entry of
+     * the spreadsheet is removed.
+     *
+     * @param spreadsheetId The ID of the spreadsheet that was written.
+     * @param range         The range that was written, in A1 notation.
+     */
+    public void invalidate(String spreadsheetId, String range) {
+        invalidate(spreadsheetId, SheetRange.tryParse(range));
+    }
+
+    /**
+     * Removes every cached entry that overlaps the given range.
+     *
+     * @param spreadsheetId The ID of the spreadsheet that was written.
+     * @param range         The cells that were written, or {@code null} to
+     *                      remove every entry of the spreadsheet.
+     *                      Entries without a sheet name or with a range that
+     *                      is not valid A1 notation are always removed.
+     */
+    public synchronized void invalidate(String spreadsheetId, SheetRange range) {
+        // Advanced even when nothing is cached, for the reads in progress.
+        generations.merge(spreadsheetId, 1L, Long::sum);
+        RangeIndex<Key> index = indexes.get(spreadsheetId);
+        if (index == null) {
+            return;
+        }
+        List<Key> affected;
+        if (range == null || range.getSheetName() == null) {
+            // A range without a sheet name targets the first sheet, whichever
+            // name it has.
+            affected = new ArrayList<>();
+            for (Key key : entries.keySet()) {
+                if (key.spreadsheetId.equals(spreadsheetId)) {
+                    affected.add(key);
+                }
+            }
+        } else {
+            affected = index.findOverlapping(range);
+            // Unnamed and unparsable entries may be on the same sheet.
+            affected.addAll(index.findOverlapping(WHOLE_UNNAMED_SHEET));
+        }
+        for (Key key : affected) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                remove(key, entry);
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Removes every cached entry.
+     */
+    public synchronized void invalidateAll() {
+        epoch++;
+        invalidations += entries.size();
+        entries.clear();
+        indexes.clear();
+        weightBytes = 0;
+    }
+
+    /**
+     * Gets a snapshot of the cache counters.
+     *
+     * @return The current statistics.
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, invalidations, entries.size(), weightBytes);
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        weightBytes -= entry.weight;
+        RangeIndex<Key> index = indexes.get(key.spreadsheetId);
+        index.remove(key.indexRange, key);
+        if (index.size() == 0) {
+            indexes.remove(key.spreadsheetId);
+        }
+    }
+
+    /**
+     * Estimates the heap size of a range's values.
+     *
+     * @param values The values of the range.
+     * @return The estimated size, in bytes.
+     */
+    static long estimateWeight(List<List<Object>> values) {
+        long weight = 64;
+        if (values == null) {
+            return weight;
+        }
+        for (List<Object> row : values) {
+            weight += 40 + 8L * row.size();
+            for (Object cell : row) {
+                if (cell instanceof String) {
+                    weight += 40 + ((String) cell).length();
+                } else if (cell != null) {
+                    weight += 24;
+                }
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Normalizes a range so that equivalent A1 spellings share a cache entry.
+     *
+     * @param range The range in A1 notation.
+     * @return The normalized range, or the range itself if it is not valid A1
+     *         notation.
+     */
+    static String normalize(String range) {
+        SheetRange parsed = SheetRange.tryParse(range);
+        return parsed == null ? range : parsed.toA1();
+    }
+
+    private static class Key {
+        private final String spreadsheetId;
+        private final String range;
+        private final SheetRange indexRange;
+
+        private Key(String spreadsheetId, String range) {
+            SheetRange parsed = SheetRange.tryParse(range);
+            this.spreadsheetId = spreadsheetId;
+            this.range = parsed == null ? range : parsed.toA1();
+            this.indexRange = parsed != null ? parsed : WHOLE_UNNAMED_SHEET;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return spreadsheetId.equals(other.spreadsheetId) && range.equals(other.range);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(spreadsheetId, range);
+        }
+    }
+
+    private static class Entry {
+        private final List<List<Object>> values;
+        private final long weight;
+        private final long storedAt;
+
+        private Entry(List<List<Object>> values, long weight, long storedAt) {
+            this.values = values;
+            this.weight = weight;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.codenilson.gsapi_core.client;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+/**
+ * A {@link GoogleSheetsClient} that forwards every call to another client.
+ * Subclasses override the calls they want to decorate, e.g. to add caching,
+ * so that decorators can be stacked in front of the real client.
+ */
+public class ForwardingGoogleSheetsClient extends GoogleSheetsClient {
+
+    private final GoogleSheetsClient delegate;
+
+    /**
+     * Constructs a new ForwardingGoogleSheetsClient.
+     *
+     * @param delegate The client every call is forwarded to.
+     */
+    public ForwardingGoogleSheetsClient(GoogleSheetsClient delegate) {
+        super(delegate.getService());
+        this.delegate = delegate;
+    }
+
+    /**
+     * Gets the client every call is forwarded to.
+     *
+     * @return The delegate client.
+     */
+    protected GoogleSheetsClient delegate() {
+        return delegate;
+    }
+
+    @Override
+    public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+        return delegate.fetchValues(request);
+    }
+
+    @Override
+    public List<List<Object>> fetchFormulas(SheetRequest request) throws IOException {
+        return delegate.fetchFormulas(request);
+    }
+
+    @Override
+    public int streamValues(SheetRequest request, RowConsumer consumer) throws IOException {
+        return delegate.streamValues(request, consumer);
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges) throws IOException {
+        return delegate.fetchValuesBatch(spreadsheetId, ranges);
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchUnformattedValuesBatch(String spreadsheetId, List<String> ranges)
+            throws IOException {
+        return delegate.fetchUnformattedValuesBatch(spreadsheetId, ranges);
+    }
+
+    @Override
+    public String fetchRevision(String spreadsheetId) throws IOException {
+        return delegate.fetchRevision(spreadsheetId);
+    }
+
+    @Override
+    public List<SheetProperties> fetchSheets(String spreadsheetId) throws IOException {
+        return delegate.fetchSheets(spreadsheetId);
+    }
+
+    @Override
+    public void ensureGridSize(String spreadsheetId, String sheetName, int rows, int columns) throws IOException {
+        delegate.ensureGridSize(spreadsheetId, sheetName, rows, columns);
+    }
+
+    @Override
+    public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        delegate.appendValues(request, values);
+    }
+
+    @Override
+    public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        delegate.overwriteValues(request, values);
+    }
+
+    @Override
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        delegate.batchOverwriteValues(spreadsheetId, data);
+    }
+
+    @Override
+    public void clearRange(SheetRequest request) throws IOException {
+        delegate.clearRange(request);
+    }
+}
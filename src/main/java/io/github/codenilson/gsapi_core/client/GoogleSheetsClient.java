@@ -1,19 +1,66 @@
 package io.github.codenilson.gsapi_core.client;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.json.GenericJson;
 import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.SheetsRequest;
+import com.google.api.services.sheets.v4.model.AppendDimensionRequest;
+import com.google.api.services.sheets.v4.model.BatchGetValuesResponse;
+import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
 import com.google.api.services.sheets.v4.model.ClearValuesRequest;
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.Request;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.Spreadsheet;
 import com.google.api.services.sheets.v4.model.ValueRange;
 
 import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+import io.github.codenilson.gsapi_core.stream.ValuesStreamDecoder;
 
 /**
  * Client class for interacting with the Google Sheets API.
  */
 public class GoogleSheetsClient {
 
+    /**
+     * Maximum number of ranges sent in a single {@code values.batchGet} call.
+     */
+    public static final int MAX_RANGES_PER_BATCH_GET = 100;
+
+    /**
+     * Maximum length, in characters, of the encoded {@code ranges} query
+     * parameters of a single {@code values.batchGet} call. This keeps the
+     * request URL well under the limits enforced by Google front ends.
+     */
+    public static final int MAX_BATCH_GET_QUERY_LENGTH = 6000;
+
+    /**
+     * Drive API endpoint of file metadata, used by
+     * {@link #fetchRevision(String)}.
+     */
+    public static final String DRIVE_FILES_URL = "https://www.googleapis.com/drive/v3/files";
+
+    /**
+     * OAuth scope needed by {@link #fetchRevision(String)}, in addition to the
+     * Sheets scope.
+     */
+    public static final String DRIVE_METADATA_READONLY_SCOPE =
+            "https://www.googleapis.com/auth/drive.metadata.readonly";
+
     private Sheets service;
 
     /**
@@ -26,6 +73,15 @@ public class GoogleSheetsClient {
         this.service = service;
     }
 
+    /**
+     * Gets the Sheets service used by this client.
+     *
+     * @return The Sheets service.
+     */
+    public Sheets getService() {
+        return service;
+    }
+
     /**
      * Fetches values from the specified range in the Google Sheets.
      *
@@ -35,12 +91,239 @@ public class GoogleSheetsClient {
      * @throws IOException If an I/O error occurs while fetching the values.
      */
     public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
-        return service.spreadsheets().values()
+        return execute(service.spreadsheets().values()
+                .get(request.getSpreadsheetId(), request.getRange()), request.getDeadline())
+                .getValues();
+    }
+
+    /**
+     * Fetches the values of the specified range as they were entered rather than
+     * as they are displayed, using the {@code FORMULA} value render option:
+     * formulas are returned as their text, e.g. {@code =A1}, numbers and
+     * booleans unformatted, and dates as their formatted text.
+     *
+     * @param request The request containing the spreadsheet ID and range.
+     * @return A list of lists of objects representing the values in the specified
+     *         range.
+     * @throws IOException If an I/O error occurs while fetching the values.
+     */
+    public List<List<Object>> fetchFormulas(SheetRequest request) throws IOException {
+        return execute(service.spreadsheets().values()
                 .get(request.getSpreadsheetId(), request.getRange())
-                .execute()
+                .setValueRenderOption("FORMULA")
+                .setDateTimeRenderOption("FORMATTED_STRING"), request.getDeadline())
                 .getValues();
     }
 
+    /**
+     * Fetches values from the specified range, decoding the response as it is
+     * read and handing each row to {@code consumer}. Neither a
+     * {@link ValueRange} nor the list of rows is built, which keeps memory
+     * constant on large reads.
+     *
+     * @param request  The request containing the spreadsheet ID and range.
+     * @param consumer Receives each row, the first one being the header.
+     * @return The number of rows read.
+     * @throws IOException If an I/O error occurs while fetching the values, or
+     *                     the consumer aborts the read.
+     * @see ValuesStreamDecoder
+     */
+    public int streamValues(SheetRequest request, RowConsumer consumer) throws IOException {
+        HttpResponse response = executeUnparsed(service.spreadsheets().values()
+                .get(request.getSpreadsheetId(), request.getRange())
+                .setFields("values"), request.getDeadline());
+        try (InputStream content = response.getContent()) {
+            if (content == null) {
+                return 0;
+            }
+            return ValuesStreamDecoder.decode(
+                    service.getJsonFactory().createJsonParser(content, response.getContentCharset()), consumer);
+        } finally {
+            response.disconnect();
+        }
+    }
+
+    /**
+     * Fetches the values of several ranges of the same spreadsheet with
+     * {@code values.batchGet}. The ranges are split into as many calls as needed
+     * to stay under {@link #MAX_RANGES_PER_BATCH_GET} ranges and
+     * {@link #MAX_BATCH_GET_QUERY_LENGTH} characters per call.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param ranges        The ranges to fetch, in A1 notation.
+     * @return The values of each range, in the order of {@code ranges}. An
+     *         element is {@code null} if its range is empty.
+     * @throws IOException If an I/O error occurs while fetching the values.
+     */
+    public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges) throws IOException {
+        return fetchBatch(spreadsheetId, ranges, null);
+    }
+
+    /**
+     * Fetches the values of several ranges like
+     * {@link #fetchValuesBatch(String, List)}, but unformatted, using the
+     * {@code UNFORMATTED_VALUE} value render option: numbers and booleans are
+     * returned as values rather than as their displayed text, e.g. {@code 1234}
+     * for a cell showing {@code $1,234.00}. Dates are returned as their
+     * formatted text.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param ranges        The ranges to fetch, in A1 notation.
+     * @return The values of each range, in the order of {@code ranges}. An
+     *         element is {@code null} if its range is empty.
+     * @throws IOException If an I/O error occurs while fetching the values.
+     */
+    public List<List<List<Object>>> fetchUnformattedValuesBatch(String spreadsheetId, List<String> ranges)
+            throws IOException {
+        return fetchBatch(spreadsheetId, ranges, "UNFORMATTED_VALUE");
+    }
+
+    private List<List<List<Object>>> fetchBatch(String spreadsheetId, List<String> ranges, String renderOption)
+            throws IOException {
+        List<List<List<Object>>> result = new ArrayList<>(ranges.size());
+        for (List<String> chunk : splitBatchGet(ranges)) {
+            fetchChunk(spreadsheetId, chunk, renderOption, result);
+        }
+        return result;
+    }
+
+    /**
+     * Splits ranges into the groups sent in separate {@code values.batchGet}
+     * calls by {@link #fetchValuesBatch(String, List)}, each holding at most
+     * {@link #MAX_RANGES_PER_BATCH_GET} ranges and
+     * {@link #MAX_BATCH_GET_QUERY_LENGTH} characters.
+     *
+     * @param ranges The ranges to fetch, in A1 notation.
+     * @return The groups of ranges, in the order of {@code ranges}.
+     */
+    public static List<List<String>> splitBatchGet(List<String> ranges) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int queryLength = 0;
+        for (String range : ranges) {
+            int encodedLength = "&ranges=".length() + URLEncoder.encode(range, StandardCharsets.UTF_8).length();
+            if (!chunk.isEmpty() && (chunk.size() == MAX_RANGES_PER_BATCH_GET
+                    || queryLength + encodedLength > MAX_BATCH_GET_QUERY_LENGTH)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                queryLength = 0;
+            }
+            chunk.add(range);
+            queryLength += encodedLength;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private void fetchChunk(String spreadsheetId, List<String> ranges, String renderOption,
+            List<List<List<Object>>> result) throws IOException {
+        Sheets.Spreadsheets.Values.BatchGet batchGet = service.spreadsheets().values()
+                .batchGet(spreadsheetId)
+                .setRanges(new ArrayList<>(ranges));
+        if (renderOption != null) {
+            batchGet.setValueRenderOption(renderOption).setDateTimeRenderOption("FORMATTED_STRING");
+        }
+        BatchGetValuesResponse response = batchGet.execute();
+        List<ValueRange> valueRanges = response.getValueRanges();
+        for (int index = 0; index < ranges.size(); index++) {
+            result.add(valueRanges != null && index < valueRanges.size() ? valueRanges.get(index).getValues() : null);
+        }
+    }
+
+    /**
+     * Fetches a token that changes whenever the spreadsheet changes, using the
+     * Drive API {@code files.get} call. It is a single small request, so it is a
+     * cheap way to find out whether a range must be read again.
+     * <p>
+     * The credentials must grant {@link #DRIVE_METADATA_READONLY_SCOPE} or a
+     * broader Drive scope, otherwise the call fails with {@code 403}.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @return The file version, or its modified time if the version is not
+     *         available.
+     * @throws IOException If an I/O error occurs while fetching the metadata.
+     */
+    public String fetchRevision(String spreadsheetId) throws IOException {
+        GenericUrl url = new GenericUrl(DRIVE_FILES_URL);
+        url.getPathParts().add(spreadsheetId);
+        url.set("fields", "version,modifiedTime");
+        url.set("supportsAllDrives", true);
+        HttpRequest request = service.getRequestFactory().buildGetRequest(url);
+        request.setParser(service.getObjectParser());
+        GenericJson file = request.execute().parseAs(GenericJson.class);
+        Object version = file.get("version");
+        return String.valueOf(version != null ? version : file.get("modifiedTime"));
+    }
+
+    /**
+     * Fetches the properties of every sheet (tab) of a spreadsheet, such as its
+     * title, ID and grid size, without any cell data.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @return The properties of each sheet, in tab order.
+     * @throws IOException If an I/O error occurs while fetching the properties.
+     */
+    public List<SheetProperties> fetchSheets(String spreadsheetId) throws IOException {
+        Spreadsheet spreadsheet = service.spreadsheets()
+                .get(spreadsheetId)
+                .setFields("sheets.properties")
+                .execute();
+        List<SheetProperties> result = new ArrayList<>();
+        if (spreadsheet.getSheets() != null) {
+            for (Sheet sheet : spreadsheet.getSheets()) {
+                result.add(sheet.getProperties());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Grows the grid of a sheet so that it has at least the given number of rows
+     * and columns. Writes outside the grid are rejected by the API, while
+     * appends grow it automatically. Nothing is sent if the grid is already
+     * large enough.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param sheetName     The title of the sheet, or {@code null} for the first
+     *                      sheet.
+     * @param rows          The minimum number of rows.
+     * @param columns       The minimum number of columns.
+     * @throws IllegalArgumentException If the sheet does not exist.
+     * @throws IOException              If an I/O error occurs while resizing the
+     *                                  sheet.
+     */
+    public void ensureGridSize(String spreadsheetId, String sheetName, int rows, int columns) throws IOException {
+        SheetProperties sheet = null;
+        for (SheetProperties properties : fetchSheets(spreadsheetId)) {
+            if (sheetName == null || sheetName.equalsIgnoreCase(properties.getTitle())) {
+                sheet = properties;
+                break;
+            }
+        }
+        if (sheet == null) {
+            throw new IllegalArgumentException("No sheet named " + sheetName + " in spreadsheet " + spreadsheetId);
+        }
+        GridProperties grid = sheet.getGridProperties();
+        int currentRows = grid == null || grid.getRowCount() == null ? 0 : grid.getRowCount();
+        int currentColumns = grid == null || grid.getColumnCount() == null ? 0 : grid.getColumnCount();
+        List<Request> requests = new ArrayList<>();
+        if (rows > currentRows) {
+            requests.add(new Request().setAppendDimension(new AppendDimensionRequest()
+                    .setSheetId(sheet.getSheetId()).setDimension("ROWS").setLength(rows - currentRows)));
+        }
+        if (columns > currentColumns) {
+            requests.add(new Request().setAppendDimension(new AppendDimensionRequest()
+                    .setSheetId(sheet.getSheetId()).setDimension("COLUMNS").setLength(columns - currentColumns)));
+        }
+        if (!requests.isEmpty()) {
+            service.spreadsheets()
+                    .batchUpdate(spreadsheetId, new BatchUpdateSpreadsheetRequest().setRequests(requests))
+                    .execute();
+        }
+    }
+
     /**
      * Appends values to the specified range in the Google Sheets.
      *
@@ -50,11 +333,10 @@ public class GoogleSheetsClient {
      */
     public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
         ValueRange valueRange = new ValueRange().setValues(values);
-        service.spreadsheets().values()
+        execute(service.spreadsheets().values()
                 .append(request.getSpreadsheetId(), request.getRange(), valueRange)
                 .setValueInputOption("USER_ENTERED")
-                .setInsertDataOption("INSERT_ROWS")
-                .execute();
+                .setInsertDataOption("INSERT_ROWS"), request.getDeadline());
     }
 
     /**
@@ -66,9 +348,26 @@ public class GoogleSheetsClient {
      */
     public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
         ValueRange valueRange = new ValueRange().setValues(values);
-        service.spreadsheets().values()
+        execute(service.spreadsheets().values()
                 .update(request.getSpreadsheetId(), request.getRange(), valueRange)
+                .setValueInputOption("USER_ENTERED"), request.getDeadline());
+    }
+
+    /**
+     * Overwrites several ranges of the same spreadsheet with a single
+     * {@code values.batchUpdate} call.
+     *
+     * @param spreadsheetId The ID of the spreadsheet to update.
+     * @param data          The ranges to overwrite, each carrying its A1 range and
+     *                      values.
+     * @throws IOException If an I/O error occurs while overwriting the values.
+     */
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        BatchUpdateValuesRequest body = new BatchUpdateValuesRequest()
                 .setValueInputOption("USER_ENTERED")
+                .setData(data);
+        service.spreadsheets().values()
+                .batchUpdate(spreadsheetId, body)
                 .execute();
     }
 
@@ -79,8 +378,41 @@ public class GoogleSheetsClient {
      * @throws IOException If an I/O error occurs while clearing the range.
      */
     public void clearRange(SheetRequest request) throws IOException {
-        service.spreadsheets().values()
-                .clear(request.getSpreadsheetId(), request.getRange(), new ClearValuesRequest())
-                .execute();
+        execute(service.spreadsheets().values()
+                .clear(request.getSpreadsheetId(), request.getRange(), new ClearValuesRequest()),
+                request.getDeadline());
+    }
+
+    /**
+     * Executes a request and parses its response, applying the deadline of the
+     * {@link SheetRequest} it was made for.
+     */
+    private <T> T execute(SheetsRequest<T> call, Duration deadline) throws IOException {
+        if (deadline == null) {
+            return call.execute();
+        }
+        return executeUnparsed(call, deadline).parseAs(call.getResponseClass());
+    }
+
+    /**
+     * Executes a request without parsing its response. With a deadline, the
+     * HTTP request is built here so that its timeouts can be lowered; errors are
+     * still thrown as {@link GoogleJsonResponseException}s.
+     */
+    private HttpResponse executeUnparsed(SheetsRequest<?> call, Duration deadline) throws IOException {
+        if (deadline == null) {
+            return call.executeUnparsed();
+        }
+        HttpRequest httpRequest = call.buildHttpRequest();
+        int millis = (int) Math.min(Integer.MAX_VALUE, Math.max(1, deadline.toMillis()));
+        int connectTimeout = httpRequest.getConnectTimeout();
+        httpRequest.setConnectTimeout(connectTimeout > 0 ? Math.min(connectTimeout, millis) : millis);
+        httpRequest.setReadTimeout(millis);
+        httpRequest.setThrowExceptionOnExecuteError(false);
+        HttpResponse response = httpRequest.execute();
+        if (!response.isSuccessStatusCode()) {
+            throw GoogleJsonResponseException.from(service.getJsonFactory(), response);
+        }
+        return response;
     }
 }
\ No newline at end of file
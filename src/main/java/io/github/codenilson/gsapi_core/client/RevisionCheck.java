@@ -0,0 +1,107 @@
+package io.github.codenilson.gsapi_core.client;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.google.api.client.http.HttpResponseException;
+
+/**
+ * Fetches the Drive revision of a spreadsheet for the components that skip a
+ * read when it has not changed, and stops asking when Drive cannot answer.
+ * <p>
+ * A {@code 403} response means the credentials lack the Drive scope or access
+ * to the file, which does not change, so the check is disabled for good. A
+ * {@code 401} response, or a {@code 403} caused by a Drive rate limit, is
+ * usually transient, such as an expired token that the next refresh fixes:
+ * the check is suspended for the retry delay and then tried again. While the
+ * check is disabled or suspended, {@link #fetch()} returns {@code null} and
+ * the caller reads the range. This class is thread-safe.
+ */
+public final class RevisionCheck {
+
+    /**
+     * Default time the check is suspended after a transient failure.
+     */
+    public static final Duration DEFAULT_RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final GoogleSheetsClient client;
+    private final String spreadsheetId;
+    private final long retryDelayNanos;
+
+    private boolean disabled;
+    private boolean suspended;
+    private long retryAtNanos;
+
+    /**
+     * Constructs a new RevisionCheck with the default retry delay.
+     *
+     * @param client        The client used to fetch the revision.
+     * @param spreadsheetId The ID of the spreadsheet.
+     */
+    public RevisionCheck(GoogleSheetsClient client, String spreadsheetId) {
+        this(client, spreadsheetId, DEFAULT_RETRY_DELAY);
+    }
+
+    /**
+     * Constructs a new RevisionCheck.
+     *
+     * @param client        The client used to fetch the revision.
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param retryDelay    How long the check is suspended after a transient
+     *                      failure.
+     * @throws IllegalArgumentException If the retry delay is negative.
+     */
+    public RevisionCheck(GoogleSheetsClient client, String spreadsheetId, Duration retryDelay) {
+        if (retryDelay.isNegative()) {
+            throw new IllegalArgumentException("retryDelay must not be negative: " + retryDelay);
+        }
+        this.client = client;
+        this.spreadsheetId = spreadsheetId;
+        this.retryDelayNanos = retryDelay.toNanos();
+    }
+
+    /**
+     * Fetches the revision of the spreadsheet.
+     *
+     * @return The revision, or {@code null} if the check is disabled or
+     *         suspended.
+     * @throws IOException If an I/O error other than a rejected Drive request
+     *                     occurs.
+     */
+    public synchronized String fetch() throws IOException {
+        if (disabled || (suspended && System.nanoTime() - retryAtNanos < 0)) {
+            return null;
+        }
+        try {
+            String revision = client.fetchRevision(spreadsheetId);
+            suspended = false;
+            return revision;
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 403 && !isRateLimited(e)) {
+                disabled = true;
+                return null;
+            }
+            if (e.getStatusCode() == 401 || e.getStatusCode() == 403) {
+                suspended = true;
+                retryAtNanos = System.nanoTime() + retryDelayNanos;
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the check was disabled by a {@code 403} response.
+     *
+     * @return {@code true} if the revision is no longer fetched.
+     */
+    public synchronized boolean isDisabled() {
+        return disabled;
+    }
+
+    private static boolean isRateLimited(HttpResponseException e) {
+        String content = e.getContent();
+        return content != null && (content.contains("rateLimitExceeded")
+                || content.contains("userRateLimitExceeded"));
+    }
+}
@@ -2,9 +2,18 @@ package io.github.codenilson.gsapi_core.client;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.sheets.v4.Sheets;
 
@@ -12,9 +21,19 @@ import com.google.api.services.sheets.v4.Sheets;
  * Utility class for creating an instance of the Google Sheets API service.
  * This class is used to configure and initialize the {@link Sheets} service
  * for interacting with Google Sheets.
+ * <p>
+ * {@link #getSheetsService(HttpRequestInitializer, String)} creates a new
+ * transport for every service. The pooled variant,
+ * {@link #getPooledSheetsService(HttpRequestInitializer, String)}, shares a
+ * single Apache HTTP transport and its connection pool between every service
+ * it creates, so TLS sessions and keep-alive connections are reused across
+ * tenants.
  */
 public class SheetClientFactory {
 
+    private static TransportSettings sharedSettings = new TransportSettings();
+    private static ApacheHttpTransport sharedTransport;
+
     /**
      * Creates and returns an instance of the Google Sheets API service.
      *
@@ -36,4 +55,128 @@ public class SheetClientFactory {
                 .setApplicationName(applicationName)
                 .build();
     }
+
+    /**
+     * Creates an instance of the Google Sheets API service backed by the shared,
+     * pooled transport. Every request it sends uses the connect and read
+     * timeouts of the shared {@link TransportSettings}.
+     *
+     * @param initializer     The HTTP request initializer, typically used for
+     *                        authentication.
+     * @param applicationName The name of the application that will access the
+     *                        Google Sheets API.
+     * @return A configured instance of the {@link Sheets} service.
+     * @see #configureSharedTransport(TransportSettings)
+     */
+    public static Sheets getPooledSheetsService(HttpRequestInitializer initializer, String applicationName) {
+        HttpTransport transport;
+        TransportSettings settings;
+        synchronized (SheetClientFactory.class) {
+            transport = getSharedTransport();
+            settings = sharedSettings;
+        }
+        HttpRequestInitializer withTimeouts = request -> {
+            if (initializer != null) {
+                initializer.initialize(request);
+            }
+            request.setConnectTimeout((int) settings.getConnectTimeout().toMillis());
+            request.setReadTimeout((int) settings.getReadTimeout().toMillis());
+        };
+        return new Sheets.Builder(transport, GsonFactory.getDefaultInstance(), withTimeouts)
+                .setApplicationName(applicationName)
+                .build();
+    }
+
+    /**
+     * Gets the transport shared by every service created with
+     * {@link #getPooledSheetsService(HttpRequestInitializer, String)}, creating
+     * it on first use.
+     *
+     * @return The shared transport.
+     */
+    public static synchronized HttpTransport getSharedTransport() {
+        if (sharedTransport == null) {
+            sharedTransport = createPooledTransport(sharedSettings);
+        }
+        return sharedTransport;
+    }
+
+    /**
+     * Replaces the settings of the shared transport. Services created
+     * afterwards use a new transport with these settings. The previous
+     * transport is shut down immediately, so services created from it stop
+     * working; call this before any pooled service is created.
+     *
+     * @param settings The new settings.
+     * @throws IOException If the previous transport cannot be shut down.
+     */
+    public static synchronized void configureSharedTransport(TransportSettings settings) throws IOException {
+        shutdownSharedTransport();
+        sharedSettings = settings;
+    }
+
+    /**
+     * Shuts down the shared transport and closes its pooled connections.
+     *
+     * @throws IOException If the transport cannot be shut down.
+     */
+    public static synchronized void shutdownSharedTransport() throws IOException {
+        if (sharedTransport != null) {
+            sharedTransport.shutdown();
+            sharedTransport = null;
+        }
+    }
+
+    /**
+     * Creates a transport backed by a pool of persistent connections.
+     * <p>
+     * The Apache HTTP client speaks HTTP/1.1; throughput comes from reusing up
+     * to {@link TransportSettings#getMaxConnectionsPerRoute()} keep-alive
+     * connections instead of multiplexing. Connections have no time to live:
+     * a connection is closed once it has been idle for longer than
+     * {@link TransportSettings#getKeepAlive()}, or than the keep-alive
+     * timeout sent by the server if it is shorter, and is validated before
+     * reuse after one second of inactivity.
+     *
+     * @param settings The pool and timeout settings.
+     * @return A new pooled transport.
+     */
+    public static ApacheHttpTransport createPooledTransport(TransportSettings settings) {
+        long keepAliveMillis = settings.getKeepAlive().toMillis();
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(settings.getMaxConnections());
+        pool.setDefaultMaxPerRoute(settings.getMaxConnectionsPerRoute());
+        pool.setValidateAfterInactivity(1000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) settings.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) settings.getReadTimeout().toMillis())
+                .build();
+
+        return new ApacheHttpTransport(HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAliveMillis))
+                .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .build());
+    }
+
+    /**
+     * Creates a keep-alive strategy that keeps an idle connection for the
+     * timeout sent by the server in its {@code Keep-Alive} header, capped at
+     * the given duration, or for the given duration if the server sent none.
+     *
+     * @param keepAliveMillis The maximum idle time of a connection, in
+     *                        milliseconds.
+     * @return The keep-alive strategy.
+     */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMillis) {
+        return (response, context) -> {
+            long server = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return server > 0 ? Math.min(server, keepAliveMillis) : keepAliveMillis;
+        };
+    }
 }
@@ -0,0 +1,123 @@
+package io.github.codenilson.gsapi_core.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of the pooled HTTP transport created by {@link SheetClientFactory}.
+ */
+public class TransportSettings {
+
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration keepAlive = Duration.ofMinutes(1);
+
+    /**
+     * Gets the maximum number of pooled connections across all hosts.
+     *
+     * @return The maximum number of connections.
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections across all hosts.
+     *
+     * @param maxConnections The maximum number of connections.
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Gets the maximum number of pooled connections to a single host. Every
+     * Sheets API call goes to the same host, so this bounds the number of
+     * concurrent calls.
+     *
+     * @return The maximum number of connections per route.
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections to a single host.
+     *
+     * @param maxConnectionsPerRoute The maximum number of connections per route.
+     */
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    /**
+     * Gets the timeout for establishing a connection.
+     *
+     * @return The connect timeout.
+     */
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the timeout for establishing a connection.
+     *
+     * @param connectTimeout The connect timeout.
+     */
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Gets the maximum time to wait for data on an open connection.
+     *
+     * @return The read timeout.
+     */
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the maximum time to wait for data on an open connection.
+     *
+     * @param readTimeout The read timeout.
+     */
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Gets how long an idle connection is kept open for reuse.
+     *
+     * @return The keep-alive duration.
+     */
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Sets how long an idle connection is kept open for reuse.
+     *
+     * @param keepAlive The keep-alive duration.
+     */
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Returns a string representation of the TransportSettings.
+     *
+     * @return A string containing every setting.
+     */
+    @Override
+    public String toString() {
+        return "TransportSettings{" +
+                "maxConnections=" + maxConnections +
+                ", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+                ", connectTimeout=" + connectTimeout +
+                ", readTimeout=" + readTimeout +
+                ", keepAlive=" + keepAlive +
+                '}';
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.codenilson.gsapi_core.coalesce;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * A {@link GoogleSheetsClient} that collapses concurrent identical reads into a
+ * single call.
+ * <p>
+ * The first thread reading a range makes the call; threads asking for the same
+ * spreadsheet and range while it is in flight wait for it and receive the same
+ * values, or the same exception. Ranges are compared once parsed, so
+ * {@code Sheet1!A1:B2} and {@code sheet1!a1:b2} share a call. The values are
+ * shared between the callers and must not be modified.
+ * <p>
+ * Placed in front of a {@link io.github.codenilson.gsapi_core.cache.CachingSheetsClient},
+ * it keeps a burst of misses on the same range from turning into a burst of
+ * calls. A write through this client detaches the reads of its spreadsheet
+ * that are in flight, so a read made after a write never receives values read
+ * before it.
+ */
+public class CoalescingSheetsClient extends ForwardingGoogleSheetsClient {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Constructs a new CoalescingSheetsClient.
+     *
+     * @param delegate The client the calls are forwarded to.
+     */
+    public CoalescingSheetsClient(GoogleSheetsClient delegate) {
+        super(delegate);
+    }
+
+    /**
+     * Gets the number of reads served by another thread's call.
+     *
+     * @return The number of coalesced reads.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Gets the number of calls currently in flight.
+     *
+     * @return The number of distinct reads being made.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Fetches the values of a range, sharing the call with concurrent reads of
+     * the same range. A thread joining a call still honours the
+     * {@link SheetRequest#getDeadline() deadline} of its own request.
+     */
+    @Override
+    public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+        Key key = new Key(request.getSpreadsheetId(), normalize(request.getRange()));
+        return coalesce(key, () -> super.fetchValues(request), request.getDeadline(), request.getRange());
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges) throws IOException {
+        List<Object> normalized = new ArrayList<>(ranges.size());
+        for (String range : ranges) {
+            normalized.add(normalize(range));
+        }
+        return coalesce(new Key(spreadsheetId, normalized), () -> super.fetchValuesBatch(spreadsheetId, ranges),
+                null, String.join(",", ranges));
+    }
+
+    @Override
+    public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        try {
+            super.appendValues(request, values);
+        } finally {
+            detach(request.getSpreadsheetId());
+        }
+    }
+
+    @Override
+    public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        try {
+            super.overwriteValues(request, values);
+        } finally {
+            detach(request.getSpreadsheetId());
+        }
+    }
+
+    @Override
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        try {
+            super.batchOverwriteValues(spreadsheetId, data);
+        } finally {
+            detach(spreadsheetId);
+        }
+    }
+
+    @Override
+    public void clearRange(SheetRequest request) throws IOException {
+        try {
+            super.clearRange(request);
+        } finally {
+            detach(request.getSpreadsheetId());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(Key key, SheetsCall<T> call, Duration deadline, String range) throws IOException {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return (T) await(running, deadline, range);
+        }
+        try {
+            T result = call.execute();
+            own.complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running, Duration deadline, String range)
+            throws IOException {
+        try {
+            if (deadline == null) {
+                return running.get();
+            }
+            return running.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading range: " + range);
+        } catch (TimeoutException e) {
+            throw new SocketTimeoutException("The deadline of " + deadline + " was exceeded for range: " + range);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private void detach(String spreadsheetId) {
+        inFlight.keySet().removeIf(key -> Objects.equals(key.spreadsheetId, spreadsheetId));
+    }
+
+    /**
+     * Parses a range so that equivalent spellings compare equal, keeping the
+     * text as is when it is not an A1 range, e.g. a named range.
+     */
+    private static Object normalize(String range) {
+        SheetRange parsed = SheetRange.tryParse(range);
+        return parsed != null ? parsed : range;
+    }
+
+    private static final class Key {
+        private final String spreadsheetId;
+        private final Object range;
+
+        private Key(String spreadsheetId, Object range) {
+            this.spreadsheetId = spreadsheetId;
+            this.range = range;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(spreadsheetId) + Objects.hashCode(range);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return Objects.equals(spreadsheetId, other.spreadsheetId) && Objects.equals(range, other.range);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SheetsCall<T> {
+        T execute() throws IOException;
+    }
+}
@@ -0,0 +1,299 @@
+package io.github.codenilson.gsapi_core.hedge;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.api.services.sheets.v4.model.SheetProperties;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+
+/**
+ * A {@link GoogleSheetsClient} that hedges idempotent reads: if a read has not
+ * answered within the recent 95th percentile latency, a duplicate request is
+ * sent and the first successful response wins.
+ * <p>
+ * Hedging trims the latency tail caused by a single slow server without
+ * doubling the load: every read earns a fraction of a hedge, given by the
+ * budget ratio, and a hedge is only sent when a whole one has been earned.
+ * With the default ratio of {@code 0.05}, hedges add at most 5% of requests.
+ * Until enough latencies have been observed, the initial delay is used.
+ * <p>
+ * Only {@link #fetchValues(SheetRequest)}, {@link #fetchFormulas(SheetRequest)},
+ * {@link #fetchValuesBatch(String, List)},
+ * {@link #fetchUnformattedValuesBatch(String, List)},
+ * {@link #fetchRevision(String)} and {@link #fetchSheets(String)} are hedged.
+ * Streams and writes are forwarded as is. If the request has a
+ * {@link SheetRequest#getDeadline() deadline}, the read fails with a
+ * {@link SocketTimeoutException} once it has passed, even if the server is
+ * still trickling a response.
+ */
+public class HedgingSheetsClient extends ForwardingGoogleSheetsClient implements AutoCloseable {
+
+    /**
+     * Default share of reads that may be hedged.
+     */
+    public static final double DEFAULT_BUDGET_RATIO = 0.05;
+
+    /**
+     * Default delay before a hedge while too few latencies are known.
+     */
+    public static final Duration DEFAULT_INITIAL_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * Default lower bound of the hedging delay.
+     */
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(20);
+
+    private static final double PERCENTILE = 0.95;
+    private static final int SAMPLES = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_BUDGET = 10;
+
+    private final double budgetRatio;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final ExecutorService executor;
+    private final long[] latencies = new long[SAMPLES];
+    private int sampleCount;
+    private int nextSample;
+    private long percentileNanos = -1;
+    private double budget;
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    /**
+     * Constructs a new HedgingSheetsClient with the default settings.
+     *
+     * @param delegate The client the calls are forwarded to.
+     */
+    public HedgingSheetsClient(GoogleSheetsClient delegate) {
+        this(delegate, DEFAULT_BUDGET_RATIO, DEFAULT_INITIAL_DELAY, DEFAULT_MIN_DELAY);
+    }
+
+    /**
+     * Constructs a new HedgingSheetsClient.
+     *
+     * @param delegate     The client the calls are forwarded to.
+     * @param budgetRatio  The share of reads that may be hedged, between
+     *                     {@code 0} and {@code 1}.
+     * @param initialDelay The delay before a hedge while too few latencies are
+     *                     known.
+     * @param minDelay     The lower bound of the hedging delay.
+     * @throws IllegalArgumentException If {@code budgetRatio} is out of range.
+     */
+    public HedgingSheetsClient(GoogleSheetsClient delegate, double budgetRatio, Duration initialDelay,
+            Duration minDelay) {
+        super(delegate);
+        if (budgetRatio < 0 || budgetRatio > 1) {
+            throw new IllegalArgumentException("budgetRatio must be between 0 and 1: " + budgetRatio);
+        }
+        this.budgetRatio = budgetRatio;
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.minDelayNanos = minDelay.toNanos();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gsapi-hedge-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the current delay after which a read is hedged.
+     *
+     * @return The hedging delay.
+     */
+    public synchronized Duration getHedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos());
+    }
+
+    /**
+     * Gets the number of hedges sent.
+     *
+     * @return The number of duplicate requests.
+     */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /**
+     * Gets the number of reads answered by their hedge rather than the first
+     * request.
+     *
+     * @return The number of reads won by a hedge.
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    @Override
+    public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+        return hedge(() -> super.fetchValues(request), request.getDeadline(), request.getRange());
+    }
+
+    @Override
+    public List<List<Object>> fetchFormulas(SheetRequest request) throws IOException {
+        return hedge(() -> super.fetchFormulas(request), request.getDeadline(), request.getRange());
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges) throws IOException {
+        return hedge(() -> super.fetchValuesBatch(spreadsheetId, ranges), null, String.join(",", ranges));
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchUnformattedValuesBatch(String spreadsheetId, List<String> ranges)
+            throws IOException {
+        return hedge(() -> super.fetchUnformattedValuesBatch(spreadsheetId, ranges), null, String.join(",", ranges));
+    }
+
+    @Override
+    public String fetchRevision(String spreadsheetId) throws IOException {
+        return hedge(() -> super.fetchRevision(spreadsheetId), null, spreadsheetId);
+    }
+
+    @Override
+    public List<SheetProperties> fetchSheets(String spreadsheetId) throws IOException {
+        return hedge(() -> super.fetchSheets(spreadsheetId), null, spreadsheetId);
+    }
+
+    /**
+     * Stops the threads running the requests.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T hedge(SheetsCall<T> call, Duration deadline, String range) throws IOException {
+        long start = System.nanoTime();
+        long deadlineNanos = deadline == null ? Long.MAX_VALUE : start + deadline.toNanos();
+        long delayNanos;
+        boolean allowed;
+        synchronized (this) {
+            budget = Math.min(MAX_BUDGET, budget + budgetRatio);
+            delayNanos = hedgeDelayNanos();
+            allowed = budget >= 1;
+        }
+        CompletableFuture<T> primary = submit(call);
+        try {
+            if (allowed) {
+                try {
+                    return await(primary, Math.min(deadlineNanos, start + delayNanos), range, deadline);
+                } catch (TimeoutException e) {
+                    if (System.nanoTime() - deadlineNanos >= 0 || !takeHedge()) {
+                        return await(primary, deadlineNanos, range, deadline);
+                    }
+                }
+                hedges.incrementAndGet();
+                CompletableFuture<T> secondary = submit(call);
+                CompletableFuture<T> first = firstSuccess(primary, secondary);
+                T result = await(first, deadlineNanos, range, deadline);
+                if (!primary.isDone() || primary.isCompletedExceptionally()) {
+                    hedgeWins.incrementAndGet();
+                }
+                return result;
+            }
+            return await(primary, deadlineNanos, range, deadline);
+        } catch (TimeoutException e) {
+            throw new SocketTimeoutException("The deadline of " + deadline + " was exceeded for range: " + range);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(SheetsCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = call.execute();
+                record(System.nanoTime() - start);
+                return result;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> a, CompletableFuture<T> b) {
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> future : Arrays.asList(a, b)) {
+            future.whenComplete((result, error) -> {
+                if (error == null) {
+                    first.complete(result);
+                } else if (failures.incrementAndGet() == 2) {
+                    // Both failed: report the first request's error.
+                    a.whenComplete((r, e) -> first.completeExceptionally(e));
+                }
+            });
+        }
+        return first;
+    }
+
+    private static <T> T await(CompletableFuture<T> future, long untilNanos, String range, Duration deadline)
+            throws IOException, TimeoutException {
+        try {
+            if (untilNanos == Long.MAX_VALUE) {
+                return future.get();
+            }
+            return future.get(Math.max(0, untilNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading range: " + range);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private synchronized boolean takeHedge() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    private synchronized void record(long nanos) {
+        latencies[nextSample] = nanos;
+        nextSample = (nextSample + 1) % SAMPLES;
+        sampleCount = Math.min(sampleCount + 1, SAMPLES);
+        if (sampleCount >= MIN_SAMPLES && (percentileNanos < 0 || nextSample % 16 == 0)) {
+            long[] sorted = Arrays.copyOf(latencies, sampleCount);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.ceil(PERCENTILE * sampleCount) - 1];
+        }
+    }
+
+    private long hedgeDelayNanos() {
+        return percentileNanos < 0 ? initialDelayNanos : Math.max(minDelayNanos, percentileNanos);
+    }
+
+    @FunctionalInterface
+    private interface SheetsCall<T> {
+        T execute() throws IOException;
+    }
+}
@@ -0,0 +1,410 @@
+package io.github.codenilson.gsapi_core.journal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * A {@link GoogleSheetsClient} that records every write in a
+ * {@link WriteJournal} before sending it, so that writes survive a crash and
+ * are not applied twice.
+ * <p>
+ * A write is committed in the journal once the API confirms it, and aborted if
+ * the API rejects it with a client error. Any other failure, such as a timeout,
+ * a server error or a {@code 429}, leaves it pending, since the API may have
+ * applied it or will accept it later. The
+ * pending writes, including those left by a previous run, are replayed in order
+ * by {@link #replay()}, which runs before the next write. Updates and clears
+ * are simply sent again. An append is first checked against the table: if its
+ * last rows already hold the appended rows, the append is considered applied
+ * and is only committed. The check compares the cells with their formulas and
+ * unformatted values, as they were written, so an identical set of rows
+ * appended just before by someone else would hide a lost append.
+ * <p>
+ * In write-behind mode a write returns as soon as it is on disk, and a single
+ * background thread sends the writes in order. This lets callers write at the
+ * pace of the local disk without giving up durability. Failures are reported
+ * to the {@link #setErrorHandler(BiConsumer) error handler}, which logs them by
+ * default. As the caller was already told the write succeeded, a write the API
+ * rejects is not aborted: it stays in the journal and in {@link #getRejected()}
+ * until it is {@link #acknowledge(WriteJournal.Entry) acknowledged}, and is
+ * sent again when the journal is reopened. Reads do not
+ * see a write until it is sent, which {@link #flush()} waits for. Appends from
+ * {@code GsAPI.addData}, updates from {@code GsAPI.modifyData} and
+ * {@code GsAPI.syncData}, and clears from {@code GsAPI.resetRange} all go
+ * through the journal; reads are forwarded as is.
+ */
+public class JournalingSheetsClient extends ForwardingGoogleSheetsClient implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(JournalingSheetsClient.class.getName());
+
+    private final WriteJournal journal;
+    private final ExecutorService writer;
+    private final Set<Long> stranded = new ConcurrentSkipListSet<>();
+    private final Map<Long, WriteJournal.Entry> rejected = new ConcurrentSkipListMap<>();
+    private volatile BiConsumer<WriteJournal.Entry, Exception> errorHandler = (entry, e) -> LOGGER.log(
+            Level.WARNING, "The journaled write " + entry + " failed", e);
+
+    /**
+     * Constructs a new JournalingSheetsClient that sends each write before
+     * returning.
+     *
+     * @param delegate The client the calls are forwarded to.
+     * @param journal  The journal the writes are recorded in.
+     */
+    public JournalingSheetsClient(GoogleSheetsClient delegate, WriteJournal journal) {
+        this(delegate, journal, false);
+    }
+
+    /**
+     * Constructs a new JournalingSheetsClient.
+     *
+     * @param delegate    The client the calls are forwarded to.
+     * @param journal     The journal the writes are recorded in.
+     * @param writeBehind Whether writes return once recorded and are sent by a
+     *                    background thread.
+     */
+    public JournalingSheetsClient(GoogleSheetsClient delegate, WriteJournal journal, boolean writeBehind) {
+        super(delegate);
+        this.journal = journal;
+        for (WriteJournal.Entry entry : journal.getPending()) {
+            stranded.add(entry.getId());
+        }
+        this.writer = writeBehind ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gsapi-journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Gets the journal the writes are recorded in.
+     *
+     * @return The journal.
+     */
+    public WriteJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the handler of errors raised while sending writes in write-behind
+     * mode or while replaying writes. By default they are logged; writes that
+     * may have been applied stay in the journal and are replayed before the
+     * next write.
+     *
+     * @param errorHandler Receives the entry of the write and the error.
+     */
+    public void setErrorHandler(BiConsumer<WriteJournal.Entry, Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        write(WriteJournal.Operation.APPEND, request.getSpreadsheetId(),
+                Collections.singletonList(new ValueRange().setRange(request.getRange()).setValues(values)),
+                () -> super.appendValues(request, values));
+    }
+
+    @Override
+    public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        write(WriteJournal.Operation.UPDATE, request.getSpreadsheetId(),
+                Collections.singletonList(new ValueRange().setRange(request.getRange()).setValues(values)),
+                () -> super.overwriteValues(request, values));
+    }
+
+    @Override
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        write(WriteJournal.Operation.BATCH_UPDATE, spreadsheetId, data,
+                () -> super.batchOverwriteValues(spreadsheetId, data));
+    }
+
+    @Override
+    public void clearRange(SheetRequest request) throws IOException {
+        write(WriteJournal.Operation.CLEAR, request.getSpreadsheetId(),
+                Collections.singletonList(new ValueRange().setRange(request.getRange())),
+                () -> super.clearRange(request));
+    }
+
+    /**
+     * Gets the writes that the API rejected in write-behind mode, after their
+     * callers were told they succeeded. They stay in the journal until they
+     * are acknowledged.
+     *
+     * @return A new list of the rejected entries, in the order they were
+     *         recorded.
+     */
+    public List<WriteJournal.Entry> getRejected() {
+        return new ArrayList<>(rejected.values());
+    }
+
+    /**
+     * Removes a rejected write from the journal, once it has been handled.
+     *
+     * @param entry The rejected entry.
+     * @throws GSAPIError If the journal cannot be written.
+     */
+    public void acknowledge(WriteJournal.Entry entry) {
+        try {
+            journal.abort(entry);
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while acknowledging a write in the journal: "
+                    + journal.getPath(), e);
+        }
+        rejected.remove(entry.getId());
+    }
+
+    /**
+     * Sends the writes left pending by a previous run or by a failure that may
+     * have been applied, in the order they were recorded. A write the API
+     * rejects is reported to the error handler and does not stop the replay;
+     * any other failure does.
+     *
+     * @return The number of writes resolved, applied or found already applied.
+     * @throws IOException If a write fails; it stays pending.
+     */
+    public synchronized int replay() throws IOException {
+        int replayed = 0;
+        for (WriteJournal.Entry entry : journal.getPending()) {
+            if (!stranded.contains(entry.getId())) {
+                continue;
+            }
+            if (entry.getOperation() == WriteJournal.Operation.APPEND && isApplied(entry)) {
+                journal.commit(entry);
+                stranded.remove(entry.getId());
+            } else {
+                try {
+                    send(entry, () -> replay(entry));
+                } catch (HttpResponseException e) {
+                    if (!isRejected(e)) {
+                        throw e;
+                    }
+                    errorHandler.accept(entry, e);
+                    continue;
+                }
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * Waits until every write recorded so far in write-behind mode was sent.
+     * Does nothing otherwise.
+     *
+     * @throws GSAPIError If the wait is interrupted.
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GSAPIError("Interrupted while flushing the write journal: " + journal.getPath(), e);
+        } catch (ExecutionException e) {
+            throw new GSAPIError("An error occurred while flushing the write journal: " + journal.getPath(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Sends the writes recorded in write-behind mode and stops the background
+     * thread. The journal itself is left open.
+     */
+    @Override
+    public void close() {
+        if (writer != null) {
+            flush();
+            writer.shutdown();
+        }
+    }
+
+    private void write(WriteJournal.Operation operation, String spreadsheetId, List<ValueRange> data,
+            WriteCall call) throws IOException {
+        if (writer == null) {
+            resolve();
+            send(journal.begin(operation, spreadsheetId, data), call);
+            return;
+        }
+        WriteJournal.Entry entry = journal.begin(operation, spreadsheetId, data);
+        writer.execute(() -> {
+            try {
+                resolve();
+            } catch (IOException | RuntimeException e) {
+                // Keep the order: this write is replayed after the one that failed.
+                stranded.add(entry.getId());
+                errorHandler.accept(entry, e);
+                return;
+            }
+            try {
+                send(entry, call);
+            } catch (IOException | RuntimeException e) {
+                errorHandler.accept(entry, e);
+            }
+        });
+    }
+
+    private void resolve() throws IOException {
+        if (!stranded.isEmpty()) {
+            replay();
+        }
+    }
+
+    private void send(WriteJournal.Entry entry, WriteCall call) throws IOException {
+        try {
+            call.execute();
+            journal.commit(entry);
+            stranded.remove(entry.getId());
+        } catch (HttpResponseException e) {
+            if (isRejected(e)) {
+                stranded.remove(entry.getId());
+                if (writer == null) {
+                    // The caller sees the error: the write needs no keeping.
+                    journal.abort(entry);
+                } else {
+                    rejected.put(entry.getId(), entry);
+                }
+            } else {
+                stranded.add(entry.getId());
+            }
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            stranded.add(entry.getId());
+            throw e;
+        }
+    }
+
+    private void replay(WriteJournal.Entry entry) throws IOException {
+        String spreadsheetId = entry.getSpreadsheetId();
+        ValueRange first = entry.getData().get(0);
+        switch (entry.getOperation()) {
+            case APPEND:
+                super.appendValues(new SheetRequest(spreadsheetId, first.getRange()), first.getValues());
+                break;
+            case UPDATE:
+                super.overwriteValues(new SheetRequest(spreadsheetId, first.getRange()), first.getValues());
+                break;
+            case BATCH_UPDATE:
+                super.batchOverwriteValues(spreadsheetId, entry.getData());
+                break;
+            default:
+                super.clearRange(new SheetRequest(spreadsheetId, first.getRange()));
+                break;
+        }
+    }
+
+    /**
+     * Checks whether the last rows of the table are the rows of an append.
+     */
+    private boolean isApplied(WriteJournal.Entry entry) throws IOException {
+        ValueRange append = entry.getData().get(0);
+        List<List<Object>> rows = append.getValues() == null ? new ArrayList<>() : append.getValues();
+        if (rows.isEmpty()) {
+            return true;
+        }
+        List<List<Object>> table = super.fetchFormulas(new SheetRequest(entry.getSpreadsheetId(),
+                tableRange(append.getRange())));
+        if (table == null || table.size() < rows.size()) {
+            return false;
+        }
+        int offset = table.size() - rows.size();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!sameRow(rows.get(i), table.get(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Widens the range of an append to the rows and columns the API may have
+     * appended to: an append to {@code Sheet1!A1} writes below the table that
+     * starts there, not in {@code A1} itself.
+     */
+    static String tableRange(String range) {
+        SheetRange parsed = SheetRange.tryParse(range);
+        if (parsed != null) {
+            return parsed.withRows(parsed.getStartRow(), SheetRange.UNBOUNDED)
+                    .withColumns(parsed.getStartColumn(), SheetRange.UNBOUNDED).toA1();
+        }
+        // A named range or other text: read the whole sheet it names.
+        int separator = range.lastIndexOf('!');
+        return separator > 0 ? range.substring(0, separator) : range;
+    }
+
+    /**
+     * Compares an appended row with a row read back with its formulas, which
+     * holds the formula of a computed cell and the unformatted value of the
+     * others: {@code true} may read as {@code TRUE} and {@code 42L} as
+     * {@code 42.0}.
+     */
+    private static boolean sameRow(List<Object> written, List<Object> read) {
+        int size = Math.max(written.size(), read.size());
+        for (int column = 0; column < size; column++) {
+            Object expected = column < written.size() ? written.get(column) : null;
+            String actual = column < read.size() && read.get(column) != null ? read.get(column).toString() : "";
+            if (expected == null) {
+                if (!actual.isEmpty()) {
+                    return false;
+                }
+            } else if (expected instanceof Boolean) {
+                if (!actual.equalsIgnoreCase(expected.toString())) {
+                    return false;
+                }
+            } else if (expected instanceof Number) {
+                if (!sameNumber(expected.toString(), actual)) {
+                    return false;
+                }
+            } else if (!expected.toString().equals(actual)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameNumber(String expected, String actual) {
+        try {
+            return new BigDecimal(expected).compareTo(new BigDecimal(actual.replace(",", ""))) == 0;
+        } catch (NumberFormatException e) {
+            return expected.equals(actual);
+        }
+    }
+
+    /**
+     * A client error means the API did not apply the write and never will,
+     * except for a request timeout, which it may have applied, and a quota
+     * error, which it will accept later.
+     */
+    private static boolean isRejected(HttpResponseException e) {
+        int status = e.getStatusCode();
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    @FunctionalInterface
+    private interface WriteCall {
+        void execute() throws IOException;
+    }
+}
@@ -0,0 +1,522 @@
+package io.github.codenilson.gsapi_core.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+
+/**
+ * A write-ahead journal of the writes sent to the Google Sheets API, so that a
+ * write survives a crash of the process between the moment it is requested and
+ * the moment the API confirms it.
+ * <p>
+ * Each write is recorded as an {@link Entry} before it is sent, and the record
+ * is forced to disk before the call returns. Concurrent writers share the
+ * {@code fsync}: a writer that finds a sync in progress waits for it and is
+ * done if that sync covered its record, so the cost of forcing is spread over
+ * every write recorded in the meantime. Once the API confirms a write, a
+ * commit marker is appended without forcing it: losing a marker in a crash
+ * only makes the write be replayed, which {@link JournalingSheetsClient}
+ * detects for appends and is harmless for the other operations.
+ * <p>
+ * Records are framed with their length and a CRC-32, so a record torn by a
+ * crash is detected and cut off when the journal is opened. When no write is
+ * pending and the file has grown past {@link #COMPACT_BYTES}, it is truncated.
+ * The file is locked while the journal is open, so only one process can use
+ * it.
+ */
+public class WriteJournal implements AutoCloseable {
+
+    /**
+     * Size of the file above which it is truncated once no write is pending.
+     */
+    public static final long COMPACT_BYTES = 1 << 20;
+
+    private static final int MAGIC = 0x4753574A; // "GSWJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FRAME_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 30;
+
+    private static final byte COMMIT = 16;
+    private static final byte ABORT = 17;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte NUMBER = 2;
+    private static final byte TRUE = 3;
+    private static final byte FALSE = 4;
+
+    /**
+     * The kind of write recorded by an {@link Entry}.
+     */
+    public enum Operation {
+        /** A {@code values.append} of rows after a table. */
+        APPEND,
+        /** A {@code values.update} of one range. */
+        UPDATE,
+        /** A {@code values.batchUpdate} of several ranges. */
+        BATCH_UPDATE,
+        /** A {@code values.clear} of one range. */
+        CLEAR
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+    private final Object syncLock = new Object();
+
+    private long nextId = 1;
+    private long written;
+    private volatile long synced;
+    private long syncCount;
+
+    /**
+     * Opens a journal, creating the file if it does not exist. The writes left
+     * pending by a previous run are loaded and returned by
+     * {@link #getPending()}.
+     *
+     * @param path The journal file.
+     * @throws IllegalStateException If the file is not a journal or is in use by
+     *                               another process.
+     * @throws GSAPIError            If an error occurs while reading the file.
+     */
+    public WriteJournal(Path path) {
+        this.path = path;
+        FileChannel opened = null;
+        try {
+            opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            FileLock acquired = opened.tryLock();
+            if (acquired == null) {
+                throw new IllegalStateException("The write journal is in use by another process: " + path);
+            }
+            this.channel = opened;
+            this.lock = acquired;
+            load();
+        } catch (IOException e) {
+            closeQuietly(opened);
+            throw new GSAPIError("An error occurred while opening the write journal: " + path, e);
+        } catch (RuntimeException e) {
+            closeQuietly(opened);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return The path of the file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the writes that were recorded but neither committed nor aborted, in
+     * the order they were recorded.
+     *
+     * @return A new list of the pending entries.
+     */
+    public synchronized List<Entry> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Gets the number of times the file was forced to disk. It grows slower
+     * than the number of writes when concurrent writes share a sync.
+     *
+     * @return The number of syncs.
+     */
+    public long getSyncCount() {
+        synchronized (syncLock) {
+            return syncCount;
+        }
+    }
+
+    /**
+     * Records a write and forces it to disk.
+     *
+     * @param operation     The kind of write.
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param data          The ranges and their rows; the rows are ignored for
+     *                      {@link Operation#CLEAR}.
+     * @return The recorded entry.
+     * @throws IOException If the record cannot be written.
+     */
+    Entry begin(Operation operation, String spreadsheetId, List<ValueRange> data) throws IOException {
+        long position;
+        Entry entry;
+        synchronized (this) {
+            ensureOpen();
+            entry = new Entry(nextId++, operation, spreadsheetId, data);
+            position = append((byte) operation.ordinal(), entry.id, encode(entry));
+            pending.put(entry.id, entry);
+        }
+        sync(position);
+        return entry;
+    }
+
+    /**
+     * Records that a write was applied. The marker is not forced to disk.
+     *
+     * @param entry The entry of the write.
+     * @throws IOException If the marker cannot be written.
+     */
+    void commit(Entry entry) throws IOException {
+        resolve(entry, COMMIT);
+    }
+
+    /**
+     * Records that a write was rejected by the API and must not be replayed.
+     * The marker is not forced to disk.
+     *
+     * @param entry The entry of the write.
+     * @throws IOException If the marker cannot be written.
+     */
+    void abort(Entry entry) throws IOException {
+        resolve(entry, ABORT);
+    }
+
+    /**
+     * Forces the pending markers to disk and closes the file.
+     *
+     * @throws GSAPIError If an error occurs while closing the file.
+     */
+    @Override
+    public void close() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (!channel.isOpen()) {
+                    return;
+                }
+                try {
+                    channel.force(false);
+                    lock.release();
+                    channel.close();
+                } catch (IOException e) {
+                    throw new GSAPIError("An error occurred while closing the write journal: " + path, e);
+                }
+            }
+        }
+    }
+
+    private synchronized void resolve(Entry entry, byte marker) throws IOException {
+        ensureOpen();
+        if (pending.remove(entry.id) == null) {
+            return;
+        }
+        append(marker, entry.id, new byte[0]);
+        if (pending.isEmpty() && channel.size() > COMPACT_BYTES) {
+            channel.truncate(HEADER_BYTES);
+            channel.position(HEADER_BYTES);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Writes a record at the end of the file and returns the number of bytes
+     * written since the journal was opened, used as the position to sync to.
+     */
+    private long append(byte type, long id, byte[] payload) throws IOException {
+        int length = 1 + Long.BYTES + payload.length;
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(type).putLong(id).put(payload).flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(FRAME_BYTES + length);
+        record.putInt(length).putInt((int) crc.getValue()).put(body).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        written += FRAME_BYTES + length;
+        return written;
+    }
+
+    /**
+     * Forces the file to disk unless a sync started after the record was
+     * written already did.
+     */
+    private void sync(long position) throws IOException {
+        if (synced >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                ensureOpen();
+                target = written;
+            }
+            channel.force(false);
+            synced = target;
+            syncCount++;
+        }
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+            channel.position(HEADER_BYTES);
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, 0);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IllegalStateException("The file is not a write journal: " + path);
+        }
+
+        long position = HEADER_BYTES;
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES);
+        while (position + FRAME_BYTES <= size) {
+            frame.clear();
+            readFully(frame, position);
+            int length = frame.getInt(0);
+            if (length < 1 + Long.BYTES || length > MAX_RECORD_BYTES || position + FRAME_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(body, position + FRAME_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate().flip());
+            if ((int) crc.getValue() != frame.getInt(4)) {
+                break;
+            }
+            body.flip();
+            byte type = body.get();
+            long id = body.getLong();
+            if (type == COMMIT || type == ABORT) {
+                pending.remove(id);
+            } else if (type >= 0 && type < Operation.values().length) {
+                pending.put(id, decode(id, Operation.values()[type], body));
+            } else {
+                break;
+            }
+            nextId = Math.max(nextId, id + 1);
+            position += FRAME_BYTES + length;
+        }
+        if (position < size) {
+            // A record torn by a crash: it was never acknowledged, so drop it.
+            channel.truncate(position);
+            channel.force(false);
+        }
+        channel.position(position);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the write journal: " + path);
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("The write journal is closed: " + path);
+        }
+    }
+
+    private static byte[] encode(Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeString(out, entry.spreadsheetId);
+        out.writeInt(entry.data.size());
+        for (ValueRange range : entry.data) {
+            writeString(out, range.getRange());
+            List<List<Object>> rows = range.getValues();
+            out.writeInt(rows == null ? -1 : rows.size());
+            if (rows == null) {
+                continue;
+            }
+            for (List<Object> row : rows) {
+                out.writeInt(row.size());
+                for (Object cell : row) {
+                    writeCell(out, cell);
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(long id, Operation operation, ByteBuffer in) {
+        String spreadsheetId = readString(in);
+        int ranges = in.getInt();
+        List<ValueRange> data = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges; i++) {
+            ValueRange range = new ValueRange().setRange(readString(in));
+            int rows = in.getInt();
+            if (rows >= 0) {
+                List<List<Object>> values = new ArrayList<>(rows);
+                for (int row = 0; row < rows; row++) {
+                    int cells = in.getInt();
+                    List<Object> cellValues = new ArrayList<>(cells);
+                    for (int cell = 0; cell < cells; cell++) {
+                        cellValues.add(readCell(in));
+                    }
+                    values.add(cellValues);
+                }
+                range.setValues(values);
+            }
+            data.add(range);
+        }
+        return new Entry(id, operation, spreadsheetId, data);
+    }
+
+    private static void writeCell(DataOutputStream out, Object cell) throws IOException {
+        if (cell == null) {
+            out.writeByte(NULL);
+        } else if (cell instanceof Boolean) {
+            out.writeByte((Boolean) cell ? TRUE : FALSE);
+        } else if (cell instanceof Number) {
+            out.writeByte(NUMBER);
+            writeString(out, cell instanceof BigDecimal ? ((BigDecimal) cell).toPlainString() : cell.toString());
+        } else {
+            out.writeByte(STRING);
+            writeString(out, cell.toString());
+        }
+    }
+
+    private static Object readCell(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case NUMBER: {
+                String text = readString(in);
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    return new BigDecimal(text);
+                }
+            }
+            default:
+                return readString(in);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The open error is more useful than this one.
+        }
+    }
+
+    /**
+     * A write recorded in the journal.
+     */
+    public static final class Entry {
+        private final long id;
+        private final Operation operation;
+        private final String spreadsheetId;
+        private final List<ValueRange> data;
+
+        private Entry(long id, Operation operation, String spreadsheetId, List<ValueRange> data) {
+            this.id = id;
+            this.operation = operation;
+            this.spreadsheetId = spreadsheetId;
+            this.data = Collections.unmodifiableList(new ArrayList<>(data));
+        }
+
+        /**
+         * Gets the ID of the entry, increasing in the order writes were
+         * recorded.
+         *
+         * @return The ID.
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Gets the kind of write.
+         *
+         * @return The operation.
+         */
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * Gets the ID of the spreadsheet written to.
+         *
+         * @return The spreadsheet ID.
+         */
+        public String getSpreadsheetId() {
+            return spreadsheetId;
+        }
+
+        /**
+         * Gets the ranges written and their rows. Appends, updates and clears
+         * have a single range.
+         *
+         * @return An unmodifiable list of the ranges.
+         */
+        public List<ValueRange> getData() {
+            return data;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "id=" + id +
+                    ", operation=" + operation +
+                    ", spreadsheetId='" + spreadsheetId + '\'' +
+                    ", ranges=" + data.size() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.codenilson.gsapi_core.mapping;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Converts the cells of a column to and from the type of a Java field.
+ * <p>
+ * Cells hold strings when read with {@code retrieveData}, and strings,
+ * {@link BigDecimal}s and booleans when streamed; both are accepted. Numbers
+ * must be plain, so formatted values such as {@code 1,234.00} fail to convert.
+ * Empty cells become {@code null}, {@code 0} or {@code false} for primitives,
+ * and an empty string for strings.
+ */
+final class CellConverter {
+
+    private final Class<?> type;
+    private final Object empty;
+    private final Function<Object, Object> fromCell;
+    private final Function<Object, Object> toCell;
+
+    private CellConverter(Class<?> type, Object empty, Function<Object, Object> fromCell,
+            Function<Object, Object> toCell) {
+        this.type = type;
+        this.empty = empty;
+        this.fromCell = fromCell;
+        this.toCell = toCell;
+    }
+
+    /**
+     * Returns the converter of a field type.
+     *
+     * @param type The type of the field.
+     * @return The converter.
+     * @throws IllegalArgumentException If the type is not supported.
+     */
+    static CellConverter forType(Class<?> type) {
+        Function<Object, Object> plain = value -> value;
+        if (type == String.class) {
+            return new CellConverter(type, "", String::valueOf, plain);
+        }
+        if (type == Object.class) {
+            return new CellConverter(type, null, plain, plain);
+        }
+        if (type == long.class || type == Long.class) {
+            return new CellConverter(type, type.isPrimitive() ? 0L : null, CellConverter::toLong, plain);
+        }
+        if (type == int.class || type == Integer.class) {
+            return new CellConverter(type, type.isPrimitive() ? 0 : null,
+                    cell -> Math.toIntExact(toLong(cell)), plain);
+        }
+        if (type == short.class || type == Short.class) {
+            return new CellConverter(type, type.isPrimitive() ? (short) 0 : null,
+                    cell -> toBigDecimal(cell).shortValueExact(), plain);
+        }
+        if (type == double.class || type == Double.class) {
+            return new CellConverter(type, type.isPrimitive() ? 0d : null, CellConverter::toDouble, plain);
+        }
+        if (type == float.class || type == Float.class) {
+            return new CellConverter(type, type.isPrimitive() ? 0f : null,
+                    cell -> (float) toDouble(cell), plain);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return new CellConverter(type, type.isPrimitive() ? false : null, CellConverter::toBoolean, plain);
+        }
+        if (type == BigDecimal.class) {
+            return new CellConverter(type, null, CellConverter::toBigDecimal, plain);
+        }
+        if (type == BigInteger.class) {
+            return new CellConverter(type, null, cell -> toBigDecimal(cell).toBigIntegerExact(), String::valueOf);
+        }
+        if (type == LocalDate.class) {
+            return new CellConverter(type, null, cell -> LocalDate.parse(text(cell)), String::valueOf);
+        }
+        if (type == LocalDateTime.class) {
+            return new CellConverter(type, null, cell -> LocalDateTime.parse(text(cell)), String::valueOf);
+        }
+        if (type.isEnum()) {
+            return new CellConverter(type, null, cell -> toEnum(type, cell), value -> ((Enum<?>) value).name());
+        }
+        throw new IllegalArgumentException("Unsupported column type: " + type.getName());
+    }
+
+    /**
+     * Converts a cell to the field type.
+     *
+     * @param cell   The cell, or {@code null} if the row has no such cell.
+     * @param column The name of the column, used in error messages.
+     * @return The converted value.
+     * @throws IllegalArgumentException If the cell cannot be converted.
+     */
+    Object fromCell(Object cell, String column) {
+        if (cell == null || "".equals(cell)) {
+            return empty;
+        }
+        try {
+            return fromCell.apply(cell);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cannot convert value '" + cell + "' of column '" + column + "' to "
+                    + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Converts a field value to a cell.
+     *
+     * @param value The value of the field.
+     * @return The cell, an empty string for {@code null}.
+     */
+    Object toCell(Object value) {
+        return value == null ? "" : toCell.apply(value);
+    }
+
+    private static String text(Object cell) {
+        return cell.toString().trim();
+    }
+
+    private static long toLong(Object cell) {
+        if (cell instanceof Long || cell instanceof Integer || cell instanceof Short) {
+            return ((Number) cell).longValue();
+        }
+        if (cell instanceof BigDecimal) {
+            return ((BigDecimal) cell).longValueExact();
+        }
+        return Long.parseLong(text(cell));
+    }
+
+    private static double toDouble(Object cell) {
+        if (cell instanceof Number) {
+            return ((Number) cell).doubleValue();
+        }
+        return Double.parseDouble(text(cell));
+    }
+
+    private static BigDecimal toBigDecimal(Object cell) {
+        if (cell instanceof BigDecimal) {
+            return (BigDecimal) cell;
+        }
+        return new BigDecimal(text(cell));
+    }
+
+    private static Boolean toBoolean(Object cell) {
+        if (cell instanceof Boolean) {
+            return (Boolean) cell;
+        }
+        String text = text(cell);
+        if (text.equalsIgnoreCase("TRUE")) {
+            return Boolean.TRUE;
+        }
+        if (text.equalsIgnoreCase("FALSE")) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + text);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object toEnum(Class<?> type, Object cell) {
+        return Enum.valueOf((Class) type, text(cell));
+    }
+}
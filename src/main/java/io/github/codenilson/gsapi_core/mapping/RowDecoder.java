@@ -0,0 +1,55 @@
+package io.github.codenilson.gsapi_core.mapping;
+
+import java.util.List;
+
+/**
+ * Decodes rows into objects once the columns of a {@link RowMapper} are bound
+ * to cell positions. A decoder holds no state between rows and may be shared
+ * between threads.
+ *
+ * @param <T> The type rows are decoded to.
+ */
+public final class RowDecoder<T> {
+
+    private final RowMapper<T> mapper;
+    private final int[] positions;
+
+    RowDecoder(RowMapper<T> mapper, int[] positions) {
+        this.mapper = mapper;
+        this.positions = positions;
+    }
+
+    /**
+     * Gets the cell position each column is read from.
+     *
+     * @param column The name of the column, as returned by
+     *               {@link RowMapper#getColumnNames()}.
+     * @return The 0-based cell position, or {@code -1} if the column is not
+     *         bound and is always read as empty.
+     * @throws IllegalArgumentException If there is no such column.
+     */
+    public int getPosition(String column) {
+        int index = mapper.getColumnNames().indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return positions[index];
+    }
+
+    /**
+     * Decodes a row.
+     *
+     * @param row The cells of the row; missing trailing cells are empty.
+     * @return The decoded object.
+     * @throws IllegalArgumentException If a cell cannot be converted.
+     */
+    public T decode(List<Object> row) {
+        Object[] values = new Object[positions.length];
+        int size = row.size();
+        for (int column = 0; column < positions.length; column++) {
+            int position = positions[column];
+            values[column] = mapper.convert(column, position >= 0 && position < size ? row.get(position) : null);
+        }
+        return mapper.create(values);
+    }
+}
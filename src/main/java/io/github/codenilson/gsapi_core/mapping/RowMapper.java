@@ -0,0 +1,386 @@
+package io.github.codenilson.gsapi_core.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+/**
+ * Maps sheet rows to instances of a record or class, and back.
+ * <p>
+ * Every component of a record is mapped. On a class, the fields annotated with
+ * {@link SheetColumn} are mapped, or every non-static, non-transient field if
+ * none is annotated; the class needs a constructor without arguments, and its
+ * mapped fields must not be final. A column is named after its field unless
+ * the annotation renames it.
+ * <p>
+ * Accessors are resolved once per type into {@link MethodHandle}s, and mappers
+ * are cached per type, so mapping a row costs no reflection. Columns are bound
+ * to cells by the header row with {@link #decoder(List)}, or by position with
+ * {@link #decoder()}.
+ *
+ * @param <T> The type rows are mapped to.
+ * @see SheetColumn
+ */
+public final class RowMapper<T> {
+
+    private static final ClassValue<RowMapper<?>> MAPPERS = new ClassValue<RowMapper<?>>() {
+        @Override
+        protected RowMapper<?> computeValue(Class<?> type) {
+            return new RowMapper<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String[] names;
+    private final int[] layout;
+    private final boolean[] explicit;
+    private final int width;
+    private final CellConverter[] converters;
+    private final MethodHandle[] getters;
+    private final MethodHandle[] setters;
+    private final MethodHandle constructor;
+
+    private RowMapper(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("The type is not accessible, open its package: " + type.getName(), e);
+        }
+        List<String> columnNames = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<CellConverter> columnConverters = new ArrayList<>();
+        List<MethodHandle> columnGetters = new ArrayList<>();
+        MethodType getterType = MethodType.methodType(Object.class, Object.class);
+        try {
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    RecordComponent component = components[i];
+                    parameterTypes[i] = component.getType();
+                    SheetColumn column = component.getAnnotation(SheetColumn.class);
+                    columnNames.add(nameOf(column, component.getName()));
+                    indexes.add(column == null ? -1 : column.index());
+                    columnConverters.add(CellConverter.forType(component.getType()));
+                    columnGetters.add(lookup.unreflect(component.getAccessor()).asType(getterType));
+                }
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                        .asType(MethodType.methodType(Object.class, parameterTypes).generic())
+                        .asSpreader(Object[].class, components.length);
+                this.setters = null;
+            } else {
+                List<Field> fields = mappedFields(type);
+                MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+                this.setters = new MethodHandle[fields.size()];
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (Modifier.isFinal(field.getModifiers())) {
+                        throw new IllegalArgumentException("Mapped fields must not be final: " + field);
+                    }
+                    SheetColumn column = field.getAnnotation(SheetColumn.class);
+                    columnNames.add(nameOf(column, field.getName()));
+                    indexes.add(column == null ? -1 : column.index());
+                    columnConverters.add(CellConverter.forType(field.getType()));
+                    columnGetters.add(lookup.unreflectGetter(field).asType(getterType));
+                    setters[i] = lookup.unreflectSetter(field).asType(setterType);
+                }
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("A constructor without arguments is needed: " + type.getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("The type is not accessible: " + type.getName(), e);
+        }
+        if (columnNames.isEmpty()) {
+            throw new IllegalArgumentException("The type has no columns: " + type.getName());
+        }
+        this.names = columnNames.toArray(new String[0]);
+        this.converters = columnConverters.toArray(new CellConverter[0]);
+        this.getters = columnGetters.toArray(new MethodHandle[0]);
+        this.layout = layout(indexes);
+        this.explicit = new boolean[names.length];
+        for (int i = 0; i < names.length; i++) {
+            explicit[i] = indexes.get(i) >= 0;
+        }
+        this.width = Arrays.stream(layout).max().getAsInt() + 1;
+    }
+
+    /**
+     * Returns the mapper of a type, creating it on first use.
+     *
+     * @param <T>  The type rows are mapped to.
+     * @param type The record or class rows are mapped to.
+     * @return The mapper of the type.
+     * @throws IllegalArgumentException If the type cannot be mapped, e.g. it has
+     *                                  a field of an unsupported type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type) {
+        return (RowMapper<T>) MAPPERS.get(type);
+    }
+
+    /**
+     * Gets the type rows are mapped to.
+     *
+     * @return The mapped type.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the names of the columns, in declaration order.
+     *
+     * @return An unmodifiable list of column names.
+     */
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Builds the header row written by {@link #encode(Object)}: each column
+     * name at its position.
+     *
+     * @return A new header row.
+     */
+    public List<Object> headerRow() {
+        Object[] row = new Object[width];
+        Arrays.fill(row, "");
+        for (int i = 0; i < names.length; i++) {
+            row[layout[i]] = names[i];
+        }
+        return new ArrayList<>(Arrays.asList(row));
+    }
+
+    /**
+     * Returns a decoder that binds columns to the cells of a header row.
+     * Columns missing from the header fall back to their
+     * {@link SheetColumn#index() index}, if any, and are otherwise left empty.
+     *
+     * @param header The header row.
+     * @return A decoder for the rows below the header.
+     */
+    public RowDecoder<T> decoder(List<?> header) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            byName.put(key(names[i]), i);
+        }
+        int[] positions = new int[names.length];
+        Arrays.fill(positions, -1);
+        for (int cell = 0; cell < header.size(); cell++) {
+            Object value = header.get(cell);
+            Integer column = value == null ? null : byName.get(key(value.toString()));
+            if (column != null && positions[column] < 0) {
+                positions[column] = cell;
+            }
+        }
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] < 0 && explicit[i]) {
+                positions[i] = layout[i];
+            }
+        }
+        return new RowDecoder<>(this, positions);
+    }
+
+    /**
+     * Returns a decoder that reads each column at its position, as laid out by
+     * {@link #headerRow()}.
+     *
+     * @return A decoder for rows without a header.
+     */
+    public RowDecoder<T> decoder() {
+        return new RowDecoder<>(this, layout.clone());
+    }
+
+    /**
+     * Decodes rows whose first row is the header.
+     *
+     * @param values The rows, starting with the header.
+     * @return The decoded objects, one per row below the header.
+     * @throws IllegalArgumentException If a cell cannot be converted.
+     */
+    public List<T> decodeAll(List<List<Object>> values) {
+        if (values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+        RowDecoder<T> decoder = decoder(values.get(0));
+        List<T> result = new ArrayList<>(values.size() - 1);
+        for (int index = 1; index < values.size(); index++) {
+            result.add(decoder.decode(values.get(index)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a {@link RowConsumer} that binds the columns to the first row it
+     * receives and hands every following row, decoded, to {@code action}. Pass
+     * it to {@link io.github.codenilson.gsapi_core.client.GoogleSheetsClient#streamValues}
+     * to map a range without building its rows.
+     *
+     * @param action Receives each decoded row.
+     * @return A consumer of streamed rows, starting with the header.
+     */
+    public RowConsumer decoding(Consumer<? super T> action) {
+        return new RowConsumer() {
+            private RowDecoder<T> decoder;
+
+            @Override
+            public void accept(int index, List<Object> row) {
+                if (decoder == null) {
+                    decoder = decoder(row);
+                } else {
+                    action.accept(decoder.decode(row));
+                }
+            }
+        };
+    }
+
+    /**
+     * Encodes an object as a row, each column at its position.
+     *
+     * @param value The object to encode.
+     * @return A new row.
+     */
+    public List<Object> encode(T value) {
+        Object[] row = new Object[width];
+        if (width != names.length) {
+            Arrays.fill(row, "");
+        }
+        for (int i = 0; i < names.length; i++) {
+            row[layout[i]] = converters[i].toCell(get(i, value));
+        }
+        return new ArrayList<>(Arrays.asList(row));
+    }
+
+    /**
+     * Encodes objects as rows.
+     *
+     * @param values        The objects to encode.
+     * @param includeHeader Whether the first row is the {@link #headerRow()}.
+     * @return The rows.
+     */
+    public List<List<Object>> encodeAll(Iterable<? extends T> values, boolean includeHeader) {
+        List<List<Object>> rows = new ArrayList<>();
+        if (includeHeader) {
+            rows.add(headerRow());
+        }
+        for (T value : values) {
+            rows.add(encode(value));
+        }
+        return rows;
+    }
+
+    /**
+     * Creates an object from the converted values of its columns.
+     */
+    T create(Object[] values) {
+        try {
+            if (setters == null) {
+                return type.cast((Object) constructor.invokeExact(values));
+            }
+            Object instance = (Object) constructor.invokeExact();
+            for (int i = 0; i < setters.length; i++) {
+                setters[i].invokeExact(instance, values[i]);
+            }
+            return type.cast(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot create an instance of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Converts a cell to the type of a column.
+     */
+    Object convert(int column, Object cell) {
+        return converters[column].fromCell(cell, names[column]);
+    }
+
+    private Object get(int column, T value) {
+        try {
+            return (Object) getters[column].invokeExact((Object) value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot read column '" + names[column] + "' of " + type.getName(), e);
+        }
+    }
+
+    private static List<Field> mappedFields(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        List<Field> all = new ArrayList<>();
+        List<Field> annotated = new ArrayList<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                all.add(field);
+                if (field.isAnnotationPresent(SheetColumn.class)) {
+                    annotated.add(field);
+                }
+            }
+        }
+        return annotated.isEmpty() ? all : annotated;
+    }
+
+    private static String nameOf(SheetColumn column, String fallback) {
+        return column == null || column.value().isEmpty() ? fallback : column.value();
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Places the columns with an explicit index first, then fills the
+     * remaining positions in declaration order.
+     */
+    private static int[] layout(List<Integer> indexes) {
+        int[] layout = new int[indexes.size()];
+        boolean[] taken = new boolean[indexes.size() + indexes.stream().mapToInt(Integer::intValue).max().orElse(0)
+                + 1];
+        for (int i = 0; i < layout.length; i++) {
+            int index = indexes.get(i);
+            if (index >= 0) {
+                if (taken[index]) {
+                    throw new IllegalArgumentException("Two columns use the index " + index);
+                }
+                taken[index] = true;
+            }
+            layout[i] = index;
+        }
+        int next = 0;
+        for (int i = 0; i < layout.length; i++) {
+            if (layout[i] < 0) {
+                while (taken[next]) {
+                    next++;
+                }
+                layout[i] = next;
+                taken[next] = true;
+            }
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.codenilson.gsapi_core.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field or record component to a sheet column for {@link RowMapper}.
+ * <p>
+ * On a class, once any field is annotated, only the annotated fields are
+ * mapped. On a record every component is mapped, and the annotation only
+ * renames or positions it.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.RECORD_COMPONENT })
+public @interface SheetColumn {
+
+    /**
+     * The header of the column, matched ignoring case and surrounding spaces.
+     * Defaults to the name of the field.
+     *
+     * @return The column header.
+     */
+    String value() default "";
+
+    /**
+     * The 0-based position of the column, used when writing rows and when the
+     * header row has no column of this name. Defaults to the declaration order.
+     *
+     * @return The column position, or {@code -1} for the declaration order.
+     */
+    int index() default -1;
+}
@@ -0,0 +1,264 @@
+package io.github.codenilson.gsapi_core.metrics;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+/**
+ * A {@link GoogleSheetsClient} that reports the duration, outcome and number of
+ * rows and cells of every call to a {@link SheetsMetrics}.
+ * <p>
+ * Placed in front of a {@link io.github.codenilson.gsapi_core.ratelimit.RateLimitedSheetsClient},
+ * durations include the time spent waiting for permits and retrying; placed
+ * behind it, every attempt is measured on its own. Without this decorator
+ * nothing is measured, so disabled metrics cost nothing.
+ */
+public class InstrumentedSheetsClient extends ForwardingGoogleSheetsClient {
+
+    private final SheetsMetrics metrics;
+
+    /**
+     * Constructs a new InstrumentedSheetsClient.
+     *
+     * @param delegate The client the calls are forwarded to.
+     * @param metrics  The metrics that receive the measurements.
+     */
+    public InstrumentedSheetsClient(GoogleSheetsClient delegate, SheetsMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the metrics that receive the measurements.
+     *
+     * @return The metrics.
+     */
+    public SheetsMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+        Call call = start(SheetsOperation.FETCH, request.getSpreadsheetId());
+        try {
+            List<List<Object>> values = super.fetchValues(request);
+            call.count(values);
+            return values;
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public List<List<Object>> fetchFormulas(SheetRequest request) throws IOException {
+        Call call = start(SheetsOperation.FETCH, request.getSpreadsheetId());
+        try {
+            List<List<Object>> values = super.fetchFormulas(request);
+            call.count(values);
+            return values;
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public int streamValues(SheetRequest request, RowConsumer consumer) throws IOException {
+        Call call = start(SheetsOperation.STREAM, request.getSpreadsheetId());
+        try {
+            return super.streamValues(request, (index, row) -> {
+                call.rows++;
+                call.cells += row.size();
+                consumer.accept(index, row);
+            });
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges) throws IOException {
+        Call call = start(SheetsOperation.BATCH_FETCH, spreadsheetId);
+        try {
+            List<List<List<Object>>> results = super.fetchValuesBatch(spreadsheetId, ranges);
+            for (List<List<Object>> values : results) {
+                call.count(values);
+            }
+            return results;
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchUnformattedValuesBatch(String spreadsheetId, List<String> ranges)
+            throws IOException {
+        Call call = start(SheetsOperation.BATCH_FETCH, spreadsheetId);
+        try {
+            List<List<List<Object>>> results = super.fetchUnformattedValuesBatch(spreadsheetId, ranges);
+            for (List<List<Object>> values : results) {
+                call.count(values);
+            }
+            return results;
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public String fetchRevision(String spreadsheetId) throws IOException {
+        Call call = start(SheetsOperation.METADATA, spreadsheetId);
+        try {
+            return super.fetchRevision(spreadsheetId);
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public List<SheetProperties> fetchSheets(String spreadsheetId) throws IOException {
+        Call call = start(SheetsOperation.METADATA, spreadsheetId);
+        try {
+            return super.fetchSheets(spreadsheetId);
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public void ensureGridSize(String spreadsheetId, String sheetName, int rows, int columns) throws IOException {
+        Call call = start(SheetsOperation.METADATA, spreadsheetId);
+        try {
+            super.ensureGridSize(spreadsheetId, sheetName, rows, columns);
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        Call call = start(SheetsOperation.APPEND, request.getSpreadsheetId());
+        try {
+            super.appendValues(request, values);
+            call.count(values);
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        Call call = start(SheetsOperation.UPDATE, request.getSpreadsheetId());
+        try {
+            super.overwriteValues(request, values);
+            call.count(values);
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        Call call = start(SheetsOperation.BATCH_UPDATE, spreadsheetId);
+        try {
+            super.batchOverwriteValues(spreadsheetId, data);
+            for (ValueRange range : data) {
+                call.count(range.getValues());
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    @Override
+    public void clearRange(SheetRequest request) throws IOException {
+        Call call = start(SheetsOperation.CLEAR, request.getSpreadsheetId());
+        try {
+            super.clearRange(request);
+        } catch (IOException | RuntimeException | Error e) {
+            call.failed();
+            throw e;
+        } finally {
+            call.finish();
+        }
+    }
+
+    private Call start(SheetsOperation operation, String spreadsheetId) {
+        metrics.callStarted(operation, spreadsheetId);
+        return new Call(operation, spreadsheetId);
+    }
+
+    /**
+     * The state of one measured call.
+     */
+    private final class Call {
+        private final SheetsOperation operation;
+        private final String spreadsheetId;
+        private final long start = System.nanoTime();
+        private boolean success = true;
+        private long rows;
+        private long cells;
+
+        private Call(SheetsOperation operation, String spreadsheetId) {
+            this.operation = operation;
+            this.spreadsheetId = spreadsheetId;
+        }
+
+        private void count(List<? extends List<?>> values) {
+            if (values == null) {
+                return;
+            }
+            rows += values.size();
+            for (List<?> row : values) {
+                cells += row == null ? 0 : row.size();
+            }
+        }
+
+        private void failed() {
+            success = false;
+        }
+
+        private void finish() {
+            metrics.callFinished(operation, spreadsheetId, System.nanoTime() - start, success, rows, cells);
+        }
+    }
+}
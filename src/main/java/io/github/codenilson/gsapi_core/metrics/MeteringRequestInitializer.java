@@ -0,0 +1,109 @@
+package io.github.codenilson.gsapi_core.metrics;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpMethods;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponseInterceptor;
+
+/**
+ * An {@link HttpRequestInitializer} that reports the status and the request and
+ * response sizes of every HTTP exchange to a {@link SheetsMetrics}.
+ * <p>
+ * It wraps the initializer that authenticates the requests, e.g. the one
+ * returned by {@link io.github.codenilson.gsapi_core.utils.Authenticator}, and
+ * is passed to {@link io.github.codenilson.gsapi_core.client.SheetClientFactory}
+ * in its place. The operation and spreadsheet are read from the request URL.
+ * The response size is taken from its {@code Content-Length} header, so it is
+ * {@code -1} for chunked responses.
+ */
+public class MeteringRequestInitializer implements HttpRequestInitializer {
+
+    private final HttpRequestInitializer delegate;
+    private final SheetsMetrics metrics;
+
+    /**
+     * Constructs a new MeteringRequestInitializer.
+     *
+     * @param delegate The initializer applied first, or {@code null}.
+     * @param metrics  The metrics that receive the measurements.
+     */
+    public MeteringRequestInitializer(HttpRequestInitializer delegate, SheetsMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void initialize(HttpRequest request) throws IOException {
+        if (delegate != null) {
+            delegate.initialize(request);
+        }
+        HttpResponseInterceptor previous = request.getResponseInterceptor();
+        request.setResponseInterceptor(response -> {
+            if (previous != null) {
+                previous.interceptResponse(response);
+            }
+            HttpRequest sent = response.getRequest();
+            HttpContent content = sent.getContent();
+            long requestBytes = content == null ? 0 : Math.max(content.getLength(), 0);
+            Long length = response.getHeaders().getContentLength();
+            GenericUrl url = sent.getUrl();
+            metrics.exchange(operationOf(sent.getRequestMethod(), url), spreadsheetIdOf(url), response.getStatusCode(),
+                    requestBytes, length == null ? -1 : length);
+        });
+    }
+
+    /**
+     * Finds the operation of a Sheets API request from its method and URL.
+     *
+     * @param method The HTTP method.
+     * @param url    The request URL.
+     * @return The operation, {@link SheetsOperation#METADATA} if the request is
+     *         not a values call.
+     */
+    static SheetsOperation operationOf(String method, GenericUrl url) {
+        String path = url.getRawPath();
+        if (path == null || !path.contains("/values")) {
+            return SheetsOperation.METADATA;
+        }
+        if (path.endsWith("values:batchGet")) {
+            return SheetsOperation.BATCH_FETCH;
+        }
+        if (path.endsWith("values:batchUpdate")) {
+            return SheetsOperation.BATCH_UPDATE;
+        }
+        if (path.endsWith(":append")) {
+            return SheetsOperation.APPEND;
+        }
+        if (path.endsWith(":clear")) {
+            return SheetsOperation.CLEAR;
+        }
+        return HttpMethods.GET.equals(method) ? SheetsOperation.FETCH : SheetsOperation.UPDATE;
+    }
+
+    /**
+     * Finds the spreadsheet ID in the path of a Sheets or Drive API request.
+     *
+     * @param url The request URL.
+     * @return The spreadsheet ID, or {@code null} if the path has none.
+     */
+    static String spreadsheetIdOf(GenericUrl url) {
+        List<String> parts = url.getPathParts();
+        if (parts == null) {
+            return null;
+        }
+        for (int i = 0; i < parts.size() - 1; i++) {
+            String part = parts.get(i);
+            if ("spreadsheets".equals(part) || "files".equals(part)) {
+                String id = parts.get(i + 1);
+                int colon = id.indexOf(':');
+                return colon < 0 ? id : id.substring(0, colon);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.codenilson.gsapi_core.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link SheetsMetrics} that records into a Micrometer {@link MeterRegistry}.
+ * <p>
+ * Micrometer is an optional dependency: this class may only be used when
+ * {@code micrometer-core} is on the classpath. Registries that export to
+ * OpenTelemetry, such as the OTLP registry, receive these meters as well.
+ * <p>
+ * The following meters are recorded, all tagged with {@code operation} and,
+ * if enabled, {@code spreadsheet}:
+ * <ul>
+ * <li>{@code gsapi.calls}: timer of call durations with a percentile
+ * histogram, also tagged with {@code outcome};</li>
+ * <li>{@code gsapi.calls.active}: gauge of the calls in flight, tagged with
+ * {@code operation} only;</li>
+ * <li>{@code gsapi.rows} and {@code gsapi.cells}: counters of the rows and
+ * cells transferred;</li>
+ * <li>{@code gsapi.request.size} and {@code gsapi.response.size}: summaries of
+ * the HTTP body sizes in bytes, also tagged with {@code status};</li>
+ * <li>{@code gsapi.retries} and {@code gsapi.throttled}: counters of retried
+ * and throttled calls.</li>
+ * </ul>
+ */
+public class MicrometerSheetsMetrics implements SheetsMetrics {
+
+    private final MeterRegistry registry;
+    private final boolean tagSpreadsheet;
+    private final Map<SheetsOperation, AtomicInteger> active = new EnumMap<>(SheetsOperation.class);
+
+    /**
+     * Constructs a new MicrometerSheetsMetrics that tags meters with the
+     * spreadsheet ID.
+     *
+     * @param registry The registry the meters are added to.
+     */
+    public MicrometerSheetsMetrics(MeterRegistry registry) {
+        this(registry, true);
+    }
+
+    /**
+     * Constructs a new MicrometerSheetsMetrics.
+     *
+     * @param registry       The registry the meters are added to.
+     * @param tagSpreadsheet Whether meters are tagged with the spreadsheet ID;
+     *                       disable it when many spreadsheets are used, as each
+     *                       one creates its own meters.
+     */
+    public MicrometerSheetsMetrics(MeterRegistry registry, boolean tagSpreadsheet) {
+        this.registry = registry;
+        this.tagSpreadsheet = tagSpreadsheet;
+        for (SheetsOperation operation : SheetsOperation.values()) {
+            AtomicInteger count = new AtomicInteger();
+            active.put(operation, count);
+            registry.gauge("gsapi.calls.active", Tags.of("operation", tagOf(operation)), count);
+        }
+    }
+
+    @Override
+    public void callStarted(SheetsOperation operation, String spreadsheetId) {
+        active.get(operation).incrementAndGet();
+    }
+
+    @Override
+    public void callFinished(SheetsOperation operation, String spreadsheetId, long nanos, boolean success, long rows,
+            long cells) {
+        active.get(operation).decrementAndGet();
+        Tags tags = tags(operation, spreadsheetId);
+        Timer.builder("gsapi.calls")
+                .tags(tags.and("outcome", success ? "success" : "error"))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (rows > 0) {
+            registry.counter("gsapi.rows", tags).increment(rows);
+            registry.counter("gsapi.cells", tags).increment(cells);
+        }
+    }
+
+    @Override
+    public void exchange(SheetsOperation operation, String spreadsheetId, int status, long requestBytes,
+            long responseBytes) {
+        Tags tags = tags(operation, spreadsheetId).and("status", Integer.toString(status));
+        DistributionSummary.builder("gsapi.request.size").baseUnit("bytes").tags(tags).register(registry)
+                .record(requestBytes);
+        if (responseBytes >= 0) {
+            DistributionSummary.builder("gsapi.response.size").baseUnit("bytes").tags(tags).register(registry)
+                    .record(responseBytes);
+        }
+    }
+
+    @Override
+    public void retried(SheetsOperation operation, String spreadsheetId, int status) {
+        registry.counter("gsapi.retries", tags(operation, spreadsheetId).and("status", Integer.toString(status)))
+                .increment();
+    }
+
+    @Override
+    public void throttled(SheetsOperation operation, String spreadsheetId) {
+        registry.counter("gsapi.throttled", tags(operation, spreadsheetId)).increment();
+    }
+
+    private Tags tags(SheetsOperation operation, String spreadsheetId) {
+        Tags tags = Tags.of("operation", tagOf(operation));
+        if (tagSpreadsheet) {
+            tags = tags.and("spreadsheet", spreadsheetId == null ? "unknown" : spreadsheetId);
+        }
+        return tags;
+    }
+
+    private static String tagOf(SheetsOperation operation) {
+        return operation.name().toLowerCase();
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.codenilson.gsapi_core.metrics;
+
+/**
+ * Receives measurements of the calls made to the Sheets API.
+ * <p>
+ * Every method does nothing by default, so an implementation only overrides
+ * what it records. Implementations are called from the threads making the
+ * calls and must be thread-safe and fast.
+ *
+ * @see InstrumentedSheetsClient
+ * @see MeteringRequestInitializer
+ * @see MicrometerSheetsMetrics
+ */
+public interface SheetsMetrics {
+
+    /**
+     * Metrics that record nothing.
+     */
+    SheetsMetrics NOOP = new SheetsMetrics() {
+    };
+
+    /**
+     * Called when a call starts.
+     *
+     * @param operation     The kind of call.
+     * @param spreadsheetId The ID of the spreadsheet.
+     */
+    default void callStarted(SheetsOperation operation, String spreadsheetId) {
+    }
+
+    /**
+     * Called when a call ends, successfully or not.
+     *
+     * @param operation     The kind of call.
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param nanos         The duration of the call, retries included.
+     * @param success       Whether the call succeeded.
+     * @param rows          The number of rows read or written.
+     * @param cells         The number of cells read or written.
+     */
+    default void callFinished(SheetsOperation operation, String spreadsheetId, long nanos, boolean success, long rows,
+            long cells) {
+    }
+
+    /**
+     * Called for every HTTP exchange with the API.
+     *
+     * @param operation     The kind of call.
+     * @param spreadsheetId The ID of the spreadsheet, or {@code null} if
+     *                      unknown.
+     * @param status        The HTTP status code.
+     * @param requestBytes  The size of the request body.
+     * @param responseBytes The size of the response body, or {@code -1} if the
+     *                      server did not send its length.
+     */
+    default void exchange(SheetsOperation operation, String spreadsheetId, int status, long requestBytes,
+            long responseBytes) {
+    }
+
+    /**
+     * Called when a call is retried.
+     *
+     * @param operation     The kind of call.
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param status        The HTTP status code of the failed attempt.
+     */
+    default void retried(SheetsOperation operation, String spreadsheetId, int status) {
+    }
+
+    /**
+     * Called when the API rejects a call because of rate limits.
+     *
+     * @param operation     The kind of call.
+     * @param spreadsheetId The ID of the spreadsheet.
+     */
+    default void throttled(SheetsOperation operation, String spreadsheetId) {
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.codenilson.gsapi_core.metrics;
+
+/**
+ * The kinds of calls made to the Sheets API, used to tag metrics.
+ */
+public enum SheetsOperation {
+    /**
+     * {@code values.get}, parsed into a list of rows.
+     */
+    FETCH,
+    /**
+     * {@code values.batchGet}.
+     */
+    BATCH_FETCH,
+    /**
+     * {@code values.get}, decoded as a stream.
+     */
+    STREAM,
+    /**
+     * {@code values.append}.
+     */
+    APPEND,
+    /**
+     * {@code values.update}.
+     */
+    UPDATE,
+    /**
+     * {@code values.batchUpdate}.
+     */
+    BATCH_UPDATE,
+    /**
+     * {@code values.clear}.
+     */
+    CLEAR,
+    /**
+     * Spreadsheet or Drive metadata calls, such as listing sheets.
+     */
+    METADATA
+}
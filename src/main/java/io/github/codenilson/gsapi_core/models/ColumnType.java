@@ -0,0 +1,33 @@
+package io.github.codenilson.gsapi_core.models;
+
+/**
+ * Storage type of a column of a {@link ColumnarSheet}, inferred from its cells.
+ */
+public enum ColumnType {
+
+    /**
+     * Every cell of the column is empty.
+     */
+    EMPTY,
+
+    /**
+     * Every non-empty cell is {@code TRUE} or {@code FALSE}; stored as a bitset.
+     */
+    BOOLEAN,
+
+    /**
+     * Every non-empty cell is an integer; stored as a {@code long[]}.
+     */
+    LONG,
+
+    /**
+     * Every non-empty cell is a number and at least one is not an integer;
+     * stored as a {@code double[]}.
+     */
+    DOUBLE,
+
+    /**
+     * Any other column; stored as dictionary codes into the distinct strings.
+     */
+    STRING
+}
@@ -0,0 +1,802 @@
+package io.github.codenilson.gsapi_core.models;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Column-oriented, typed representation of the rows of a range, as an
+ * alternative to a list of {@link DataValue}s.
+ * <p>
+ * The type of each column is inferred as the rows are added: numbers are
+ * stored in a {@code long[]} or {@code double[]}, booleans in a bitset and any
+ * other text as dictionary codes into the distinct strings of the column.
+ * Empty cells are tracked in a separate bitset. Numeric accessors never box,
+ * which keeps scans and aggregations over large sheets cheap.
+ * <p>
+ * Cells are read as the API returns them. Text is only stored as a number when
+ * it is a plain decimal literal that the type holds without losing digits, so
+ * values such as {@code 007}, {@code 1,5} or long identifiers remain strings.
+ * Instances are immutable.
+ */
+public final class ColumnarSheet {
+
+    private final List<String> headers;
+    private final int rowCount;
+    private final Column[] columns;
+
+    private ColumnarSheet(List<String> headers, int rowCount, Column[] columns) {
+        this.headers = headers;
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /**
+     * Builds a ColumnarSheet from the values of a range. As with
+     * {@code GsAPI.retrieveData}, the first row is the header.
+     *
+     * @param values The rows of the range, header included.
+     * @return The columnar sheet.
+     */
+    public static ColumnarSheet fromValues(List<List<Object>> values) {
+        Builder builder = new Builder();
+        for (int index = 0; index < values.size(); index++) {
+            if (index == 0) {
+                builder.setHeaders(values.get(0));
+            } else {
+                builder.addRow(values.get(index));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the number of data rows, excluding the header.
+     *
+     * @return The number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of columns, the widest of the header and the rows.
+     *
+     * @return The number of columns.
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Gets the header of every column. Columns beyond the header row have an
+     * empty name.
+     *
+     * @return An unmodifiable list of column names.
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Finds a column by its header.
+     *
+     * @param header The column name.
+     * @return The index of the first column with that name, or {@code -1}.
+     */
+    public int getColumnIndex(String header) {
+        return headers.indexOf(header);
+    }
+
+    /**
+     * Gets the inferred type of a column.
+     *
+     * @param column The column index, starting at 0.
+     * @return The column type.
+     */
+    public ColumnType getColumnType(int column) {
+        return columns[column].type;
+    }
+
+    /**
+     * Checks whether a cell is empty.
+     *
+     * @param row    The row index, starting at 0 after the header.
+     * @param column The column index, starting at 0.
+     * @return {@code true} if the cell is empty.
+     */
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        return columns[column].nulls.get(row);
+    }
+
+    /**
+     * Reads a numeric cell without boxing.
+     *
+     * @param row    The row index, starting at 0 after the header.
+     * @param column The index of a {@link ColumnType#DOUBLE} or
+     *               {@link ColumnType#LONG} column.
+     * @return The value, or {@link Double#NaN} if the cell is empty.
+     * @throws IllegalArgumentException If the column is not numeric.
+     */
+    public double getDouble(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col.nulls.get(row)) {
+            if (col.type != ColumnType.DOUBLE && col.type != ColumnType.LONG) {
+                throw wrongType(column, "numeric");
+            }
+            return Double.NaN;
+        }
+        if (col.type == ColumnType.DOUBLE) {
+            return col.doubles[row];
+        }
+        if (col.type == ColumnType.LONG) {
+            return col.longs[row];
+        }
+        throw wrongType(column, "numeric");
+    }
+
+    /**
+     * Reads an integer cell without boxing.
+     *
+     * @param row    The row index, starting at 0 after the header.
+     * @param column The index of a {@link ColumnType#LONG} column.
+     * @return The value, or {@code 0} if the cell is empty.
+     * @throws IllegalArgumentException If the column is not a LONG column.
+     */
+    public long getLong(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col.type != ColumnType.LONG) {
+            throw wrongType(column, ColumnType.LONG.name());
+        }
+        return col.longs[row];
+    }
+
+    /**
+     * Reads a boolean cell.
+     *
+     * @param row    The row index, starting at 0 after the header.
+     * @param column The index of a {@link ColumnType#BOOLEAN} column.
+     * @return The value, or {@code false} if the cell is empty.
+     * @throws IllegalArgumentException If the column is not a BOOLEAN column.
+     */
+    public boolean getBoolean(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col.type != ColumnType.BOOLEAN) {
+            throw wrongType(column, ColumnType.BOOLEAN.name());
+        }
+        return col.booleans.get(row);
+    }
+
+    /**
+     * Reads a cell as text, whatever the type of its column.
+     *
+     * @param row    The row index, starting at 0 after the header.
+     * @param column The column index, starting at 0.
+     * @return The text of the cell, or {@code null} if it is empty.
+     */
+    public String getString(int row, int column) {
+        Object value = getValue(row, column);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Reads the dictionary code of a string cell. Equal strings share the same
+     * code, which allows grouping and comparisons without string hashing.
+     *
+     * @param row    The row index, starting at 0 after the header.
+     * @param column The index of a {@link ColumnType#STRING} column.
+     * @return The index of the value in {@link #getDictionary(int)}, or
+     *         {@code -1} if the cell is empty.
+     * @throws IllegalArgumentException If the column is not a STRING column.
+     */
+    public int getStringCode(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col.type != ColumnType.STRING) {
+            throw wrongType(column, ColumnType.STRING.name());
+        }
+        return col.codes[row];
+    }
+
+    /**
+     * Gets the distinct strings of a string column, in order of first
+     * appearance.
+     *
+     * @param column The index of a {@link ColumnType#STRING} column.
+     * @return An unmodifiable list of the distinct values.
+     * @throws IllegalArgumentException If the column is not a STRING column.
+     */
+    public List<String> getDictionary(int column) {
+        Column col = columns[column];
+        if (col.type != ColumnType.STRING) {
+            throw wrongType(column, ColumnType.STRING.name());
+        }
+        return col.dictionary;
+    }
+
+    /**
+     * Reads a cell as an object: a {@link Long}, {@link Double},
+     * {@link Boolean} or {@link String} depending on the column type.
+     *
+     * @param row    The row index, starting at 0 after the header.
+     * @param column The column index, starting at 0.
+     * @return The value, or {@code null} if the cell is empty.
+     */
+    public Object getValue(int row, int column) {
+        checkRow(row);
+        Column col = columns[column];
+        if (col.nulls.get(row)) {
+            return null;
+        }
+        switch (col.type) {
+            case BOOLEAN:
+                return col.booleans.get(row);
+            case LONG:
+                return col.longs[row];
+            case DOUBLE:
+                return col.doubles[row];
+            case STRING:
+                return col.dictionary.get(col.codes[row]);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Streams the non-empty values of a numeric column without boxing.
+     *
+     * @param column The index of a {@link ColumnType#DOUBLE} or
+     *               {@link ColumnType#LONG} column.
+     * @return The values, in row order.
+     * @throws IllegalArgumentException If the column is not numeric.
+     */
+    public DoubleStream doubleStream(int column) {
+        Column col = columns[column];
+        if (col.type == ColumnType.DOUBLE) {
+            return nonNullRows(col).mapToDouble(row -> col.doubles[row]);
+        }
+        if (col.type == ColumnType.LONG) {
+            return nonNullRows(col).mapToDouble(row -> col.longs[row]);
+        }
+        throw wrongType(column, "numeric");
+    }
+
+    /**
+     * Streams the non-empty values of an integer column without boxing.
+     *
+     * @param column The index of a {@link ColumnType#LONG} column.
+     * @return The values, in row order.
+     * @throws IllegalArgumentException If the column is not a LONG column.
+     */
+    public LongStream longStream(int column) {
+        Column col = columns[column];
+        if (col.type != ColumnType.LONG) {
+            throw wrongType(column, ColumnType.LONG.name());
+        }
+        return nonNullRows(col).mapToLong(row -> col.longs[row]);
+    }
+
+    /**
+     * Returns a view of a row as a {@link DataValue} with the same start range
+     * as the element {@code GsAPI.retrieveData} returns for that row. Cells are
+     * read from the columns when accessed, typed as by
+     * {@link #getValue(int, int)}; empty cells before the last non-empty one
+     * read as {@code ""}, as the API returns them.
+     *
+     * @param row The row index, starting at 0 after the header.
+     * @return The row as a DataValue.
+     */
+    public DataValue row(int row) {
+        checkRow(row);
+        return new DataValue(new RowView(row), row + 1);
+    }
+
+    /**
+     * Returns every row as a {@link DataValue}.
+     *
+     * @return A list of row views.
+     * @see #row(int)
+     */
+    public List<DataValue> toDataValues() {
+        List<DataValue> result = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            result.add(row(row));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of the ColumnarSheet.
+     *
+     * @return A string containing the size and column types.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ColumnarSheet{rows=").append(rowCount).append(", columns=[");
+        for (int column = 0; column < columns.length; column++) {
+            builder.append(column == 0 ? "" : ", ").append(headers.get(column)).append(':')
+                    .append(columns[column].type);
+        }
+        return builder.append("]}").toString();
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount + " rows.");
+        }
+    }
+
+    private IntStream nonNullRows(Column col) {
+        return IntStream.range(0, rowCount).filter(row -> !col.nulls.get(row));
+    }
+
+    private IllegalArgumentException wrongType(int column, String expected) {
+        return new IllegalArgumentException(
+                "Column " + column + " is " + columns[column].type + ", not " + expected + ".");
+    }
+
+    private class RowView extends AbstractList<Object> {
+        private final int row;
+        private final int size;
+
+        private RowView(int row) {
+            this.row = row;
+            int last = columns.length;
+            while (last > 0 && columns[last - 1].nulls.get(row)) {
+                last--;
+            }
+            this.size = last;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " cells.");
+            }
+            Object value = getValue(row, index);
+            return value == null ? "" : value;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class Column {
+        private final ColumnType type;
+        private final BitSet nulls;
+        private final long[] longs;
+        private final double[] doubles;
+        private final BitSet booleans;
+        private final int[] codes;
+        private final List<String> dictionary;
+
+        private Column(ColumnType type, BitSet nulls, long[] longs, double[] doubles, BitSet booleans, int[] codes,
+                List<String> dictionary) {
+            this.type = type;
+            this.nulls = nulls;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.booleans = booleans;
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+    }
+
+    /**
+     * Accumulates rows and builds a {@link ColumnarSheet}, so a sheet can be
+     * decoded without first materializing a list of rows.
+     * <p>
+     * Each cell is encoded into its column as the row is added: the type of a
+     * column is inferred from the cells seen so far and widened when a cell
+     * does not fit it, converting the values already stored, so no cell is
+     * kept as an object. Numeric and boolean columns also keep the original
+     * text of the few cells whose text is not the canonical form of their
+     * value, such as {@code 2.50}, in case the column later becomes a string
+     * column. A builder is not thread-safe and is meant to be used once.
+     */
+    public static final class Builder {
+
+        private final List<String> headers = new ArrayList<>();
+        private ColumnBuilder[] columns = new ColumnBuilder[0];
+        private int rowCount;
+
+        /**
+         * Sets the column names.
+         *
+         * @param headers The header row.
+         * @return This builder.
+         */
+        public Builder setHeaders(List<?> headers) {
+            this.headers.clear();
+            for (Object header : headers) {
+                this.headers.add(header == null ? "" : header.toString());
+            }
+            return this;
+        }
+
+        /**
+         * Adds a data row. Rows may have different lengths; missing trailing
+         * cells are empty.
+         *
+         * @param row The cells of the row.
+         * @return This builder.
+         */
+        public Builder addRow(List<?> row) {
+            if (row.size() > columns.length) {
+                int previous = columns.length;
+                columns = Arrays.copyOf(columns, row.size());
+                for (int column = previous; column < columns.length; column++) {
+                    columns[column] = new ColumnBuilder();
+                }
+            }
+            for (int column = 0; column < row.size(); column++) {
+                Object value = row.get(column);
+                if (!isEmpty(value)) {
+                    columns[column].add(rowCount, value);
+                }
+            }
+            rowCount++;
+            return this;
+        }
+
+        /**
+         * Gets the number of data rows added so far.
+         *
+         * @return The number of rows.
+         */
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Builds the sheet from the columns encoded so far.
+         *
+         * @return The columnar sheet.
+         */
+        public ColumnarSheet build() {
+            int columnCount = Math.max(headers.size(), columns.length);
+            List<String> names = new ArrayList<>(headers);
+            while (names.size() < columnCount) {
+                names.add("");
+            }
+            Column[] result = new Column[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                result[column] = (column < columns.length ? columns[column] : new ColumnBuilder()).build(rowCount);
+            }
+            return new ColumnarSheet(Collections.unmodifiableList(names), rowCount, result);
+        }
+
+        /**
+         * The cells of one column, stored in the arrays of its current type.
+         */
+        private static final class ColumnBuilder {
+
+            /**
+             * Largest magnitude up to which every long is exactly a double.
+             */
+            private static final long EXACT_DOUBLE = 1L << 53;
+
+            private ColumnType type = ColumnType.EMPTY;
+            private final BitSet present = new BitSet();
+            private long[] longs;
+            private double[] doubles;
+            private BitSet booleans;
+            private int[] codes;
+            private Map<String, Integer> index;
+            private List<String> dictionary;
+            /** Rows of a DOUBLE column that were added as integers. */
+            private BitSet integral;
+            /** Original text of the cells that is not their canonical form. */
+            private Map<Integer, String> texts;
+
+            private void add(int row, Object value) {
+                ColumnType cellType = classify(value);
+                ColumnType target = widen(type, cellType);
+                if (target != type) {
+                    promote(target);
+                }
+                present.set(row);
+                switch (type) {
+                    case BOOLEAN:
+                        if (toBoolean(value)) {
+                            booleans.set(row);
+                        }
+                        break;
+                    case LONG:
+                        longs = grow(longs, row);
+                        longs[row] = toLong(value);
+                        break;
+                    case DOUBLE:
+                        doubles = grow(doubles, row);
+                        if (cellType == ColumnType.LONG) {
+                            doubles[row] = toLong(value);
+                            integral.set(row);
+                        } else {
+                            doubles[row] = toDouble(value);
+                        }
+                        break;
+                    default:
+                        codes = grow(codes, row);
+                        codes[row] = code(value.toString());
+                        return;
+                }
+                String text = value.toString();
+                if (!text.equals(canonical(row))) {
+                    texts.put(row, text);
+                }
+            }
+
+            /**
+             * Converts the stored cells to a wider type.
+             */
+            private void promote(ColumnType target) {
+                if (target == ColumnType.STRING) {
+                    int[] converted = new int[Math.max(16, present.length())];
+                    index = new HashMap<>();
+                    dictionary = new ArrayList<>();
+                    for (int row = present.nextSetBit(0); row >= 0; row = present.nextSetBit(row + 1)) {
+                        String text = texts.get(row);
+                        converted[row] = code(text != null ? text : canonical(row));
+                    }
+                    codes = converted;
+                    longs = null;
+                    doubles = null;
+                    booleans = null;
+                    integral = null;
+                    texts = null;
+                } else if (target == ColumnType.DOUBLE && type == ColumnType.LONG) {
+                    doubles = new double[longs.length];
+                    integral = (BitSet) present.clone();
+                    for (int row = present.nextSetBit(0); row >= 0; row = present.nextSetBit(row + 1)) {
+                        long value = longs[row];
+                        doubles[row] = value;
+                        if (Math.abs(value) > EXACT_DOUBLE) {
+                            // The double no longer holds every digit.
+                            texts.putIfAbsent(row, Long.toString(value));
+                        }
+                    }
+                    longs = null;
+                } else {
+                    texts = new HashMap<>();
+                    if (target == ColumnType.BOOLEAN) {
+                        booleans = new BitSet();
+                    } else if (target == ColumnType.LONG) {
+                        longs = new long[16];
+                    } else {
+                        doubles = new double[16];
+                        integral = new BitSet();
+                    }
+                }
+                type = target;
+            }
+
+            /**
+             * Gets the text of a stored numeric or boolean cell.
+             */
+            private String canonical(int row) {
+                switch (type) {
+                    case BOOLEAN:
+                        return booleans.get(row) ? "TRUE" : "FALSE";
+                    case LONG:
+                        return Long.toString(longs[row]);
+                    default:
+                        return integral.get(row) ? Long.toString((long) doubles[row])
+                                : Double.toString(doubles[row]);
+                }
+            }
+
+            private int code(String text) {
+                Integer code = index.get(text);
+                if (code == null) {
+                    code = dictionary.size();
+                    index.put(text, code);
+                    dictionary.add(text);
+                }
+                return code;
+            }
+
+            private Column build(int rowCount) {
+                BitSet nulls = new BitSet(rowCount);
+                nulls.set(0, rowCount);
+                nulls.andNot(present);
+                switch (type) {
+                    case BOOLEAN:
+                        return new Column(type, nulls, null, null, (BitSet) booleans.clone(), null, null);
+                    case LONG:
+                        return new Column(type, nulls, Arrays.copyOf(longs, rowCount), null, null, null, null);
+                    case DOUBLE:
+                        return new Column(type, nulls, null, Arrays.copyOf(doubles, rowCount), null, null, null);
+                    case STRING: {
+                        int[] result = Arrays.copyOf(codes, rowCount);
+                        for (int row = nulls.nextSetBit(0); row >= 0; row = nulls.nextSetBit(row + 1)) {
+                            result[row] = -1;
+                        }
+                        return new Column(type, nulls, null, null, null, result,
+                                Collections.unmodifiableList(new ArrayList<>(dictionary)));
+                    }
+                    default:
+                        return new Column(type, nulls, null, null, null, null, null);
+                }
+            }
+
+            private static long[] grow(long[] values, int row) {
+                return row < values.length ? values : Arrays.copyOf(values, capacity(values.length, row));
+            }
+
+            private static double[] grow(double[] values, int row) {
+                return row < values.length ? values : Arrays.copyOf(values, capacity(values.length, row));
+            }
+
+            private static int[] grow(int[] values, int row) {
+                return row < values.length ? values : Arrays.copyOf(values, capacity(values.length, row));
+            }
+
+            private static int capacity(int length, int row) {
+                return Math.max(16, Math.max(row + 1, length + (length >> 1)));
+            }
+        }
+
+        private static boolean isEmpty(Object value) {
+            return value == null || (value instanceof String && ((String) value).isEmpty());
+        }
+
+        private static ColumnType widen(ColumnType current, ColumnType cell) {
+            if (current == ColumnType.EMPTY || current == cell) {
+                return cell;
+            }
+            boolean numeric = (current == ColumnType.LONG || current == ColumnType.DOUBLE)
+                    && (cell == ColumnType.LONG || cell == ColumnType.DOUBLE);
+            return numeric ? ColumnType.DOUBLE : ColumnType.STRING;
+        }
+
+        private static ColumnType classify(Object value) {
+            if (value instanceof Boolean) {
+                return ColumnType.BOOLEAN;
+            }
+            if (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte) {
+                return ColumnType.LONG;
+            }
+            if (value instanceof BigDecimal) {
+                BigDecimal decimal = (BigDecimal) value;
+                return isLong(decimal) ? ColumnType.LONG : ColumnType.DOUBLE;
+            }
+            if (value instanceof BigInteger) {
+                return ((BigInteger) value).bitLength() < 64 ? ColumnType.LONG : ColumnType.DOUBLE;
+            }
+            if (value instanceof Number) {
+                return ColumnType.DOUBLE;
+            }
+            String text = value.toString();
+            if ("TRUE".equals(text) || "FALSE".equals(text)) {
+                return ColumnType.BOOLEAN;
+            }
+            if (parseLong(text) != null) {
+                return ColumnType.LONG;
+            }
+            if (isPlainDecimal(text)) {
+                return ColumnType.DOUBLE;
+            }
+            return ColumnType.STRING;
+        }
+
+        private static boolean isLong(BigDecimal decimal) {
+            if (decimal.signum() == 0) {
+                return true;
+            }
+            BigDecimal stripped = decimal.stripTrailingZeros();
+            return stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 18;
+        }
+
+        /**
+         * Parses text as a long only if it is the canonical form of that long,
+         * so leading zeros and signs are not lost.
+         */
+        private static Long parseLong(String text) {
+            int length = text.length();
+            int start = text.charAt(0) == '-' ? 1 : 0;
+            if (length == start || length - start > 18) {
+                return null;
+            }
+            if (text.charAt(start) == '0' && length - start > 1) {
+                return null;
+            }
+            long value = 0;
+            for (int i = start; i < length; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (start == 1 && value == 0) {
+                return null;
+            }
+            return start == 1 ? -value : value;
+        }
+
+        /**
+         * Accepts plain decimal literals of at most 15 significant digits, such
+         * as {@code -12.5} or {@code 1e-3}, rejecting leading zeros and the
+         * other forms {@link Double#parseDouble(String)} accepts, such as
+         * {@code NaN}, hexadecimal or type suffixes.
+         */
+        private static boolean isPlainDecimal(String text) {
+            int i = text.charAt(0) == '-' ? 1 : 0;
+            if (i + 1 < text.length() && text.charAt(i) == '0' && isDigit(text.charAt(i + 1))) {
+                return false;
+            }
+            int digits = 0;
+            while (i < text.length() && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+            if (i < text.length() && text.charAt(i) == '.') {
+                i++;
+                while (i < text.length() && isDigit(text.charAt(i))) {
+                    i++;
+                    digits++;
+                }
+            }
+            if (digits == 0 || digits > 15) {
+                return false;
+            }
+            if (i < text.length() && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+                i++;
+                if (i < text.length() && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                    i++;
+                }
+                int exponentDigits = 0;
+                while (i < text.length() && isDigit(text.charAt(i))) {
+                    i++;
+                    exponentDigits++;
+                }
+                if (exponentDigits == 0) {
+                    return false;
+                }
+            }
+            return i == text.length();
+        }
+
+        /**
+         * Accepts only ASCII digits: {@link Character#isDigit(char)} also
+         * accepts other scripts, which {@link Double#parseDouble(String)}
+         * rejects.
+         */
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean toBoolean(Object value) {
+            return value instanceof Boolean ? (Boolean) value : "TRUE".equals(value.toString());
+        }
+
+        private static long toLong(Object value) {
+            if (value instanceof Number) {
+                return value instanceof BigDecimal ? ((BigDecimal) value).longValueExact()
+                        : ((Number) value).longValue();
+            }
+            return parseLong(value.toString());
+        }
+
+        private static double toDouble(Object value) {
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+        }
+    }
+}
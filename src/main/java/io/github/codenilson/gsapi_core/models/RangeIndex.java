@@ -0,0 +1,240 @@
+package io.github.codenilson.gsapi_core.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interval index of {@link SheetRange}s that answers "which ranges overlap this
+ * one" in {@code O(log n + k)} time, where {@code k} is the number of matches.
+ * <p>
+ * Each sheet has its own balanced interval tree ordered by start row and
+ * augmented with the largest end row of every subtree, so subtrees that cannot
+ * overlap the query rows are skipped. Columns are checked on the candidate
+ * rows. Ranges without a sheet name only match other ranges without a sheet
+ * name. This class is not thread-safe.
+ *
+ * @param <V> The type of the values associated with the ranges.
+ */
+public class RangeIndex<V> {
+
+    private final Map<String, Node<V>> roots = new HashMap<>();
+    private long sequence;
+    private int size;
+
+    /**
+     * Adds a range and its value. The same range may be added several times.
+     *
+     * @param range The range.
+     * @param value The value associated with the range.
+     */
+    public void add(SheetRange range, V value) {
+        String sheet = sheetKey(range);
+        roots.put(sheet, insert(roots.get(sheet), new Node<>(range, value, sequence++)));
+        size++;
+    }
+
+    /**
+     * Removes one occurrence of a range and its value.
+     *
+     * @param range The range.
+     * @param value The value associated with the range.
+     * @return {@code true} if the pair was found and removed.
+     */
+    public boolean remove(SheetRange range, V value) {
+        String sheet = sheetKey(range);
+        Node<V> root = roots.get(sheet);
+        Node<V> match = find(root, range, value);
+        if (match == null) {
+            return false;
+        }
+        root = delete(root, match.range.getStartRow(), match.sequence);
+        if (root == null) {
+            roots.remove(sheet);
+        } else {
+            roots.put(sheet, root);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Finds the values of every range overlapping the given range.
+     *
+     * @param range The range to search for.
+     * @return The matching values, in start row order.
+     */
+    public List<V> findOverlapping(SheetRange range) {
+        List<V> result = new ArrayList<>();
+        collect(roots.get(sheetKey(range)), range, result);
+        return result;
+    }
+
+    /**
+     * Gets the number of ranges in the index.
+     *
+     * @return The number of ranges.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every range from the index.
+     */
+    public void clear() {
+        roots.clear();
+        size = 0;
+    }
+
+    private static String sheetKey(SheetRange range) {
+        return range.getSheetName() == null ? "" : "!" + range.getSheetName().toLowerCase();
+    }
+
+    private static <V> void collect(Node<V> node, SheetRange query, List<V> result) {
+        if (node == null || node.maxEndRow < query.getStartRow()) {
+            return;
+        }
+        collect(node.left, query, result);
+        if (node.range.getStartRow() > query.getEndRow()) {
+            return;
+        }
+        if (node.range.overlaps(query)) {
+            result.add(node.value);
+        }
+        collect(node.right, query, result);
+    }
+
+    private static <V> Node<V> find(Node<V> node, SheetRange range, V value) {
+        if (node == null) {
+            return null;
+        }
+        int startRow = range.getStartRow();
+        if (startRow < node.range.getStartRow()) {
+            return find(node.left, range, value);
+        }
+        if (startRow > node.range.getStartRow()) {
+            return find(node.right, range, value);
+        }
+        // Equal start rows may sit on both sides of the node.
+        if (node.range.equals(range) && (node.value == null ? value == null : node.value.equals(value))) {
+            return node;
+        }
+        Node<V> match = find(node.left, range, value);
+        return match != null ? match : find(node.right, range, value);
+    }
+
+    private static <V> int compare(int startRow, long sequence, Node<V> node) {
+        int byRow = Integer.compare(startRow, node.range.getStartRow());
+        return byRow != 0 ? byRow : Long.compare(sequence, node.sequence);
+    }
+
+    private static <V> Node<V> insert(Node<V> node, Node<V> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.range.getStartRow(), added.sequence, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private static <V> Node<V> delete(Node<V> node, int startRow, long sequence) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(startRow, sequence, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, startRow, sequence);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, startRow, sequence);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = delete(node.right, successor.range.getStartRow(), successor.sequence);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private static <V> Node<V> rebalance(Node<V> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static <V> Node<V> rotateLeft(Node<V> node) {
+        Node<V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <V> Node<V> rotateRight(Node<V> node) {
+        Node<V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <V> void update(Node<V> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int maxEndRow = node.range.getEndRow();
+        if (node.left != null) {
+            maxEndRow = Math.max(maxEndRow, node.left.maxEndRow);
+        }
+        if (node.right != null) {
+            maxEndRow = Math.max(maxEndRow, node.right.maxEndRow);
+        }
+        node.maxEndRow = maxEndRow;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node<V> {
+        private final SheetRange range;
+        private final V value;
+        private final long sequence;
+        private Node<V> left;
+        private Node<V> right;
+        private int height = 1;
+        private int maxEndRow;
+
+        private Node(SheetRange range, V value, long sequence) {
+            this.range = range;
+            this.value = value;
+            this.sequence = sequence;
+            this.maxEndRow = range.getEndRow();
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package io.github.codenilson.gsapi_core.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, parsed representation of a range in A1 notation, such as
+ * {@code Sheet1!A1:C10}, {@code 'My Sheet'!B:B} or {@code 2:5}.
+ * <p>
+ * Rows and columns are 1-based and inclusive. Open-ended bounds, such as the
+ * end row of {@code A:C} or the columns of {@code 2:5}, are represented by
+ * {@link #UNBOUNDED}. A range without a sheet name refers to the first visible
+ * sheet of the spreadsheet; its {@link #getSheetName() sheet name} is
+ * {@code null}.
+ */
+public final class SheetRange {
+
+    /**
+     * Marker used for an open-ended end row or end column.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * The last column supported by Google Sheets, {@code ZZZ}.
+     */
+    public static final int MAX_COLUMN = 18278;
+
+    private final String sheetName;
+    private final int startRow;
+    private final int startColumn;
+    private final int endRow;
+    private final int endColumn;
+
+    /**
+     * Constructs a new SheetRange.
+     *
+     * @param sheetName   The name of the sheet, or {@code null} for the first
+     *                    sheet.
+     * @param startRow    The first row, starting at 1.
+     * @param startColumn The first column, starting at 1.
+     * @param endRow      The last row, or {@link #UNBOUNDED}.
+     * @param endColumn   The last column, or {@link #UNBOUNDED}.
+     * @throws IllegalArgumentException If a bound is not positive or the range
+     *                                  is empty.
+     */
+    public SheetRange(String sheetName, int startRow, int startColumn, int endRow, int endColumn) {
+        if (startRow < 1 || startColumn < 1 || endRow < startRow || endColumn < startColumn) {
+            throw new IllegalArgumentException("Invalid range bounds: rows " + startRow + ".." + endRow
+                    + ", columns " + startColumn + ".." + endColumn);
+        }
+        this.sheetName = sheetName;
+        this.startRow = startRow;
+        this.startColumn = startColumn;
+        this.endRow = endRow;
+        this.endColumn = endColumn;
+    }
+
+    /**
+     * Parses a range in A1 notation.
+     *
+     * @param a1 The range, e.g. {@code Sheet1!A1:C10}.
+     * @return The parsed range.
+     * @throws IllegalArgumentException If the text is not a valid A1 range, for
+     *                                  instance a named range.
+     */
+    public static SheetRange parse(String a1) {
+        if (a1 == null || a1.isEmpty()) {
+            throw new IllegalArgumentException("The range is empty.");
+        }
+        return new Parser(a1).parse();
+    }
+
+    /**
+     * Parses a range in A1 notation, returning {@code null} instead of failing
+     * when the text is not a valid A1 range.
+     *
+     * @param a1 The range, e.g. {@code Sheet1!A1:C10}.
+     * @return The parsed range, or {@code null}.
+     */
+    public static SheetRange tryParse(String a1) {
+        try {
+            return parse(a1);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a 1-based column number to its letters, e.g. 1 to {@code A} and
+     * 28 to {@code AB}.
+     *
+     * @param column The column number, starting at 1.
+     * @return The column letters.
+     */
+    public static String columnName(int column) {
+        char[] buffer = new char[7];
+        int position = buffer.length;
+        int remaining = column;
+        while (remaining > 0) {
+            remaining--;
+            buffer[--position] = (char) ('A' + remaining % 26);
+            remaining /= 26;
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    /**
+     * Gets the name of the sheet.
+     *
+     * @return The sheet name, or {@code null} for the first sheet.
+     */
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    /**
+     * Gets the first row.
+     *
+     * @return The first row, starting at 1.
+     */
+    public int getStartRow() {
+        return startRow;
+    }
+
+    /**
+     * Gets the first column.
+     *
+     * @return The first column, starting at 1.
+     */
+    public int getStartColumn() {
+        return startColumn;
+    }
+
+    /**
+     * Gets the last row.
+     *
+     * @return The last row, or {@link #UNBOUNDED}.
+     */
+    public int getEndRow() {
+        return endRow;
+    }
+
+    /**
+     * Gets the last column.
+     *
+     * @return The last column, or {@link #UNBOUNDED}.
+     */
+    public int getEndColumn() {
+        return endColumn;
+    }
+
+    /**
+     * Gets the number of rows covered by the range.
+     *
+     * @return The row count, or {@link #UNBOUNDED} if the range is open-ended.
+     */
+    public int getRowCount() {
+        return endRow == UNBOUNDED ? UNBOUNDED : endRow - startRow + 1;
+    }
+
+    /**
+     * Gets the number of columns covered by the range.
+     *
+     * @return The column count, or {@link #UNBOUNDED} if the range is
+     *         open-ended.
+     */
+    public int getColumnCount() {
+        return endColumn == UNBOUNDED ? UNBOUNDED : endColumn - startColumn + 1;
+    }
+
+    /**
+     * Checks whether both ranges refer to the same sheet. Sheet names are
+     * compared ignoring case, as Google Sheets does.
+     *
+     * @param other The range to compare to.
+     * @return {@code true} if both ranges are on the same sheet.
+     */
+    public boolean isSameSheet(SheetRange other) {
+        return sheetName == null ? other.sheetName == null
+                : other.sheetName != null && sheetName.equalsIgnoreCase(other.sheetName);
+    }
+
+    /**
+     * Checks whether the ranges share at least one cell.
+     *
+     * @param other The range to compare to.
+     * @return {@code true} if the ranges overlap.
+     */
+    public boolean overlaps(SheetRange other) {
+        return isSameSheet(other)
+                && startRow <= other.endRow && other.startRow <= endRow
+                && startColumn <= other.endColumn && other.startColumn <= endColumn;
+    }
+
+    /**
+     * Checks whether every cell of the other range is in this range.
+     *
+     * @param other The range to compare to.
+     * @return {@code true} if this range contains the other.
+     */
+    public boolean contains(SheetRange other) {
+        return isSameSheet(other)
+                && startRow <= other.startRow && other.endRow <= endRow
+                && startColumn <= other.startColumn && other.endColumn <= endColumn;
+    }
+
+    /**
+     * Gets the cells shared by both ranges.
+     *
+     * @param other The range to intersect with.
+     * @return The intersection, or {@code null} if the ranges do not overlap.
+     */
+    public SheetRange intersect(SheetRange other) {
+        if (!overlaps(other)) {
+            return null;
+        }
+        return new SheetRange(sheetName,
+                Math.max(startRow, other.startRow), Math.max(startColumn, other.startColumn),
+                Math.min(endRow, other.endRow), Math.min(endColumn, other.endColumn));
+    }
+
+    /**
+     * Merges two ranges whose union is itself a rectangle, i.e. ranges with the
+     * same columns and touching or overlapping rows, or the same rows and
+     * touching or overlapping columns.
+     *
+     * @param other The range to merge with.
+     * @return The merged range, or {@code null} if the union is not a rectangle.
+     */
+    public SheetRange merge(SheetRange other) {
+        if (!isSameSheet(other)) {
+            return null;
+        }
+        if (contains(other)) {
+            return this;
+        }
+        if (other.contains(this)) {
+            return other;
+        }
+        if (startColumn == other.startColumn && endColumn == other.endColumn
+                && startRow <= plusOne(other.endRow) && other.startRow <= plusOne(endRow)) {
+            return withRows(Math.min(startRow, other.startRow), Math.max(endRow, other.endRow));
+        }
+        if (startRow == other.startRow && endRow == other.endRow
+                && startColumn <= plusOne(other.endColumn) && other.startColumn <= plusOne(endColumn)) {
+            return withColumns(Math.min(startColumn, other.startColumn), Math.max(endColumn, other.endColumn));
+        }
+        return null;
+    }
+
+    /**
+     * Returns a range with the same sheet and columns and the given rows.
+     *
+     * @param fromRow The first row.
+     * @param toRow   The last row, or {@link #UNBOUNDED}.
+     * @return The new range.
+     */
+    public SheetRange withRows(int fromRow, int toRow) {
+        return new SheetRange(sheetName, fromRow, startColumn, toRow, endColumn);
+    }
+
+    /**
+     * Returns a range with the same sheet and rows and the given columns.
+     *
+     * @param fromColumn The first column.
+     * @param toColumn   The last column, or {@link #UNBOUNDED}.
+     * @return The new range.
+     */
+    public SheetRange withColumns(int fromColumn, int toColumn) {
+        return new SheetRange(sheetName, startRow, fromColumn, endRow, toColumn);
+    }
+
+    /**
+     * Splits the range into consecutive ranges of at most {@code rows} rows.
+     *
+     * @param rows The maximum number of rows per part.
+     * @return The parts, in row order.
+     * @throws IllegalArgumentException If {@code rows} is not positive or the
+     *                                  range has no end row.
+     */
+    public List<SheetRange> splitRows(int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("rows must be positive: " + rows);
+        }
+        if (endRow == UNBOUNDED) {
+            throw new IllegalArgumentException("An open-ended range cannot be split: " + toA1());
+        }
+        List<SheetRange> parts = new ArrayList<>((getRowCount() + rows - 1) / rows);
+        for (int from = startRow; from <= endRow; from += rows) {
+            parts.add(withRows(from, (int) Math.min((long) from + rows - 1, endRow)));
+        }
+        return parts;
+    }
+
+    /**
+     * Formats the range in A1 notation. Equivalent ranges always format to the
+     * same text, so the result can be used as a normalized key.
+     *
+     * @return The range in A1 notation.
+     */
+    public String toA1() {
+        StringBuilder builder = new StringBuilder(24);
+        if (sheetName != null) {
+            if (needsQuotes(sheetName)) {
+                builder.append('\'').append(sheetName.replace("'", "''")).append("'!");
+            } else {
+                builder.append(sheetName).append('!');
+            }
+        }
+        boolean allColumns = startColumn == 1 && endColumn == UNBOUNDED;
+        boolean allRows = startRow == 1 && endRow == UNBOUNDED;
+        if (allColumns && allRows && sheetName != null) {
+            builder.setLength(builder.length() - 1);
+            return builder.toString();
+        }
+        if (allColumns && endRow != UNBOUNDED) {
+            return builder.append(startRow).append(':').append(endRow).toString();
+        }
+        builder.append(columnName(startColumn));
+        if (!allRows) {
+            builder.append(startRow);
+        }
+        if (endColumn == startColumn && endRow == startRow) {
+            return builder.toString();
+        }
+        builder.append(':').append(columnName(endColumn == UNBOUNDED ? MAX_COLUMN : endColumn));
+        if (endRow != UNBOUNDED) {
+            builder.append(endRow);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the range in A1 notation.
+     *
+     * @return The same value as {@link #toA1()}.
+     */
+    @Override
+    public String toString() {
+        return toA1();
+    }
+
+    /**
+     * Computes a hash code for this range.
+     *
+     * @return A hash code value for this object.
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((sheetName == null) ? 0 : sheetName.toLowerCase().hashCode());
+        result = prime * result + startRow;
+        result = prime * result + startColumn;
+        result = prime * result + endRow;
+        result = prime * result + endColumn;
+        return result;
+    }
+
+    /**
+     * Compares this range to another object for equality.
+     *
+     * @param obj The object to compare to.
+     * @return {@code true} if both cover the same cells of the same sheet.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof SheetRange))
+            return false;
+        SheetRange other = (SheetRange) obj;
+        return isSameSheet(other)
+                && startRow == other.startRow && startColumn == other.startColumn
+                && endRow == other.endRow && endColumn == other.endColumn;
+    }
+
+    private static boolean needsQuotes(String name) {
+        if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+            return true;
+        }
+        int letters = 0;
+        boolean onlyLettersThenDigits = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return true;
+            }
+            if (Character.isLetter(c)) {
+                if (letters < i) {
+                    onlyLettersThenDigits = false;
+                }
+                letters++;
+            } else if (c == '_') {
+                onlyLettersThenDigits = false;
+            }
+        }
+        // Names such as "AB12" would be read as a cell reference.
+        return onlyLettersThenDigits && letters <= 3 && letters < name.length();
+    }
+
+    private static int plusOne(int bound) {
+        return bound == UNBOUNDED ? UNBOUNDED : bound + 1;
+    }
+
+    /**
+     * Single-pass, regex-free A1 parser.
+     */
+    private static class Parser {
+        private final String text;
+        private int position;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private SheetRange parse() {
+            String sheetName = parseSheetName();
+            if (position == text.length()) {
+                if (sheetName == null) {
+                    throw invalid();
+                }
+                return new SheetRange(sheetName, 1, 1, UNBOUNDED, UNBOUNDED);
+            }
+
+            int startColumn = parseColumn();
+            int startRow = parseRow();
+            if (startColumn == 0 && startRow == 0) {
+                throw invalid();
+            }
+            int endColumn = startColumn;
+            int endRow = startRow;
+            if (position < text.length()) {
+                if (text.charAt(position++) != ':') {
+                    throw invalid();
+                }
+                endColumn = parseColumn();
+                endRow = parseRow();
+                if (position != text.length() || (endColumn == 0 && endRow == 0)) {
+                    throw invalid();
+                }
+            } else if (startColumn == 0 || startRow == 0) {
+                // A lone column or row, such as "A" or "5", is not a valid range.
+                throw invalid();
+            }
+
+            if (startColumn == 0) {
+                // Row-only ranges such as "2:5" cover every column.
+                if (endColumn != 0) {
+                    throw invalid();
+                }
+                startColumn = 1;
+                endColumn = UNBOUNDED;
+            } else if (endColumn == 0) {
+                endColumn = UNBOUNDED;
+            }
+            if (startRow == 0) {
+                startRow = 1;
+            }
+            if (endRow == 0) {
+                endRow = UNBOUNDED;
+            }
+            if (endRow < startRow || endColumn < startColumn) {
+                throw invalid();
+            }
+            return new SheetRange(sheetName, startRow, startColumn, endRow, endColumn);
+        }
+
+        private String parseSheetName() {
+            if (text.charAt(0) == '\'') {
+                StringBuilder name = new StringBuilder();
+                int i = 1;
+                while (i < text.length()) {
+                    char c = text.charAt(i);
+                    if (c == '\'') {
+                        if (i + 1 < text.length() && text.charAt(i + 1) == '\'') {
+                            name.append('\'');
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    name.append(c);
+                    i++;
+                }
+                if (i >= text.length()) {
+                    throw invalid();
+                }
+                position = i + 1;
+                if (position < text.length()) {
+                    if (text.charAt(position) != '!') {
+                        throw invalid();
+                    }
+                    position++;
+                }
+                return name.toString();
+            }
+            int bang = text.lastIndexOf('!');
+            if (bang < 0) {
+                return null;
+            }
+            position = bang + 1;
+            return text.substring(0, bang);
+        }
+
+        private int parseColumn() {
+            skipDollar();
+            int column = 0;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                int letter;
+                if (c >= 'A' && c <= 'Z') {
+                    letter = c - 'A' + 1;
+                } else if (c >= 'a' && c <= 'z') {
+                    letter = c - 'a' + 1;
+                } else {
+                    break;
+                }
+                column = column * 26 + letter;
+                if (column > MAX_COLUMN) {
+                    throw invalid();
+                }
+                position++;
+            }
+            return column;
+        }
+
+        private int parseRow() {
+            skipDollar();
+            int row = 0;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (row > (UNBOUNDED - 1) / 10) {
+                    throw invalid();
+                }
+                row = row * 10 + (c - '0');
+                position++;
+            }
+            return row;
+        }
+
+        private void skipDollar() {
+            if (position < text.length() && text.charAt(position) == '$') {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException invalid() {
+            return new IllegalArgumentException("Invalid A1 range: " + text);
+        }
+    }
+}
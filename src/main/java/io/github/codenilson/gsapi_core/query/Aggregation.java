@@ -0,0 +1,121 @@
+package io.github.codenilson.gsapi_core.query;
+
+/**
+ * An aggregate computed by a {@link SheetQuery} over the rows of each group.
+ * Empty cells are skipped; {@link #sum(String)} of no values is {@code 0}, and
+ * the average, minimum and maximum of no values are empty.
+ */
+public final class Aggregation {
+
+    /**
+     * The function applied to the values of a group.
+     */
+    enum Function {
+        COUNT, SUM, AVG, MIN, MAX
+    }
+
+    private final Function function;
+    private final String column;
+    private final String name;
+
+    private Aggregation(Function function, String column, String name) {
+        this.function = function;
+        this.column = column;
+        this.name = name;
+    }
+
+    /**
+     * Counts the rows of each group.
+     *
+     * @return The aggregation, named {@code count}.
+     */
+    public static Aggregation count() {
+        return new Aggregation(Function.COUNT, null, "count");
+    }
+
+    /**
+     * Counts the non-empty cells of a column.
+     *
+     * @param column The header of the column.
+     * @return The aggregation, named e.g. {@code count(price)}.
+     */
+    public static Aggregation count(String column) {
+        return of(Function.COUNT, column);
+    }
+
+    /**
+     * Sums a numeric column.
+     *
+     * @param column The header of a numeric column.
+     * @return The aggregation, named e.g. {@code sum(price)}.
+     */
+    public static Aggregation sum(String column) {
+        return of(Function.SUM, column);
+    }
+
+    /**
+     * Averages a numeric column.
+     *
+     * @param column The header of a numeric column.
+     * @return The aggregation, named e.g. {@code avg(price)}.
+     */
+    public static Aggregation avg(String column) {
+        return of(Function.AVG, column);
+    }
+
+    /**
+     * Finds the minimum of a numeric column.
+     *
+     * @param column The header of a numeric column.
+     * @return The aggregation, named e.g. {@code min(price)}.
+     */
+    public static Aggregation min(String column) {
+        return of(Function.MIN, column);
+    }
+
+    /**
+     * Finds the maximum of a numeric column.
+     *
+     * @param column The header of a numeric column.
+     * @return The aggregation, named e.g. {@code max(price)}.
+     */
+    public static Aggregation max(String column) {
+        return of(Function.MAX, column);
+    }
+
+    /**
+     * Returns the same aggregation under another name.
+     *
+     * @param name The header of the result column.
+     * @return A renamed aggregation.
+     */
+    public Aggregation as(String name) {
+        return new Aggregation(function, column, name);
+    }
+
+    /**
+     * Gets the header of the result column.
+     *
+     * @return The name of the aggregation.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the header of the aggregated column.
+     *
+     * @return The column, or {@code null} for {@link #count()}.
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    Function getFunction() {
+        return function;
+    }
+
+    private static Aggregation of(Function function, String column) {
+        return new Aggregation(function, column, function.name().toLowerCase() + "(" + column + ")");
+    }
+}
@@ -0,0 +1,330 @@
+package io.github.codenilson.gsapi_core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+
+import io.github.codenilson.gsapi_core.models.ColumnType;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
+
+/**
+ * A condition on the rows of a {@link SheetQuery}, naming columns by their
+ * header.
+ * <p>
+ * A condition is compiled once per sheet into a row predicate that reads the
+ * typed columns of the {@link ColumnarSheet} directly: numeric comparisons do
+ * not box, and string comparisons are resolved against the column dictionary
+ * once, so each row only compares dictionary codes. Empty cells never match,
+ * except with {@link #isEmpty(String)}.
+ */
+public abstract class Condition {
+
+    private final Set<String> columns;
+
+    private Condition(Set<String> columns) {
+        this.columns = columns;
+    }
+
+    private Condition(String column) {
+        this(Collections.singleton(column));
+    }
+
+    /**
+     * Matches rows whose cell equals {@code value}. Numbers compare by value,
+     * so {@code 2} matches a cell holding {@code 2.0}.
+     *
+     * @param column The header of the column.
+     * @param value  The value to compare to.
+     * @return The condition.
+     */
+    public static Condition eq(String column, Object value) {
+        return new Condition(column) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                return equalTo(sheet, index(sheet, column), value);
+            }
+        };
+    }
+
+    /**
+     * Matches rows whose cell is not empty and differs from {@code value}.
+     *
+     * @param column The header of the column.
+     * @param value  The value to compare to.
+     * @return The condition.
+     */
+    public static Condition ne(String column, Object value) {
+        return new Condition(column) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                int index = index(sheet, column);
+                IntPredicate equal = equalTo(sheet, index, value);
+                return row -> !sheet.isNull(row, index) && !equal.test(row);
+            }
+        };
+    }
+
+    /**
+     * Matches rows whose numeric cell is greater than {@code value}.
+     *
+     * @param column The header of a numeric column.
+     * @param value  The bound.
+     * @return The condition.
+     */
+    public static Condition gt(String column, double value) {
+        return numeric(column, cell -> cell > value);
+    }
+
+    /**
+     * Matches rows whose numeric cell is greater than or equal to
+     * {@code value}.
+     *
+     * @param column The header of a numeric column.
+     * @param value  The bound.
+     * @return The condition.
+     */
+    public static Condition ge(String column, double value) {
+        return numeric(column, cell -> cell >= value);
+    }
+
+    /**
+     * Matches rows whose numeric cell is less than {@code value}.
+     *
+     * @param column The header of a numeric column.
+     * @param value  The bound.
+     * @return The condition.
+     */
+    public static Condition lt(String column, double value) {
+        return numeric(column, cell -> cell < value);
+    }
+
+    /**
+     * Matches rows whose numeric cell is less than or equal to {@code value}.
+     *
+     * @param column The header of a numeric column.
+     * @param value  The bound.
+     * @return The condition.
+     */
+    public static Condition le(String column, double value) {
+        return numeric(column, cell -> cell <= value);
+    }
+
+    /**
+     * Matches rows whose numeric cell is between two bounds, both included.
+     *
+     * @param column The header of a numeric column.
+     * @param from   The lower bound.
+     * @param to     The upper bound.
+     * @return The condition.
+     */
+    public static Condition between(String column, double from, double to) {
+        return numeric(column, cell -> cell >= from && cell <= to);
+    }
+
+    /**
+     * Matches rows whose cell equals any of {@code values}.
+     *
+     * @param column The header of the column.
+     * @param values The values to compare to.
+     * @return The condition.
+     */
+    public static Condition in(String column, Object... values) {
+        List<Condition> alternatives = new ArrayList<>(values.length);
+        for (Object value : values) {
+            alternatives.add(eq(column, value));
+        }
+        return or(alternatives.toArray(new Condition[0]));
+    }
+
+    /**
+     * Matches rows whose cell, as text, contains {@code text}.
+     *
+     * @param column The header of the column.
+     * @param text   The text to look for.
+     * @return The condition.
+     */
+    public static Condition contains(String column, String text) {
+        return new Condition(column) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                int index = index(sheet, column);
+                if (sheet.getColumnType(index) == ColumnType.STRING) {
+                    boolean[] matches = matchingCodes(sheet, index, text);
+                    return row -> {
+                        int code = sheet.getStringCode(row, index);
+                        return code >= 0 && matches[code];
+                    };
+                }
+                return row -> {
+                    String cell = sheet.getString(row, index);
+                    return cell != null && cell.contains(text);
+                };
+            }
+        };
+    }
+
+    /**
+     * Matches rows whose cell is empty.
+     *
+     * @param column The header of the column.
+     * @return The condition.
+     */
+    public static Condition isEmpty(String column) {
+        return new Condition(column) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                int index = index(sheet, column);
+                return row -> sheet.isNull(row, index);
+            }
+        };
+    }
+
+    /**
+     * Matches rows whose cell is not empty.
+     *
+     * @param column The header of the column.
+     * @return The condition.
+     */
+    public static Condition isNotEmpty(String column) {
+        return not(isEmpty(column));
+    }
+
+    /**
+     * Matches rows matching every condition.
+     *
+     * @param conditions The conditions.
+     * @return The condition.
+     */
+    public static Condition and(Condition... conditions) {
+        return new Condition(columnsOf(conditions)) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                IntPredicate predicate = row -> true;
+                for (Condition condition : conditions) {
+                    predicate = predicate.and(condition.compile(sheet));
+                }
+                return predicate;
+            }
+        };
+    }
+
+    /**
+     * Matches rows matching any condition.
+     *
+     * @param conditions The conditions.
+     * @return The condition.
+     */
+    public static Condition or(Condition... conditions) {
+        return new Condition(columnsOf(conditions)) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                IntPredicate predicate = row -> false;
+                for (Condition condition : conditions) {
+                    predicate = predicate.or(condition.compile(sheet));
+                }
+                return predicate;
+            }
+        };
+    }
+
+    /**
+     * Matches rows not matching a condition.
+     *
+     * @param condition The condition to negate.
+     * @return The condition.
+     */
+    public static Condition not(Condition condition) {
+        return new Condition(condition.columns) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                return condition.compile(sheet).negate();
+            }
+        };
+    }
+
+    /**
+     * Gets the headers of the columns the condition reads.
+     *
+     * @return An unmodifiable set of headers.
+     */
+    public Set<String> getColumns() {
+        return Collections.unmodifiableSet(columns);
+    }
+
+    /**
+     * Compiles the condition into a predicate on the row indexes of a sheet.
+     *
+     * @param sheet The sheet the rows are read from.
+     * @return A thread-safe predicate.
+     * @throws IllegalArgumentException If a column is missing or has the wrong
+     *                                  type.
+     */
+    abstract IntPredicate compile(ColumnarSheet sheet);
+
+    static int index(ColumnarSheet sheet, String column) {
+        int index = sheet.getColumnIndex(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return index;
+    }
+
+    private static Condition numeric(String column, DoublePredicate test) {
+        return new Condition(column) {
+            @Override
+            IntPredicate compile(ColumnarSheet sheet) {
+                int index = index(sheet, column);
+                ColumnType type = sheet.getColumnType(index);
+                if (type == ColumnType.EMPTY) {
+                    return row -> false;
+                }
+                if (type != ColumnType.LONG && type != ColumnType.DOUBLE) {
+                    throw new IllegalArgumentException("The column is not numeric: " + column);
+                }
+                return row -> !sheet.isNull(row, index) && test.test(sheet.getDouble(row, index));
+            }
+        };
+    }
+
+    private static IntPredicate equalTo(ColumnarSheet sheet, int index, Object value) {
+        if (value == null) {
+            return row -> sheet.isNull(row, index);
+        }
+        ColumnType type = sheet.getColumnType(index);
+        if (type == ColumnType.STRING) {
+            int code = sheet.getDictionary(index).indexOf(value.toString());
+            return code < 0 ? row -> false : row -> sheet.getStringCode(row, index) == code;
+        }
+        if ((type == ColumnType.LONG || type == ColumnType.DOUBLE) && value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            return row -> !sheet.isNull(row, index) && sheet.getDouble(row, index) == number;
+        }
+        if (type == ColumnType.BOOLEAN && value instanceof Boolean) {
+            boolean bool = (Boolean) value;
+            return row -> !sheet.isNull(row, index) && sheet.getBoolean(row, index) == bool;
+        }
+        String text = value.toString();
+        return row -> text.equals(sheet.getString(row, index));
+    }
+
+    private static boolean[] matchingCodes(ColumnarSheet sheet, int index, String text) {
+        List<String> dictionary = sheet.getDictionary(index);
+        boolean[] matches = new boolean[dictionary.size()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = dictionary.get(code).contains(text);
+        }
+        return matches;
+    }
+
+    private static Set<String> columnsOf(Condition... conditions) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (Condition condition : conditions) {
+            columns.addAll(condition.columns);
+        }
+        return columns;
+    }
+}
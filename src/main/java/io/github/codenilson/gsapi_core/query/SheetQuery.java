@@ -0,0 +1,468 @@
+package io.github.codenilson.gsapi_core.query;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.ColumnType;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * A query over the rows of a sheet: a row window, a filter, and either a
+ * projection or a grouping with aggregates. Columns are named by their header.
+ * <p>
+ * The query runs over a {@link ColumnarSheet}, reading its typed columns
+ * without boxing. Filtering and aggregation run on a parallel stream, in the
+ * common fork-join pool, once the window holds at least
+ * {@link #PARALLEL_THRESHOLD} rows. Groups are returned in order of first
+ * appearance, and projected rows in sheet order.
+ * <p>
+ * When run against the API with {@link #execute(GoogleSheetsClient, SheetRequest)},
+ * the query only downloads what it reads. The header row is fetched first to
+ * locate the columns, then a single {@code values.batchGet} fetches the runs
+ * of needed columns, restricted to the row window. A query that reads no
+ * column, such as a bare {@link Aggregation#count()}, fetches every column so
+ * that no row is missed. The cells are read unformatted, so a number shown as
+ * {@code 1,234} is typed as a number rather than as text.
+ *
+ * <pre>{@code
+ * ColumnarSheet totals = new SheetQuery()
+ *         .where(Condition.gt("price", 10))
+ *         .groupBy("category")
+ *         .aggregate(Aggregation.count(), Aggregation.sum("price"))
+ *         .execute(client, new SheetRequest(id, "Products!A1:F"));
+ * }</pre>
+ */
+public class SheetQuery {
+
+    /**
+     * Number of rows from which the query runs in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 10_000;
+
+    private List<String> selected;
+    private Condition condition;
+    private final List<String> groupBy = new ArrayList<>();
+    private final List<Aggregation> aggregations = new ArrayList<>();
+    private int firstRow;
+    private int rowCount = -1;
+
+    /**
+     * Keeps only the given columns, in that order. By default every column is
+     * kept. A projection cannot be combined with a grouping.
+     *
+     * @param columns The headers of the columns.
+     * @return This query.
+     */
+    public SheetQuery select(String... columns) {
+        this.selected = new ArrayList<>(Arrays.asList(columns));
+        return this;
+    }
+
+    /**
+     * Keeps only the rows matching a condition. Calling it again combines the
+     * conditions with {@link Condition#and(Condition...)}.
+     *
+     * @param condition The condition.
+     * @return This query.
+     */
+    public SheetQuery where(Condition condition) {
+        this.condition = this.condition == null ? condition : Condition.and(this.condition, condition);
+        return this;
+    }
+
+    /**
+     * Groups the rows by the values of the given columns. The result has one
+     * row per group, holding the group columns and then the aggregates.
+     *
+     * @param columns The headers of the columns.
+     * @return This query.
+     */
+    public SheetQuery groupBy(String... columns) {
+        groupBy.addAll(Arrays.asList(columns));
+        return this;
+    }
+
+    /**
+     * Computes aggregates over each group, or over all the rows if the query
+     * is not grouped.
+     *
+     * @param aggregations The aggregates.
+     * @return This query.
+     */
+    public SheetQuery aggregate(Aggregation... aggregations) {
+        this.aggregations.addAll(Arrays.asList(aggregations));
+        return this;
+    }
+
+    /**
+     * Restricts the query to a window of rows, before filtering.
+     *
+     * @param first The index of the first row, 0 being the row below the
+     *              header.
+     * @param count The number of rows.
+     * @return This query.
+     * @throws IllegalArgumentException If a value is negative.
+     */
+    public SheetQuery rows(int first, int count) {
+        if (first < 0 || count < 0) {
+            throw new IllegalArgumentException("The row window must not be negative: " + first + ", " + count);
+        }
+        this.firstRow = first;
+        this.rowCount = count;
+        return this;
+    }
+
+    /**
+     * Gets the headers of the columns the query reads.
+     *
+     * @return The headers, or {@code null} if the query reads every column.
+     */
+    public Set<String> getRequiredColumns() {
+        if (selected == null && groupBy.isEmpty() && aggregations.isEmpty()) {
+            return null;
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        if (selected != null) {
+            columns.addAll(selected);
+        }
+        columns.addAll(groupBy);
+        for (Aggregation aggregation : aggregations) {
+            if (aggregation.getColumn() != null) {
+                columns.add(aggregation.getColumn());
+            }
+        }
+        if (condition != null) {
+            columns.addAll(condition.getColumns());
+        }
+        return columns;
+    }
+
+    /**
+     * Runs the query over a sheet already in memory.
+     *
+     * @param sheet The sheet.
+     * @return The result, as a new sheet.
+     * @throws IllegalArgumentException If a column is missing or has the wrong
+     *                                  type.
+     */
+    public ColumnarSheet execute(ColumnarSheet sheet) {
+        return run(sheet, true);
+    }
+
+    /**
+     * Fetches the columns and rows the query reads from a range whose first row
+     * is the header, and runs the query over them.
+     *
+     * @param client  The client used to fetch the data.
+     * @param request The request containing the spreadsheet ID and range.
+     * @return The result, as a new sheet.
+     * @throws IOException              If an I/O error occurs while fetching the
+     *                                  data.
+     * @throws IllegalArgumentException If a column is missing or has the wrong
+     *                                  type.
+     */
+    public ColumnarSheet execute(GoogleSheetsClient client, SheetRequest request) throws IOException {
+        SheetRange range = SheetRange.tryParse(request.getRange());
+        Set<String> required = getRequiredColumns();
+        if (range == null) {
+            List<List<Object>> values = client.fetchUnformattedValuesBatch(request.getSpreadsheetId(),
+                    Collections.singletonList(request.getRange())).get(0);
+            return run(ColumnarSheet.fromValues(values == null ? new ArrayList<>() : values), true);
+        }
+
+        int headerRow = range.getStartRow();
+        List<List<Object>> headerValues = client.fetchValues(new SheetRequest(request.getSpreadsheetId(),
+                range.withRows(headerRow, headerRow).toA1()));
+        List<Object> header = headerValues == null || headerValues.isEmpty() ? new ArrayList<>()
+                : headerValues.get(0);
+        List<int[]> runs = columnRuns(range, header, required);
+
+        long dataFrom = (long) headerRow + 1 + firstRow;
+        long dataTo = rowCount < 0 ? range.getEndRow() : Math.min(range.getEndRow(), dataFrom + rowCount - 1);
+        List<String> ranges = new ArrayList<>();
+        if (dataFrom <= dataTo) {
+            for (int[] run : runs) {
+                ranges.add(range.withColumns(run[0], run[1]).withRows((int) dataFrom, (int) dataTo).toA1());
+            }
+        }
+        List<List<List<Object>>> fetched = ranges.isEmpty() ? new ArrayList<>()
+                : client.fetchUnformattedValuesBatch(request.getSpreadsheetId(), ranges);
+
+        ColumnarSheet.Builder builder = new ColumnarSheet.Builder();
+        int[] widths = new int[runs.size()];
+        int rows = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            int[] run = runs.get(i);
+            List<List<Object>> values = i < fetched.size() && fetched.get(i) != null ? fetched.get(i)
+                    : Collections.emptyList();
+            rows = Math.max(rows, values.size());
+            if (run[1] == SheetRange.UNBOUNDED) {
+                int width = header.size() - (run[0] - range.getStartColumn());
+                for (List<Object> row : values) {
+                    width = Math.max(width, row.size());
+                }
+                widths[i] = width;
+            } else {
+                widths[i] = run[1] - run[0] + 1;
+            }
+        }
+        List<Object> headerOut = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i++) {
+            appendCells(headerOut, header, runs.get(i)[0] - range.getStartColumn(), widths[i]);
+        }
+        builder.setHeaders(headerOut);
+        for (int index = 0; index < rows; index++) {
+            List<Object> row = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i++) {
+                List<List<Object>> values = i < fetched.size() && fetched.get(i) != null ? fetched.get(i)
+                        : Collections.emptyList();
+                appendCells(row, index < values.size() ? values.get(index) : Collections.emptyList(), 0,
+                        widths[i]);
+            }
+            builder.addRow(row);
+        }
+        return run(builder.build(), false);
+    }
+
+    private ColumnarSheet run(ColumnarSheet sheet, boolean applyWindow) {
+        if (selected != null && (!groupBy.isEmpty() || !aggregations.isEmpty())) {
+            throw new IllegalArgumentException("A projection cannot be combined with a grouping.");
+        }
+        int from = applyWindow ? Math.min(firstRow, sheet.getRowCount()) : 0;
+        int to = applyWindow && rowCount >= 0 ? (int) Math.min((long) from + rowCount, sheet.getRowCount())
+                : sheet.getRowCount();
+        IntStream rows = IntStream.range(from, to);
+        if (to - from >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        if (condition != null) {
+            IntPredicate predicate = condition.compile(sheet);
+            rows = rows.filter(predicate);
+        }
+        if (groupBy.isEmpty() && aggregations.isEmpty()) {
+            return project(sheet, rows.toArray());
+        }
+        return aggregate(sheet, rows);
+    }
+
+    private ColumnarSheet project(ColumnarSheet sheet, int[] rows) {
+        List<String> headers = selected != null ? selected : sheet.getHeaders();
+        int[] columns = new int[headers.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = selected != null ? Condition.index(sheet, headers.get(i)) : i;
+        }
+        ColumnarSheet.Builder builder = new ColumnarSheet.Builder().setHeaders(headers);
+        Object[] cells = new Object[columns.length];
+        for (int row : rows) {
+            for (int i = 0; i < columns.length; i++) {
+                cells[i] = sheet.getValue(row, columns[i]);
+            }
+            builder.addRow(Arrays.asList(cells));
+        }
+        return builder.build();
+    }
+
+    private ColumnarSheet aggregate(ColumnarSheet sheet, IntStream rows) {
+        int[] keys = new int[groupBy.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Condition.index(sheet, groupBy.get(i));
+        }
+        Aggregation.Function[] functions = new Aggregation.Function[aggregations.size()];
+        int[] columns = new int[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            Aggregation aggregation = aggregations.get(i);
+            functions[i] = aggregation.getFunction();
+            columns[i] = aggregation.getColumn() == null ? -1 : Condition.index(sheet, aggregation.getColumn());
+            ColumnType type = columns[i] < 0 ? null : sheet.getColumnType(columns[i]);
+            if (functions[i] != Aggregation.Function.COUNT && type != ColumnType.LONG && type != ColumnType.DOUBLE
+                    && type != ColumnType.EMPTY) {
+                throw new IllegalArgumentException("The column is not numeric: " + aggregation.getColumn());
+            }
+        }
+
+        Map<Object, Group> groups = rows.collect(HashMap::new,
+                (map, row) -> map.computeIfAbsent(key(sheet, keys, row), key -> new Group(functions, row))
+                        .add(sheet, row, columns),
+                (left, right) -> right.forEach((key, group) -> left.merge(key, group, Group::merge)));
+        if (keys.length == 0 && groups.isEmpty()) {
+            groups.put(Boolean.TRUE, new Group(functions, 0));
+        }
+
+        List<Map.Entry<Object, Group>> ordered = new ArrayList<>(groups.entrySet());
+        ordered.sort(Comparator.comparingInt(entry -> entry.getValue().firstRow));
+        List<String> headers = new ArrayList<>(groupBy);
+        for (Aggregation aggregation : aggregations) {
+            headers.add(aggregation.getName());
+        }
+        ColumnarSheet.Builder builder = new ColumnarSheet.Builder().setHeaders(headers);
+        for (Map.Entry<Object, Group> entry : ordered) {
+            List<Object> row = new ArrayList<>(headers.size());
+            if (keys.length == 1) {
+                row.add(entry.getKey());
+            } else if (keys.length > 1) {
+                row.addAll((List<?>) entry.getKey());
+            }
+            entry.getValue().appendResults(row);
+            builder.addRow(row);
+        }
+        return builder.build();
+    }
+
+    private static Object key(ColumnarSheet sheet, int[] keys, int row) {
+        if (keys.length == 0) {
+            return Boolean.TRUE;
+        }
+        if (keys.length == 1) {
+            return sheet.getValue(row, keys[0]);
+        }
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = sheet.getValue(row, keys[i]);
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Finds the runs of adjacent columns holding the required headers, as
+     * absolute column numbers.
+     */
+    private static List<int[]> columnRuns(SheetRange range, List<Object> header, Set<String> required) {
+        List<int[]> runs = new ArrayList<>();
+        if (required == null || required.isEmpty()) {
+            runs.add(new int[] { range.getStartColumn(), range.getEndColumn() });
+            return runs;
+        }
+        List<String> names = new ArrayList<>(header.size());
+        for (Object cell : header) {
+            names.add(cell == null ? "" : cell.toString());
+        }
+        TreeSet<Integer> columns = new TreeSet<>();
+        for (String column : required) {
+            int position = names.indexOf(column);
+            if (position < 0) {
+                throw new IllegalArgumentException("Unknown column: " + column);
+            }
+            columns.add(range.getStartColumn() + position);
+        }
+        for (int column : columns) {
+            int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last[1] == column - 1) {
+                last[1] = column;
+            } else {
+                runs.add(new int[] { column, column });
+            }
+        }
+        return runs;
+    }
+
+    private static void appendCells(List<Object> target, List<Object> source, int from, int width) {
+        for (int i = 0; i < width; i++) {
+            int position = from + i;
+            target.add(position < source.size() ? source.get(position) : "");
+        }
+    }
+
+    /**
+     * The running aggregates of one group. Each thread of a parallel query
+     * fills its own groups, which are merged at the end.
+     */
+    private static final class Group {
+        private final Aggregation.Function[] functions;
+        private final long[] counts;
+        private final double[] values;
+        private int firstRow;
+
+        private Group(Aggregation.Function[] functions, int firstRow) {
+            this.functions = functions;
+            this.counts = new long[functions.length];
+            this.values = new double[functions.length];
+            this.firstRow = firstRow;
+            for (int i = 0; i < functions.length; i++) {
+                if (functions[i] == Aggregation.Function.MIN) {
+                    values[i] = Double.POSITIVE_INFINITY;
+                } else if (functions[i] == Aggregation.Function.MAX) {
+                    values[i] = Double.NEGATIVE_INFINITY;
+                }
+            }
+        }
+
+        private Group add(ColumnarSheet sheet, int row, int[] columns) {
+            firstRow = Math.min(firstRow, row);
+            for (int i = 0; i < functions.length; i++) {
+                int column = columns[i];
+                if (column >= 0 && sheet.isNull(row, column)) {
+                    continue;
+                }
+                counts[i]++;
+                if (functions[i] == Aggregation.Function.COUNT) {
+                    continue;
+                }
+                double value = sheet.getDouble(row, column);
+                switch (functions[i]) {
+                    case MIN:
+                        values[i] = Math.min(values[i], value);
+                        break;
+                    case MAX:
+                        values[i] = Math.max(values[i], value);
+                        break;
+                    default:
+                        values[i] += value;
+                        break;
+                }
+            }
+            return this;
+        }
+
+        private Group merge(Group other) {
+            firstRow = Math.min(firstRow, other.firstRow);
+            for (int i = 0; i < functions.length; i++) {
+                counts[i] += other.counts[i];
+                switch (functions[i]) {
+                    case MIN:
+                        values[i] = Math.min(values[i], other.values[i]);
+                        break;
+                    case MAX:
+                        values[i] = Math.max(values[i], other.values[i]);
+                        break;
+                    default:
+                        values[i] += other.values[i];
+                        break;
+                }
+            }
+            return this;
+        }
+
+        private void appendResults(List<Object> row) {
+            for (int i = 0; i < functions.length; i++) {
+                switch (functions[i]) {
+                    case COUNT:
+                        row.add(counts[i]);
+                        break;
+                    case SUM:
+                        row.add(values[i]);
+                        break;
+                    case AVG:
+                        row.add(counts[i] == 0 ? null : values[i] / counts[i]);
+                        break;
+                    default:
+                        row.add(counts[i] == 0 ? null : values[i]);
+                        break;
+                }
+            }
+        }
+    }
+}
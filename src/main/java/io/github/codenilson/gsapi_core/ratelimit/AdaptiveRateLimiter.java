@@ -0,0 +1,130 @@
+package io.github.codenilson.gsapi_core.ratelimit;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+
+/**
+ * Token bucket whose refill rate adapts to the throttling responses of the
+ * Google Sheets API.
+ * <p>
+ * The bucket starts at its maximum rate. Every throttled response multiplies
+ * the rate by a decrease factor (never below the minimum rate) and, when the
+ * server sent a {@code Retry-After}, blocks every caller until it has passed.
+ * Every successful call then raises the rate by a small additive step, so the
+ * limiter converges on the highest rate the quota sustains. One instance can
+ * be shared by every client drawing on the same quota, e.g. one per project
+ * and one per user.
+ */
+public class AdaptiveRateLimiter {
+
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double INCREASE_FRACTION = 0.02;
+
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+
+    /**
+     * Constructs a new AdaptiveRateLimiter.
+     *
+     * @param maxRequestsPerSecond The highest rate the limiter allows, e.g. the
+     *                             quota of the project or user.
+     * @param burst                The number of requests that may be sent at
+     *                             once after a quiet period.
+     * @throws IllegalArgumentException If the rate or burst is not positive.
+     */
+    public AdaptiveRateLimiter(double maxRequestsPerSecond, int burst) {
+        if (maxRequestsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("The rate and burst must be positive: " + maxRequestsPerSecond
+                    + ", " + burst);
+        }
+        this.maxRate = maxRequestsPerSecond;
+        this.minRate = maxRequestsPerSecond / 100;
+        this.burst = burst;
+        this.rate = maxRequestsPerSecond;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates a limiter for a per-minute quota, such as the Google Sheets
+     * read and write request quotas.
+     *
+     * @param requestsPerMinute The quota, in requests per minute.
+     * @return A limiter allowing that rate with a burst of one second of quota.
+     */
+    public static AdaptiveRateLimiter perMinute(int requestsPerMinute) {
+        return new AdaptiveRateLimiter(requestsPerMinute / 60.0, Math.max(1, requestsPerMinute / 60));
+    }
+
+    /**
+     * Blocks until the caller may send one request.
+     *
+     * @throws InterruptedIOException If the thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedIOException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Records a successful call, slowly raising the rate back towards the
+     * maximum.
+     */
+    public synchronized void onSuccess() {
+        if (rate < maxRate) {
+            rate = Math.min(maxRate, rate + maxRate * INCREASE_FRACTION);
+        }
+    }
+
+    /**
+     * Records a throttled call, lowering the rate and honoring the delay
+     * requested by the server.
+     *
+     * @param retryAfter The delay from the {@code Retry-After} header, or
+     *                   {@code null} if none was sent.
+     */
+    public synchronized void onThrottled(Duration retryAfter) {
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+        tokens = Math.min(tokens, 0);
+        if (retryAfter != null && !retryAfter.isNegative()) {
+            blockedUntilNanos = Math.max(blockedUntilNanos, System.nanoTime() + retryAfter.toNanos());
+        }
+    }
+
+    /**
+     * Gets the current refill rate.
+     *
+     * @return The rate, in requests per second.
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * rate);
+        lastRefillNanos = now;
+        // Take the token now, even if it is not yet available, so that
+        // concurrent callers queue up behind each other.
+        tokens -= 1;
+        long waitNanos = tokens >= 0 ? 0 : (long) (-tokens / rate * 1e9);
+        return Math.max(waitNanos, blockedUntilNanos - now);
+    }
+
+    static void sleep(long nanos) throws InterruptedIOException {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the Google Sheets rate limit.");
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package io.github.codenilson.gsapi_core.ratelimit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.metrics.SheetsMetrics;
+import io.github.codenilson.gsapi_core.metrics.SheetsOperation;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+/**
+ * A {@link GoogleSheetsClient} that passes every call through one or more
+ * {@link AdaptiveRateLimiter}s and retries throttled calls.
+ * <p>
+ * Before each attempt a permit is taken from every limiter for each request it
+ * sends, e.g. a limiter shared by the whole project and one per user. A batch
+ * fetch takes one permit per {@code values.batchGet} call, and each of those
+ * calls is retried on its own. A {@code 429} or {@code 503}
+ * response lowers the rate of every limiter and is retried after a jittered
+ * exponential backoff of at least the {@code Retry-After} delay. Other server
+ * errors are retried the same way, except for appends: they are not
+ * idempotent, so an append is only retried when it was rejected with
+ * {@code 429}.
+ */
+public class RateLimitedSheetsClient extends ForwardingGoogleSheetsClient {
+
+    /**
+     * Default number of retries after the first attempt.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 5;
+
+    /**
+     * Default backoff before the first retry.
+     */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+
+    /**
+     * Default upper bound of the backoff.
+     */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(32);
+
+    private final List<AdaptiveRateLimiter> limiters;
+    private final int maxRetries;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private volatile SheetsMetrics metrics = SheetsMetrics.NOOP;
+
+    /**
+     * Constructs a new RateLimitedSheetsClient with the default retry policy.
+     *
+     * @param delegate The client the calls are forwarded to.
+     * @param limiters The limiters every call must pass.
+     */
+    public RateLimitedSheetsClient(GoogleSheetsClient delegate, AdaptiveRateLimiter... limiters) {
+        this(delegate, Arrays.asList(limiters), DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * Constructs a new RateLimitedSheetsClient.
+     *
+     * @param delegate       The client the calls are forwarded to.
+     * @param limiters       The limiters every call must pass.
+     * @param maxRetries     The number of retries after the first attempt.
+     * @param initialBackoff The backoff before the first retry, doubled on each
+     *                       further retry.
+     * @param maxBackoff     The upper bound of the backoff.
+     * @throws IllegalArgumentException If {@code maxRetries} is negative.
+     */
+    public RateLimitedSheetsClient(GoogleSheetsClient delegate, List<AdaptiveRateLimiter> limiters, int maxRetries,
+            Duration initialBackoff, Duration maxBackoff) {
+        super(delegate);
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative: " + maxRetries);
+        }
+        this.limiters = limiters;
+        this.maxRetries = maxRetries;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    /**
+     * Gets the metrics that receive throttling and retry events.
+     *
+     * @return The metrics, {@link SheetsMetrics#NOOP} by default.
+     */
+    public SheetsMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics that receive throttling and retry events.
+     *
+     * @param metrics The metrics, or {@code null} to record nothing.
+     */
+    public void setMetrics(SheetsMetrics metrics) {
+        this.metrics = metrics == null ? SheetsMetrics.NOOP : metrics;
+    }
+
+    @Override
+    public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+        return execute(SheetsOperation.FETCH, request.getSpreadsheetId(), true, () -> super.fetchValues(request));
+    }
+
+    @Override
+    public List<List<Object>> fetchFormulas(SheetRequest request) throws IOException {
+        return execute(SheetsOperation.FETCH, request.getSpreadsheetId(), true, () -> super.fetchFormulas(request));
+    }
+
+    /**
+     * Streams the values of a range. Only a rejected request is retried; an
+     * error after rows were handed to the consumer is not an
+     * {@link HttpResponseException} and is thrown as is.
+     */
+    @Override
+    public int streamValues(SheetRequest request, RowConsumer consumer) throws IOException {
+        return execute(SheetsOperation.STREAM, request.getSpreadsheetId(), true,
+                () -> super.streamValues(request, consumer));
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges) throws IOException {
+        List<List<List<Object>>> result = new ArrayList<>(ranges.size());
+        for (List<String> chunk : GoogleSheetsClient.splitBatchGet(ranges)) {
+            result.addAll(execute(SheetsOperation.BATCH_FETCH, spreadsheetId, true,
+                    () -> super.fetchValuesBatch(spreadsheetId, chunk)));
+        }
+        return result;
+    }
+
+    @Override
+    public List<List<List<Object>>> fetchUnformattedValuesBatch(String spreadsheetId, List<String> ranges)
+            throws IOException {
+        List<List<List<Object>>> result = new ArrayList<>(ranges.size());
+        for (List<String> chunk : GoogleSheetsClient.splitBatchGet(ranges)) {
+            result.addAll(execute(SheetsOperation.BATCH_FETCH, spreadsheetId, true,
+                    () -> super.fetchUnformattedValuesBatch(spreadsheetId, chunk)));
+        }
+        return result;
+    }
+
+    @Override
+    public String fetchRevision(String spreadsheetId) throws IOException {
+        return execute(SheetsOperation.METADATA, spreadsheetId, true, () -> super.fetchRevision(spreadsheetId));
+    }
+
+    @Override
+    public List<SheetProperties> fetchSheets(String spreadsheetId) throws IOException {
+        return execute(SheetsOperation.METADATA, spreadsheetId, true, () -> super.fetchSheets(spreadsheetId));
+    }
+
+    /**
+     * Grows the grid of a sheet. Each attempt reads the grid size again, so a
+     * retry never grows it twice, and takes two permits: one to read the grid
+     * and one to grow it.
+     */
+    @Override
+    public void ensureGridSize(String spreadsheetId, String sheetName, int rows, int columns) throws IOException {
+        execute(SheetsOperation.METADATA, spreadsheetId, true, 2, () -> {
+            super.ensureGridSize(spreadsheetId, sheetName, rows, columns);
+            return null;
+        });
+    }
+
+    @Override
+    public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        execute(SheetsOperation.APPEND, request.getSpreadsheetId(), false, () -> {
+            super.appendValues(request, values);
+            return null;
+        });
+    }
+
+    @Override
+    public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        execute(SheetsOperation.UPDATE, request.getSpreadsheetId(), true, () -> {
+            super.overwriteValues(request, values);
+            return null;
+        });
+    }
+
+    @Override
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        execute(SheetsOperation.BATCH_UPDATE, spreadsheetId, true, () -> {
+            super.batchOverwriteValues(spreadsheetId, data);
+            return null;
+        });
+    }
+
+    @Override
+    public void clearRange(SheetRequest request) throws IOException {
+        execute(SheetsOperation.CLEAR, request.getSpreadsheetId(), true, () -> {
+            super.clearRange(request);
+            return null;
+        });
+    }
+
+    private <T> T execute(SheetsOperation operation, String spreadsheetId, boolean idempotent, SheetsCall<T> call)
+            throws IOException {
+        return execute(operation, spreadsheetId, idempotent, 1, call);
+    }
+
+    private <T> T execute(SheetsOperation operation, String spreadsheetId, boolean idempotent, int permits,
+            SheetsCall<T> call) throws IOException {
+        for (int attempt = 0;; attempt++) {
+            for (AdaptiveRateLimiter limiter : limiters) {
+                for (int permit = 0; permit < permits; permit++) {
+                    limiter.acquire();
+                }
+            }
+            try {
+                T result = call.execute();
+                for (AdaptiveRateLimiter limiter : limiters) {
+                    limiter.onSuccess();
+                }
+                return result;
+            } catch (HttpResponseException e) {
+                int status = e.getStatusCode();
+                boolean throttled = status == 429 || status == 503;
+                Duration retryAfter = throttled ? parseRetryAfter(e) : null;
+                if (throttled) {
+                    metrics.throttled(operation, spreadsheetId);
+                    for (AdaptiveRateLimiter limiter : limiters) {
+                        limiter.onThrottled(retryAfter);
+                    }
+                }
+                boolean retryable = status == 429 || (idempotent && status >= 500 && status <= 504);
+                if (!retryable || attempt >= maxRetries) {
+                    throw e;
+                }
+                metrics.retried(operation, spreadsheetId, status);
+                AdaptiveRateLimiter.sleep(backoffNanos(attempt, retryAfter));
+            }
+        }
+    }
+
+    /**
+     * Computes a "full jitter" backoff: a random delay between zero and the
+     * exponential bound, but never shorter than the server's Retry-After.
+     */
+    private long backoffNanos(int attempt, Duration retryAfter) {
+        long bound = initialBackoffNanos << Math.min(attempt, 30);
+        if (bound <= 0 || bound > maxBackoffNanos) {
+            bound = maxBackoffNanos;
+        }
+        long delay = ThreadLocalRandom.current().nextLong(bound + 1);
+        return retryAfter == null ? delay : Math.max(delay, retryAfter.toNanos());
+    }
+
+    private static Duration parseRetryAfter(HttpResponseException e) {
+        String header = e.getHeaders() == null ? null : e.getHeaders().getRetryAfter();
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(header.trim()));
+        } catch (NumberFormatException ignored) {
+            // HTTP-date values are not used by Google APIs.
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SheetsCall<T> {
+        T execute() throws IOException;
+    }
+}
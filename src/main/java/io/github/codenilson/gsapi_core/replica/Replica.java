@@ -0,0 +1,602 @@
+package io.github.codenilson.gsapi_core.replica;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.RevisionCheck;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+import io.github.codenilson.gsapi_core.sync.SheetWatcher;
+
+/**
+ * A local copy of a range, stored in memory-mapped files and read without
+ * calling the API.
+ * <p>
+ * Rows are stored as records in an append-only segment file. An index file
+ * holds, for every row, the offset of its record and a fingerprint of its
+ * cells. A refresh streams the range, appends only the rows whose fingerprint
+ * changed and then atomically replaces the index. Because records are never
+ * overwritten, a reader holding the previous index still reads a consistent
+ * copy. Once the segment holds more than twice its live bytes, it is compacted
+ * into a new segment file.
+ * <p>
+ * Several processes may share the files: refreshes take an exclusive
+ * {@link FileLock}, reads take no lock at all, and {@link #reload()} picks up
+ * a refresh made by another process. Like {@link SheetWatcher}, a refresh
+ * first compares the Drive revision of the spreadsheet and skips the read
+ * when it has not changed. Replacing the index relies on atomic renames over
+ * open files, as offered by POSIX file systems, and a segment is limited to
+ * 2 GB.
+ * <p>
+ * Rows are returned as the API streams them: strings, {@link BigDecimal}s and
+ * booleans, starting with the header row.
+ */
+public class Replica {
+
+    private static final int SEGMENT_MAGIC = 0x47535253;
+    private static final int INDEX_MAGIC = 0x47535249;
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int INDEX_HEADER_BYTES = 128;
+    private static final int MAX_REVISION_BYTES = 64;
+    private static final int ENTRY_BYTES = 16;
+    private static final long COMPACTION_SLACK_BYTES = 1 << 20;
+    private static final int LOAD_ATTEMPTS = 5;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte NUMBER = 2;
+    private static final byte TRUE = 3;
+    private static final byte FALSE = 4;
+
+    private final GoogleSheetsClient client;
+    private final RevisionCheck revisionCheck;
+    private final SheetRequest request;
+    private final Path directory;
+    private final String name;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean stale;
+
+    /**
+     * Opens a replica, mapping its files if they exist.
+     *
+     * @param client    The client used to refresh the replica, or {@code null}
+     *                  if it is only read.
+     * @param request   The replicated range.
+     * @param directory The directory of the replica files.
+     * @param name      The base name of the replica files.
+     * @throws GSAPIError If an error occurs while reading the files.
+     */
+    Replica(GoogleSheetsClient client, SheetRequest request, Path directory, String name) {
+        this.client = client;
+        this.request = request;
+        this.revisionCheck = new RevisionCheck(client, request.getSpreadsheetId());
+        this.directory = directory;
+        this.name = name;
+        reload();
+    }
+
+    /**
+     * Gets the replicated range.
+     *
+     * @return The request of the range.
+     */
+    public SheetRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Gets the number of rows, header included.
+     *
+     * @return The number of rows.
+     */
+    public int getRowCount() {
+        return snapshot.rowCount;
+    }
+
+    /**
+     * Gets the Drive revision of the spreadsheet at the last refresh.
+     *
+     * @return The revision, or {@code null} if unknown.
+     */
+    public String getRevision() {
+        return snapshot.revision;
+    }
+
+    /**
+     * Gets the number of refreshes written to the files, which grows by one on
+     * every refresh that changed them.
+     *
+     * @return The generation of the index.
+     */
+    public long getGeneration() {
+        return snapshot.generation;
+    }
+
+    /**
+     * Gets the size of the live records and of the whole segment file.
+     *
+     * @return The live bytes and the segment bytes.
+     */
+    long[] getSegmentUsage() {
+        Snapshot current = snapshot;
+        return new long[] { current.liveBytes, current.segmentLength };
+    }
+
+    /**
+     * Reads a row from the mapped files.
+     *
+     * @param index The 0-based index of the row, 0 being the header.
+     * @return The cells of the row.
+     * @throws IndexOutOfBoundsException If there is no such row.
+     */
+    public List<Object> getRow(int index) {
+        Snapshot current = snapshot;
+        if (index < 0 || index >= current.rowCount) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + current.rowCount);
+        }
+        return decode(current.segment, current.offset(index));
+    }
+
+    /**
+     * Reads every row from the mapped files.
+     *
+     * @return The rows, starting with the header.
+     */
+    public List<List<Object>> getValues() {
+        Snapshot current = snapshot;
+        List<List<Object>> values = new ArrayList<>(current.rowCount);
+        for (int index = 0; index < current.rowCount; index++) {
+            values.add(decode(current.segment, current.offset(index)));
+        }
+        return values;
+    }
+
+    /**
+     * Hands every row to {@code consumer}, as
+     * {@link GoogleSheetsClient#streamValues(SheetRequest, RowConsumer)} would.
+     *
+     * @param consumer Receives each row, the first one being the header.
+     * @return The number of rows.
+     * @throws IOException If the consumer aborts the read.
+     */
+    public int forEachRow(RowConsumer consumer) throws IOException {
+        Snapshot current = snapshot;
+        for (int index = 0; index < current.rowCount; index++) {
+            consumer.accept(index, decode(current.segment, current.offset(index)));
+        }
+        return current.rowCount;
+    }
+
+    /**
+     * Maps the latest files if another process or replica refreshed them.
+     *
+     * @return {@code true} if a newer copy was loaded.
+     * @throws GSAPIError If an error occurs while reading the files.
+     */
+    public synchronized boolean reload() {
+        try {
+            return load();
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while loading the replica for range: " + request.getRange(), e);
+        }
+    }
+
+    /**
+     * Brings the replica up to date with the spreadsheet, writing only the rows
+     * that changed.
+     *
+     * @return The number of rows inserted, updated or deleted.
+     * @throws IllegalStateException If the replica has no client.
+     * @throws GSAPIError            If an error occurs while reading the range
+     *                               or writing the files.
+     */
+    public int refresh() {
+        return refresh(false);
+    }
+
+    /**
+     * Tells whether the spreadsheet was written through a
+     * {@link ReplicatedSheetsClient} since the last refresh.
+     */
+    boolean isStale() {
+        return stale;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Refreshes the replica, reading the range even if the revision did not
+     * change when {@code force} is set.
+     */
+    @SuppressWarnings("try")
+    synchronized int refresh(boolean force) {
+        if (client == null) {
+            throw new IllegalStateException("The replica is read-only: " + request.getRange());
+        }
+        boolean wasStale = stale;
+        stale = false;
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve(name + ".lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+                FileLock lock = lockChannel.lock()) {
+            load();
+            Snapshot current = snapshot;
+            String revision = revisionCheck.fetch();
+            if (!force && !wasStale && current.generation > 0 && revision != null
+                    && revision.equals(current.revision)) {
+                return 0;
+            }
+            return write(current, revision);
+        } catch (IOException e) {
+            stale = stale || wasStale;
+            throw new GSAPIError("An error occurred while refreshing the replica for range: " + request.getRange(),
+                    e);
+        }
+    }
+
+    private int write(Snapshot current, String revision) throws IOException {
+        long segmentGeneration = Math.max(current.segmentGeneration, 1);
+        long[][] offsets = { new long[Math.max(current.rowCount, 16)] };
+        long[][] fingerprints = { new long[offsets[0].length] };
+        long[] liveBytes = { 0 };
+        int[] changed = { 0 };
+        int rows;
+        long segmentLength;
+        try (SegmentAppender out = new SegmentAppender(segmentPath(segmentGeneration), current.segmentLength)) {
+            rows = client.streamValues(request, (index, row) -> {
+                if (index >= offsets[0].length) {
+                    offsets[0] = Arrays.copyOf(offsets[0], offsets[0].length * 2);
+                    fingerprints[0] = Arrays.copyOf(fingerprints[0], offsets[0].length);
+                }
+                long fingerprint = SheetWatcher.fingerprint(row);
+                if (index < current.rowCount && current.fingerprint(index) == fingerprint) {
+                    long offset = current.offset(index);
+                    offsets[0][index] = offset;
+                    liveBytes[0] += Integer.BYTES + current.segment.getInt((int) offset);
+                } else {
+                    offsets[0][index] = out.position();
+                    liveBytes[0] += out.append(row);
+                    changed[0]++;
+                }
+                fingerprints[0][index] = fingerprint;
+            });
+            out.force();
+            segmentLength = out.position();
+        }
+        changed[0] += Math.max(current.rowCount - rows, 0);
+        if (changed[0] == 0 && current.generation > 0 && Objects.equals(revision, current.revision)) {
+            return 0;
+        }
+
+        long[] rowOffsets = offsets[0];
+        if (segmentLength - SEGMENT_HEADER_BYTES > 2 * liveBytes[0] + COMPACTION_SLACK_BYTES) {
+            segmentLength = compact(segmentPath(segmentGeneration), segmentLength, rowOffsets, rows,
+                    segmentPath(segmentGeneration + 1));
+            segmentGeneration++;
+        }
+        if (segmentLength > Integer.MAX_VALUE) {
+            throw new IOException("The replica segment exceeds 2 GB: " + segmentPath(segmentGeneration));
+        }
+        writeIndex(new IndexHeader(current.generation + 1, segmentGeneration, segmentLength, liveBytes[0], rows,
+                revision), rowOffsets, fingerprints[0]);
+        if (segmentGeneration != Math.max(current.segmentGeneration, 1)) {
+            Files.deleteIfExists(segmentPath(segmentGeneration - 1));
+        }
+        load();
+        return changed[0];
+    }
+
+    /**
+     * Copies the live records into a new segment, updating their offsets.
+     */
+    private static long compact(Path from, long length, long[] offsets, int rows, Path to) throws IOException {
+        try (FileChannel source = FileChannel.open(from, StandardOpenOption.READ);
+                SegmentAppender out = new SegmentAppender(to, 0)) {
+            MappedByteBuffer segment = source.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            for (int index = 0; index < rows; index++) {
+                int offset = (int) offsets[index];
+                int size = Integer.BYTES + segment.getInt(offset);
+                offsets[index] = out.position();
+                out.copy(segment.slice(offset, size));
+            }
+            out.force();
+            return out.position();
+        }
+    }
+
+    private void writeIndex(IndexHeader header, long[] offsets, long[] fingerprints) throws IOException {
+        Path temporary = directory.resolve(name + ".idx.tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(INDEX_HEADER_BYTES + header.rowCount * ENTRY_BYTES);
+            byte[] revision = header.revision == null ? new byte[0]
+                    : header.revision.getBytes(StandardCharsets.UTF_8);
+            if (revision.length > MAX_REVISION_BYTES) {
+                revision = new byte[0];
+            }
+            buffer.putInt(INDEX_MAGIC).putInt(VERSION)
+                    .putLong(header.generation)
+                    .putLong(header.segmentGeneration)
+                    .putLong(header.segmentLength)
+                    .putLong(header.liveBytes)
+                    .putInt(header.rowCount)
+                    .putInt(header.revision == null ? -1 : revision.length)
+                    .put(revision);
+            buffer.position(INDEX_HEADER_BYTES);
+            for (int index = 0; index < header.rowCount; index++) {
+                buffer.putLong(offsets[index]).putLong(fingerprints[index]);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(name + ".idx"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the current index and segment unless they are already mapped. A
+     * segment deleted by a concurrent compaction is retried with the newer
+     * index.
+     */
+    private boolean load() throws IOException {
+        Path indexPath = directory.resolve(name + ".idx");
+        for (int attempt = 1;; attempt++) {
+            if (!Files.exists(indexPath)) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                IndexHeader header = IndexHeader.read(index, indexPath);
+                if (header.generation == snapshot.generation) {
+                    return false;
+                }
+                try (FileChannel segmentChannel = FileChannel.open(segmentPath(header.segmentGeneration),
+                        StandardOpenOption.READ)) {
+                    MappedByteBuffer segment = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0,
+                            header.segmentLength);
+                    snapshot = new Snapshot(header, index, segment);
+                    return true;
+                }
+            } catch (NoSuchFileException e) {
+                if (attempt >= LOAD_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(long generation) {
+        return directory.resolve(name + "-" + generation + ".seg");
+    }
+
+    private static List<Object> decode(ByteBuffer segment, long offset) {
+        int position = (int) offset + Integer.BYTES;
+        int cells = segment.getInt(position);
+        position += Integer.BYTES;
+        List<Object> row = new ArrayList<>(cells);
+        for (int cell = 0; cell < cells; cell++) {
+            byte type = segment.get(position++);
+            switch (type) {
+                case STRING:
+                case NUMBER:
+                    int length = segment.getInt(position);
+                    byte[] bytes = new byte[length];
+                    segment.get(position + Integer.BYTES, bytes);
+                    position += Integer.BYTES + length;
+                    String text = new String(bytes, StandardCharsets.UTF_8);
+                    row.add(type == STRING ? text : new BigDecimal(text));
+                    break;
+                case TRUE:
+                    row.add(Boolean.TRUE);
+                    break;
+                case FALSE:
+                    row.add(Boolean.FALSE);
+                    break;
+                default:
+                    row.add(null);
+                    break;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * The fixed-size header of an index file.
+     */
+    private static final class IndexHeader {
+        private final long generation;
+        private final long segmentGeneration;
+        private final long segmentLength;
+        private final long liveBytes;
+        private final int rowCount;
+        private final String revision;
+
+        private IndexHeader(long generation, long segmentGeneration, long segmentLength, long liveBytes,
+                int rowCount, String revision) {
+            this.generation = generation;
+            this.segmentGeneration = segmentGeneration;
+            this.segmentLength = segmentLength;
+            this.liveBytes = liveBytes;
+            this.rowCount = rowCount;
+            this.revision = revision;
+        }
+
+        private static IndexHeader read(ByteBuffer index, Path path) throws IOException {
+            if (index.capacity() < INDEX_HEADER_BYTES || index.getInt(0) != INDEX_MAGIC) {
+                throw new IOException("Not a replica index: " + path);
+            }
+            if (index.getInt(4) != VERSION) {
+                throw new IOException("Unsupported replica version " + index.getInt(4) + ": " + path);
+            }
+            int rowCount = index.getInt(40);
+            int revisionLength = index.getInt(44);
+            String revision = null;
+            if (revisionLength >= 0) {
+                byte[] bytes = new byte[revisionLength];
+                index.get(48, bytes);
+                revision = new String(bytes, StandardCharsets.UTF_8);
+            }
+            if (index.capacity() < INDEX_HEADER_BYTES + (long) rowCount * ENTRY_BYTES) {
+                throw new IOException("Truncated replica index: " + path);
+            }
+            return new IndexHeader(index.getLong(8), index.getLong(16), index.getLong(24), index.getLong(32),
+                    rowCount, revision);
+        }
+    }
+
+    /**
+     * The mapped files of one generation. Readers take a snapshot once per
+     * call, so a concurrent reload never mixes two generations.
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new IndexHeader(0, 0, 0, 0, 0, null), null, null);
+
+        private final long generation;
+        private final long segmentGeneration;
+        private final long segmentLength;
+        private final long liveBytes;
+        private final int rowCount;
+        private final String revision;
+        private final ByteBuffer index;
+        private final ByteBuffer segment;
+
+        private Snapshot(IndexHeader header, ByteBuffer index, ByteBuffer segment) {
+            this.generation = header.generation;
+            this.segmentGeneration = header.segmentGeneration;
+            this.segmentLength = header.segmentLength;
+            this.liveBytes = header.liveBytes;
+            this.rowCount = header.rowCount;
+            this.revision = header.revision;
+            this.index = index;
+            this.segment = segment;
+        }
+
+        private long offset(int row) {
+            return index.getLong(INDEX_HEADER_BYTES + row * ENTRY_BYTES);
+        }
+
+        private long fingerprint(int row) {
+            return index.getLong(INDEX_HEADER_BYTES + row * ENTRY_BYTES + Long.BYTES);
+        }
+    }
+
+    /**
+     * Appends records to a segment file through a buffer, starting at the end
+     * recorded by the index so that a torn append is overwritten.
+     */
+    private static final class SegmentAppender implements AutoCloseable {
+        private static final int FLUSH_BYTES = 48 * 1024;
+
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private long position;
+
+        private SegmentAppender(Path path, long length) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (length < SEGMENT_HEADER_BYTES) {
+                channel.truncate(0);
+                buffer.putInt(SEGMENT_MAGIC).putInt(VERSION);
+                position = SEGMENT_HEADER_BYTES;
+            } else {
+                channel.truncate(length);
+                channel.position(length);
+                position = length;
+            }
+        }
+
+        private long position() {
+            return position;
+        }
+
+        private int append(List<Object> row) throws IOException {
+            if (buffer.position() >= FLUSH_BYTES) {
+                flush();
+            }
+            ensure(2 * Integer.BYTES);
+            int start = buffer.position();
+            buffer.putInt(0).putInt(row.size());
+            for (Object value : row) {
+                if (value == null) {
+                    ensure(1);
+                    buffer.put(NULL);
+                } else if (value instanceof Boolean) {
+                    ensure(1);
+                    buffer.put((Boolean) value ? TRUE : FALSE);
+                } else {
+                    boolean number = value instanceof Number;
+                    byte[] bytes = (number ? new BigDecimal(value.toString()).toString() : value.toString())
+                            .getBytes(StandardCharsets.UTF_8);
+                    ensure(1 + Integer.BYTES + bytes.length);
+                    buffer.put(number ? NUMBER : STRING).putInt(bytes.length).put(bytes);
+                }
+            }
+            int size = buffer.position() - start;
+            buffer.putInt(start, size - Integer.BYTES);
+            position += size;
+            return size;
+        }
+
+        private void copy(ByteBuffer record) throws IOException {
+            flush();
+            position += record.remaining();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+
+        /**
+         * Makes room for {@code bytes} more bytes without splitting the record
+         * being written, growing the buffer for records larger than it.
+         */
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void force() throws IOException {
+            flush();
+            channel.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
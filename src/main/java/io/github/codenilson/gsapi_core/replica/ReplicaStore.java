@@ -0,0 +1,195 @@
+package io.github.codenilson.gsapi_core.replica;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+
+/**
+ * A directory of {@link Replica}s, one per replicated range.
+ * <p>
+ * Opening a replica maps its files, so a restarted process serves reads
+ * immediately from the copy left on disk and only needs a refresh to catch up.
+ * A store without a client only reads: it picks up the refreshes made by
+ * another process sharing the directory. Each process should open a directory
+ * through a single store.
+ *
+ * @see ReplicatedSheetsClient
+ */
+public class ReplicaStore implements AutoCloseable {
+
+    private final GoogleSheetsClient client;
+    private final Path directory;
+    private final Map<String, Replica> replicas = new ConcurrentHashMap<>();
+    private volatile BiConsumer<SheetRequest, Exception> errorHandler = (request, e) -> {
+    };
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a new ReplicaStore.
+     *
+     * @param client    The client used to refresh the replicas, or {@code null}
+     *                  for a read-only store.
+     * @param directory The directory of the replica files, created if missing.
+     * @throws GSAPIError If the directory cannot be created.
+     */
+    public ReplicaStore(GoogleSheetsClient client, Path directory) {
+        this.client = client;
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new GSAPIError("Error creating the replica directory: " + directory, e);
+        }
+    }
+
+    /**
+     * Gets the directory of the replica files.
+     *
+     * @return The directory.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the replica of a range, opening it on first use. A new replica is
+     * empty until it is refreshed, unless its files already exist.
+     *
+     * @param request The range to replicate.
+     * @return The replica of the range.
+     * @throws GSAPIError If an error occurs while reading its files.
+     */
+    public Replica replica(SheetRequest request) {
+        return replicas.computeIfAbsent(key(request.getSpreadsheetId(), request.getRange()),
+                key -> new Replica(client, request, directory, fileName(request)));
+    }
+
+    /**
+     * Finds the replica of a range, if it was opened.
+     *
+     * @param spreadsheetId The ID of the spreadsheet.
+     * @param range         The range, as given to {@link #replica(SheetRequest)}.
+     * @return The replica, or {@code null} if there is none.
+     */
+    public Replica find(String spreadsheetId, String range) {
+        return replicas.get(key(spreadsheetId, range));
+    }
+
+    /**
+     * Gets every opened replica.
+     *
+     * @return A new list of the replicas.
+     */
+    public List<Replica> getReplicas() {
+        return new ArrayList<>(replicas.values());
+    }
+
+    /**
+     * Sets the handler of errors raised by background refreshes. By default
+     * they are ignored and retried at the next interval.
+     *
+     * @param errorHandler Receives the range and the error.
+     */
+    public void setErrorHandler(BiConsumer<SheetRequest, Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Refreshes every opened replica, or reloads them from disk if the store is
+     * read-only.
+     *
+     * @return The number of rows changed across all replicas.
+     * @throws GSAPIError If an error occurs while refreshing a replica.
+     */
+    public int refreshAll() {
+        int changed = 0;
+        for (Replica replica : replicas.values()) {
+            if (client == null) {
+                replica.reload();
+            } else {
+                changed += replica.refresh();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Refreshes, or reloads, every opened replica every {@code interval} on a
+     * background thread until the store is closed.
+     *
+     * @param interval The delay between the end of a pass and the next one.
+     * @throws IllegalStateException If the store is already started.
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            throw new IllegalStateException("The replica store is already started.");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gsapi-replica-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            for (Replica replica : replicas.values()) {
+                try {
+                    if (client == null) {
+                        replica.reload();
+                    } else {
+                        replica.refresh();
+                    }
+                } catch (Exception e) {
+                    errorHandler.accept(replica.getRequest(), e);
+                }
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background refreshes. The files are kept.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static String key(String spreadsheetId, String range) {
+        return spreadsheetId + '\u0000' + range;
+    }
+
+    /**
+     * Names the files of a range after its spreadsheet and a digest of the
+     * range, which may contain characters not allowed in file names.
+     */
+    static String fileName(SheetRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(request.getRange().getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(request.getSpreadsheetId().replaceAll("[^A-Za-z0-9_-]", "_"))
+                    .append('-');
+            for (int i = 0; i < 8; i++) {
+                name.append(String.format("%02x", digest[i]));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.codenilson.gsapi_core.replica;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+/**
+ * A {@link GoogleSheetsClient} that serves reads of replicated ranges from a
+ * {@link ReplicaStore}.
+ * <p>
+ * A read is served locally when the store has a replica of exactly the
+ * requested range that has been refreshed at least once; other reads go to
+ * the delegate. A write through this client marks the replicas of its
+ * spreadsheet as stale, so their reads go to the delegate until their next
+ * refresh.
+ */
+public class ReplicatedSheetsClient extends ForwardingGoogleSheetsClient {
+
+    private final ReplicaStore store;
+
+    /**
+     * Constructs a new ReplicatedSheetsClient.
+     *
+     * @param delegate The client used for writes and for ranges without a
+     *                 replica.
+     * @param store    The store of the replicas.
+     */
+    public ReplicatedSheetsClient(GoogleSheetsClient delegate, ReplicaStore store) {
+        super(delegate);
+        this.store = store;
+    }
+
+    /**
+     * Gets the store of the replicas.
+     *
+     * @return The replica store.
+     */
+    public ReplicaStore getStore() {
+        return store;
+    }
+
+    @Override
+    public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+        Replica replica = usable(request);
+        if (replica == null) {
+            return super.fetchValues(request);
+        }
+        List<List<Object>> values = replica.getValues();
+        return values.isEmpty() ? null : values;
+    }
+
+    @Override
+    public int streamValues(SheetRequest request, RowConsumer consumer) throws IOException {
+        Replica replica = usable(request);
+        return replica == null ? super.streamValues(request, consumer) : replica.forEachRow(consumer);
+    }
+
+    @Override
+    public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        try {
+            super.appendValues(request, values);
+        } finally {
+            markStale(request.getSpreadsheetId());
+        }
+    }
+
+    @Override
+    public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+        try {
+            super.overwriteValues(request, values);
+        } finally {
+            markStale(request.getSpreadsheetId());
+        }
+    }
+
+    @Override
+    public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+        try {
+            super.batchOverwriteValues(spreadsheetId, data);
+        } finally {
+            markStale(spreadsheetId);
+        }
+    }
+
+    @Override
+    public void clearRange(SheetRequest request) throws IOException {
+        try {
+            super.clearRange(request);
+        } finally {
+            markStale(request.getSpreadsheetId());
+        }
+    }
+
+    private Replica usable(SheetRequest request) {
+        Replica replica = store.find(request.getSpreadsheetId(), request.getRange());
+        return replica == null || replica.isStale() || replica.getGeneration() == 0 ? null : replica;
+    }
+
+    private void markStale(String spreadsheetId) {
+        for (Replica replica : store.getReplicas()) {
+            if (replica.getRequest().getSpreadsheetId().equals(spreadsheetId)) {
+                replica.markStale();
+            }
+        }
+    }
+}
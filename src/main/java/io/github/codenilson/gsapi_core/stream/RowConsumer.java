@@ -0,0 +1,25 @@
+package io.github.codenilson.gsapi_core.stream;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the rows of a range one at a time, as they are decoded from the
+ * response.
+ *
+ * @see ValuesStreamDecoder
+ */
+@FunctionalInterface
+public interface RowConsumer {
+
+    /**
+     * Accepts a row.
+     *
+     * @param index The position of the row in the range, starting at 0 for
+     *              the first row, which usually is the header.
+     * @param row   The cells of the row. The list is not reused and may be
+     *              kept.
+     * @throws IOException To abort the read.
+     */
+    void accept(int index, List<Object> row) throws IOException;
+}
@@ -0,0 +1,92 @@
+package io.github.codenilson.gsapi_core.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+
+/**
+ * Decodes the {@code values} array of a {@code ValueRange} response straight
+ * from a {@link JsonParser}, handing each row to a {@link RowConsumer} as soon
+ * as it is read.
+ * <p>
+ * Unlike the generic parse into {@code ValueRange}, no object tree and no list
+ * of rows is built, so the memory needed does not grow with the size of the
+ * range. Cells are decoded to the same types as the generic parse: strings,
+ * {@link java.math.BigDecimal} numbers and booleans. Every other field of the
+ * response is skipped.
+ */
+public final class ValuesStreamDecoder {
+
+    private ValuesStreamDecoder() {
+    }
+
+    /**
+     * Decodes a {@code ValueRange} object.
+     *
+     * @param parser   A parser positioned before the object.
+     * @param consumer Receives each row of the {@code values} array.
+     * @return The number of rows decoded.
+     * @throws IOException If the content is not a valid {@code ValueRange} or
+     *                     the consumer aborts the read.
+     */
+    public static int decode(JsonParser parser, RowConsumer consumer) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return 0;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a ValueRange object but found " + token);
+        }
+        int rows = 0;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            token = parser.nextToken();
+            if ("values".equals(name) && token == JsonToken.START_ARRAY) {
+                rows += decodeRows(parser, consumer, rows);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new IOException("Unexpected " + token + " in ValueRange object");
+        }
+        return rows;
+    }
+
+    private static int decodeRows(JsonParser parser, RowConsumer consumer, int firstIndex) throws IOException {
+        int rows = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_ARRAY) {
+            List<Object> row = new ArrayList<>();
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                row.add(decodeCell(parser, token));
+            }
+            consumer.accept(firstIndex + rows++, row);
+        }
+        if (token != JsonToken.END_ARRAY) {
+            throw new IOException("Expected a row array but found " + token);
+        }
+        return rows;
+    }
+
+    private static Object decodeCell(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDecimalValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new IOException("Unexpected " + token + " in row");
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.codenilson.gsapi_core.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.DataValue;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * Iterator that reads a range in fixed-size row windows, fetching the next
+ * window in the background while the current one is consumed.
+ * <p>
+ * For a request such as {@code Sheet1!A1:Z} and a window of 5000 rows, the
+ * ranges {@code Sheet1!A1:Z5000}, {@code Sheet1!A5001:Z10000}, ... are fetched
+ * until the end row of the range is reached or a window comes back empty past
+ * the last row of the sheet's grid, read once with
+ * {@link GoogleSheetsClient#fetchSheets(String)} when the first empty window
+ * is seen. The API trims trailing blank rows from each window, so a short
+ * window does not end the range; blank rows followed by data are returned as
+ * empty rows, as a single read would. At most two windows are held in memory
+ * at once. As with
+ * {@code GsAPI.retrieveData}, the first row of the range is treated as the
+ * header and skipped, and every {@link DataValue} is indexed by its offset from
+ * the first row of the range.
+ */
+public class WindowedRowIterator implements Iterator<DataValue>, AutoCloseable {
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "gsapi-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GoogleSheetsClient client;
+    private final SheetRequest request;
+    private final Executor executor;
+    private final int windowRows;
+    private final SheetRange bounds;
+
+    private int nextWindowStart;
+    private CompletableFuture<Window> prefetch;
+    private Window window;
+    private int positionInWindow;
+    private int nextRow;
+    private volatile int gridRows = -1;
+    private boolean closed;
+
+    /**
+     * Constructs a new WindowedRowIterator that prefetches on a shared pool of
+     * daemon threads.
+     *
+     * @param client     The Google Sheets client used to fetch the windows.
+     * @param request    The request containing the spreadsheet ID and range.
+     * @param windowRows The number of rows fetched per request.
+     */
+    public WindowedRowIterator(GoogleSheetsClient client, SheetRequest request, int windowRows) {
+        this(client, request, windowRows, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Constructs a new WindowedRowIterator.
+     *
+     * @param client     The Google Sheets client used to fetch the windows.
+     * @param request    The request containing the spreadsheet ID and range.
+     * @param windowRows The number of rows fetched per request.
+     * @param executor   The executor the next window is prefetched on.
+     * @throws IllegalArgumentException If {@code windowRows} is not positive or
+     *                                  the range is not a valid A1 range.
+     */
+    public WindowedRowIterator(GoogleSheetsClient client, SheetRequest request, int windowRows, Executor executor) {
+        if (windowRows <= 0) {
+            throw new IllegalArgumentException("windowRows must be positive: " + windowRows);
+        }
+        this.client = client;
+        this.request = request;
+        this.windowRows = windowRows;
+        this.executor = executor;
+        this.bounds = SheetRange.parse(request.getRange());
+        this.nextWindowStart = bounds.getStartRow();
+        this.nextRow = bounds.getStartRow();
+        this.prefetch = fetchWindow();
+    }
+
+    /**
+     * Returns {@code true} if more rows are available, waiting for the next
+     * window to arrive if needed.
+     *
+     * @return {@code true} if the iteration has more rows.
+     * @throws GSAPIError If an error occurs while fetching a window.
+     */
+    @Override
+    public boolean hasNext() {
+        while (!closed && (window == null || positionInWindow >= window.rows.size())) {
+            if (prefetch == null) {
+                return false;
+            }
+            Window fetched = awaitWindow(prefetch);
+            prefetch = fetched.last ? null : fetchWindow();
+            if (fetched.rows.isEmpty()) {
+                continue;
+            }
+            window = withBlankRows(fetched);
+            nextRow = fetched.startRow + fetched.rows.size();
+            // The first row of the range is the header.
+            positionInWindow = window.startRow == bounds.getStartRow() ? 1 : 0;
+        }
+        return !closed;
+    }
+
+    /**
+     * Returns the next row of the range.
+     *
+     * @return The next {@link DataValue}.
+     * @throws NoSuchElementException If no rows remain.
+     */
+    @Override
+    public DataValue next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<Object> row = window.rows.get(positionInWindow);
+        DataValue value = new DataValue(row, window.startRow - bounds.getStartRow() + positionInWindow);
+        positionInWindow++;
+        return value;
+    }
+
+    /**
+     * Stops the iteration and cancels any pending prefetch.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        window = null;
+        if (prefetch != null) {
+            prefetch.cancel(true);
+            prefetch = null;
+        }
+    }
+
+    private CompletableFuture<Window> fetchWindow() {
+        int start = nextWindowStart;
+        int end = (int) Math.min((long) start + windowRows - 1, SheetRange.UNBOUNDED - 1);
+        boolean lastByBounds = end >= bounds.getEndRow();
+        if (lastByBounds) {
+            end = bounds.getEndRow();
+        }
+        nextWindowStart = end + 1;
+        int windowEnd = end;
+
+        String windowRange = bounds.withRows(start, end).toA1();
+        SheetRequest windowRequest = new SheetRequest(request.getSpreadsheetId(), windowRange);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                List<List<Object>> values = client.fetchValues(windowRequest);
+                List<List<Object>> rows = values == null ? Collections.<List<Object>>emptyList() : values;
+                return new Window(start, rows, lastByBounds || (rows.isEmpty() && windowEnd >= gridRows()));
+            } catch (IOException e) {
+                throw new GSAPIError("An error occurred while retrieving the sheet data for range: "
+                        + windowRequest.getRange(), e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Prepends the blank rows trimmed from the end of the previous windows, as
+     * data follows them.
+     */
+    private Window withBlankRows(Window fetched) {
+        if (fetched.startRow <= nextRow) {
+            return fetched;
+        }
+        List<List<Object>> rows = new ArrayList<>(fetched.startRow - nextRow + fetched.rows.size());
+        for (int row = nextRow; row < fetched.startRow; row++) {
+            rows.add(new ArrayList<>());
+        }
+        rows.addAll(fetched.rows);
+        return new Window(nextRow, rows, fetched.last);
+    }
+
+    /**
+     * Gets the number of rows of the sheet's grid, reading it on first use, or
+     * zero if the sheet is not found.
+     */
+    private int gridRows() throws IOException {
+        if (gridRows < 0) {
+            int rows = 0;
+            for (SheetProperties sheet : client.fetchSheets(request.getSpreadsheetId())) {
+                if (bounds.getSheetName() == null || bounds.getSheetName().equalsIgnoreCase(sheet.getTitle())) {
+                    GridProperties grid = sheet.getGridProperties();
+                    rows = grid == null || grid.getRowCount() == null ? 0 : grid.getRowCount();
+                    break;
+                }
+            }
+            gridRows = rows;
+        }
+        return gridRows;
+    }
+
+    private static Window awaitWindow(CompletableFuture<Window> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof GSAPIError) {
+                throw (GSAPIError) e.getCause();
+            }
+            throw new GSAPIError("An error occurred while retrieving a sheet window.", e.getCause());
+        }
+    }
+
+    private static class Window {
+        private final int startRow;
+        private final List<List<Object>> rows;
+        private final boolean last;
+
+        private Window(int startRow, List<List<Object>> rows, boolean last) {
+            this.startRow = startRow;
+            this.rows = rows;
+            this.last = last;
+        }
+    }
+}
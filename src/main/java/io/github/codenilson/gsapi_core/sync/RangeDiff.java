@@ -0,0 +1,223 @@
+package io.github.codenilson.gsapi_core.sync;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * Computes the writes that turn the current contents of a range into the
+ * desired ones.
+ * <p>
+ * The current values are expected as read with
+ * {@code GoogleSheetsClient.fetchFormulas}: formulas as their text and numbers
+ * unformatted, so a formula cell is never mistaken for the value it displays
+ * and a number formatted as {@code 1,000} equals {@code 1000}. Numbers are
+ * compared by value, so {@code 5}, {@code 5.0} and {@code "5"} are equal;
+ * booleans ignoring case, so {@code true} equals {@code "TRUE"}; other cells
+ * are compared by their text, and a missing cell equals an empty one. Values
+ * that only a locale-aware parse would equate, such as {@code "1,000"} and
+ * {@code 1000}, are considered changed and rewritten. Changed cells of a row
+ * are grouped into runs, merging runs separated by at most {@code maxGap}
+ * unchanged cells since rewriting a few cells costs less than another range.
+ * Runs covering the same columns in consecutive rows are merged into
+ * rectangles. Cells that must become empty, including whole trailing rows,
+ * are written as {@code ""}, so they are cleared by the same
+ * {@code values.batchUpdate} call.
+ */
+public final class RangeDiff {
+
+    /**
+     * Default number of unchanged cells that may be rewritten to join two
+     * changed runs of the same row.
+     */
+    public static final int DEFAULT_MAX_GAP = 2;
+
+    private RangeDiff() {
+    }
+
+    /**
+     * Computes the changed rectangles with the default gap.
+     *
+     * @param target  The range both value lists start at.
+     * @param current The current values, relative to the top-left cell of
+     *                {@code target}.
+     * @param desired The desired values, relative to the same cell.
+     * @return The ranges to overwrite, in row order, each with its values.
+     * @throws IllegalArgumentException If the desired values do not fit in the
+     *                                  target range.
+     */
+    public static List<ValueRange> diff(SheetRange target, List<List<Object>> current,
+            List<List<Object>> desired) {
+        return diff(target, current, desired, DEFAULT_MAX_GAP);
+    }
+
+    /**
+     * Computes the changed rectangles.
+     *
+     * @param target  The range both value lists start at.
+     * @param current The current values, relative to the top-left cell of
+     *                {@code target}.
+     * @param desired The desired values, relative to the same cell.
+     * @param maxGap  The number of unchanged cells that may be rewritten to join
+     *                two changed runs of the same row.
+     * @return The ranges to overwrite, in row order, each with its values.
+     * @throws IllegalArgumentException If the desired values do not fit in the
+     *                                  target range.
+     */
+    public static List<ValueRange> diff(SheetRange target, List<List<Object>> current, List<List<Object>> desired,
+            int maxGap) {
+        checkBounds(target, desired);
+        int rows = Math.max(current.size(), desired.size());
+        List<Rectangle> done = new ArrayList<>();
+        List<Rectangle> open = new ArrayList<>();
+
+        for (int row = 0; row < rows; row++) {
+            List<Object> currentRow = row < current.size() ? current.get(row) : null;
+            List<Object> desiredRow = row < desired.size() ? desired.get(row) : null;
+            List<Rectangle> next = new ArrayList<>();
+            for (int[] run : changedRuns(currentRow, desiredRow, maxGap)) {
+                Rectangle extended = null;
+                for (Rectangle rectangle : open) {
+                    if (rectangle.startColumn == run[0] && rectangle.endColumn == run[1]) {
+                        extended = rectangle;
+                        break;
+                    }
+                }
+                if (extended != null) {
+                    open.remove(extended);
+                    extended.endRow = row;
+                } else {
+                    extended = new Rectangle(row, run[0], run[1]);
+                }
+                next.add(extended);
+            }
+            done.addAll(open);
+            open = next;
+        }
+        done.addAll(open);
+        done.sort(Comparator.<Rectangle>comparingInt(r -> r.startRow).thenComparingInt(r -> r.startColumn));
+
+        List<ValueRange> result = new ArrayList<>(done.size());
+        for (Rectangle rectangle : done) {
+            result.add(rectangle.toValueRange(target, desired));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the cells written by a list of ranges.
+     *
+     * @param ranges Ranges returned by {@link #diff}.
+     * @return The number of cells.
+     */
+    public static int cellCount(List<ValueRange> ranges) {
+        int cells = 0;
+        for (ValueRange range : ranges) {
+            for (List<Object> row : range.getValues()) {
+                cells += row.size();
+            }
+        }
+        return cells;
+    }
+
+    private static void checkBounds(SheetRange target, List<List<Object>> desired) {
+        int columns = 0;
+        for (List<Object> row : desired) {
+            columns = Math.max(columns, row.size());
+        }
+        if (desired.size() > target.getRowCount() || columns > target.getColumnCount()) {
+            throw new IllegalArgumentException("The values (" + desired.size() + " rows, " + columns
+                    + " columns) do not fit in range " + target.toA1());
+        }
+    }
+
+    private static List<int[]> changedRuns(List<Object> current, List<Object> desired, int maxGap) {
+        int width = Math.max(current == null ? 0 : current.size(), desired == null ? 0 : desired.size());
+        List<int[]> runs = new ArrayList<>();
+        int[] run = null;
+        for (int column = 0; column < width; column++) {
+            if (same(text(current, column), text(desired, column))) {
+                continue;
+            }
+            if (run != null && column - run[1] - 1 <= maxGap) {
+                run[1] = column;
+            } else {
+                run = new int[] { column, column };
+                runs.add(run);
+            }
+        }
+        return runs;
+    }
+
+    private static boolean same(String current, String desired) {
+        if (current.equals(desired)) {
+            return true;
+        }
+        if (isBoolean(current) && current.equalsIgnoreCase(desired)) {
+            return true;
+        }
+        BigDecimal currentNumber = number(current);
+        BigDecimal desiredNumber = number(desired);
+        return currentNumber != null && desiredNumber != null && currentNumber.compareTo(desiredNumber) == 0;
+    }
+
+    private static boolean isBoolean(String text) {
+        return text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false");
+    }
+
+    private static BigDecimal number(String text) {
+        if (text.isEmpty() || !Character.isDigit(text.charAt(text.length() - 1))) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String text(List<Object> row, int column) {
+        if (row == null || column >= row.size()) {
+            return "";
+        }
+        Object value = row.get(column);
+        return value == null ? "" : value.toString();
+    }
+
+    private static final class Rectangle {
+        private final int startRow;
+        private final int startColumn;
+        private final int endColumn;
+        private int endRow;
+
+        private Rectangle(int row, int startColumn, int endColumn) {
+            this.startRow = row;
+            this.endRow = row;
+            this.startColumn = startColumn;
+            this.endColumn = endColumn;
+        }
+
+        private ValueRange toValueRange(SheetRange target, List<List<Object>> desired) {
+            List<List<Object>> values = new ArrayList<>(endRow - startRow + 1);
+            for (int row = startRow; row <= endRow; row++) {
+                List<Object> desiredRow = row < desired.size() ? desired.get(row) : Collections.emptyList();
+                List<Object> cells = new ArrayList<>(endColumn - startColumn + 1);
+                for (int column = startColumn; column <= endColumn; column++) {
+                    Object value = column < desiredRow.size() ? desiredRow.get(column) : null;
+                    cells.add(value == null ? "" : value);
+                }
+                values.add(cells);
+            }
+            SheetRange range = new SheetRange(target.getSheetName(),
+                    target.getStartRow() + startRow, target.getStartColumn() + startColumn,
+                    target.getStartRow() + endRow, target.getStartColumn() + endColumn);
+            return new ValueRange().setRange(range.toA1()).setValues(values);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.codenilson.gsapi_core.sync;
+
+import java.util.Objects;
+
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+/**
+ * A change of one row of a watched range, detected by a {@link SheetWatcher}.
+ * Rows are identified by their position, so inserting a row in the middle of a
+ * range is reported as an update of every row below it.
+ */
+public class RowChange {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        /**
+         * The row did not exist in the previous poll.
+         */
+        INSERTED,
+        /**
+         * The contents of the row changed.
+         */
+        UPDATED,
+        /**
+         * The row no longer exists.
+         */
+        DELETED
+    }
+
+    private final Type type;
+    private final int index;
+    private final DataValue value;
+
+    /**
+     * Constructs a new RowChange.
+     *
+     * @param type  The kind of change.
+     * @param index The index of the row, as used by {@link DataValue}.
+     * @param value The new contents of the row, or {@code null} if it was
+     *              deleted.
+     */
+    public RowChange(Type type, int index, DataValue value) {
+        this.type = type;
+        this.index = index;
+        this.value = value;
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return The change type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the index of the row, the header being row 0.
+     *
+     * @return The row index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the new contents of the row.
+     *
+     * @return The row, or {@code null} if it was deleted.
+     */
+    public DataValue getValue() {
+        return value;
+    }
+
+    /**
+     * Returns a string representation of the RowChange.
+     *
+     * @return A string containing the type, index and value.
+     */
+    @Override
+    public String toString() {
+        return "RowChange [type=" + type + ", index=" + index + ", value=" + value + "]";
+    }
+
+    /**
+     * Computes a hash code for this RowChange.
+     *
+     * @return A hash code value for this object.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, index, value);
+    }
+
+    /**
+     * Compares this RowChange to another object for equality.
+     *
+     * @param obj The object to compare to.
+     * @return {@code true} if the objects are equal; {@code false} otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        RowChange other = (RowChange) obj;
+        return type == other.type && index == other.index && Objects.equals(value, other.value);
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.codenilson.gsapi_core.sync;
+
+import java.util.List;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+
+/**
+ * Receives the changes detected by a {@link SheetWatcher}.
+ */
+@FunctionalInterface
+public interface SheetChangeListener {
+
+    /**
+     * Called after a poll that found at least one changed row.
+     *
+     * @param request The watched range.
+     * @param changes The changes, in row order.
+     */
+    void onChanges(SheetRequest request, List<RowChange> changes);
+
+    /**
+     * Called when a scheduled poll fails. The watcher keeps polling. Does
+     * nothing by default.
+     *
+     * @param request The watched range.
+     * @param error   The error.
+     */
+    default void onError(SheetRequest request, Exception error) {
+    }
+}
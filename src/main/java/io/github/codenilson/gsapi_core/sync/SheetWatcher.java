@@ -0,0 +1,192 @@
+package io.github.codenilson.gsapi_core.sync;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.RevisionCheck;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+/**
+ * Polls a range and reports only the rows that changed since the previous
+ * poll.
+ * <p>
+ * The watcher keeps a 64-bit fingerprint of every row instead of the rows
+ * themselves. Before reading the range, it asks Drive for the revision of the
+ * spreadsheet with {@link GoogleSheetsClient#fetchRevision(String)} and skips
+ * the read when it has not changed, so an idle sheet costs one small request
+ * per poll. If the credentials lack the Drive scope, the revision check is
+ * disabled and every poll reads the range. The range itself is streamed, so
+ * the rows are never held in memory all at once.
+ * <p>
+ * The first poll reports every row as {@link RowChange.Type#INSERTED}. Rows
+ * are compared by position and the header row is not watched.
+ */
+public class SheetWatcher implements AutoCloseable {
+
+    private static final long[] NO_ROWS = new long[0];
+
+    private final GoogleSheetsClient client;
+    private final RevisionCheck revisionCheck;
+    private final SheetRequest request;
+    private final SheetChangeListener listener;
+
+    private long[] fingerprints = NO_ROWS;
+    private String revision;
+    private boolean initialized;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a new SheetWatcher.
+     *
+     * @param client   The client used to read the range.
+     * @param request  The range to watch.
+     * @param listener Receives the changes.
+     */
+    public SheetWatcher(GoogleSheetsClient client, SheetRequest request, SheetChangeListener listener) {
+        this.client = client;
+        this.request = request;
+        this.revisionCheck = new RevisionCheck(client, request.getSpreadsheetId());
+        this.listener = listener;
+    }
+
+    /**
+     * Polls the range every {@code interval} on a background thread until the
+     * watcher is closed. Errors are reported to
+     * {@link SheetChangeListener#onError(SheetRequest, Exception)}.
+     *
+     * @param interval The delay between the end of a poll and the next one.
+     * @throws IllegalStateException If the watcher is already started.
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            throw new IllegalStateException("The watcher is already started.");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gsapi-sheet-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (Exception e) {
+                listener.onError(request, e);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Polls the range once and notifies the listener if any row changed.
+     *
+     * @return The changes, or an empty list if nothing changed.
+     * @throws GSAPIError If an error occurs while reading the range.
+     */
+    public synchronized List<RowChange> poll() {
+        try {
+            String current = revisionCheck.fetch();
+            if (initialized && current != null && current.equals(revision)) {
+                return new ArrayList<>();
+            }
+
+            List<RowChange> changes = new ArrayList<>();
+            long[] previous = fingerprints;
+            long[][] next = { new long[Math.max(previous.length, 16)] };
+            int rows = client.streamValues(request, (index, row) -> {
+                if (index == 0) {
+                    return;
+                }
+                int position = index - 1;
+                long fingerprint = fingerprint(row);
+                if (position >= next[0].length) {
+                    next[0] = Arrays.copyOf(next[0], next[0].length * 2);
+                }
+                next[0][position] = fingerprint;
+                if (position >= previous.length) {
+                    changes.add(new RowChange(RowChange.Type.INSERTED, index, new DataValue(row, index)));
+                } else if (previous[position] != fingerprint) {
+                    changes.add(new RowChange(RowChange.Type.UPDATED, index, new DataValue(row, index)));
+                }
+            });
+            int dataRows = Math.max(rows - 1, 0);
+            for (int position = dataRows; position < previous.length; position++) {
+                changes.add(new RowChange(RowChange.Type.DELETED, position + 1, null));
+            }
+
+            fingerprints = Arrays.copyOf(next[0], dataRows);
+            revision = current;
+            initialized = true;
+            if (!changes.isEmpty()) {
+                listener.onChanges(request, changes);
+            }
+            return changes;
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while polling the sheet data for range: " + request.getRange(),
+                    e);
+        }
+    }
+
+    /**
+     * Gets the number of rows seen by the last poll, header excluded.
+     *
+     * @return The number of rows.
+     */
+    public synchronized int getRowCount() {
+        return fingerprints.length;
+    }
+
+    /**
+     * Stops polling.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the cells of a row. Each cell is
+     * prefixed with its length so that {@code ["ab", "c"]} and
+     * {@code ["a", "bc"]} differ, and trailing empty cells are ignored as the
+     * API omits them anyway.
+     *
+     * @param row The cells of the row.
+     * @return The fingerprint of the row.
+     */
+    public static long fingerprint(List<Object> row) {
+        int size = row.size();
+        while (size > 0 && isEmpty(row.get(size - 1))) {
+            size--;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int column = 0; column < size; column++) {
+            Object value = row.get(column);
+            String text = value == null ? "" : value.toString();
+            hash = mix(hash, text.length());
+            for (int i = 0; i < text.length(); i++) {
+                hash = mix(hash, text.charAt(i));
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        hash ^= value & 0xffff;
+        hash *= 0x100000001b3L;
+        hash ^= value >>> 16;
+        return hash * 0x100000001b3L;
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null || "".equals(value);
+    }
+}
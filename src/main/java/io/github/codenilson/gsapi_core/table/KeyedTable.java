@@ -0,0 +1,382 @@
+package io.github.codenilson.gsapi_core.table;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.RevisionCheck;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.DataValue;
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+/**
+ * A table whose rows are identified by the value of a key column, read and
+ * written one record at a time.
+ * <p>
+ * The table keeps a hash index from each key to its row, so a record is read
+ * or written with a single request on its exact row range. The index is built
+ * by {@link #refresh()} from the header row and the key column only, never
+ * from the whole table, and the refresh is skipped when the Drive revision of
+ * the spreadsheet has not changed since the previous one. Writes made through
+ * the table update the index in place.
+ * <p>
+ * {@link #upsertAll(Map)} overwrites the rows of existing keys and writes new
+ * keys below the last row, all in a single {@code values.batchUpdate} call;
+ * the grid is grown first if the new rows do not fit. {@link #delete(String)}
+ * clears the row of a key, leaving an empty row, so the rows of the other keys
+ * never move. Rows are written as if typed by a user, except the key cell,
+ * which is written as literal text so that keys such as {@code 00123},
+ * {@code 1e3} or {@code 2024-01-01} are not turned into numbers or dates and
+ * can still be found.
+ * <p>
+ * Keys are compared as the formatted text of the key cell, and every row of
+ * the table is expected to have one: rows below the last key are considered
+ * free. If other clients insert or delete rows, call {@link #refresh()} before
+ * writing; {@link #get(String)} checks the key of the row it reads and
+ * refreshes the index if it does not match. This class is thread-safe.
+ */
+public class KeyedTable {
+
+    /**
+     * Number of rows added to the grid beyond those needed, so that the next
+     * inserts do not have to grow it again.
+     */
+    private static final int GRID_HEADROOM = 100;
+
+    private final GoogleSheetsClient client;
+    private final RevisionCheck revisionCheck;
+    private final String spreadsheetId;
+    private final SheetRange range;
+    private final String keyColumn;
+
+    private final Map<String, Integer> rows = new HashMap<>();
+    private List<String> headers = new ArrayList<>();
+    private int keyIndex = -1;
+    private int lastRow;
+    private int gridRows;
+    private String revision;
+    private boolean loaded;
+
+    /**
+     * Constructs a new KeyedTable. Nothing is read until the first call.
+     *
+     * @param client    The client used to read and write the table.
+     * @param request   The spreadsheet ID and the range of the table, whose
+     *                  first row is the header, e.g. {@code Customers!A1:F}.
+     * @param keyColumn The header of the key column.
+     * @throws IllegalArgumentException If the range is not in A1 notation.
+     */
+    public KeyedTable(GoogleSheetsClient client, SheetRequest request, String keyColumn) {
+        this.client = client;
+        this.spreadsheetId = request.getSpreadsheetId();
+        this.revisionCheck = new RevisionCheck(client, spreadsheetId);
+        this.range = SheetRange.parse(request.getRange());
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Rebuilds the index from the key column, unless the spreadsheet has not
+     * changed since the previous refresh.
+     *
+     * @return The number of keys.
+     * @throws IllegalArgumentException If the header has no key column.
+     * @throws GSAPIError               If an error occurs while reading the
+     *                                  table.
+     */
+    public synchronized int refresh() {
+        try {
+            String current = revisionCheck.fetch();
+            if (loaded && current != null && current.equals(revision)) {
+                return rows.size();
+            }
+            load();
+            revision = current;
+            return rows.size();
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while refreshing the keyed table for range: " + range.toA1(),
+                    e);
+        }
+    }
+
+    /**
+     * Gets the column names of the table.
+     *
+     * @return The header row, loading the index on first use.
+     * @throws GSAPIError If an error occurs while reading the table.
+     */
+    public synchronized List<String> getHeaders() {
+        ensureLoaded();
+        return Collections.unmodifiableList(headers);
+    }
+
+    /**
+     * Gets the number of keys in the index.
+     *
+     * @return The number of keys, loading the index on first use.
+     * @throws GSAPIError If an error occurs while reading the table.
+     */
+    public synchronized int size() {
+        ensureLoaded();
+        return rows.size();
+    }
+
+    /**
+     * Checks whether a key is in the index, without reading its row.
+     *
+     * @param key The key.
+     * @return {@code true} if the key has a row.
+     * @throws GSAPIError If an error occurs while reading the table.
+     */
+    public synchronized boolean contains(String key) {
+        ensureLoaded();
+        return rows.containsKey(key);
+    }
+
+    /**
+     * Gets the exact range of the row of a key, e.g. to pass it to
+     * {@code GsAPI.modifyData}.
+     *
+     * @param key The key.
+     * @return The A1 range of the row, or an empty Optional if the key has no
+     *         row.
+     * @throws GSAPIError If an error occurs while reading the table.
+     */
+    public synchronized Optional<String> getRange(String key) {
+        ensureLoaded();
+        Integer row = rows.get(key);
+        return row == null ? Optional.empty() : Optional.of(rowRange(row, width(0)).toA1());
+    }
+
+    /**
+     * Reads the row of a key with a single request on its row range.
+     *
+     * @param key The key.
+     * @return The row, or an empty Optional if the key has no row.
+     * @throws GSAPIError If an error occurs while reading the table.
+     */
+    public synchronized Optional<DataValue> get(String key) {
+        ensureLoaded();
+        try {
+            Optional<DataValue> value = read(key);
+            if (value == null) {
+                // The row no longer holds the key: the table changed under us.
+                loaded = false;
+                refresh();
+                value = read(key);
+            }
+            return value == null ? Optional.empty() : value;
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while retrieving the keyed table for range: " + range.toA1(),
+                    e);
+        }
+    }
+
+    /**
+     * Writes the row of a key, overwriting it if the key exists and adding it
+     * below the last row otherwise.
+     *
+     * @param key The key.
+     * @param row The cells of the row, from the first column of the table. The
+     *            key cell may be left empty; it is filled in.
+     * @return {@code true} if the key was added.
+     * @throws IllegalArgumentException If the key is empty or the row holds
+     *                                  another key.
+     * @throws GSAPIError               If an error occurs while writing the
+     *                                  table.
+     */
+    public boolean upsert(String key, List<Object> row) {
+        Map<String, List<Object>> single = new LinkedHashMap<>();
+        single.put(key, row);
+        return upsertAll(single) == 1;
+    }
+
+    /**
+     * Writes the rows of several keys with a single {@code values.batchUpdate}
+     * call, each on its exact row range. Rows shorter than the header are
+     * padded with empty cells, so the whole record is replaced.
+     *
+     * @param values The rows by key, written in iteration order.
+     * @return The number of keys added.
+     * @throws IllegalArgumentException If a key is empty, a row holds another
+     *                                  key, or the new rows do not fit in the
+     *                                  range.
+     * @throws GSAPIError               If an error occurs while writing the
+     *                                  table.
+     */
+    public synchronized int upsertAll(Map<String, ? extends List<Object>> values) {
+        ensureLoaded();
+        List<ValueRange> data = new ArrayList<>(values.size());
+        Map<String, Integer> added = new LinkedHashMap<>();
+        int next = lastRow;
+        int columns = 0;
+        for (Map.Entry<String, ? extends List<Object>> entry : values.entrySet()) {
+            String key = entry.getKey();
+            if (key == null || key.isEmpty()) {
+                throw new IllegalArgumentException("The key must not be empty.");
+            }
+            List<Object> cells = withKey(key, entry.getValue());
+            Integer row = rows.get(key);
+            if (row == null) {
+                row = ++next;
+                if (row > range.getEndRow()) {
+                    throw new IllegalArgumentException("The row of key " + key + " does not fit in the range: "
+                            + range.toA1());
+                }
+                added.put(key, row);
+            }
+            columns = Math.max(columns, cells.size());
+            data.add(new ValueRange().setRange(rowRange(row, cells.size()).toA1())
+                    .setValues(Collections.singletonList(cells)));
+        }
+        if (data.isEmpty()) {
+            return 0;
+        }
+        try {
+            if (next > gridRows) {
+                int needed = next + GRID_HEADROOM;
+                client.ensureGridSize(spreadsheetId, range.getSheetName(), needed,
+                        range.getStartColumn() + columns - 1);
+                gridRows = needed;
+            }
+            client.batchOverwriteValues(spreadsheetId, data);
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while updating the keyed table for range: " + range.toA1(), e);
+        }
+        rows.putAll(added);
+        lastRow = next;
+        return added.size();
+    }
+
+    /**
+     * Clears the row of a key and removes the key from the index.
+     *
+     * @param key The key.
+     * @return {@code true} if the key had a row.
+     * @throws GSAPIError If an error occurs while writing the table.
+     */
+    public synchronized boolean delete(String key) {
+        ensureLoaded();
+        Integer row = rows.get(key);
+        if (row == null) {
+            return false;
+        }
+        try {
+            client.clearRange(new SheetRequest(spreadsheetId, rowRange(row, width(0)).toA1()));
+        } catch (IOException e) {
+            throw new GSAPIError("An error occurred while clearing the keyed table for range: " + range.toA1(), e);
+        }
+        rows.remove(key);
+        return true;
+    }
+
+    /**
+     * Reads the row of a key and checks that it still holds the key.
+     *
+     * @return The row, an empty Optional if the key has no row, or
+     *         {@code null} if the row holds another key.
+     */
+    private Optional<DataValue> read(String key) throws IOException {
+        Integer row = rows.get(key);
+        if (row == null) {
+            return Optional.empty();
+        }
+        List<List<Object>> values = client.fetchValues(new SheetRequest(spreadsheetId,
+                range.withRows(row, row).toA1()));
+        List<Object> cells = values == null || values.isEmpty() ? new ArrayList<>() : values.get(0);
+        Object cell = keyIndex < cells.size() ? cells.get(keyIndex) : null;
+        if (cell == null || !key.equals(cell.toString())) {
+            return null;
+        }
+        return Optional.of(new DataValue(cells, row - 1));
+    }
+
+    private void load() throws IOException {
+        int headerRow = range.getStartRow();
+        String headerRange = range.withRows(headerRow, headerRow).toA1();
+        List<List<List<Object>>> fetched = null;
+        if (keyIndex >= 0) {
+            // The key column is probably where it was: read it with the header.
+            fetched = client.fetchValuesBatch(spreadsheetId, Arrays.asList(headerRange, keyRange()));
+        }
+        List<List<Object>> headerValues = fetched != null ? fetched.get(0) : client.fetchValues(
+                new SheetRequest(spreadsheetId, headerRange));
+        List<String> names = new ArrayList<>();
+        if (headerValues != null && !headerValues.isEmpty()) {
+            for (Object cell : headerValues.get(0)) {
+                names.add(cell == null ? "" : cell.toString());
+            }
+        }
+        int index = names.indexOf(keyColumn);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + keyColumn);
+        }
+        List<List<Object>> keys;
+        if (fetched != null && index == keyIndex) {
+            keys = fetched.size() > 1 ? fetched.get(1) : null;
+        } else {
+            keyIndex = index;
+            keys = client.fetchValues(new SheetRequest(spreadsheetId, keyRange()));
+        }
+
+        headers = names;
+        rows.clear();
+        int count = keys == null ? 0 : keys.size();
+        for (int i = 0; i < count; i++) {
+            List<Object> cells = keys.get(i);
+            if (cells == null || cells.isEmpty() || cells.get(0) == null || "".equals(cells.get(0))) {
+                continue;
+            }
+            // Keep the first row of a duplicated key.
+            rows.putIfAbsent(cells.get(0).toString(), headerRow + 1 + i);
+        }
+        lastRow = headerRow + count;
+        gridRows = Math.max(gridRows, lastRow);
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            refresh();
+        }
+    }
+
+    private String keyRange() {
+        int column = range.getStartColumn() + keyIndex;
+        return range.withColumns(column, column).withRows(range.getStartRow() + 1, range.getEndRow()).toA1();
+    }
+
+    private List<Object> withKey(String key, List<Object> row) {
+        List<Object> cells = new ArrayList<>(row);
+        while (cells.size() < width(row.size())) {
+            cells.add("");
+        }
+        Object current = cells.get(keyIndex);
+        if (current != null && !"".equals(current) && !key.equals(current.toString())) {
+            throw new IllegalArgumentException("The row holds the key " + current + " instead of " + key);
+        }
+        // A leading apostrophe stores the key as text instead of parsing it.
+        cells.set(keyIndex, "'" + key);
+        return cells;
+    }
+
+    /**
+     * Gets the number of cells of a row: at least the header and the key.
+     */
+    private int width(int cells) {
+        return Math.max(cells, Math.max(headers.size(), keyIndex + 1));
+    }
+
+    private SheetRange rowRange(int row, int width) {
+        return range.withRows(row, row).withColumns(range.getStartColumn(), range.getStartColumn() + width - 1);
+    }
+}
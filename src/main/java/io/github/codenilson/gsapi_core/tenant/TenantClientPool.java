@@ -0,0 +1,447 @@
+package io.github.codenilson.gsapi_core.tenant;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.GsAPI;
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.ForwardingGoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.client.SheetClientFactory;
+import io.github.codenilson.gsapi_core.ratelimit.AdaptiveRateLimiter;
+import io.github.codenilson.gsapi_core.ratelimit.RateLimitedSheetsClient;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+import io.github.codenilson.gsapi_core.utils.CredentialRegistry;
+
+/**
+ * A pool of clients for many tenants, each with its own credentials.
+ * <p>
+ * A tenant is loaded on first use: its credentials are parsed once into a
+ * {@link CredentialRegistry}, which keeps the token fresh in the background,
+ * and its client is built on the shared, pooled transport of
+ * {@link SheetClientFactory#getPooledSheetsService}, so every tenant reuses the
+ * same connections. A tenant unused for longer than
+ * {@link TenantLimits#getIdleTimeout()} is evicted, dropping its credentials.
+ * <p>
+ * Each tenant has its own request quota, enforced by an
+ * {@link AdaptiveRateLimiter} that backs off when the tenant is throttled, and
+ * its own cap on calls in flight. Calls then queue, in arrival order, for one
+ * of the slots shared by the whole pool. A noisy tenant can hold at most its
+ * own cap of those slots and queue at most that many calls, so the others keep
+ * getting their turn. Throttled calls wait for their retry outside of any slot.
+ * <p>
+ * Clients are cheap to look up; fetch them from the pool for each unit of work
+ * rather than keeping them, so that an evicted tenant is loaded again with its
+ * limits.
+ */
+public class TenantClientPool implements AutoCloseable {
+
+    private final Function<String, GoogleSheetsClient> clientFactory;
+    private final CredentialRegistry credentials;
+    private final boolean ownsCredentials;
+    private final TenantLimits limits;
+    private final Semaphore totalCalls;
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Constructs a new TenantClientPool with its own credential registry.
+     *
+     * @param applicationName  The name of the application that will access the
+     *                         Google Sheets API.
+     * @param credentialSource Supplies the JSON service-account credentials of a
+     *                         tenant; it is called when the tenant is loaded,
+     *                         and the stream is closed after reading.
+     * @param limits           The limits of each tenant and of the pool.
+     * @throws IllegalArgumentException If a limit is not positive.
+     */
+    public TenantClientPool(String applicationName, Function<String, InputStream> credentialSource,
+            TenantLimits limits) {
+        this(new CredentialRegistry(), true, applicationName, credentialSource, limits);
+    }
+
+    /**
+     * Constructs a new TenantClientPool that keeps the credentials of its
+     * tenants in the given registry, under the tenant ID.
+     *
+     * @param credentials      The registry of the credentials; it is not
+     *                         closed with the pool.
+     * @param applicationName  The name of the application that will access the
+     *                         Google Sheets API.
+     * @param credentialSource Supplies the JSON service-account credentials of a
+     *                         tenant; it is called when the tenant is loaded,
+     *                         and the stream is closed after reading.
+     * @param limits           The limits of each tenant and of the pool.
+     * @throws IllegalArgumentException If a limit is not positive.
+     */
+    public TenantClientPool(CredentialRegistry credentials, String applicationName,
+            Function<String, InputStream> credentialSource, TenantLimits limits) {
+        this(credentials, false, applicationName, credentialSource, limits);
+    }
+
+    /**
+     * Constructs a new TenantClientPool that creates the client of each
+     * tenant with a factory, e.g. to stack decorators such as a cache under the
+     * limits of the pool.
+     *
+     * @param clientFactory Creates the client of a tenant from its ID.
+     * @param limits        The limits of each tenant and of the pool.
+     * @throws IllegalArgumentException If a limit is not positive.
+     */
+    public TenantClientPool(Function<String, GoogleSheetsClient> clientFactory, TenantLimits limits) {
+        this(clientFactory, null, false, limits);
+    }
+
+    private TenantClientPool(CredentialRegistry credentials, boolean ownsCredentials, String applicationName,
+            Function<String, InputStream> credentialSource, TenantLimits limits) {
+        this(tenantId -> new GoogleSheetsClient(SheetClientFactory.getPooledSheetsService(
+                credentials.getInitializer(tenantId, () -> credentialSource.apply(tenantId)), applicationName)),
+                credentials, ownsCredentials, limits);
+    }
+
+    private TenantClientPool(Function<String, GoogleSheetsClient> clientFactory, CredentialRegistry credentials,
+            boolean ownsCredentials, TenantLimits limits) {
+        if (limits.getMaxConcurrentCalls() <= 0 || limits.getMaxTotalConcurrentCalls() <= 0
+                || limits.getRequestsPerMinute() <= 0) {
+            throw new IllegalArgumentException("The limits must be positive: " + limits);
+        }
+        this.clientFactory = clientFactory;
+        this.credentials = credentials;
+        this.ownsCredentials = ownsCredentials;
+        this.limits = limits;
+        this.totalCalls = new Semaphore(limits.getMaxTotalConcurrentCalls(), true);
+
+        Duration idleTimeout = limits.getIdleTimeout();
+        if (idleTimeout != null && !idleTimeout.isZero() && !idleTimeout.isNegative()) {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gsapi-tenant-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = Math.max(1000, idleTimeout.toMillis() / 2);
+            this.evictor.scheduleWithFixedDelay(this::evictIdle, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.evictor = null;
+        }
+    }
+
+    /**
+     * Gets the client of a tenant, loading the tenant on first use. Every call
+     * of the client is subject to the limits of the pool.
+     *
+     * @param tenantId The ID of the tenant.
+     * @return The client of the tenant.
+     * @throws io.github.codenilson.gsapi_core.errors.GSAPIError If the
+     *                                                          credentials of
+     *                                                          the tenant
+     *                                                          cannot be read.
+     */
+    public GoogleSheetsClient getClient(String tenantId) {
+        return tenant(tenantId).client;
+    }
+
+    /**
+     * Gets a {@link GsAPI} over the client of a tenant, loading the tenant on
+     * first use.
+     *
+     * @param tenantId The ID of the tenant.
+     * @return The API of the tenant.
+     * @throws io.github.codenilson.gsapi_core.errors.GSAPIError If the
+     *                                                          credentials of
+     *                                                          the tenant
+     *                                                          cannot be read.
+     */
+    public GsAPI getApi(String tenantId) {
+        return tenant(tenantId).api;
+    }
+
+    /**
+     * Gets the usage of a tenant.
+     *
+     * @param tenantId The ID of the tenant.
+     * @return The usage, or an empty Optional if the tenant is not loaded.
+     */
+    public Optional<TenantUsage> getUsage(String tenantId) {
+        Tenant tenant = tenants.get(tenantId);
+        return tenant == null ? Optional.empty() : Optional.of(tenant.usage());
+    }
+
+    /**
+     * Gets the usage of every loaded tenant.
+     *
+     * @return A new list of the usages.
+     */
+    public List<TenantUsage> getUsage() {
+        List<TenantUsage> usages = new ArrayList<>(tenants.size());
+        for (Tenant tenant : tenants.values()) {
+            usages.add(tenant.usage());
+        }
+        return usages;
+    }
+
+    /**
+     * Gets the number of loaded tenants.
+     *
+     * @return The number of tenants.
+     */
+    public int size() {
+        return tenants.size();
+    }
+
+    /**
+     * Evicts a tenant and drops its credentials. Calls in flight complete
+     * normally.
+     *
+     * @param tenantId The ID of the tenant.
+     * @return {@code true} if the tenant was loaded.
+     */
+    public boolean evict(String tenantId) {
+        Tenant tenant = tenants.remove(tenantId);
+        if (tenant == null) {
+            return false;
+        }
+        if (credentials != null) {
+            credentials.remove(tenantId);
+        }
+        return true;
+    }
+
+    /**
+     * Evicts every tenant with no call in flight that was not used for longer
+     * than the idle timeout. This runs in the background unless the timeout is
+     * {@code null}.
+     *
+     * @return The number of tenants evicted.
+     */
+    public int evictIdle() {
+        Duration idleTimeout = limits.getIdleTimeout();
+        if (idleTimeout == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Tenant tenant : tenants.values()) {
+            if (tenant.active.get() == 0 && now - tenant.lastUsedNanos >= idleTimeout.toNanos()
+                    && tenants.remove(tenant.id, tenant)) {
+                if (credentials != null) {
+                    credentials.remove(tenant.id);
+                }
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Stops the background eviction and drops every tenant. The credential
+     * registry is closed if the pool created it; the shared transport is left
+     * open.
+     */
+    @Override
+    public void close() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        for (String tenantId : new ArrayList<>(tenants.keySet())) {
+            evict(tenantId);
+        }
+        if (ownsCredentials) {
+            credentials.close();
+        }
+    }
+
+    private Tenant tenant(String tenantId) {
+        Tenant tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            tenant = tenants.computeIfAbsent(tenantId, id -> new Tenant(id, clientFactory.apply(id)));
+        }
+        tenant.lastUsedNanos = System.nanoTime();
+        return tenant;
+    }
+
+    /**
+     * The state of one loaded tenant.
+     */
+    private final class Tenant {
+        private final String id;
+        private final Semaphore calls;
+        private final AdaptiveRateLimiter limiter;
+        private final GoogleSheetsClient client;
+        private final GsAPI api;
+        private final AtomicInteger active = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private Tenant(String id, GoogleSheetsClient base) {
+            this.id = id;
+            this.calls = new Semaphore(limits.getMaxConcurrentCalls(), true);
+            this.limiter = AdaptiveRateLimiter.perMinute(limits.getRequestsPerMinute());
+            // The quota is checked before a slot is taken, so retries back off
+            // without holding one.
+            this.client = new RateLimitedSheetsClient(new SlotSheetsClient(base, this), limiter);
+            this.api = new GsAPI(client);
+        }
+
+        private TenantUsage usage() {
+            return new TenantUsage(id, requests.sum(), failures.sum(), throttled.sum(), active.get(),
+                    Duration.ofNanos(waitNanos.sum()), Duration.ofNanos(System.nanoTime() - lastUsedNanos),
+                    limiter.getRate());
+        }
+    }
+
+    /**
+     * Runs every call of a tenant in one of its slots and one of the pool's,
+     * and counts it.
+     */
+    private final class SlotSheetsClient extends ForwardingGoogleSheetsClient {
+        private final Tenant tenant;
+
+        private SlotSheetsClient(GoogleSheetsClient delegate, Tenant tenant) {
+            super(delegate);
+            this.tenant = tenant;
+        }
+
+        @Override
+        public List<List<Object>> fetchValues(SheetRequest request) throws IOException {
+            return call(() -> super.fetchValues(request));
+        }
+
+        @Override
+        public List<List<Object>> fetchFormulas(SheetRequest request) throws IOException {
+            return call(() -> super.fetchFormulas(request));
+        }
+
+        @Override
+        public int streamValues(SheetRequest request, RowConsumer consumer) throws IOException {
+            return call(() -> super.streamValues(request, consumer));
+        }
+
+        @Override
+        public List<List<List<Object>>> fetchValuesBatch(String spreadsheetId, List<String> ranges)
+                throws IOException {
+            return call(() -> super.fetchValuesBatch(spreadsheetId, ranges));
+        }
+
+        @Override
+        public List<List<List<Object>>> fetchUnformattedValuesBatch(String spreadsheetId, List<String> ranges)
+                throws IOException {
+            return call(() -> super.fetchUnformattedValuesBatch(spreadsheetId, ranges));
+        }
+
+        @Override
+        public String fetchRevision(String spreadsheetId) throws IOException {
+            return call(() -> super.fetchRevision(spreadsheetId));
+        }
+
+        @Override
+        public List<SheetProperties> fetchSheets(String spreadsheetId) throws IOException {
+            return call(() -> super.fetchSheets(spreadsheetId));
+        }
+
+        @Override
+        public void ensureGridSize(String spreadsheetId, String sheetName, int rows, int columns)
+                throws IOException {
+            call(() -> {
+                super.ensureGridSize(spreadsheetId, sheetName, rows, columns);
+                return null;
+            });
+        }
+
+        @Override
+        public void appendValues(SheetRequest request, List<List<Object>> values) throws IOException {
+            call(() -> {
+                super.appendValues(request, values);
+                return null;
+            });
+        }
+
+        @Override
+        public void overwriteValues(SheetRequest request, List<List<Object>> values) throws IOException {
+            call(() -> {
+                super.overwriteValues(request, values);
+                return null;
+            });
+        }
+
+        @Override
+        public void batchOverwriteValues(String spreadsheetId, List<ValueRange> data) throws IOException {
+            call(() -> {
+                super.batchOverwriteValues(spreadsheetId, data);
+                return null;
+            });
+        }
+
+        @Override
+        public void clearRange(SheetRequest request) throws IOException {
+            call(() -> {
+                super.clearRange(request);
+                return null;
+            });
+        }
+
+        private <T> T call(SheetsCall<T> call) throws IOException {
+            long start = System.nanoTime();
+            // Take the tenant's slot first, so that its queued calls wait there
+            // instead of in the fair queue shared with the other tenants.
+            acquire(tenant.calls);
+            try {
+                acquire(totalCalls);
+            } catch (IOException e) {
+                tenant.calls.release();
+                throw e;
+            }
+            tenant.waitNanos.add(System.nanoTime() - start);
+            tenant.active.incrementAndGet();
+            tenant.requests.increment();
+            try {
+                return call.execute();
+            } catch (IOException | RuntimeException e) {
+                tenant.failures.increment();
+                if (e instanceof HttpResponseException && ((HttpResponseException) e).getStatusCode() == 429) {
+                    tenant.throttled.increment();
+                }
+                throw e;
+            } finally {
+                tenant.lastUsedNanos = System.nanoTime();
+                tenant.active.decrementAndGet();
+                totalCalls.release();
+                tenant.calls.release();
+            }
+        }
+    }
+
+    private static void acquire(Semaphore semaphore) throws InterruptedIOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a call slot.");
+        }
+    }
+
+    @FunctionalInterface
+    private interface SheetsCall<T> {
+        T execute() throws IOException;
+    }
+}
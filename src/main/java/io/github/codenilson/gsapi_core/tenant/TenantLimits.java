@@ -0,0 +1,108 @@
+package io.github.codenilson.gsapi_core.tenant;
+
+import java.time.Duration;
+
+/**
+ * Limits applied by a {@link TenantClientPool} to every tenant and to the pool
+ * as a whole.
+ */
+public class TenantLimits {
+
+    private int maxConcurrentCalls = 4;
+    private int maxTotalConcurrentCalls = 50;
+    private int requestsPerMinute = 60;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Gets the maximum number of calls a single tenant may have in flight.
+     *
+     * @return The maximum number of concurrent calls per tenant.
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Sets the maximum number of calls a single tenant may have in flight.
+     * Further calls of that tenant wait for one of them to finish.
+     *
+     * @param maxConcurrentCalls The maximum number of concurrent calls per
+     *                           tenant.
+     */
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * Gets the maximum number of calls in flight across every tenant.
+     *
+     * @return The maximum number of concurrent calls.
+     */
+    public int getMaxTotalConcurrentCalls() {
+        return maxTotalConcurrentCalls;
+    }
+
+    /**
+     * Sets the maximum number of calls in flight across every tenant. It should
+     * not exceed {@link io.github.codenilson.gsapi_core.client.TransportSettings#getMaxConnectionsPerRoute()},
+     * so that calls wait here, in order, rather than in the connection pool.
+     *
+     * @param maxTotalConcurrentCalls The maximum number of concurrent calls.
+     */
+    public void setMaxTotalConcurrentCalls(int maxTotalConcurrentCalls) {
+        this.maxTotalConcurrentCalls = maxTotalConcurrentCalls;
+    }
+
+    /**
+     * Gets the request quota of a single tenant.
+     *
+     * @return The quota, in requests per minute.
+     */
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    /**
+     * Sets the request quota of a single tenant, e.g. the per-user quota of
+     * the Google Sheets API when each tenant has its own service account.
+     *
+     * @param requestsPerMinute The quota, in requests per minute.
+     */
+    public void setRequestsPerMinute(int requestsPerMinute) {
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    /**
+     * Gets how long a tenant may stay unused before it is evicted.
+     *
+     * @return The idle timeout, or {@code null} if tenants are never evicted.
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets how long a tenant may stay unused before it is evicted.
+     *
+     * @param idleTimeout The idle timeout, or {@code null} to never evict
+     *                    tenants.
+     */
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns a string representation of the TenantLimits.
+     *
+     * @return A string containing every limit.
+     */
+    @Override
+    public String toString() {
+        return "TenantLimits{" +
+                "maxConcurrentCalls=" + maxConcurrentCalls +
+                ", maxTotalConcurrentCalls=" + maxTotalConcurrentCalls +
+                ", requestsPerMinute=" + requestsPerMinute +
+                ", idleTimeout=" + idleTimeout +
+                '}';
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.codenilson.gsapi_core.tenant;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the usage of one tenant of a {@link TenantClientPool}, counted
+ * since the tenant was loaded. Every HTTP request counts, including retries.
+ */
+public class TenantUsage {
+
+    private final String tenantId;
+    private final long requests;
+    private final long failures;
+    private final long throttled;
+    private final int activeCalls;
+    private final Duration waitTime;
+    private final Duration idleTime;
+    private final double rate;
+
+    /**
+     * Constructs a new TenantUsage.
+     *
+     * @param tenantId    The ID of the tenant.
+     * @param requests    The number of requests sent.
+     * @param failures    The number of requests that failed.
+     * @param throttled   The number of requests rejected by the quota.
+     * @param activeCalls The number of requests in flight.
+     * @param waitTime    The total time requests waited for a call slot.
+     * @param idleTime    The time since the tenant was last used.
+     * @param rate        The current request rate allowed for the tenant.
+     */
+    public TenantUsage(String tenantId, long requests, long failures, long throttled, int activeCalls,
+            Duration waitTime, Duration idleTime, double rate) {
+        this.tenantId = tenantId;
+        this.requests = requests;
+        this.failures = failures;
+        this.throttled = throttled;
+        this.activeCalls = activeCalls;
+        this.waitTime = waitTime;
+        this.idleTime = idleTime;
+        this.rate = rate;
+    }
+
+    /**
+     * Gets the ID of the tenant.
+     *
+     * @return The tenant ID.
+     */
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Gets the number of requests sent.
+     *
+     * @return The number of requests.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Gets the number of requests that failed, throttled ones included.
+     *
+     * @return The number of failures.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gets the number of requests rejected with {@code 429 Too Many Requests}.
+     *
+     * @return The number of throttled requests.
+     */
+    public long getThrottled() {
+        return throttled;
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return The number of active calls.
+     */
+    public int getActiveCalls() {
+        return activeCalls;
+    }
+
+    /**
+     * Gets the total time requests waited for a call slot, either of the
+     * tenant or of the pool.
+     *
+     * @return The wait time.
+     */
+    public Duration getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Gets the time since the tenant last sent or finished a request.
+     *
+     * @return The idle time.
+     */
+    public Duration getIdleTime() {
+        return idleTime;
+    }
+
+    /**
+     * Gets the request rate currently allowed for the tenant, lowered after
+     * throttled requests.
+     *
+     * @return The rate, in requests per second.
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Returns a string representation of the TenantUsage.
+     *
+     * @return A string containing every counter.
+     */
+    @Override
+    public String toString() {
+        return "TenantUsage{" +
+                "tenantId='" + tenantId + '\'' +
+                ", requests=" + requests +
+                ", failures=" + failures +
+                ", throttled=" + throttled +
+                ", activeCalls=" + activeCalls +
+                ", waitTime=" + waitTime +
+                ", idleTime=" + idleTime +
+                ", rate=" + rate +
+                '}';
+    }
+}
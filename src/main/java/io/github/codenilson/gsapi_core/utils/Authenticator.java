@@ -2,6 +2,7 @@ package io.github.codenilson.gsapi_core.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Collections;
 
 import com.google.api.client.http.HttpRequestInitializer;
@@ -15,6 +16,10 @@ import io.github.codenilson.gsapi_core.errors.GSAPIError;
  * A class responsible for handling Google Sheets API authentication.
  * It provides methods to initialize authentication using credentials from
  * a JSON stream or a file path.
+ * <p>
+ * Every call parses the credentials again and leaves token refreshes to the
+ * request thread. Use a {@link CredentialRegistry} to parse each credential
+ * once and refresh its access token in the background.
  */
 public class Authenticator {
 
@@ -36,14 +41,58 @@ public class Authenticator {
             throw new IllegalArgumentException("The provided InputStream is null. Please provide a valid InputStream.");
         }
 
-        try {
-            // Create GoogleCredentials from the InputStream and set the required scope for
-            // Sheets API
-            GoogleCredentials credentials = GoogleCredentials.fromStream(jsonStream)
-                    .createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS));
+        // Return the HttpCredentialsAdapter to be used for API requests
+        return new HttpCredentialsAdapter(createCredentials(jsonStream));
+    }
+
+    /**
+     * Returns an HttpRequestInitializer that uses the provided JSON stream for
+     * authentication, scoped to the given OAuth scopes instead of the Sheets
+     * scope only. Use it when calls need more access, e.g.
+     * {@code GoogleSheetsClient.DRIVE_METADATA_READONLY_SCOPE} for change
+     * detection.
+     *
+     * @param jsonStream The InputStream containing the JSON credentials.
+     * @param scopes     The OAuth scopes to request.
+     * @return An HttpRequestInitializer to initialize API requests.
+     * @throws IllegalArgumentException If the provided InputStream is null.
+     * @throws GSAPIError               If there is an error while creating the
+     *                                  credentials.
+     */
+    public static HttpRequestInitializer getInitializer(InputStream jsonStream, Collection<String> scopes) {
+        if (jsonStream == null) {
+            throw new IllegalArgumentException("The provided InputStream is null. Please provide a valid InputStream.");
+        }
+
+        return new HttpCredentialsAdapter(createCredentials(jsonStream, scopes));
+    }
+
+    /**
+     * Creates GoogleCredentials from the provided JSON stream, scoped for the
+     * Sheets API.
+     *
+     * @param jsonStream The InputStream containing the JSON credentials.
+     * @return The scoped credentials.
+     * @throws GSAPIError If there is an error while creating the credentials.
+     */
+    static GoogleCredentials createCredentials(InputStream jsonStream) {
+        return createCredentials(jsonStream, Collections.singleton(SheetsScopes.SPREADSHEETS));
+    }
 
-            // Return the HttpCredentialsAdapter to be used for API requests
-            return new HttpCredentialsAdapter(credentials);
+    /**
+     * Creates GoogleCredentials from the provided JSON stream, scoped to the
+     * given OAuth scopes.
+     *
+     * @param jsonStream The InputStream containing the JSON credentials.
+     * @param scopes     The OAuth scopes to request.
+     * @return The scoped credentials.
+     * @throws GSAPIError If there is an error while creating the credentials.
+     */
+    static GoogleCredentials createCredentials(InputStream jsonStream, Collection<String> scopes) {
+        try {
+            // Create GoogleCredentials from the InputStream and set the requested scopes
+            return GoogleCredentials.fromStream(jsonStream)
+                    .createScoped(scopes);
         } catch (IOException e) {
             throw new GSAPIError("Failed to create credentials from the provided InputStream.", e); // Link to
                                                                                                     // GSAPIError
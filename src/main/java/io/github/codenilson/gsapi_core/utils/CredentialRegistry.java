@@ -0,0 +1,237 @@
+package io.github.codenilson.gsapi_core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+
+/**
+ * Registry that parses each credential source once and keeps its access token
+ * fresh in the background.
+ * <p>
+ * Credentials are cached by a caller-chosen key, such as a file path or a
+ * tenant ID. As soon as a credential is registered, and then shortly before
+ * each token expires, its token is refreshed on a background thread, so request
+ * threads find a valid token instead of performing the OAuth exchange
+ * themselves. Concurrent refreshes of the same credential are collapsed into a
+ * single token request. A failed refresh is retried after a short delay.
+ */
+public class CredentialRegistry implements AutoCloseable {
+
+    /**
+     * Default time before expiry at which a token is refreshed.
+     */
+    public static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofMinutes(5);
+
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final long refreshMarginMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new CredentialRegistry with the default refresh margin.
+     */
+    public CredentialRegistry() {
+        this(DEFAULT_REFRESH_MARGIN);
+    }
+
+    /**
+     * Constructs a new CredentialRegistry.
+     *
+     * @param refreshMargin How long before expiry a token is refreshed.
+     */
+    public CredentialRegistry(Duration refreshMargin) {
+        this.refreshMarginMillis = refreshMargin.toMillis();
+        AtomicInteger counter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "gsapi-credential-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns an HttpRequestInitializer backed by the cached credentials of the
+     * given classpath resource, loading them on first use.
+     *
+     * @param jsonPath The path to the credentials file in the classpath, also
+     *                 used as the cache key.
+     * @return An HttpRequestInitializer to initialize API requests.
+     * @throws GSAPIError If there is an error loading the credentials file.
+     */
+    public HttpRequestInitializer getInitializer(String jsonPath) {
+        return getInitializer(jsonPath, () -> {
+            InputStream stream = Authenticator.loadResource(jsonPath);
+            if (stream == null) {
+                throw new GSAPIError("The resource at the specified path could not be found: " + jsonPath);
+            }
+            return stream;
+        });
+    }
+
+    /**
+     * Returns an HttpRequestInitializer backed by the cached credentials of the
+     * given key, reading them from {@code source} on first use.
+     *
+     * @param key    The cache key of the credentials.
+     * @param source Supplies the JSON credentials; it is only called if the key
+     *               is not cached, and the stream is closed after reading.
+     * @return An HttpRequestInitializer to initialize API requests.
+     * @throws GSAPIError If there is an error while creating the credentials.
+     */
+    public HttpRequestInitializer getInitializer(String key, Supplier<InputStream> source) {
+        return new HttpCredentialsAdapter(getCredentials(key, source));
+    }
+
+    /**
+     * Returns the cached credentials of the given key, reading them from
+     * {@code source} and scheduling their first refresh on first use.
+     *
+     * @param key    The cache key of the credentials.
+     * @param source Supplies the JSON credentials; it is only called if the key
+     *               is not cached, and the stream is closed after reading.
+     * @return The cached credentials.
+     * @throws GSAPIError If there is an error while creating the credentials.
+     */
+    public GoogleCredentials getCredentials(String key, Supplier<InputStream> source) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry.credentials;
+        }
+        Entry[] created = new Entry[1];
+        entry = entries.computeIfAbsent(key, k -> {
+            try (InputStream stream = source.get()) {
+                created[0] = new Entry(Authenticator.createCredentials(stream));
+                return created[0];
+            } catch (IOException e) {
+                throw new GSAPIError("Error reading credentials for key: " + key, e);
+            }
+        });
+        if (created[0] != null) {
+            refresh(key);
+        }
+        return entry.credentials;
+    }
+
+    /**
+     * Refreshes the access token of the given key in the background. If a
+     * refresh of that key is already running, its future is returned instead of
+     * starting another one.
+     *
+     * @param key The cache key of the credentials.
+     * @return A future completed with the new access token.
+     * @throws IllegalArgumentException If the key is not registered.
+     */
+    public CompletableFuture<AccessToken> refresh(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            throw new IllegalArgumentException("No credentials registered for key: " + key);
+        }
+        synchronized (entry) {
+            if (entry.refreshing != null) {
+                return entry.refreshing;
+            }
+            CompletableFuture<AccessToken> future = new CompletableFuture<>();
+            entry.refreshing = future;
+            scheduler.execute(() -> runRefresh(key, entry, future));
+            return future;
+        }
+    }
+
+    /**
+     * Removes the credentials of the given key and cancels their scheduled
+     * refresh.
+     *
+     * @param key The cache key of the credentials.
+     */
+    public void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            synchronized (entry) {
+                if (entry.scheduled != null) {
+                    entry.scheduled.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of registered credentials.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stops every background refresh.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        entries.clear();
+    }
+
+    private void runRefresh(String key, Entry entry, CompletableFuture<AccessToken> future) {
+        long nextRefreshMillis;
+        try {
+            entry.credentials.refresh();
+            AccessToken token = entry.credentials.getAccessToken();
+            nextRefreshMillis = delayUntilRefresh(token);
+            finishRefresh(entry);
+            future.complete(token);
+        } catch (Exception e) {
+            nextRefreshMillis = RETRY_DELAY_MILLIS;
+            finishRefresh(entry);
+            future.completeExceptionally(e);
+        }
+        synchronized (entry) {
+            if (entries.get(key) == entry && !scheduler.isShutdown()) {
+                entry.scheduled = scheduler.schedule(() -> refresh(key), nextRefreshMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void finishRefresh(Entry entry) {
+        synchronized (entry) {
+            entry.refreshing = null;
+        }
+    }
+
+    private long delayUntilRefresh(AccessToken token) {
+        Date expiration = token == null ? null : token.getExpirationTime();
+        if (expiration == null) {
+            return RETRY_DELAY_MILLIS;
+        }
+        long delay = expiration.getTime() - System.currentTimeMillis() - refreshMarginMillis;
+        return Math.max(delay, 1000);
+    }
+
+    private static class Entry {
+        private final GoogleCredentials credentials;
+        private CompletableFuture<AccessToken> refreshing;
+        private ScheduledFuture<?> scheduled;
+
+        private Entry(GoogleCredentials credentials) {
+            this.credentials = credentials;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.codenilson.gsapi_core;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+
+public class AsyncGsAPITest {
+
+    @Mock
+    private GoogleSheetsClient client;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testRetrieveDataCompletesWithTheBlockingResult() throws IOException {
+        when(client.fetchValues(any(SheetRequest.class))).thenReturn(Arrays.asList(
+                Arrays.asList("header"),
+                Arrays.asList("Test")));
+
+        try (AsyncGsAPI api = new AsyncGsAPI(new GsAPI(client))) {
+            Assertions.assertEquals(1, api.retrieveData(new SheetRequest("test-id", "A1:A2")).join().get().size());
+        }
+    }
+
+    @Test
+    void testErrorsCompleteTheFutureExceptionally() throws IOException {
+        when(client.fetchValues(any(SheetRequest.class))).thenThrow(new IOException("Network error"));
+
+        AsyncGsAPI api = new AsyncGsAPI(new GsAPI(client), executor, 4);
+        CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                () -> api.retrieveData(new SheetRequest("test-id", "A1:A2")).join());
+        Assertions.assertTrue(exception.getCause() instanceof GSAPIError);
+    }
+
+    @Test
+    void testInFlightCallsAreBounded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(client.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return null;
+        });
+
+        AsyncGsAPI api = new AsyncGsAPI(new GsAPI(client), executor, 2);
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(api.retrieveData(new SheetRequest("test-id", "A1:A2")));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        Assertions.assertEquals(2, maxRunning.get(), "No more than maxInFlight calls should run at once.");
+        Assertions.assertEquals(0, api.getInFlight());
+    }
+}
@@ -1,9 +1,14 @@
 package io.github.codenilson.gsapi_core;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -11,12 +16,17 @@ import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.google.api.services.sheets.v4.model.ValueRange;
+
 import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
 import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
 import io.github.codenilson.gsapi_core.models.DataValue;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
 
 public class GsAPITest {
 
@@ -71,4 +81,87 @@ public class GsAPITest {
             api.retrieveData(new SheetRequest("test-id", "A1:C3"));
         }, "Expected GSAPIError to be thrown when an IOException occurs");
     }
+
+    @Test
+    void testRetrieveColumnar() throws IOException {
+        stubStreamValues();
+
+        ColumnarSheet sheet = api.retrieveColumnar(new SheetRequest("test-id", "A1:C3")).get();
+
+        Assertions.assertEquals(2, sheet.getRowCount());
+        Assertions.assertEquals(new DataValue(Arrays.asList("Test", "Test2", "Test3"), 1), sheet.row(0));
+    }
+
+    @Test
+    void testForEachRowSkipsTheHeader() throws IOException {
+        stubStreamValues();
+        List<DataValue> rows = new ArrayList<>();
+
+        int count = api.forEachRow(new SheetRequest("test-id", "A1:C3"), rows::add);
+
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals(api.retrieveData(new SheetRequest("test-id", "A1:C3")).get(), rows);
+    }
+
+    @Test
+    void testRetrieveObjectsBindsColumnsByHeader() throws IOException {
+        stubStreamValues();
+
+        List<Row> rows = api.retrieveObjects(new SheetRequest("test-id", "A1:C3"), Row.class).get();
+
+        Assertions.assertEquals(Arrays.asList(new Row("Test3", "Test"), new Row("Test6", "Test4")), rows);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSyncDataWritesOnlyChangedCells() throws IOException {
+        when(client.fetchFormulas(any(SheetRequest.class))).thenReturn(Arrays.asList(
+                Arrays.asList("Test", "Test2", "Test3"),
+                Arrays.asList("Test4", "Test5", "Test6")));
+
+        int cells = api.syncData(new SheetRequest("test-id", "Sheet1!A2:C3"), Arrays.asList(
+                new DataValue(Arrays.asList("Test", "Changed", "Test3"), 1)));
+
+        ArgumentCaptor<List<ValueRange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client).batchOverwriteValues(eq("test-id"), captor.capture());
+        Assertions.assertEquals(4, cells);
+        Assertions.assertEquals(Arrays.asList("Sheet1!B2", "Sheet1!A3:C3"),
+                Arrays.asList(captor.getValue().get(0).getRange(), captor.getValue().get(1).getRange()));
+    }
+
+    @Test
+    void testRetrieveDataForSeveralRangesUsesOneBatch() throws IOException {
+        when(client.fetchValuesBatch(eq("test-id"), anyList())).thenReturn(Arrays.asList(
+                Arrays.asList(Arrays.asList("header"), Arrays.asList("Test")),
+                null));
+
+        List<Optional<List<DataValue>>> result = api.retrieveData(Arrays.asList(
+                new SheetRequest("test-id", "Sheet1!A1:A2"),
+                new SheetRequest("test-id", "Sheet2!A1:A2")));
+
+        Assertions.assertEquals(Arrays.asList(new DataValue(Arrays.asList("Test"), 1)), result.get(0).get());
+        Assertions.assertTrue(result.get(1).isEmpty(), "Empty ranges should map to Optional.empty()");
+        verify(client, times(1)).fetchValuesBatch(eq("test-id"), anyList());
+    }
+
+    @Test
+    void testRetrieveDataForSeveralRangesRejectsMixedSpreadsheets() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> api.retrieveData(Arrays.asList(
+                new SheetRequest("test-id", "A1:A2"),
+                new SheetRequest("other-id", "A1:A2"))));
+    }
+
+    private record Row(String header3, String header) {
+    }
+
+    private void stubStreamValues() throws IOException {
+        when(client.streamValues(any(SheetRequest.class), any(RowConsumer.class))).thenAnswer(invocation -> {
+            RowConsumer consumer = invocation.getArgument(1);
+            List<List<Object>> values = client.fetchValues(invocation.getArgument(0));
+            for (int index = 0; index < values.size(); index++) {
+                consumer.accept(index, values.get(index));
+            }
+            return values.size();
+        });
+    }
 }
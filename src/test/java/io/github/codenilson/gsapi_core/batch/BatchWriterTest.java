@@ -0,0 +1,124 @@
+package io.github.codenilson.gsapi_core.batch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+public class BatchWriterTest {
+
+    private GoogleSheetsClient client;
+    private List<WriteFailure> reported;
+    private BatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(GoogleSheetsClient.class);
+        reported = new ArrayList<>();
+        writer = new BatchWriter(client, 10, null, reported::add);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdatesAreCoalescedIntoOneBatchUpdate() throws IOException {
+        writer.update(new SheetRequest("test-id", "A2:C2"), new DataValue(Arrays.asList("a", "b", "c"), 1));
+        writer.update(new SheetRequest("test-id", "A3:C3"), new DataValue(Arrays.asList("d", "e", "f"), 2));
+        writer.update(new SheetRequest("test-id", "A2:C2"), new DataValue(Arrays.asList("g", "h", "i"), 1));
+
+        Assertions.assertTrue(writer.flush().isEmpty());
+
+        ArgumentCaptor<List<ValueRange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client, times(1)).batchOverwriteValues(eq("test-id"), captor.capture());
+        List<ValueRange> data = captor.getValue();
+        Assertions.assertEquals(2, data.size(), "Repeated updates of a range should be coalesced.");
+        Assertions.assertEquals("A3:C3", data.get(0).getRange());
+        Assertions.assertEquals("A2:C2", data.get(1).getRange());
+        Assertions.assertEquals(Arrays.asList("g", "h", "i"), data.get(1).getValues().get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAppendsToTheSameRangeAreCombined() throws IOException {
+        SheetRequest request = new SheetRequest("test-id", "A1");
+        writer.append(request, Arrays.asList(new DataValue(Arrays.asList("a"), 0)));
+        writer.append(request, Arrays.asList(new DataValue(Arrays.asList("b"), 0)));
+
+        writer.flush();
+
+        ArgumentCaptor<List<List<Object>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client, times(1)).appendValues(eq(request), captor.capture());
+        Assertions.assertEquals(2, captor.getValue().size());
+    }
+
+    @Test
+    void testFlushIsTriggeredWhenTheRowLimitIsReached() throws IOException {
+        List<DataValue> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(new DataValue(Arrays.asList("row" + i), i));
+        }
+
+        writer.append(new SheetRequest("test-id", "A1"), rows);
+
+        verify(client, times(1)).appendValues(any(SheetRequest.class), anyList());
+        Assertions.assertEquals(0, writer.getPendingRows());
+    }
+
+    @Test
+    void testEveryRowOfAFailedRequestIsReported() throws IOException {
+        doThrow(new IOException("Network error")).when(client).batchOverwriteValues(eq("test-id"), anyList());
+
+        writer.update(new SheetRequest("test-id", "A2:C2"), new DataValue(Arrays.asList("a"), 1));
+        writer.update(new SheetRequest("test-id", "A3:C3"), new DataValue(Arrays.asList("b"), 2));
+        List<WriteFailure> failures = writer.flush();
+
+        Assertions.assertEquals(2, failures.size());
+        Assertions.assertEquals(failures, reported, "Failures should also be sent to the listener.");
+        Assertions.assertEquals(WriteFailure.Operation.UPDATE, failures.get(0).getOperation());
+    }
+
+    @Test
+    void testScheduledFlushSurvivesAThrowingListener() throws IOException {
+        doThrow(new IOException("Network error")).when(client).batchOverwriteValues(eq("first"), anyList());
+        BatchWriter scheduled = new BatchWriter(client, 10, Duration.ofMillis(10), failure -> {
+            throw new IllegalStateException("Listener error");
+        });
+
+        scheduled.update(new SheetRequest("first", "A2"), new DataValue(Arrays.asList("a"), 1));
+        verify(client, timeout(5000)).batchOverwriteValues(eq("first"), anyList());
+        scheduled.update(new SheetRequest("second", "A2"), new DataValue(Arrays.asList("b"), 1));
+
+        verify(client, timeout(5000)).batchOverwriteValues(eq("second"), anyList());
+        scheduled.close();
+    }
+
+    @Test
+    void testCloseRejectsFurtherWrites() throws IOException {
+        writer.close();
+
+        verify(client, never()).batchOverwriteValues(any(), anyList());
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> writer.update(new SheetRequest("test-id", "A1"), new DataValue(Arrays.asList("a"), 0)));
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.ColumnType;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
+
+public class BulkExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private GoogleSheetsClient client;
+    private final Map<String, List<List<Object>>> windows = new HashMap<>();
+
+    private static SheetProperties sheet(int id, String title, int rows, int columns) {
+        return new SheetProperties().setSheetId(id).setTitle(title)
+                .setGridProperties(new GridProperties().setRowCount(rows).setColumnCount(columns));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = mock(GoogleSheetsClient.class);
+        when(client.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            SheetRequest request = invocation.getArgument(0);
+            if (!windows.containsKey(request.getRange())) {
+                throw new IOException("Unexpected range " + request.getRange());
+            }
+            return windows.get(request.getRange());
+        });
+    }
+
+    @Test
+    void testSheetsAreExportedToCsvKeepingRowPositions() throws IOException {
+        when(client.fetchSheets("test-id")).thenReturn(Arrays.asList(sheet(1, "Data/2024", 5, 3)));
+        windows.put("'Data/2024'!A1:C2", Arrays.asList(Arrays.asList("h1", "h2")));
+        windows.put("'Data/2024'!A3:C4", Arrays.asList(Collections.emptyList(), Arrays.asList("b,c", "2")));
+        windows.put("'Data/2024'!A5:C5", null);
+
+        ExportReport report = new BulkExporter(client, 2, 2).exportSpreadsheet("test-id", directory,
+                BulkExporter.Format.CSV);
+
+        Path file = directory.resolve("Data_2024.csv");
+        Assertions.assertEquals(Arrays.asList(file), report.getFiles());
+        Assertions.assertEquals("h1,h2\n\n\n\"b,c\",2\n", new String(Files.readAllBytes(file),
+                StandardCharsets.UTF_8));
+        Assertions.assertEquals(4, report.getRows());
+        Assertions.assertEquals(4, report.getRequests());
+        Assertions.assertEquals(Files.size(file), report.getBytes());
+    }
+
+    @Test
+    void testColumnarExportCanBeReadBack() throws IOException {
+        when(client.fetchSheets("test-id")).thenReturn(Arrays.asList(sheet(1, "Numbers", 4, 2)));
+        windows.put("Numbers!A1:B2", Arrays.asList(Arrays.asList("name", "qty"), Arrays.asList("x", "1")));
+        windows.put("Numbers!A3:B4", Arrays.asList(Arrays.asList("y", "2.5")));
+
+        new BulkExporter(client, 2, 2).exportSpreadsheet("test-id", directory, BulkExporter.Format.COLUMNAR);
+
+        ColumnarSheet sheet = ColumnarFile.read(directory.resolve("Numbers" + ColumnarFile.EXTENSION));
+        Assertions.assertEquals(Arrays.asList("name", "qty"), sheet.getHeaders());
+        Assertions.assertEquals(2, sheet.getRowCount());
+        Assertions.assertEquals(ColumnType.DOUBLE, sheet.getColumnType(1));
+        Assertions.assertEquals(3.5, sheet.doubleStream(1).sum());
+        Assertions.assertEquals("y", sheet.getString(1, 0));
+    }
+
+    @Test
+    void testReadErrorsAreWrapped() throws IOException {
+        when(client.fetchSheets("test-id")).thenReturn(Arrays.asList(sheet(1, "Missing", 2, 1)));
+
+        Assertions.assertThrows(GSAPIError.class, () -> new BulkExporter(client).exportSpreadsheet("test-id",
+                directory, BulkExporter.Format.CSV));
+    }
+}
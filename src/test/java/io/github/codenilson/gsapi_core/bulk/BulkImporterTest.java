@@ -0,0 +1,117 @@
+package io.github.codenilson.gsapi_core.bulk;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+
+public class BulkImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private GoogleSheetsClient client;
+    private final Map<String, List<List<Object>>> writes = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = mock(GoogleSheetsClient.class);
+        doAnswer(invocation -> {
+            SheetRequest request = invocation.getArgument(0);
+            writes.put(request.getRange(), invocation.getArgument(1));
+            return null;
+        }).when(client).overwriteValues(any(SheetRequest.class), anyList());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCsvIsSplitIntoDisjointChunks() throws IOException {
+        Path file = write("data.csv", "id,name\r\n1,\"Smith, J\"\n\n2,\"multi\nline\"\n3,\"say \"\"hi\"\"\"\n4,d");
+
+        ImportReport report = new BulkImporter(client, 2, 1024, 2)
+                .importFile(file, BulkImporter.Format.CSV, new SheetRequest("test-id", "Sheet1!B2"), null);
+
+        Assertions.assertEquals(5, report.getRows());
+        Assertions.assertEquals(3, report.getChunks());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("id", "name"), Arrays.asList("1", "Smith, J")),
+                writes.get("Sheet1!B2:C3"));
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("2", "multi\nline"), Arrays.asList("3", "say \"hi\"")),
+                writes.get("Sheet1!B4:C5"));
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("4", "d")), writes.get("Sheet1!B6:C6"));
+        verify(client).ensureGridSize("test-id", "Sheet1", 6, 3);
+    }
+
+    @Test
+    void testFailedImportResumesFromTheCheckpoint() throws IOException {
+        Path file = write("data.csv", "a\nb\nc\nd\n");
+        Path checkpoint = directory.resolve("import.checkpoint");
+        doAnswer(invocation -> {
+            SheetRequest request = invocation.getArgument(0);
+            if (request.getRange().equals("A3:A4")) {
+                throw new IOException("boom");
+            }
+            writes.put(request.getRange(), invocation.getArgument(1));
+            return null;
+        }).when(client).overwriteValues(any(SheetRequest.class), anyList());
+        BulkImporter importer = new BulkImporter(client, 2, 1024, 1);
+
+        Assertions.assertThrows(GSAPIError.class,
+                () -> importer.importFile(file, BulkImporter.Format.CSV, new SheetRequest("test-id", "A1"), checkpoint));
+        Assertions.assertTrue(Files.exists(checkpoint));
+
+        doAnswer(invocation -> {
+            SheetRequest request = invocation.getArgument(0);
+            writes.put(request.getRange(), invocation.getArgument(1));
+            return null;
+        }).when(client).overwriteValues(any(SheetRequest.class), anyList());
+        ImportReport report = importer.importFile(file, BulkImporter.Format.CSV, new SheetRequest("test-id", "A1"),
+                checkpoint);
+
+        Assertions.assertEquals(1, report.getChunksWritten());
+        Assertions.assertEquals(1, report.getChunksSkipped());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("c"), Arrays.asList("d")), writes.get("A3:A4"));
+        Assertions.assertFalse(Files.exists(checkpoint), "A completed import should delete its checkpoint.");
+    }
+
+    @Test
+    void testJsonLinesAcceptArraysAndObjects() throws IOException {
+        Path file = write("data.jsonl", "[\"a\", 1, true]\n\n{\"name\": \"b,c\", \"qty\": 2.5, \"ok\": null}\n");
+
+        new BulkImporter(client).importFile(file, BulkImporter.Format.JSONL, new SheetRequest("test-id", "A1:C10"),
+                null);
+
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("a", new BigDecimal("1"), true),
+                Arrays.asList("b,c", new BigDecimal("2.5"), "")), writes.get("A1:C2"));
+    }
+
+    @Test
+    void testFileLargerThanTheTargetIsRejected() throws IOException {
+        Path file = write("data.csv", "a\nb\nc\n");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BulkImporter(client)
+                .importFile(file, BulkImporter.Format.CSV, new SheetRequest("test-id", "A1:A2"), null));
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.codenilson.gsapi_core.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+
+public class CachingSheetsClientTest {
+
+    private GoogleSheetsClient delegate;
+    private RangeCache cache;
+    private CachingSheetsClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        delegate = mock(GoogleSheetsClient.class);
+        List<List<Object>> values = Arrays.asList(
+                Arrays.asList("header", "header2"),
+                Arrays.asList("Test", "Test2"));
+        when(delegate.fetchValues(any(SheetRequest.class))).thenReturn(values);
+        cache = new RangeCache(Duration.ofMinutes(1), 1024 * 1024);
+        client = new CachingSheetsClient(delegate, cache);
+    }
+
+    @Test
+    void testRepeatedReadsAreServedFromTheCache() throws IOException {
+        client.fetchValues(new SheetRequest("test-id", "Sheet1!A1:B2"));
+        client.fetchValues(new SheetRequest("test-id", "Sheet1!$a$1:$b$2"));
+
+        verify(delegate, times(1)).fetchValues(any(SheetRequest.class));
+        CacheStats stats = cache.getStats();
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void testWritesInvalidateCachedRangesOfTheSameSheet() throws IOException {
+        client.fetchValues(new SheetRequest("test-id", "Sheet1!A1:B2"));
+        client.fetchValues(new SheetRequest("test-id", "Sheet2!A1:B2"));
+
+        client.overwriteValues(new SheetRequest("test-id", "Sheet1!A2:B2"), Collections.emptyList());
+        client.fetchValues(new SheetRequest("test-id", "Sheet1!A1:B2"));
+        client.fetchValues(new SheetRequest("test-id", "Sheet2!A1:B2"));
+
+        verify(delegate, times(3)).fetchValues(any(SheetRequest.class));
+        Assertions.assertEquals(1, cache.getStats().getInvalidations());
+    }
+
+    @Test
+    void testReadsOverlappingAWriteAreNotCached() throws IOException {
+        List<List<Object>> before = Arrays.asList(Arrays.asList("header"), Arrays.asList("old"));
+        when(delegate.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            // Another thread writes the range while the old values are in flight.
+            client.overwriteValues(new SheetRequest("test-id", "Sheet1!A2"), Collections.emptyList());
+            return before;
+        });
+
+        Assertions.assertEquals(before, client.fetchValues(new SheetRequest("test-id", "Sheet1!A1:A2")));
+        Assertions.assertNull(cache.get("test-id", "Sheet1!A1:A2"), "Values read before the write should not be cached.");
+        Assertions.assertTrue(cache.put("test-id", "Sheet1!A1:A2", before, cache.generation("test-id")));
+    }
+
+    @Test
+    void testOverwritesInvalidateEveryCellTheirValuesCover() throws IOException {
+        client.fetchValues(new SheetRequest("test-id", "Sheet1!B1:C3"));
+
+        client.overwriteValues(new SheetRequest("test-id", "Sheet1!A2"), Arrays.asList(Arrays.asList("x", "y", "z")));
+
+        Assertions.assertNull(cache.get("test-id", "Sheet1!B1:C3"), "The row written from A2 covers B2:C2.");
+        Assertions.assertEquals("Sheet1!A2:C3", CachingSheetsClient.written("Sheet1!A2",
+                Arrays.asList(Arrays.asList("x", "y", "z"), Arrays.asList("w"))).toA1());
+    }
+
+    @Test
+    void testEmptyRangesAreServedFromTheCache() throws IOException {
+        when(delegate.fetchValues(any(SheetRequest.class))).thenReturn(null);
+
+        Assertions.assertNull(client.fetchValues(new SheetRequest("test-id", "Sheet1!A1:B2")));
+        Assertions.assertNull(client.fetchValues(new SheetRequest("test-id", "Sheet1!A1:B2")));
+
+        verify(delegate, times(1)).fetchValues(any(SheetRequest.class));
+        Assertions.assertEquals(1, cache.getStats().getHits());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvictedWhenTheSizeBoundIsExceeded() throws IOException {
+        List<List<Object>> values = Arrays.asList(Arrays.asList("Test", "Test2"));
+        long weight = RangeCache.estimateWeight(values);
+        RangeCache small = new RangeCache(Duration.ofMinutes(1), weight * 2);
+
+        small.put("test-id", "A1:B1", values);
+        small.put("test-id", "A2:B2", values);
+        small.get("test-id", "A1:B1");
+        small.put("test-id", "A3:B3", values);
+
+        Assertions.assertNotNull(small.get("test-id", "A1:B1"));
+        Assertions.assertNull(small.get("test-id", "A2:B2"), "The least recently used entry should be evicted.");
+        Assertions.assertEquals(1, small.getStats().getEvictions());
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.codenilson.gsapi_core.client;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.BatchGetValuesResponse;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+
+public class GoogleSheetsClientTest {
+
+    @Test
+    void testFetchValuesBatchSplitsLargeRequests() throws IOException {
+        Sheets service = mock(Sheets.class, RETURNS_DEEP_STUBS);
+        Sheets.Spreadsheets.Values.BatchGet batchGet = mock(Sheets.Spreadsheets.Values.BatchGet.class);
+        when(service.spreadsheets().values().batchGet("test-id")).thenReturn(batchGet);
+        when(batchGet.setRanges(anyList())).thenAnswer(invocation -> {
+            List<String> ranges = invocation.getArgument(0);
+            List<ValueRange> valueRanges = new ArrayList<>();
+            for (String range : ranges) {
+                valueRanges.add(new ValueRange().setRange(range).setValues(Arrays.asList(Arrays.asList(range))));
+            }
+            Sheets.Spreadsheets.Values.BatchGet call = mock(Sheets.Spreadsheets.Values.BatchGet.class);
+            when(call.execute()).thenReturn(new BatchGetValuesResponse().setValueRanges(valueRanges));
+            return call;
+        });
+
+        List<String> ranges = new ArrayList<>();
+        for (int i = 1; i <= GoogleSheetsClient.MAX_RANGES_PER_BATCH_GET + 1; i++) {
+            ranges.add("Sheet" + i + "!A1:B2");
+        }
+        List<List<List<Object>>> result = new GoogleSheetsClient(service).fetchValuesBatch("test-id", ranges);
+
+        verify(batchGet, times(2)).setRanges(anyList());
+        Assertions.assertEquals(ranges.size(), result.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            Assertions.assertEquals(ranges.get(i), result.get(i).get(0).get(0), "Results should keep request order.");
+        }
+    }
+
+    @Test
+    void testFetchValuesBatchOnSingleChunk() throws IOException {
+        Sheets service = mock(Sheets.class, RETURNS_DEEP_STUBS);
+        when(service.spreadsheets().values().batchGet(eq("test-id")).setRanges(anyList()).execute())
+                .thenReturn(new BatchGetValuesResponse().setValueRanges(Arrays.asList(new ValueRange())));
+
+        List<List<List<Object>>> result = new GoogleSheetsClient(service).fetchValuesBatch("test-id",
+                Arrays.asList("A1:B2"));
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertNull(result.get(0), "An empty range should be returned as null.");
+    }
+
+    @Test
+    void testStreamValuesDecodesTheResponse() throws IOException {
+        MockHttpTransport transport = new MockHttpTransport.Builder()
+                .setLowLevelHttpResponse(new MockLowLevelHttpResponse()
+                        .setContentType(Json.MEDIA_TYPE)
+                        .setContent("{\"values\":[[\"header\"],[\"Test\"]]}"))
+                .build();
+        Sheets service = new Sheets.Builder(transport, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("test")
+                .build();
+        List<List<Object>> rows = new ArrayList<>();
+
+        int count = new GoogleSheetsClient(service).streamValues(new SheetRequest("test-id", "Sheet1!A1:A2"),
+                (index, row) -> rows.add(row));
+
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("header"), Arrays.asList("Test")), rows);
+        Assertions.assertTrue(transport.getLowLevelHttpRequest().getUrl().contains("fields=values"),
+                "Only the values field should be requested.");
+    }
+
+    @Test
+    void testFetchRevisionReadsTheDriveVersion() throws IOException {
+        MockHttpTransport transport = new MockHttpTransport.Builder()
+                .setLowLevelHttpResponse(new MockLowLevelHttpResponse()
+                        .setContentType(Json.MEDIA_TYPE)
+                        .setContent("{\"version\":\"42\",\"modifiedTime\":\"2025-01-01T00:00:00.000Z\"}"))
+                .build();
+        Sheets service = new Sheets.Builder(transport, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("test")
+                .build();
+
+        Assertions.assertEquals("42", new GoogleSheetsClient(service).fetchRevision("test-id"));
+        Assertions.assertTrue(transport.getLowLevelHttpRequest().getUrl()
+                .startsWith(GoogleSheetsClient.DRIVE_FILES_URL + "/test-id?"));
+    }
+
+    @Test
+    void testDeadlineLowersTheHttpTimeouts() throws IOException {
+        int[] timeouts = new int[2];
+        MockHttpTransport transport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public void setTimeout(int connectTimeout, int readTimeout) {
+                        timeouts[0] = connectTimeout;
+                        timeouts[1] = readTimeout;
+                    }
+                }.setResponse(new MockLowLevelHttpResponse()
+                        .setContentType(Json.MEDIA_TYPE)
+                        .setContent("{\"values\":[[\"Test\"]]}"));
+            }
+        };
+        Sheets service = new Sheets.Builder(transport, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("test")
+                .build();
+        SheetRequest request = new SheetRequest("test-id", "A1");
+        request.setDeadline(Duration.ofMillis(1500));
+
+        List<List<Object>> values = new GoogleSheetsClient(service).fetchValues(request);
+
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("Test")), values);
+        Assertions.assertEquals(1500, timeouts[0]);
+        Assertions.assertEquals(1500, timeouts[1]);
+    }
+}
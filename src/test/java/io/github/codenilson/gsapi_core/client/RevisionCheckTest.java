@@ -0,0 +1,62 @@
+package io.github.codenilson.gsapi_core.client;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+public class RevisionCheckTest {
+
+    private static HttpResponseException error(int status, String content) {
+        return new HttpResponseException.Builder(status, "Error", new HttpHeaders()).setContent(content).build();
+    }
+
+    @Test
+    void testForbiddenDisablesTheCheck() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        when(client.fetchRevision("test-id")).thenThrow(error(403, "insufficientPermissions"));
+        RevisionCheck check = new RevisionCheck(client, "test-id", Duration.ZERO);
+
+        Assertions.assertNull(check.fetch());
+        Assertions.assertNull(check.fetch());
+
+        Assertions.assertTrue(check.isDisabled());
+        verify(client, times(1)).fetchRevision("test-id");
+    }
+
+    @Test
+    void testUnauthorizedAndRateLimitsAreRetried() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        when(client.fetchRevision("test-id"))
+                .thenThrow(error(401, "Unauthorized"))
+                .thenThrow(error(403, "{\"reason\": \"userRateLimitExceeded\"}"))
+                .thenReturn("7");
+        RevisionCheck check = new RevisionCheck(client, "test-id", Duration.ZERO);
+
+        Assertions.assertNull(check.fetch());
+        Assertions.assertNull(check.fetch());
+        Assertions.assertEquals("7", check.fetch());
+        Assertions.assertFalse(check.isDisabled());
+    }
+
+    @Test
+    void testTransientFailuresSuspendTheCheckForTheRetryDelay() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        when(client.fetchRevision("test-id")).thenThrow(error(401, "Unauthorized")).thenReturn("7");
+        RevisionCheck check = new RevisionCheck(client, "test-id", Duration.ofHours(1));
+
+        Assertions.assertNull(check.fetch());
+        Assertions.assertNull(check.fetch(), "The check should not be retried before the delay.");
+
+        verify(client, times(1)).fetchRevision("test-id");
+    }
+}
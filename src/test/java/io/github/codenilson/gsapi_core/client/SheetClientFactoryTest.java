@@ -0,0 +1,59 @@
+package io.github.codenilson.gsapi_core.client;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.services.sheets.v4.Sheets;
+
+public class SheetClientFactoryTest {
+
+    @AfterEach
+    void tearDown() throws IOException {
+        SheetClientFactory.configureSharedTransport(new TransportSettings());
+    }
+
+    @Test
+    void testPooledServicesShareOneTransport() {
+        Sheets first = SheetClientFactory.getPooledSheetsService(null, "first");
+        Sheets second = SheetClientFactory.getPooledSheetsService(null, "second");
+
+        Assertions.assertSame(first.getRequestFactory().getTransport(), second.getRequestFactory().getTransport());
+    }
+
+    @Test
+    void testPooledServicesApplyTheConfiguredTimeouts() throws IOException {
+        TransportSettings settings = new TransportSettings();
+        settings.setConnectTimeout(Duration.ofSeconds(3));
+        settings.setReadTimeout(Duration.ofSeconds(7));
+        SheetClientFactory.configureSharedTransport(settings);
+
+        Sheets service = SheetClientFactory.getPooledSheetsService(null, "test");
+        HttpRequest request = service.getRequestFactory().buildGetRequest(new GenericUrl("https://example.com"));
+
+        Assertions.assertEquals(3000, request.getConnectTimeout());
+        Assertions.assertEquals(7000, request.getReadTimeout());
+    }
+
+    @Test
+    void testIdleConnectionsAreKeptForTheShorterOfTheServerAndConfiguredKeepAlive() {
+        ConnectionKeepAliveStrategy strategy = SheetClientFactory.keepAliveStrategy(60_000);
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+
+        Assertions.assertEquals(60_000, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+        response.setHeader("Keep-Alive", "timeout=5");
+        Assertions.assertEquals(5_000, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+        response.setHeader("Keep-Alive", "timeout=600");
+        Assertions.assertEquals(60_000, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+}
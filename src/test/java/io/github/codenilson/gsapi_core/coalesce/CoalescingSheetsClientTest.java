@@ -0,0 +1,103 @@
+package io.github.codenilson.gsapi_core.coalesce;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+
+public class CoalescingSheetsClientTest {
+
+    private static final List<List<Object>> VALUES = Arrays.asList(Arrays.asList("Test"));
+
+    @Test
+    void testConcurrentIdenticalReadsShareOneCall() throws Exception {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return VALUES;
+        });
+        CoalescingSheetsClient client = new CoalescingSheetsClient(delegate);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        List<CompletableFuture<List<List<Object>>>> reads = new ArrayList<>();
+        String[] ranges = { "Sheet1!A1:B2", "sheet1!a1:b2", "Sheet1!A1:B2", "'Sheet1'!A1:B2" };
+        for (String range : ranges) {
+            reads.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return client.fetchValues(new SheetRequest("test-id", range));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, executor));
+        }
+        while (client.getCoalescedCount() < ranges.length - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (CompletableFuture<List<List<Object>>> read : reads) {
+            Assertions.assertSame(VALUES, read.get(5, TimeUnit.SECONDS));
+        }
+        verify(delegate, times(1)).fetchValues(any(SheetRequest.class));
+        Assertions.assertEquals(0, client.getInFlightCount());
+        executor.shutdown();
+    }
+
+    @Test
+    void testFailuresAreSharedAndNotCached() throws Exception {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        when(delegate.fetchValues(any(SheetRequest.class))).thenThrow(new IOException("boom")).thenReturn(VALUES);
+        CoalescingSheetsClient client = new CoalescingSheetsClient(delegate);
+        SheetRequest request = new SheetRequest("test-id", "A1");
+
+        Assertions.assertThrows(IOException.class, () -> client.fetchValues(request));
+        Assertions.assertSame(VALUES, client.fetchValues(request));
+    }
+
+    @Test
+    void testWritesDetachReadsInFlight() throws Exception {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return VALUES;
+        }).thenReturn(Arrays.asList());
+        CoalescingSheetsClient client = new CoalescingSheetsClient(delegate);
+        SheetRequest request = new SheetRequest("test-id", "A1");
+
+        CompletableFuture<List<List<Object>>> before = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.fetchValues(request);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        while (client.getInFlightCount() == 0) {
+            Thread.sleep(5);
+        }
+        client.clearRange(request);
+
+        Assertions.assertEquals(Arrays.asList(), client.fetchValues(request));
+        release.countDown();
+        Assertions.assertSame(VALUES, before.get(5, TimeUnit.SECONDS));
+        verify(delegate, times(2)).fetchValues(any(SheetRequest.class));
+    }
+}
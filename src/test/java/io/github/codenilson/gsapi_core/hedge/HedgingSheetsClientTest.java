@@ -0,0 +1,74 @@
+package io.github.codenilson.gsapi_core.hedge;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+
+public class HedgingSheetsClientTest {
+
+    private static final List<List<Object>> SLOW = Arrays.asList(Arrays.asList("slow"));
+    private static final List<List<Object>> FAST = Arrays.asList(Arrays.asList("fast"));
+
+    private static Answer<List<List<Object>>> after(long millis, List<List<Object>> values) {
+        return invocation -> {
+            Thread.sleep(millis);
+            return values;
+        };
+    }
+
+    @Test
+    void testSlowReadIsHedgedAndFirstResponseWins() throws IOException {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        when(delegate.fetchValues(any(SheetRequest.class))).thenAnswer(after(5000, SLOW)).thenAnswer(after(0, FAST));
+
+        try (HedgingSheetsClient client = new HedgingSheetsClient(delegate, 1, Duration.ofMillis(50),
+                Duration.ofMillis(1))) {
+            long start = System.nanoTime();
+            Assertions.assertEquals(FAST, client.fetchValues(new SheetRequest("test-id", "A1")));
+            Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+            Assertions.assertEquals(1, client.getHedgeCount());
+            Assertions.assertEquals(1, client.getHedgeWinCount());
+        }
+    }
+
+    @Test
+    void testHedgesAreCappedByTheBudget() throws IOException {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        when(delegate.fetchValues(any(SheetRequest.class))).thenAnswer(after(100, SLOW));
+
+        try (HedgingSheetsClient client = new HedgingSheetsClient(delegate, 0.25, Duration.ofMillis(10),
+                Duration.ofMillis(1))) {
+            for (int i = 0; i < 8; i++) {
+                Assertions.assertEquals(SLOW, client.fetchValues(new SheetRequest("test-id", "A1")));
+            }
+            Assertions.assertEquals(2, client.getHedgeCount(), "A quarter of eight reads may be hedged.");
+        }
+    }
+
+    @Test
+    void testDeadlineBoundsTheRead() throws IOException {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        when(delegate.fetchValues(any(SheetRequest.class))).thenAnswer(after(5000, SLOW));
+        SheetRequest request = new SheetRequest("test-id", "A1");
+        request.setDeadline(Duration.ofMillis(100));
+
+        try (HedgingSheetsClient client = new HedgingSheetsClient(delegate)) {
+            SocketTimeoutException exception = Assertions.assertThrows(SocketTimeoutException.class,
+                    () -> client.fetchValues(request));
+            Assertions.assertTrue(exception.getMessage().contains("A1"));
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package io.github.codenilson.gsapi_core.journal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+
+public class JournalingSheetsClientTest {
+
+    @TempDir
+    Path directory;
+
+    private static final List<List<Object>> ROWS = Arrays.asList(
+            Arrays.<Object>asList("Test", 42L, true),
+            Arrays.<Object>asList("Test2", new BigDecimal("2.5"), null));
+
+    @Test
+    void testPendingWritesSurviveReopeningAndTornRecordsAreDropped() throws IOException {
+        Path path = directory.resolve("writes.journal");
+        try (WriteJournal journal = new WriteJournal(path)) {
+            WriteJournal.Entry done = journal.begin(WriteJournal.Operation.UPDATE, "test-id",
+                    Collections.singletonList(new ValueRange().setRange("A2:C2").setValues(ROWS)));
+            journal.begin(WriteJournal.Operation.APPEND, "test-id",
+                    Collections.singletonList(new ValueRange().setRange("Sheet1!A1:C").setValues(ROWS)));
+            journal.commit(done);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 40, 1, 2, 3 }));
+        }
+
+        try (WriteJournal journal = new WriteJournal(path)) {
+            List<WriteJournal.Entry> pending = journal.getPending();
+            Assertions.assertEquals(1, pending.size());
+            Assertions.assertEquals(WriteJournal.Operation.APPEND, pending.get(0).getOperation());
+            Assertions.assertEquals("Sheet1!A1:C", pending.get(0).getData().get(0).getRange());
+            Assertions.assertEquals(ROWS, pending.get(0).getData().get(0).getValues());
+
+            WriteJournal.Entry next = journal.begin(WriteJournal.Operation.CLEAR, "test-id",
+                    Collections.singletonList(new ValueRange().setRange("A2:C")));
+            Assertions.assertTrue(next.getId() > pending.get(0).getId(), "IDs should keep increasing");
+        }
+    }
+
+    @Test
+    void testTimedOutAppendIsNotDuplicatedWhenTheServerAppliedIt() throws IOException {
+        Path path = directory.resolve("writes.journal");
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        doThrow(new SocketTimeoutException("Read timed out")).when(client).appendValues(any(), anyList());
+        try (WriteJournal journal = new WriteJournal(path)) {
+            JournalingSheetsClient journaling = new JournalingSheetsClient(client, journal);
+            Assertions.assertThrows(SocketTimeoutException.class,
+                    () -> journaling.appendValues(new SheetRequest("test-id", "Sheet1!A1:C"), ROWS));
+            Assertions.assertEquals(1, journal.getPending().size());
+        }
+
+        List<List<Object>> table = new ArrayList<>();
+        table.add(Arrays.asList("header", "header2", "header3"));
+        table.add(Arrays.<Object>asList("Test", new BigDecimal("42"), true));
+        table.add(Arrays.<Object>asList("Test2", new BigDecimal("2.5")));
+        when(client.fetchFormulas(any(SheetRequest.class))).thenReturn(table);
+        doNothing().when(client).appendValues(any(), anyList());
+        try (WriteJournal journal = new WriteJournal(path)) {
+            JournalingSheetsClient journaling = new JournalingSheetsClient(client, journal);
+            journaling.overwriteValues(new SheetRequest("test-id", "Sheet1!A2:C2"), ROWS.subList(0, 1));
+
+            Assertions.assertTrue(journal.getPending().isEmpty());
+        }
+        verify(client, times(1)).appendValues(any(), anyList());
+        verify(client).overwriteValues(any(), anyList());
+    }
+
+    @Test
+    void testAppendToASingleCellIsCheckedAgainstTheWholeTable() throws IOException {
+        Path path = directory.resolve("writes.journal");
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        doThrow(new SocketTimeoutException("Read timed out")).when(client).appendValues(any(), anyList());
+        try (WriteJournal journal = new WriteJournal(path)) {
+            JournalingSheetsClient journaling = new JournalingSheetsClient(client, journal);
+            Assertions.assertThrows(SocketTimeoutException.class,
+                    () -> journaling.appendValues(new SheetRequest("test-id", "Sheet1!A1"), ROWS));
+        }
+
+        when(client.fetchFormulas(any(SheetRequest.class))).thenAnswer(invocation -> {
+            String range = ((SheetRequest) invocation.getArgument(0)).getRange();
+            return range.equals("Sheet1")
+                    ? Arrays.asList(Arrays.asList("header"), Arrays.asList("Test", "42", "TRUE"),
+                            Arrays.asList("Test2", "2.5"))
+                    : Arrays.asList(Arrays.asList("header"));
+        });
+        try (WriteJournal journal = new WriteJournal(path)) {
+            Assertions.assertEquals(1, new JournalingSheetsClient(client, journal).replay());
+            Assertions.assertTrue(journal.getPending().isEmpty());
+        }
+        verify(client, times(1)).appendValues(any(), anyList());
+        verify(client).fetchFormulas(argThat(request -> request.getRange().equals("Sheet1")));
+    }
+
+    @Test
+    void testAppendedFormulasAreComparedWithTheirFormulas() throws IOException {
+        Path path = directory.resolve("writes.journal");
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        List<List<Object>> rows = Collections.singletonList(Arrays.<Object>asList("Total", "=SUM(B2:B3)"));
+        doThrow(new SocketTimeoutException("Read timed out")).when(client).appendValues(any(), anyList());
+        try (WriteJournal journal = new WriteJournal(path)) {
+            JournalingSheetsClient journaling = new JournalingSheetsClient(client, journal);
+            Assertions.assertThrows(SocketTimeoutException.class,
+                    () -> journaling.appendValues(new SheetRequest("test-id", "Sheet1!A1:B"), rows));
+        }
+
+        when(client.fetchFormulas(any(SheetRequest.class))).thenReturn(Arrays.asList(
+                Arrays.asList("header", "header2"), Arrays.asList("Total", "=SUM(B2:B3)")));
+        try (WriteJournal journal = new WriteJournal(path)) {
+            Assertions.assertEquals(1, new JournalingSheetsClient(client, journal).replay());
+            Assertions.assertTrue(journal.getPending().isEmpty());
+        }
+        verify(client, times(1)).appendValues(any(), anyList());
+        verify(client, never()).fetchValues(any());
+    }
+
+    @Test
+    void testLostAppendIsReplayedAndRejectedWritesAreDropped() throws IOException {
+        Path path = directory.resolve("writes.journal");
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        doThrow(new SocketTimeoutException("Read timed out")).when(client).appendValues(any(), anyList());
+        doThrow(new HttpResponseException.Builder(400, "Bad Request", new HttpHeaders()).build())
+                .when(client).clearRange(any());
+        try (WriteJournal journal = new WriteJournal(path)) {
+            JournalingSheetsClient journaling = new JournalingSheetsClient(client, journal);
+            Assertions.assertThrows(IOException.class,
+                    () -> journaling.appendValues(new SheetRequest("test-id", "Sheet1!A1:C"), ROWS));
+            doNothing().when(client).appendValues(any(), anyList());
+            when(client.fetchFormulas(any(SheetRequest.class))).thenReturn(
+                    Arrays.asList(Arrays.asList("header", "header2", "header3")));
+
+            Assertions.assertThrows(HttpResponseException.class,
+                    () -> journaling.clearRange(new SheetRequest("test-id", "Sheet1!Z1")));
+
+            Assertions.assertTrue(journal.getPending().isEmpty(), "The append should be replayed, the clear dropped");
+            Assertions.assertEquals(0, journaling.replay());
+        }
+        verify(client, times(2)).appendValues(any(), eq(ROWS));
+    }
+
+    @Test
+    void testWriteBehindKeepsRejectedAndThrottledWrites() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        doThrow(new HttpResponseException.Builder(400, "Bad Request", new HttpHeaders()).build())
+                .when(client).clearRange(any());
+        doThrow(new HttpResponseException.Builder(429, "Too Many Requests", new HttpHeaders()).build())
+                .when(client).overwriteValues(any(), anyList());
+        List<WriteJournal.Entry> reported = Collections.synchronizedList(new ArrayList<>());
+
+        try (WriteJournal journal = new WriteJournal(directory.resolve("writes.journal"));
+                JournalingSheetsClient journaling = new JournalingSheetsClient(client, journal, true)) {
+            journaling.setErrorHandler((entry, e) -> reported.add(entry));
+            journaling.clearRange(new SheetRequest("test-id", "Sheet1!Z1"));
+            journaling.flush();
+
+            Assertions.assertEquals(1, journaling.getRejected().size());
+            Assertions.assertEquals(1, journal.getPending().size(), "A rejected write should stay in the journal");
+            journaling.acknowledge(journaling.getRejected().get(0));
+            Assertions.assertTrue(journaling.getRejected().isEmpty());
+            Assertions.assertTrue(journal.getPending().isEmpty());
+
+            journaling.overwriteValues(new SheetRequest("test-id", "A2"), ROWS.subList(0, 1));
+            journaling.flush();
+
+            Assertions.assertTrue(journaling.getRejected().isEmpty());
+            Assertions.assertEquals(1, journal.getPending().size(), "A throttled write should stay pending");
+            Assertions.assertEquals(2, reported.size());
+        }
+    }
+
+    @Test
+    void testWriteBehindReturnsOnceRecordedAndSendsInOrder() throws Exception {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            sent.add(((SheetRequest) invocation.getArgument(0)).getRange());
+            return null;
+        }).when(client).overwriteValues(any(), anyList());
+
+        try (WriteJournal journal = new WriteJournal(directory.resolve("writes.journal"));
+                JournalingSheetsClient journaling = new JournalingSheetsClient(client, journal, true)) {
+            for (int row = 2; row <= 4; row++) {
+                journaling.overwriteValues(new SheetRequest("test-id", "A" + row), ROWS.subList(0, 1));
+            }
+            Assertions.assertEquals(3, journal.getPending().size(), "Writes should be on disk before being sent");
+
+            release.countDown();
+            journaling.flush();
+
+            Assertions.assertEquals(Arrays.asList("A2", "A3", "A4"), sent);
+            Assertions.assertTrue(journal.getPending().isEmpty());
+        }
+        verify(client, never()).appendValues(any(), anyList());
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.codenilson.gsapi_core.mapping;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+public class RowMapperTest {
+
+    enum Status {
+        ACTIVE, INACTIVE
+    }
+
+    record Person(String name, @SheetColumn("Age") int age, Status status, LocalDate joined) {
+    }
+
+    static class Product {
+        @SheetColumn(value = "SKU", index = 2)
+        private String sku;
+        @SheetColumn("Price")
+        private BigDecimal price;
+        @SheetColumn("In stock")
+        private Boolean inStock;
+        private String ignored;
+    }
+
+    @Test
+    void testRecordsAreBoundByHeader() {
+        List<List<Object>> values = Arrays.asList(
+                Arrays.asList("joined", " age ", "name", "status", "extra"),
+                Arrays.asList("2024-01-31", "42", "Ana", "ACTIVE", "x"),
+                Arrays.asList("", new BigDecimal("7"), "Bia"));
+
+        List<Person> people = RowMapper.of(Person.class).decodeAll(values);
+
+        Assertions.assertEquals(Arrays.asList(
+                new Person("Ana", 42, Status.ACTIVE, LocalDate.of(2024, 1, 31)),
+                new Person("Bia", 7, null, null)), people);
+    }
+
+    @Test
+    void testClassesAreEncodedAndDecodedByPosition() {
+        RowMapper<Product> mapper = RowMapper.of(Product.class);
+        Product product = new Product();
+        product.sku = "P-1";
+        product.price = new BigDecimal("9.90");
+
+        List<Object> row = mapper.encode(product);
+
+        Assertions.assertEquals(Arrays.asList("Price", "In stock", "SKU"), mapper.headerRow());
+        Assertions.assertEquals(Arrays.asList(new BigDecimal("9.90"), "", "P-1"), row);
+        Product decoded = mapper.decoder().decode(Arrays.asList("1.5", "true", "P-2"));
+        Assertions.assertEquals("P-2", decoded.sku);
+        Assertions.assertEquals(new BigDecimal("1.5"), decoded.price);
+        Assertions.assertEquals(Boolean.TRUE, decoded.inStock);
+        Assertions.assertNull(decoded.ignored);
+        Assertions.assertSame(mapper, RowMapper.of(Product.class));
+    }
+
+    @Test
+    void testStreamingDecodeUsesTheFirstRowAsHeader() throws IOException {
+        List<Person> people = new ArrayList<>();
+        RowConsumer consumer = RowMapper.of(Person.class).decoding(people::add);
+
+        consumer.accept(0, Arrays.asList("name", "age"));
+        consumer.accept(1, Arrays.asList("Ana", new BigDecimal("42")));
+
+        Assertions.assertEquals(Arrays.asList(new Person("Ana", 42, null, null)), people);
+    }
+
+    @Test
+    void testInvalidCellsNameTheColumn() {
+        RowDecoder<Person> decoder = RowMapper.of(Person.class).decoder(Arrays.asList("name", "Age"));
+
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> decoder.decode(Arrays.asList("Ana", "forty")));
+        Assertions.assertTrue(exception.getMessage().contains("'Age'"));
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.codenilson.gsapi_core.metrics;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.sheets.v4.Sheets;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.ratelimit.AdaptiveRateLimiter;
+import io.github.codenilson.gsapi_core.ratelimit.RateLimitedSheetsClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedSheetsClientTest {
+
+    private static class RecordingMetrics implements SheetsMetrics {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void callStarted(SheetsOperation operation, String spreadsheetId) {
+            events.add("start " + operation + " " + spreadsheetId);
+        }
+
+        @Override
+        public void callFinished(SheetsOperation operation, String spreadsheetId, long nanos, boolean success,
+                long rows, long cells) {
+            events.add("finish " + operation + " " + spreadsheetId + " " + success + " " + rows + " " + cells);
+        }
+
+        @Override
+        public void exchange(SheetsOperation operation, String spreadsheetId, int status, long requestBytes,
+                long responseBytes) {
+            events.add("exchange " + operation + " " + spreadsheetId + " " + status + " " + responseBytes);
+        }
+
+        @Override
+        public void retried(SheetsOperation operation, String spreadsheetId, int status) {
+            events.add("retry " + operation + " " + status);
+        }
+
+        @Override
+        public void throttled(SheetsOperation operation, String spreadsheetId) {
+            events.add("throttled " + operation);
+        }
+    }
+
+    @Test
+    void testCallsAreTimedAndRowsAndCellsCounted() throws IOException {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        List<List<Object>> values = Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"));
+        when(delegate.fetchValues(any(SheetRequest.class))).thenReturn(values);
+        doThrow(new IOException("boom")).when(delegate).clearRange(any(SheetRequest.class));
+        RecordingMetrics metrics = new RecordingMetrics();
+        InstrumentedSheetsClient client = new InstrumentedSheetsClient(delegate, metrics);
+
+        Assertions.assertEquals(values, client.fetchValues(new SheetRequest("test-id", "A1:B2")));
+        Assertions.assertThrows(IOException.class, () -> client.clearRange(new SheetRequest("test-id", "A1")));
+
+        Assertions.assertEquals(Arrays.asList(
+                "start FETCH test-id",
+                "finish FETCH test-id true 2 3",
+                "start CLEAR test-id",
+                "finish CLEAR test-id false 0 0"), metrics.events);
+    }
+
+    @Test
+    void testExchangesAreMeteredFromTheHttpLayer() throws IOException {
+        MockHttpTransport transport = new MockHttpTransport.Builder()
+                .setLowLevelHttpResponse(new MockLowLevelHttpResponse()
+                        .setContentType(Json.MEDIA_TYPE)
+                        .addHeader("Content-Length", "27")
+                        .setContent("{\"values\":[[\"a\"],[\"b\"]]}  "))
+                .build();
+        RecordingMetrics metrics = new RecordingMetrics();
+        Sheets service = new Sheets.Builder(transport, GsonFactory.getDefaultInstance(),
+                new MeteringRequestInitializer(null, metrics))
+                .setApplicationName("test")
+                .build();
+
+        new GoogleSheetsClient(service).fetchValues(new SheetRequest("test-id", "A1:A2"));
+
+        Assertions.assertEquals(Arrays.asList("exchange FETCH test-id 200 27"), metrics.events);
+    }
+
+    @Test
+    void testRetriesAndThrottlingAreReported() throws IOException {
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        when(delegate.fetchValues(any(SheetRequest.class)))
+                .thenThrow(new HttpResponseException.Builder(429, "error", new HttpHeaders()).build())
+                .thenReturn(Arrays.asList());
+        RecordingMetrics metrics = new RecordingMetrics();
+        RateLimitedSheetsClient client = new RateLimitedSheetsClient(delegate,
+                Arrays.asList(new AdaptiveRateLimiter(1000, 100)), 3, Duration.ofMillis(1), Duration.ofMillis(5));
+        client.setMetrics(metrics);
+
+        client.fetchValues(new SheetRequest("test-id", "A1"));
+
+        Assertions.assertEquals(Arrays.asList("throttled FETCH", "retry FETCH 429"), metrics.events);
+    }
+
+    @Test
+    void testMicrometerBindingRecordsMeters() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GoogleSheetsClient delegate = mock(GoogleSheetsClient.class);
+        when(delegate.fetchValues(any(SheetRequest.class))).thenReturn(Arrays.asList(Arrays.asList("a", "b")));
+        InstrumentedSheetsClient client = new InstrumentedSheetsClient(delegate,
+                new MicrometerSheetsMetrics(registry));
+
+        client.fetchValues(new SheetRequest("test-id", "A1:B1"));
+
+        Assertions.assertEquals(1, registry.get("gsapi.calls").tag("operation", "fetch")
+                .tag("spreadsheet", "test-id").tag("outcome", "success").timer().count());
+        Assertions.assertTrue(registry.get("gsapi.calls").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+        Assertions.assertEquals(2.0, registry.get("gsapi.cells").counter().count());
+        Assertions.assertEquals(0.0, registry.get("gsapi.calls.active").tag("operation", "fetch").gauge().value());
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.codenilson.gsapi_core.models;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ColumnarSheetTest {
+
+    private static final List<List<Object>> VALUES = Arrays.asList(
+            Arrays.asList("name", "count", "price", "active", "code"),
+            Arrays.asList("apple", "3", "1.5", "TRUE", "007"),
+            Arrays.asList("pear", "", "2", "FALSE", "12"),
+            Arrays.asList("apple", "-4", "", "TRUE"));
+
+    @Test
+    void testColumnTypesAreInferred() {
+        ColumnarSheet sheet = ColumnarSheet.fromValues(VALUES);
+
+        Assertions.assertEquals(3, sheet.getRowCount());
+        Assertions.assertEquals(5, sheet.getColumnCount());
+        Assertions.assertEquals(ColumnType.STRING, sheet.getColumnType(0));
+        Assertions.assertEquals(ColumnType.LONG, sheet.getColumnType(1));
+        Assertions.assertEquals(ColumnType.DOUBLE, sheet.getColumnType(2));
+        Assertions.assertEquals(ColumnType.BOOLEAN, sheet.getColumnType(3));
+        Assertions.assertEquals(ColumnType.STRING, sheet.getColumnType(4), "Leading zeros must not be dropped.");
+    }
+
+    @Test
+    void testTypedAccessors() {
+        ColumnarSheet sheet = ColumnarSheet.fromValues(VALUES);
+
+        Assertions.assertEquals(-4, sheet.getLong(2, 1));
+        Assertions.assertTrue(sheet.isNull(1, 1));
+        Assertions.assertEquals(-1, sheet.longStream(1).sum());
+        Assertions.assertEquals(3.5, sheet.doubleStream(2).sum());
+        Assertions.assertTrue(Double.isNaN(sheet.getDouble(2, 2)));
+        Assertions.assertFalse(sheet.getBoolean(1, 3));
+        Assertions.assertEquals(sheet.getStringCode(0, 0), sheet.getStringCode(2, 0));
+        Assertions.assertEquals(Arrays.asList("apple", "pear"), sheet.getDictionary(0));
+        Assertions.assertEquals("007", sheet.getString(0, 4));
+        Assertions.assertEquals(2, sheet.getColumnIndex("price"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sheet.getLong(0, 0));
+    }
+
+    @Test
+    void testRowViewMatchesDataValue() {
+        ColumnarSheet sheet = ColumnarSheet.fromValues(VALUES);
+
+        Assertions.assertEquals(new DataValue(Arrays.asList("pear", "", 2.0, false, "12"), 2), sheet.row(1));
+        Assertions.assertEquals(new DataValue(Arrays.asList("apple", -4L, "", true), 3), sheet.row(2));
+    }
+
+    @Test
+    void testBuilderAcceptsUnformattedValues() {
+        ColumnarSheet sheet = new ColumnarSheet.Builder()
+                .setHeaders(Arrays.asList("id", "amount"))
+                .addRow(Arrays.asList(new BigDecimal("1"), new BigDecimal("10.25")))
+                .addRow(Arrays.asList(new BigDecimal("2"), new BigDecimal("3"), "extra"))
+                .build();
+
+        Assertions.assertEquals(ColumnType.LONG, sheet.getColumnType(0));
+        Assertions.assertEquals(ColumnType.DOUBLE, sheet.getColumnType(1));
+        Assertions.assertEquals(13.25, sheet.doubleStream(1).sum());
+        Assertions.assertEquals(Arrays.asList("id", "amount", ""), sheet.getHeaders());
+        Assertions.assertTrue(sheet.isNull(0, 2));
+    }
+
+    @Test
+    void testColumnsArePromotedWithoutLosingTheirText() {
+        ColumnarSheet.Builder builder = new ColumnarSheet.Builder()
+                .setHeaders(Arrays.asList("amount", "flag", "id"));
+        builder.addRow(Arrays.asList("3", "TRUE", "123456789012345678"));
+        builder.addRow(Arrays.asList("2.50", Boolean.FALSE, "1.5"));
+        builder.addRow(Arrays.asList("1e-3", "", "x"));
+        builder.addRow(Arrays.asList("", "n/a"));
+        builder.addRow(Arrays.asList("n/a"));
+        ColumnarSheet sheet = builder.build();
+
+        Assertions.assertEquals(ColumnType.STRING, sheet.getColumnType(0));
+        Assertions.assertEquals(Arrays.asList("3", "2.50", "1e-3", "n/a"), sheet.getDictionary(0));
+        Assertions.assertTrue(sheet.isNull(3, 0));
+        Assertions.assertEquals(-1, sheet.getStringCode(3, 0));
+        Assertions.assertEquals(Arrays.asList("TRUE", "false", "n/a"), sheet.getDictionary(1));
+        Assertions.assertEquals(Arrays.asList("123456789012345678", "1.5", "x"), sheet.getDictionary(2),
+                "Integers beyond double precision must keep every digit.");
+        Assertions.assertTrue(sheet.isNull(4, 2));
+    }
+
+    @Test
+    void testIntegerColumnsArePromotedToDouble() {
+        ColumnarSheet sheet = ColumnarSheet.fromValues(Arrays.asList(
+                Arrays.asList("price"), Arrays.asList("3"), Arrays.asList(), Arrays.asList("2.5")));
+
+        Assertions.assertEquals(ColumnType.DOUBLE, sheet.getColumnType(0));
+        Assertions.assertEquals(3.0, sheet.getDouble(0, 0));
+        Assertions.assertTrue(sheet.isNull(1, 0));
+        Assertions.assertEquals(5.5, sheet.doubleStream(0).sum());
+    }
+
+    @Test
+    void testNonAsciiDigitsStayText() {
+        ColumnarSheet sheet = ColumnarSheet.fromValues(Arrays.asList(
+                Arrays.asList("amount"), Arrays.asList("\u0663\u0664.5"), Arrays.asList("\u0661e\u0662")));
+
+        Assertions.assertEquals(ColumnType.STRING, sheet.getColumnType(0));
+        Assertions.assertEquals("\u0663\u0664.5", sheet.getValue(0, 0));
+    }
+}
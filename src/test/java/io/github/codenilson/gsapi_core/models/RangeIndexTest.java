@@ -0,0 +1,71 @@
+package io.github.codenilson.gsapi_core.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RangeIndexTest {
+
+    @Test
+    void testFindOverlapping() {
+        RangeIndex<String> index = new RangeIndex<>();
+        index.add(SheetRange.parse("Sheet1!A1:C10"), "first");
+        index.add(SheetRange.parse("Sheet1!A20:C30"), "second");
+        index.add(SheetRange.parse("Sheet1!E1:E100"), "third");
+        index.add(SheetRange.parse("Sheet2!A1:C10"), "other sheet");
+
+        Assertions.assertEquals(Arrays.asList("first"), index.findOverlapping(SheetRange.parse("Sheet1!B5:D15")));
+        Assertions.assertEquals(Arrays.asList("first", "third", "second"),
+                index.findOverlapping(SheetRange.parse("Sheet1!A:Z")));
+        Assertions.assertTrue(index.findOverlapping(SheetRange.parse("Sheet1!D11:D19")).isEmpty());
+    }
+
+    @Test
+    void testRemove() {
+        RangeIndex<String> index = new RangeIndex<>();
+        SheetRange range = SheetRange.parse("A1:B2");
+        index.add(range, "a");
+        index.add(range, "b");
+
+        Assertions.assertTrue(index.remove(range, "a"));
+        Assertions.assertFalse(index.remove(range, "a"));
+        Assertions.assertEquals(Arrays.asList("b"), index.findOverlapping(range));
+        Assertions.assertEquals(1, index.size());
+    }
+
+    @Test
+    void testMatchesABruteForceScan() {
+        Random random = new Random(42);
+        RangeIndex<Integer> index = new RangeIndex<>();
+        List<SheetRange> ranges = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int row = 1 + random.nextInt(1000);
+            int column = 1 + random.nextInt(20);
+            SheetRange range = new SheetRange("S", row, column, row + random.nextInt(50), column + random.nextInt(5));
+            ranges.add(range);
+            index.add(range, i);
+        }
+        for (int i = 0; i < 250; i += 2) {
+            index.remove(ranges.get(i), i);
+        }
+
+        for (int query = 0; query < 100; query++) {
+            int row = 1 + random.nextInt(1000);
+            SheetRange probe = new SheetRange("s", row, 1 + random.nextInt(20), row + random.nextInt(100), 25);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                if ((i >= 250 || i % 2 == 1) && ranges.get(i).overlaps(probe)) {
+                    expected.add(i);
+                }
+            }
+            List<Integer> actual = index.findOverlapping(probe);
+            Collections.sort(actual);
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+}
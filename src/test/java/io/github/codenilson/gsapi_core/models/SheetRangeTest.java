@@ -0,0 +1,66 @@
+package io.github.codenilson.gsapi_core.models;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SheetRangeTest {
+
+    @Test
+    void testParseBoundedRange() {
+        SheetRange range = SheetRange.parse("Sheet1!$A$2:ab10");
+
+        Assertions.assertEquals("Sheet1", range.getSheetName());
+        Assertions.assertEquals(2, range.getStartRow());
+        Assertions.assertEquals(1, range.getStartColumn());
+        Assertions.assertEquals(10, range.getEndRow());
+        Assertions.assertEquals(28, range.getEndColumn());
+        Assertions.assertEquals("Sheet1!A2:AB10", range.toA1());
+    }
+
+    @Test
+    void testParseOpenEndedRanges() {
+        Assertions.assertEquals(SheetRange.UNBOUNDED, SheetRange.parse("A:C").getEndRow());
+        Assertions.assertEquals(SheetRange.UNBOUNDED, SheetRange.parse("2:5").getEndColumn());
+        Assertions.assertEquals("'My ''Sheet'''", SheetRange.parse("'My ''Sheet'''").toA1());
+        Assertions.assertEquals("A:C", SheetRange.parse("A1:C").toA1(), "Equivalent ranges should normalize.");
+    }
+
+    @Test
+    void testInvalidRangesAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SheetRange.parse("MyNamedRange"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SheetRange.parse("C1:A1"));
+        Assertions.assertNull(SheetRange.tryParse("A1:"));
+    }
+
+    @Test
+    void testOverlapAndContainment() {
+        SheetRange range = SheetRange.parse("Sheet1!A1:C10");
+
+        Assertions.assertTrue(range.overlaps(SheetRange.parse("sheet1!C10:D20")));
+        Assertions.assertFalse(range.overlaps(SheetRange.parse("Sheet1!D1:D20")));
+        Assertions.assertFalse(range.overlaps(SheetRange.parse("Sheet2!A1:C10")));
+        Assertions.assertTrue(range.contains(SheetRange.parse("Sheet1!B2:C3")));
+        Assertions.assertEquals(SheetRange.parse("Sheet1!B5:C10"), range.intersect(SheetRange.parse("Sheet1!B5:Z99")));
+    }
+
+    @Test
+    void testSplitAndMerge() {
+        List<SheetRange> parts = SheetRange.parse("A1:B5").splitRows(2);
+
+        Assertions.assertEquals(Arrays.asList(SheetRange.parse("A1:B2"), SheetRange.parse("A3:B4"),
+                SheetRange.parse("A5:B5")), parts);
+        Assertions.assertEquals(SheetRange.parse("A1:B4"), parts.get(0).merge(parts.get(1)));
+        Assertions.assertNull(parts.get(0).merge(parts.get(2)), "Ranges with a gap cannot be merged.");
+    }
+
+    @Test
+    void testColumnName() {
+        Assertions.assertEquals("A", SheetRange.columnName(1));
+        Assertions.assertEquals("Z", SheetRange.columnName(26));
+        Assertions.assertEquals("AA", SheetRange.columnName(27));
+        Assertions.assertEquals("ZZZ", SheetRange.columnName(SheetRange.MAX_COLUMN));
+    }
+}
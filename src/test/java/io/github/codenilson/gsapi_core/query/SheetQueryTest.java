@@ -0,0 +1,140 @@
+package io.github.codenilson.gsapi_core.query;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.ColumnarSheet;
+
+public class SheetQueryTest {
+
+    private static ColumnarSheet products() {
+        return ColumnarSheet.fromValues(Arrays.asList(
+                Arrays.asList("name", "category", "price", "stock"),
+                Arrays.asList("Pen", "office", "2.5", "100"),
+                Arrays.asList("Desk", "furniture", "120", "4"),
+                Arrays.asList("Paper", "office", "8", ""),
+                Arrays.asList("Chair", "furniture", "80", "10")));
+    }
+
+    @Test
+    void testFiltersAndProjectsRows() {
+        ColumnarSheet result = new SheetQuery()
+                .select("name", "price")
+                .where(Condition.and(Condition.eq("category", "office"), Condition.gt("price", 5)))
+                .execute(products());
+
+        Assertions.assertEquals(Arrays.asList("name", "price"), result.getHeaders());
+        Assertions.assertEquals(1, result.getRowCount());
+        Assertions.assertEquals("Paper", result.getValue(0, 0));
+        Assertions.assertEquals(8.0, result.getValue(0, 1));
+    }
+
+    @Test
+    void testGroupsAndAggregatesInOrderOfFirstAppearance() {
+        ColumnarSheet result = new SheetQuery()
+                .groupBy("category")
+                .aggregate(Aggregation.count(), Aggregation.sum("price"), Aggregation.avg("stock"),
+                        Aggregation.max("price").as("top"))
+                .execute(products());
+
+        Assertions.assertEquals(Arrays.asList("category", "count", "sum(price)", "avg(stock)", "top"),
+                result.getHeaders());
+        Assertions.assertEquals(Arrays.asList("office", 2L, 10.5, 100.0, 8.0), row(result, 0));
+        Assertions.assertEquals(Arrays.asList("furniture", 2L, 200.0, 7.0, 120.0), row(result, 1));
+    }
+
+    @Test
+    void testLargeSheetsGiveTheSameResultInParallel() {
+        List<List<Object>> values = new ArrayList<>();
+        values.add(Arrays.asList("group", "value"));
+        for (int i = 0; i < SheetQuery.PARALLEL_THRESHOLD * 3; i++) {
+            values.add(Arrays.asList("g" + (i % 7), String.valueOf(i)));
+        }
+
+        ColumnarSheet result = new SheetQuery()
+                .where(Condition.ge("value", 10))
+                .groupBy("group")
+                .aggregate(Aggregation.count(), Aggregation.min("value"))
+                .execute(ColumnarSheet.fromValues(values));
+
+        Assertions.assertEquals(7, result.getRowCount());
+        Assertions.assertEquals(Arrays.asList("g3", 4285L, 10.0), row(result, 0));
+    }
+
+    @Test
+    void testPushesColumnsAndRowsDownIntoTheFetchedRanges() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        when(client.fetchValues(any(SheetRequest.class))).thenReturn(Arrays.asList(
+                Arrays.asList("name", "category", "price", "stock", "notes")));
+        when(client.fetchUnformattedValuesBatch(eq("test-id"), any())).thenReturn(Arrays.asList(
+                Arrays.asList(Arrays.asList("Desk"), Arrays.asList("Paper")),
+                Arrays.asList(Arrays.<Object>asList(new BigDecimal("1234"), new BigDecimal("4")),
+                        Arrays.<Object>asList(new BigDecimal("8")))));
+
+        ColumnarSheet result = new SheetQuery()
+                .select("name", "price")
+                .where(Condition.isNotEmpty("stock"))
+                .rows(1, 2)
+                .execute(client, new SheetRequest("test-id", "Products!A1:E"));
+
+        verify(client).fetchValues(argThat(request -> request.getRange().equals("Products!A1:E1")));
+        verify(client).fetchUnformattedValuesBatch("test-id", Arrays.asList("Products!A3:A4", "Products!C3:D4"));
+        verify(client, never()).fetchValues(argThat(request -> request.getRange().equals("Products!A1:E")));
+        Assertions.assertEquals(1, result.getRowCount());
+        Assertions.assertEquals(Arrays.asList("Desk", 1234L), row(result, 0));
+    }
+
+    @Test
+    void testCountsEveryRowWhenNoColumnIsRead() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        when(client.fetchValues(any(SheetRequest.class))).thenReturn(Arrays.asList(
+                Arrays.asList("name", "category")));
+        when(client.fetchUnformattedValuesBatch(eq("test-id"), any())).thenReturn(Arrays.asList(
+                Arrays.asList(Arrays.asList("Pen", "office"), Arrays.asList("", "furniture"))));
+
+        ColumnarSheet counted = new SheetQuery()
+                .aggregate(Aggregation.count())
+                .execute(client, new SheetRequest("test-id", "Products!A1:B"));
+        ColumnarSheet windowed = new SheetQuery()
+                .aggregate(Aggregation.count())
+                .rows(0, 10)
+                .execute(client, new SheetRequest("test-id", "Products!A1:B"));
+
+        verify(client).fetchUnformattedValuesBatch("test-id", Arrays.asList("Products!A2:B"));
+        verify(client).fetchUnformattedValuesBatch("test-id", Arrays.asList("Products!A2:B11"));
+        Assertions.assertEquals(2L, counted.getValue(0, 0));
+        Assertions.assertEquals(2L, windowed.getValue(0, 0));
+    }
+
+    @Test
+    void testRejectsUnknownColumns() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SheetQuery().select("missing").execute(products()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SheetQuery().groupBy("category").aggregate(Aggregation.sum("name")).execute(products()));
+    }
+
+    private static List<Object> row(ColumnarSheet sheet, int row) {
+        List<Object> values = new ArrayList<>();
+        for (int column = 0; column < sheet.getColumnCount(); column++) {
+            values.add(sheet.getValue(row, column));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.codenilson.gsapi_core.ratelimit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+
+public class RateLimitedSheetsClientTest {
+
+    private GoogleSheetsClient delegate;
+    private AdaptiveRateLimiter limiter;
+    private RateLimitedSheetsClient client;
+
+    private static HttpResponseException error(int status) {
+        return new HttpResponseException.Builder(status, "error", new HttpHeaders().setRetryAfter("0")).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(GoogleSheetsClient.class);
+        limiter = new AdaptiveRateLimiter(1000, 100);
+        client = new RateLimitedSheetsClient(delegate, Arrays.asList(limiter), 3, Duration.ofMillis(1),
+                Duration.ofMillis(5));
+    }
+
+    @Test
+    void testThrottledCallsAreRetriedAndLowerTheRate() throws IOException {
+        List<List<Object>> values = Arrays.asList(Arrays.asList("Test"));
+        when(delegate.fetchValues(any(SheetRequest.class))).thenThrow(error(429)).thenReturn(values);
+
+        Assertions.assertEquals(values, client.fetchValues(new SheetRequest("test-id", "A1")));
+        verify(delegate, times(2)).fetchValues(any(SheetRequest.class));
+        Assertions.assertTrue(limiter.getRate() < 1000, "A 429 should lower the rate.");
+    }
+
+    @Test
+    void testRetriesStopAfterTheLimit() throws IOException {
+        when(delegate.fetchValues(any(SheetRequest.class))).thenThrow(error(429));
+
+        HttpResponseException exception = Assertions.assertThrows(HttpResponseException.class,
+                () -> client.fetchValues(new SheetRequest("test-id", "A1")));
+        Assertions.assertEquals(429, exception.getStatusCode());
+        verify(delegate, times(4)).fetchValues(any(SheetRequest.class));
+    }
+
+    @Test
+    void testAppendsAreNotRetriedOnServerErrors() throws IOException {
+        doThrow(error(500)).when(delegate).appendValues(any(SheetRequest.class), anyList());
+
+        Assertions.assertThrows(HttpResponseException.class,
+                () -> client.appendValues(new SheetRequest("test-id", "A1"), Arrays.asList()));
+        verify(delegate, times(1)).appendValues(any(SheetRequest.class), anyList());
+    }
+
+    @Test
+    void testClientErrorsAreNotRetried() throws IOException {
+        doThrow(error(400)).when(delegate).clearRange(any(SheetRequest.class));
+
+        Assertions.assertThrows(HttpResponseException.class, () -> client.clearRange(new SheetRequest("test-id", "A1")));
+        verify(delegate, times(1)).clearRange(any(SheetRequest.class));
+    }
+
+    @Test
+    void testEveryBatchGetCallTakesAPermit() throws IOException {
+        AdaptiveRateLimiter counting = mock(AdaptiveRateLimiter.class);
+        RateLimitedSheetsClient limited = new RateLimitedSheetsClient(delegate, Arrays.asList(counting), 3,
+                Duration.ofMillis(1), Duration.ofMillis(5));
+        List<String> ranges = new ArrayList<>();
+        for (int i = 1; i <= GoogleSheetsClient.MAX_RANGES_PER_BATCH_GET + 50; i++) {
+            ranges.add("A" + i);
+        }
+        when(delegate.fetchValuesBatch(eq("test-id"), anyList())).thenAnswer(invocation -> {
+            List<List<List<Object>>> result = new ArrayList<>();
+            for (int i = 0; i < invocation.<List<String>>getArgument(1).size(); i++) {
+                result.add(null);
+            }
+            return result;
+        });
+
+        Assertions.assertEquals(ranges.size(), limited.fetchValuesBatch("test-id", ranges).size());
+        verify(delegate).fetchValuesBatch("test-id", ranges.subList(0, GoogleSheetsClient.MAX_RANGES_PER_BATCH_GET));
+        verify(delegate).fetchValuesBatch("test-id",
+                ranges.subList(GoogleSheetsClient.MAX_RANGES_PER_BATCH_GET, ranges.size()));
+        verify(counting, times(2)).acquire();
+
+        limited.ensureGridSize("test-id", "Sheet1", 10, 2);
+        verify(counting, times(4)).acquire();
+    }
+
+    @Test
+    void testLimiterPacesRequests() throws IOException {
+        AdaptiveRateLimiter slow = new AdaptiveRateLimiter(20, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            slow.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Assertions.assertTrue(elapsedMillis >= 150, "Five permits at 20/s should take about 200 ms: " + elapsedMillis);
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.codenilson.gsapi_core.replica;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+public class ReplicaStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private GoogleSheetsClient client;
+    private List<List<Object>> sheet;
+    private final SheetRequest request = new SheetRequest("test-id", "Sheet1!A1:C");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = mock(GoogleSheetsClient.class);
+        sheet = new ArrayList<>(Arrays.asList(
+                Arrays.asList("name", "price", "active"),
+                Arrays.asList("Ana", new BigDecimal("1.50"), true),
+                Arrays.asList("Bia", new BigDecimal("2"), false),
+                Arrays.asList("Caio")));
+        when(client.streamValues(any(SheetRequest.class), any(RowConsumer.class))).thenAnswer(invocation -> {
+            RowConsumer consumer = invocation.getArgument(1);
+            for (int index = 0; index < sheet.size(); index++) {
+                consumer.accept(index, sheet.get(index));
+            }
+            return sheet.size();
+        });
+    }
+
+    @Test
+    void testReplicaSurvivesARestartWithoutCallingTheApi() {
+        try (ReplicaStore store = new ReplicaStore(client, directory)) {
+            Assertions.assertEquals(4, store.replica(request).refresh());
+        }
+
+        GoogleSheetsClient unused = mock(GoogleSheetsClient.class);
+        try (ReplicaStore restarted = new ReplicaStore(unused, directory)) {
+            Replica replica = restarted.replica(request);
+            Assertions.assertEquals(sheet, replica.getValues());
+            Assertions.assertEquals(Arrays.asList("Bia", new BigDecimal("2"), false), replica.getRow(2));
+        }
+        verifyNoInteractions(unused);
+    }
+
+    @Test
+    void testRefreshAppendsOnlyChangedRows() throws IOException {
+        try (ReplicaStore store = new ReplicaStore(client, directory)) {
+            Replica replica = store.replica(request);
+            replica.refresh();
+            long before = replica.getSegmentUsage()[1];
+
+            sheet.set(2, Arrays.asList("Bia", new BigDecimal("3"), false));
+            sheet.remove(3);
+
+            Assertions.assertEquals(2, replica.refresh(), "One update and one deletion.");
+            Assertions.assertEquals(sheet, replica.getValues());
+            long appended = replica.getSegmentUsage()[1] - before;
+            Assertions.assertTrue(appended > 0 && appended < 40, "Only the updated row is appended: " + appended);
+            Assertions.assertEquals(0, replica.refresh());
+        }
+    }
+
+    @Test
+    void testUnchangedRevisionSkipsTheRead() throws IOException {
+        when(client.fetchRevision(anyString())).thenReturn("7");
+        try (ReplicaStore store = new ReplicaStore(client, directory)) {
+            Replica replica = store.replica(request);
+            replica.refresh();
+            replica.refresh();
+
+            Assertions.assertEquals("7", replica.getRevision());
+            verify(client, times(1)).streamValues(any(SheetRequest.class), any(RowConsumer.class));
+        }
+    }
+
+    @Test
+    void testSegmentIsCompactedAndReadersReload() throws IOException {
+        try (ReplicaStore writer = new ReplicaStore(client, directory);
+                ReplicaStore reader = new ReplicaStore(null, directory)) {
+            Replica replica = writer.replica(request);
+            replica.refresh();
+            Replica shared = reader.replica(request);
+            String text = "x".repeat(100_000);
+            for (int i = 0; i < 40; i++) {
+                sheet.set(1, Arrays.asList(text + i));
+                replica.refresh();
+            }
+
+            long[] usage = replica.getSegmentUsage();
+            Assertions.assertTrue(usage[1] < 2 * usage[0] + (2 << 20), "The segment should be compacted.");
+            try (Stream<Path> files = Files.list(directory)) {
+                Assertions.assertEquals(1, files.filter(path -> path.toString().endsWith(".seg")).count());
+            }
+            Assertions.assertTrue(shared.reload());
+            Assertions.assertEquals(sheet, shared.getValues());
+            Assertions.assertThrows(IllegalStateException.class, shared::refresh);
+        }
+    }
+
+    @Test
+    void testReplicatedClientServesReadsLocallyUntilAWrite() throws IOException {
+        try (ReplicaStore store = new ReplicaStore(client, directory)) {
+            store.replica(request).refresh();
+            ReplicatedSheetsClient replicated = new ReplicatedSheetsClient(client, store);
+
+            Assertions.assertEquals(sheet, replicated.fetchValues(request));
+            verify(client, never()).fetchValues(any(SheetRequest.class));
+
+            replicated.clearRange(new SheetRequest("test-id", "Sheet1!A2"));
+            replicated.fetchValues(request);
+            verify(client, times(1)).fetchValues(any(SheetRequest.class));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.codenilson.gsapi_core.stream;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+public class ValuesStreamDecoderTest {
+
+    private static final String JSON = "{\"range\":\"Sheet1!A1:C3\",\"majorDimension\":\"ROWS\","
+            + "\"extra\":{\"nested\":[1,2]},"
+            + "\"values\":[[\"name\",\"qty\"],[\"apple\",3,true],[],[\"pear\",1.5,false]]}";
+
+    private static JsonParser parser(String json) throws IOException {
+        return GsonFactory.getDefaultInstance().createJsonParser(json);
+    }
+
+    @Test
+    void testRowsAreDecodedLikeTheGenericParse() throws IOException {
+        List<List<Object>> rows = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+
+        int count = ValuesStreamDecoder.decode(parser(JSON), (index, row) -> {
+            indexes.add(index);
+            rows.add(row);
+        });
+
+        ValueRange expected = GsonFactory.getDefaultInstance().fromString(JSON, ValueRange.class);
+        Assertions.assertEquals(4, count);
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3), indexes);
+        Assertions.assertEquals(expected.getValues(), rows);
+        Assertions.assertEquals(new BigDecimal("3"), rows.get(1).get(1));
+        Assertions.assertEquals(Boolean.TRUE, rows.get(1).get(2));
+    }
+
+    @Test
+    void testResponseWithoutValuesHasNoRows() throws IOException {
+        Assertions.assertEquals(0, ValuesStreamDecoder.decode(parser("{\"range\":\"A1:B2\"}"), (index, row) -> {
+            Assertions.fail("No row expected.");
+        }));
+    }
+
+    @Test
+    void testMalformedValuesAreRejected() {
+        Assertions.assertThrows(IOException.class,
+                () -> ValuesStreamDecoder.decode(parser("{\"values\":[\"not a row\"]}"), (index, row) -> {
+                }));
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.codenilson.gsapi_core.stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.errors.GSAPIError;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+public class WindowedRowIteratorTest {
+
+    private static List<List<Object>> rows(int count, String prefix) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(Arrays.asList(prefix + i));
+        }
+        return rows;
+    }
+
+    private static SheetProperties sheet(String title, int rowCount) {
+        return new SheetProperties().setTitle(title)
+                .setGridProperties(new GridProperties().setRowCount(rowCount).setColumnCount(2));
+    }
+
+    @Test
+    void testShortWindowsDoNotEndTheIteration() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        List<String> requested = Collections.synchronizedList(new ArrayList<>());
+        when(client.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            String range = invocation.<SheetRequest>getArgument(0).getRange();
+            requested.add(range);
+            switch (range) {
+                case "Sheet1!A1:B3":
+                    return rows(3, "w1-");
+                case "Sheet1!A4:B6":
+                    // Rows 5 and 6 are blank and trimmed by the API.
+                    return rows(1, "w2-");
+                case "Sheet1!A10:B12":
+                    return rows(2, "w4-");
+                default:
+                    return null;
+            }
+        });
+        when(client.fetchSheets("test-id")).thenReturn(Arrays.asList(sheet("Other", 1000), sheet("Sheet1", 14)));
+
+        List<DataValue> result = new ArrayList<>();
+        try (WindowedRowIterator iterator = new WindowedRowIterator(client, new SheetRequest("test-id", "Sheet1!A1:B"),
+                3)) {
+            iterator.forEachRemaining(result::add);
+        }
+
+        Assertions.assertEquals(Arrays.asList("Sheet1!A1:B3", "Sheet1!A4:B6", "Sheet1!A7:B9", "Sheet1!A10:B12",
+                "Sheet1!A13:B15"), requested);
+        Assertions.assertEquals(10, result.size(), "The header row should be skipped.");
+        Assertions.assertEquals(new DataValue(Arrays.asList("w1-1"), 1), result.get(0));
+        Assertions.assertEquals(new DataValue(Arrays.asList("w2-0"), 3), result.get(2));
+        Assertions.assertEquals(new DataValue(new ArrayList<>(), 4), result.get(3), "Blank rows followed by data should be kept.");
+        Assertions.assertEquals(new DataValue(new ArrayList<>(), 8), result.get(7));
+        Assertions.assertEquals(new DataValue(Arrays.asList("w4-1"), 10), result.get(9));
+    }
+
+    @Test
+    void testIterationStopsAtAnEmptyWindowPastTheGrid() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        List<String> requested = Collections.synchronizedList(new ArrayList<>());
+        when(client.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            String range = invocation.<SheetRequest>getArgument(0).getRange();
+            requested.add(range);
+            return "Sheet1!A1:B3".equals(range) ? rows(2, "r") : null;
+        });
+        when(client.fetchSheets("test-id")).thenReturn(Arrays.asList(sheet("Sheet1", 5)));
+
+        List<DataValue> result = new ArrayList<>();
+        new WindowedRowIterator(client, new SheetRequest("test-id", "Sheet1!A1:B"), 3).forEachRemaining(result::add);
+
+        Assertions.assertEquals(Arrays.asList("Sheet1!A1:B3", "Sheet1!A4:B6"), requested);
+        Assertions.assertEquals(1, result.size(), "Trailing blank rows should not be returned.");
+    }
+
+    @Test
+    void testIterationStopsAtTheEndRow() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        when(client.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> rows(2, "r"));
+
+        List<DataValue> result = new ArrayList<>();
+        new WindowedRowIterator(client, new SheetRequest("test-id", "A1:A4"), 2).forEachRemaining(result::add);
+
+        Assertions.assertEquals(3, result.size());
+    }
+
+    @Test
+    void testFetchErrorsSurfaceAsGSAPIError() throws IOException {
+        GoogleSheetsClient client = mock(GoogleSheetsClient.class);
+        when(client.fetchValues(any(SheetRequest.class))).thenThrow(new IOException("Network error"));
+
+        WindowedRowIterator iterator = new WindowedRowIterator(client, new SheetRequest("test-id", "A1:A"), 10);
+        Assertions.assertThrows(GSAPIError.class, iterator::hasNext);
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.codenilson.gsapi_core.sync;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.models.SheetRange;
+
+public class RangeDiffTest {
+
+    private static final SheetRange TARGET = SheetRange.parse("Sheet1!B2:F");
+
+    @Test
+    void testIdenticalValuesProduceNoWrites() {
+        List<List<Object>> values = Arrays.asList(Arrays.asList("a", "1"), Arrays.asList("b", "2"));
+
+        Assertions.assertTrue(RangeDiff.diff(TARGET, values, Arrays.asList(
+                Arrays.asList("a", 1), Arrays.asList("b", 2, ""))).isEmpty());
+    }
+
+    @Test
+    void testChangedColumnsOfConsecutiveRowsBecomeOneRectangle() {
+        List<List<Object>> current = Arrays.asList(
+                Arrays.asList("a", "1", "x"),
+                Arrays.asList("b", "2", "y"),
+                Arrays.asList("c", "3", "z"));
+        List<List<Object>> desired = Arrays.asList(
+                Arrays.asList("a", "1", "x"),
+                Arrays.asList("b", "20", "y"),
+                Arrays.asList("c", "30", "z"));
+
+        List<ValueRange> writes = RangeDiff.diff(TARGET, current, desired);
+
+        Assertions.assertEquals(1, writes.size());
+        Assertions.assertEquals("Sheet1!C3:C4", writes.get(0).getRange());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("20"), Arrays.asList("30")), writes.get(0).getValues());
+    }
+
+    @Test
+    void testSmallGapsAreMergedAndTrailingRowsCleared() {
+        List<List<Object>> current = Arrays.asList(
+                Arrays.asList("a", "b", "c", "d", "e"),
+                Arrays.asList("f", "g"));
+        List<List<Object>> desired = Collections.singletonList(Arrays.asList("A", "b", "c", "D", "e"));
+
+        List<ValueRange> writes = RangeDiff.diff(TARGET, current, desired);
+
+        Assertions.assertEquals(2, writes.size());
+        Assertions.assertEquals("Sheet1!B2:E2", writes.get(0).getRange());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("A", "b", "c", "D")), writes.get(0).getValues());
+        Assertions.assertEquals("Sheet1!B3:C3", writes.get(1).getRange());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("", "")), writes.get(1).getValues());
+        Assertions.assertEquals(6, RangeDiff.cellCount(writes));
+    }
+
+    @Test
+    void testValuesLargerThanTheRangeAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RangeDiff.diff(SheetRange.parse("A1:B2"),
+                Collections.emptyList(), Arrays.asList(Arrays.asList("a", "b", "c"))));
+    }
+
+    @Test
+    void testFormulasAreReplacedAndNumbersAreComparedByValue() {
+        List<List<Object>> current = Arrays.asList(
+                Arrays.asList("=A1", new BigDecimal("1000"), new BigDecimal("2.50"), true));
+        List<List<Object>> desired = Arrays.asList(
+                Arrays.asList(5, 1000, "2.5", true));
+
+        List<ValueRange> writes = RangeDiff.diff(TARGET, current, desired);
+
+        Assertions.assertEquals(1, writes.size(), "A formula should be overwritten even if it displays the value.");
+        Assertions.assertEquals("Sheet1!B2", writes.get(0).getRange());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(5)), writes.get(0).getValues());
+    }
+
+    @Test
+    void testBooleansAreComparedIgnoringCase() {
+        List<List<Object>> current = Arrays.asList(Arrays.asList(true, false, "true"));
+        List<List<Object>> desired = Arrays.asList(Arrays.asList("TRUE", "false", "yes"));
+
+        List<ValueRange> writes = RangeDiff.diff(TARGET, current, desired);
+
+        Assertions.assertEquals(1, writes.size());
+        Assertions.assertEquals("Sheet1!D2", writes.get(0).getRange());
+    }
+
+    @Test
+    void testLocaleFormattedTextIsRewritten() {
+        // Documented limitation: "1,000" would need a locale-aware parse.
+        List<ValueRange> writes = RangeDiff.diff(TARGET, Arrays.asList(Arrays.asList(new BigDecimal("1000"))),
+                Arrays.asList(Arrays.asList("1,000")));
+
+        Assertions.assertEquals("Sheet1!B2", writes.get(0).getRange());
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.codenilson.gsapi_core.sync;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.DataValue;
+import io.github.codenilson.gsapi_core.stream.RowConsumer;
+
+public class SheetWatcherTest {
+
+    private final SheetRequest request = new SheetRequest("test-id", "Sheet1!A1:B");
+    private final AtomicReference<List<List<Object>>> sheet = new AtomicReference<>();
+    private final List<List<RowChange>> notified = new ArrayList<>();
+    private GoogleSheetsClient client;
+    private SheetWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        client = mock(GoogleSheetsClient.class);
+        when(client.streamValues(any(SheetRequest.class), any(RowConsumer.class))).thenAnswer(invocation -> {
+            RowConsumer consumer = invocation.getArgument(1);
+            List<List<Object>> values = sheet.get();
+            for (int index = 0; index < values.size(); index++) {
+                consumer.accept(index, values.get(index));
+            }
+            return values.size();
+        });
+        watcher = new SheetWatcher(client, request, (req, changes) -> notified.add(changes));
+    }
+
+    @Test
+    void testOnlyChangedRowsAreReported() throws IOException {
+        when(client.fetchRevision("test-id")).thenReturn("1", "2");
+        sheet.set(Arrays.asList(Arrays.asList("id", "name"), Arrays.asList("1", "a"), Arrays.asList("2", "b"),
+                Arrays.asList("3", "c")));
+        Assertions.assertEquals(3, watcher.poll().size(), "The first poll should report every row.");
+
+        sheet.set(Arrays.asList(Arrays.asList("id", "name"), Arrays.asList("1", "a"), Arrays.asList("2", "B")));
+        List<RowChange> changes = watcher.poll();
+
+        Assertions.assertEquals(Arrays.asList(
+                new RowChange(RowChange.Type.UPDATED, 2, new DataValue(Arrays.asList("2", "B"), 2)),
+                new RowChange(RowChange.Type.DELETED, 3, null)), changes);
+        Assertions.assertEquals(2, notified.size());
+        Assertions.assertEquals(2, watcher.getRowCount());
+    }
+
+    @Test
+    void testUnchangedRevisionSkipsTheRead() throws IOException {
+        when(client.fetchRevision("test-id")).thenReturn("7");
+        sheet.set(Arrays.asList(Arrays.asList("id"), Arrays.asList("1")));
+
+        watcher.poll();
+        Assertions.assertTrue(watcher.poll().isEmpty());
+
+        verify(client, times(1)).streamValues(any(SheetRequest.class), any(RowConsumer.class));
+        Assertions.assertEquals(1, notified.size());
+    }
+
+    @Test
+    void testMissingDriveScopeDisablesTheRevisionCheck() throws IOException {
+        when(client.fetchRevision(anyString()))
+                .thenThrow(new HttpResponseException.Builder(403, "Forbidden", new HttpHeaders()).build());
+        sheet.set(Arrays.asList(Arrays.asList("id"), Arrays.asList("1")));
+
+        watcher.poll();
+        Assertions.assertTrue(watcher.poll().isEmpty());
+
+        verify(client, times(1)).fetchRevision("test-id");
+        verify(client, times(2)).streamValues(any(SheetRequest.class), any(RowConsumer.class));
+        verify(client, never()).fetchValues(any(SheetRequest.class));
+    }
+
+    @Test
+    void testFingerprintIgnoresTrailingEmptyCells() {
+        Assertions.assertEquals(SheetWatcher.fingerprint(Arrays.asList("a", "b")),
+                SheetWatcher.fingerprint(Arrays.asList("a", "b", "")));
+        Assertions.assertNotEquals(SheetWatcher.fingerprint(Arrays.asList("ab", "c")),
+                SheetWatcher.fingerprint(Arrays.asList("a", "bc")));
+    }
+}
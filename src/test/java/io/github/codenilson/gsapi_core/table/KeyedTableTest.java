@@ -0,0 +1,146 @@
+package io.github.codenilson.gsapi_core.table;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+import io.github.codenilson.gsapi_core.models.DataValue;
+
+public class KeyedTableTest {
+
+    private final Map<String, List<List<Object>>> ranges = new HashMap<>();
+    private final List<String> fetched = new ArrayList<>();
+    private GoogleSheetsClient client;
+    private KeyedTable table;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        ranges.put("Customers!A1:C1", Arrays.asList(Arrays.asList("name", "id", "city")));
+        ranges.put("Customers!B2:B", Arrays.asList(Arrays.asList("c-1"), Arrays.asList(), Arrays.asList("c-3")));
+        ranges.put("Customers!A2:C2", Arrays.asList(Arrays.asList("Ana", "c-1", "Recife")));
+        ranges.put("Customers!A4:C4", Arrays.asList(Arrays.asList("Bia", "c-3", "Natal")));
+
+        client = mock(GoogleSheetsClient.class);
+        when(client.fetchRevision("test-id")).thenReturn("1");
+        when(client.fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+            String range = ((SheetRequest) invocation.getArgument(0)).getRange();
+            fetched.add(range);
+            return ranges.get(range);
+        });
+        when(client.fetchValuesBatch(eq("test-id"), anyList())).thenAnswer(invocation -> {
+            List<List<List<Object>>> result = new ArrayList<>();
+            for (String range : (List<String>) invocation.getArgument(1)) {
+                fetched.add(range);
+                result.add(ranges.get(range));
+            }
+            return result;
+        });
+        table = new KeyedTable(client, new SheetRequest("test-id", "Customers!A1:C"), "id");
+    }
+
+    @Test
+    void testIndexIsBuiltFromTheKeyColumnAndRowsAreReadExactly() {
+        Optional<DataValue> row = table.get("c-3");
+
+        Assertions.assertEquals(new DataValue(Arrays.asList("Bia", "c-3", "Natal"), 3), row.get());
+        Assertions.assertEquals(Arrays.asList("Customers!A1:C1", "Customers!B2:B", "Customers!A4:C4"), fetched);
+        Assertions.assertTrue(table.get("c-2").isEmpty());
+        Assertions.assertEquals(2, table.size());
+        Assertions.assertEquals("Customers!A2:C2", table.getRange("c-1").get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpsertsAreResolvedToRowsAndSentInOneBatch() throws IOException {
+        Map<String, List<Object>> values = new LinkedHashMap<>();
+        values.put("c-3", Arrays.asList("Bia", "", "Olinda"));
+        values.put("c-9", Arrays.asList("Caio"));
+
+        Assertions.assertEquals(1, table.upsertAll(values));
+
+        ArgumentCaptor<List<ValueRange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client, times(1)).batchOverwriteValues(eq("test-id"), captor.capture());
+        List<ValueRange> data = captor.getValue();
+        Assertions.assertEquals("Customers!A4:C4", data.get(0).getRange());
+        Assertions.assertEquals(Arrays.asList("Bia", "'c-3", "Olinda"), data.get(0).getValues().get(0));
+        Assertions.assertEquals("Customers!A5:C5", data.get(1).getRange());
+        Assertions.assertEquals(Arrays.asList("Caio", "'c-9", ""), data.get(1).getValues().get(0));
+        verify(client).ensureGridSize(eq("test-id"), eq("Customers"), eq(105), eq(3));
+        Assertions.assertEquals("Customers!A5:C5", table.getRange("c-9").get());
+
+        Assertions.assertTrue(table.upsert("c-10", Arrays.asList("Duda")));
+        verify(client, times(1)).ensureGridSize(anyString(), anyString(), any(Integer.class), any(Integer.class));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> table.upsert("c-1", Arrays.asList("Ana", "c-2")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testKeysAreWrittenAsLiteralText() throws IOException {
+        Assertions.assertTrue(table.upsert("00123", Arrays.asList("Duda", "00123", "Natal")));
+
+        ArgumentCaptor<List<ValueRange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client).batchOverwriteValues(eq("test-id"), captor.capture());
+        ValueRange data = captor.getValue().get(0);
+        Assertions.assertEquals("Customers!A5:C5", data.getRange());
+        Assertions.assertEquals(Arrays.asList("Duda", "'00123", "Natal"), data.getValues().get(0),
+                "The key should not be parsed as a number");
+
+        // The sheet shows the key without the apostrophe.
+        ranges.put("Customers!A5:C5", Arrays.asList(Arrays.asList("Duda", "00123", "Natal")));
+        Assertions.assertEquals(new DataValue(Arrays.asList("Duda", "00123", "Natal"), 4), table.get("00123").get());
+        Assertions.assertFalse(table.contains("123"));
+    }
+
+    @Test
+    void testDeleteClearsTheRowAndRefreshSkipsUnchangedSpreadsheets() throws IOException {
+        Assertions.assertTrue(table.delete("c-1"));
+        Assertions.assertFalse(table.delete("c-1"));
+
+        verify(client).clearRange(argThat(request -> request.getRange().equals("Customers!A2:C2")));
+        Assertions.assertFalse(table.contains("c-1"));
+
+        fetched.clear();
+        table.refresh();
+        Assertions.assertTrue(fetched.isEmpty(), "An unchanged spreadsheet should not be read again");
+        verify(client, never()).fetchValuesBatch(anyString(), anyList());
+    }
+
+    @Test
+    void testStaleIndexIsRefreshedWhenARowMoved() {
+        table.size();
+        ranges.put("Customers!A4:C4", Arrays.asList(Arrays.asList("Caio", "c-4", "Natal")));
+        ranges.put("Customers!B2:B", Arrays.asList(Arrays.asList("c-1"), Arrays.asList("c-3"),
+                Arrays.asList("c-4")));
+        ranges.put("Customers!A3:C3", Arrays.asList(Arrays.asList("Bia", "c-3", "Natal")));
+
+        Assertions.assertEquals(new DataValue(Arrays.asList("Bia", "c-3", "Natal"), 2), table.get("c-3").get());
+        Assertions.assertEquals(3, table.size());
+    }
+}
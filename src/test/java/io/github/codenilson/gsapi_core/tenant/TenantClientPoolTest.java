@@ -0,0 +1,135 @@
+package io.github.codenilson.gsapi_core.tenant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+import io.github.codenilson.gsapi_core.SheetRequest;
+import io.github.codenilson.gsapi_core.client.GoogleSheetsClient;
+
+public class TenantClientPoolTest {
+
+    private static final List<List<Object>> VALUES = Arrays.asList(Arrays.asList("header"), Arrays.asList("Test"));
+
+    private final Map<String, GoogleSheetsClient> created = new ConcurrentHashMap<>();
+    private final List<String> loads = new ArrayList<>();
+
+    private GoogleSheetsClient create(String tenantId) {
+        synchronized (loads) {
+            loads.add(tenantId);
+        }
+        return created.computeIfAbsent(tenantId, id -> mock(GoogleSheetsClient.class));
+    }
+
+    private static TenantLimits limits(int maxConcurrentCalls, Duration idleTimeout) {
+        TenantLimits limits = new TenantLimits();
+        limits.setMaxConcurrentCalls(maxConcurrentCalls);
+        limits.setRequestsPerMinute(60_000);
+        limits.setIdleTimeout(idleTimeout);
+        return limits;
+    }
+
+    @Test
+    void testTenantsAreLoadedOnceAndTheirUsageIsCounted() throws IOException {
+        try (TenantClientPool pool = new TenantClientPool(this::create, limits(4, null))) {
+            GoogleSheetsClient first = pool.getClient("tenant-a");
+            when(created.get("tenant-a").fetchValues(any(SheetRequest.class))).thenReturn(VALUES)
+                    .thenThrow(new HttpResponseException.Builder(404, "Not Found", new HttpHeaders()).build());
+
+            Assertions.assertEquals(VALUES, first.fetchValues(new SheetRequest("test-id", "A1:A2")));
+            Assertions.assertThrows(HttpResponseException.class,
+                    () -> pool.getClient("tenant-a").fetchValues(new SheetRequest("test-id", "A1:A2")));
+            Assertions.assertTrue(pool.getApi("tenant-b").retrieveData(new SheetRequest("test-id", "A1")).isEmpty());
+
+            Assertions.assertEquals(Arrays.asList("tenant-a", "tenant-b"), loads);
+            TenantUsage usage = pool.getUsage("tenant-a").get();
+            Assertions.assertEquals(2, usage.getRequests());
+            Assertions.assertEquals(1, usage.getFailures());
+            Assertions.assertEquals(0, usage.getActiveCalls());
+            Assertions.assertEquals(2, pool.getUsage().size());
+            Assertions.assertTrue(pool.getUsage("tenant-c").isEmpty());
+        }
+    }
+
+    @Test
+    void testBusyTenantDoesNotBlockTheOthers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (TenantClientPool pool = new TenantClientPool(this::create, limits(1, null))) {
+            pool.getClient("noisy");
+            pool.getClient("quiet");
+            when(created.get("noisy").fetchValues(any(SheetRequest.class))).thenAnswer(invocation -> {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return VALUES;
+            });
+            when(created.get("quiet").fetchValues(any(SheetRequest.class))).thenReturn(VALUES);
+
+            List<CompletableFuture<List<List<Object>>>> noisy = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                noisy.add(CompletableFuture.supplyAsync(() -> fetch(pool, "noisy"), executor));
+            }
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Assertions.assertEquals(VALUES, fetch(pool, "quiet"));
+            Assertions.assertEquals(1, pool.getUsage("noisy").get().getActiveCalls(),
+                    "The noisy tenant should be capped at one call in flight");
+
+            release.countDown();
+            for (CompletableFuture<List<List<Object>>> future : noisy) {
+                Assertions.assertEquals(VALUES, future.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(3, pool.getUsage("noisy").get().getRequests());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testIdleTenantsAreEvictedAndLoadedAgain() throws Exception {
+        try (TenantClientPool pool = new TenantClientPool(this::create, limits(4, Duration.ofMillis(1)))) {
+            pool.getClient("tenant-a");
+            Thread.sleep(20);
+
+            Assertions.assertEquals(1, pool.evictIdle());
+            Assertions.assertEquals(0, pool.size());
+
+            pool.getClient("tenant-a");
+            Assertions.assertEquals(Arrays.asList("tenant-a", "tenant-a"), loads);
+        }
+    }
+
+    @Test
+    void testRejectsNonPositiveLimits() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new TenantClientPool(this::create, limits(0, null)));
+    }
+
+    private static List<List<Object>> fetch(TenantClientPool pool, String tenantId) {
+        try {
+            return pool.getClient(tenantId).fetchValues(new SheetRequest("test-id", "A1:A2"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.codenilson.gsapi_core.utils;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import com.google.api.services.sheets.v4.SheetsScopes;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+
+class CredentialRegistryTest {
+
+    private static InputStream json() {
+        return new ByteArrayInputStream("{}".getBytes());
+    }
+
+    @Test
+    void testCredentialsAreParsedOncePerKey() throws Exception {
+        try (MockedStatic<GoogleCredentials> mocked = mockStatic(GoogleCredentials.class);
+                CredentialRegistry registry = new CredentialRegistry()) {
+            GoogleCredentials credentialsMock = mock(GoogleCredentials.class);
+            when(credentialsMock.createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS)))
+                    .thenReturn(credentialsMock);
+            mocked.when(() -> GoogleCredentials.fromStream(any(InputStream.class))).thenReturn(credentialsMock);
+
+            registry.getInitializer("tenant", CredentialRegistryTest::json);
+            registry.getInitializer("tenant", CredentialRegistryTest::json);
+
+            mocked.verify(() -> GoogleCredentials.fromStream(any(InputStream.class)), times(1));
+            Assertions.assertEquals(1, registry.size());
+        }
+    }
+
+    @Test
+    void testTokenIsRefreshedInTheBackgroundAndConcurrentRefreshesAreCollapsed() throws Exception {
+        try (MockedStatic<GoogleCredentials> mocked = mockStatic(GoogleCredentials.class);
+                CredentialRegistry registry = new CredentialRegistry()) {
+            GoogleCredentials credentialsMock = mock(GoogleCredentials.class);
+            when(credentialsMock.createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS)))
+                    .thenReturn(credentialsMock);
+            mocked.when(() -> GoogleCredentials.fromStream(any(InputStream.class))).thenReturn(credentialsMock);
+
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(credentialsMock).refresh();
+            AccessToken token = new AccessToken("token", new Date(System.currentTimeMillis() + 3_600_000));
+            when(credentialsMock.getAccessToken()).thenReturn(token);
+
+            registry.getCredentials("tenant", CredentialRegistryTest::json);
+            CompletableFuture<AccessToken> first = registry.refresh("tenant");
+            CompletableFuture<AccessToken> second = registry.refresh("tenant");
+            release.countDown();
+
+            Assertions.assertSame(first, second, "A running refresh should be shared.");
+            Assertions.assertEquals(token, first.get(5, TimeUnit.SECONDS));
+            verify(credentialsMock, atLeastOnce()).refresh();
+        }
+    }
+
+    @Test
+    void testRefreshOfUnknownKeyFails() {
+        try (CredentialRegistry registry = new CredentialRegistry()) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> registry.refresh("missing"));
+        }
+    }
+}